@@ -20,18 +20,30 @@ package com.picimako.org.apache.lucene.luke.app;
 import com.intellij.openapi.application.ApplicationManager;
 import com.intellij.openapi.components.Service;
 import com.picimako.org.apache.lucene.luke.app.desktop.PreferencesImpl;
+import org.apache.lucene.index.DirectoryReader;
 import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.index.SegmentCommitInfo;
 import org.apache.lucene.luke.app.IndexObserver;
 import org.apache.lucene.luke.app.LukeState;
 import org.apache.lucene.luke.app.desktop.util.MessageUtils;
 import org.apache.lucene.luke.models.LukeException;
 import org.apache.lucene.luke.models.util.IndexUtils;
 import org.apache.lucene.luke.util.LoggerFactory;
+import org.apache.lucene.util.NamedThreadFactory;
 
+import javax.swing.*;
 import java.io.IOException;
 import java.lang.invoke.MethodHandles;
 import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -47,6 +59,14 @@ public final class IndexHandler extends AbstractHandler<IndexObserver> {
 
   private LukeStateImpl state;
 
+  private SwingWorker<IndexReader, Void> openTask;
+
+  private IndexWatcher watcher;
+
+  private SwingWorker<DirectoryReader, Void> refreshTask;
+
+  private boolean refreshPending;
+
   public static IndexHandler getInstance() {
     return ApplicationManager.getApplication().getService(IndexHandler.class);
   }
@@ -80,9 +100,118 @@ public final class IndexHandler extends AbstractHandler<IndexObserver> {
       close();
     }
 
-    IndexReader reader;
+    IndexReader reader = openReader(indexPath, dirImpl);
+    setState(indexPath, reader, dirImpl, readOnly, useCompound, keepAllCommits);
+
+    notifyObservers();
+  }
+
+  /**
+   * Opens the index in a background thread, so that opening large indexes with many segments
+   * doesn't block the EDT.
+   * <p>
+   * Observers are notified on the EDT, and only after the reader has been opened. If the returned task is cancelled
+   * before that, the reader is closed as soon as it becomes available, and the observers are not notified at all.
+   * Starting a new open cancels the one in progress.
+   *
+   * @param onSuccess called on the EDT after the observers have been notified
+   * @param onFailure called on the EDT with the cause of the failure
+   * @return the task opening the index
+   */
+  public SwingWorker<IndexReader, Void> openInBackground(
+      String indexPath,
+      String dirImpl,
+      boolean readOnly,
+      boolean useCompound,
+      boolean keepAllCommits,
+      Runnable onSuccess,
+      Consumer<Throwable> onFailure) {
+    Objects.requireNonNull(indexPath);
+
+    cancelOpening();
+    if (indexOpened()) {
+      close();
+    }
+
+    ExecutorService executor =
+        Executors.newSingleThreadExecutor(new NamedThreadFactory("index-handler-open"));
+
+    SwingWorker<IndexReader, Void> task =
+        new SwingWorker<>() {
+
+          // Holds the reader until it is either published or discarded, so that a cancellation racing
+          // with the end of the opening cannot leak it.
+          private final AtomicReference<IndexReader> opened = new AtomicReference<>();
+
+          @Override
+          protected IndexReader doInBackground() {
+            opened.set(openReader(indexPath, dirImpl));
+            if (isCancelled()) {
+              discardReader();
+            }
+            return opened.get();
+          }
+
+          @Override
+          protected void done() {
+            if (openTask == this) {
+              openTask = null;
+            }
+            if (isCancelled()) {
+              discardReader();
+              return;
+            }
+
+            IndexReader reader;
+            try {
+              reader = get();
+            } catch (CancellationException | InterruptedException e) {
+              return;
+            } catch (ExecutionException e) {
+              onFailure.accept(e.getCause());
+              return;
+            }
+
+            opened.set(null);
+            setState(indexPath, reader, dirImpl, readOnly, useCompound, keepAllCommits);
+            notifyObservers();
+            onSuccess.run();
+          }
+
+          private void discardReader() {
+            IndexReader reader = opened.getAndSet(null);
+            if (reader != null) {
+              IndexUtils.close(reader);
+            }
+          }
+        };
+
+    openTask = task;
+    executor.submit(task);
+    executor.shutdown();
+    return task;
+  }
+
+  /**
+   * Cancels the index opening started via {@link #openInBackground}, if there is one in progress.
+   * <p>
+   * The opening thread is not interrupted, because that would close the file channels of the directory being opened.
+   * The reader is discarded instead once the opening finishes.
+   */
+  public void cancelOpening() {
+    if (openTask != null) {
+      openTask.cancel(false);
+      openTask = null;
+    }
+  }
+
+  public boolean isOpening() {
+    return openTask != null;
+  }
+
+  private IndexReader openReader(String indexPath, String dirImpl) {
     try {
-      reader = IndexUtils.openIndex(indexPath, dirImpl);
+      return IndexUtils.openIndex(indexPath, dirImpl);
     } catch (NoSuchFileException e) {
       log.log(Level.SEVERE, "Error opening index", e);
       try {
@@ -100,7 +229,15 @@ public final class IndexHandler extends AbstractHandler<IndexObserver> {
       throw new LukeException(
           MessageUtils.getLocalizedMessage("openindex.message.index_path_invalid", indexPath), e);
     }
+  }
 
+  private void setState(
+      String indexPath,
+      IndexReader reader,
+      String dirImpl,
+      boolean readOnly,
+      boolean useCompound,
+      boolean keepAllCommits) {
     state = new LukeStateImpl();
     state.indexPath = indexPath;
     state.reader = reader;
@@ -108,11 +245,10 @@ public final class IndexHandler extends AbstractHandler<IndexObserver> {
     state.readOnly = readOnly;
     state.useCompound = useCompound;
     state.keepAllCommits = keepAllCommits;
-
-    notifyObservers();
   }
 
   public void close() {
+    stopWatching();
     if (state == null) {
       return;
     }
@@ -123,14 +259,178 @@ public final class IndexHandler extends AbstractHandler<IndexObserver> {
     notifyObservers();
   }
 
-  public void reOpen() {
-    close();
-    open(
+  /**
+   * Reopens the current index.
+   * <p>
+   * When the index was opened via a {@link DirectoryReader}, it is reopened incrementally via
+   * {@link DirectoryReader#openIfChanged(DirectoryReader)}, so that the readers of unchanged segments are shared
+   * between the old and the new reader. If nothing changed since the last (re)open, the current reader is kept,
+   * and the observers are not notified.
+   * <p>
+   * Multi-readers, opened for directories containing multiple indexes, are closed and opened from scratch.
+   *
+   * @return the segments added, dropped and updated since the last (re)open
+   */
+  public SegmentChanges reOpen() {
+    if (!(state.reader instanceof DirectoryReader oldReader)) {
+      Map<String, SegmentCommitInfo> oldSegments = SegmentChanges.segments(state.reader);
+      close();
+      open(
+          state.getIndexPath(),
+          state.getDirImpl(),
+          state.readOnly(),
+          state.useCompound(),
+          state.keepAllCommits());
+      return SegmentChanges.between(oldSegments, SegmentChanges.segments(state.reader));
+    }
+
+    DirectoryReader newReader;
+    try {
+      newReader = DirectoryReader.openIfChanged(oldReader);
+    } catch (IOException e) {
+      log.log(Level.SEVERE, "Error reopening index", e);
+      throw new LukeException(
+          MessageUtils.getLocalizedMessage("openindex.message.index_path_invalid", state.getIndexPath()), e);
+    }
+    if (newReader == null) {
+      return SegmentChanges.between(oldReader, oldReader);
+    }
+
+    return swapReader(oldReader, newReader);
+  }
+
+  private SegmentChanges swapReader(DirectoryReader oldReader, DirectoryReader newReader) {
+    SegmentChanges changes = SegmentChanges.between(oldReader, newReader);
+    log.info("Index reopened: " + changes);
+
+    setState(
         state.getIndexPath(),
+        newReader,
         state.getDirImpl(),
         state.readOnly(),
         state.useCompound(),
         state.keepAllCommits());
+    notifyObservers();
+
+    closeReaderOnly(oldReader);
+    return changes;
+  }
+
+  /**
+   * Closes only the reader, not its Directory, since that is shared between the readers of an incremental reopen.
+   */
+  private static void closeReaderOnly(IndexReader reader) {
+    try {
+      reader.close();
+    } catch (IOException e) {
+      log.log(Level.WARNING, "Error closing the previous reader", e);
+    }
+  }
+
+  /**
+   * Starts watching the directory of the current index for new commits, and refreshes the reader incrementally
+   * in the background when there is one. Observers are notified only when the commit generation has actually changed.
+   * <p>
+   * Watching is supported only for single indexes opened via a {@link DirectoryReader}, and it stops when
+   * the index is closed.
+   *
+   * @param onRefreshed called on the EDT after the observers have been notified about a refresh
+   */
+  public void startWatching(Consumer<SegmentChanges> onRefreshed) {
+    if (!indexOpened() || !state.hasDirectoryReader()) {
+      return;
+    }
+    Path indexPath = Path.of(state.getIndexPath());
+    if (watcher != null) {
+      if (watcher.getIndexPath().equals(indexPath)) {
+        return;
+      }
+      stopWatching();
+    }
+
+    try {
+      watcher = IndexWatcher.start(indexPath, () -> SwingUtilities.invokeLater(() -> refreshInBackground(onRefreshed)));
+    } catch (IOException e) {
+      log.log(Level.SEVERE, "Error watching index directory", e);
+      throw new LukeException(MessageUtils.getLocalizedMessage("message.index_watch_failed", state.getIndexPath()), e);
+    }
+  }
+
+  public void stopWatching() {
+    if (watcher != null) {
+      watcher.close();
+      watcher = null;
+    }
+    refreshPending = false;
+  }
+
+  public boolean isWatching() {
+    return watcher != null;
+  }
+
+  /**
+   * Reopens the current reader via {@link DirectoryReader#openIfChanged(DirectoryReader)} in the background,
+   * and publishes the new reader on the EDT if the commit generation changed in the meantime.
+   * <p>
+   * If a refresh is already in progress, another one is started after it finishes.
+   */
+  private void refreshInBackground(Consumer<SegmentChanges> onRefreshed) {
+    if (!isWatching() || !indexOpened() || !(state.reader instanceof DirectoryReader oldReader)) {
+      return;
+    }
+    if (refreshTask != null) {
+      refreshPending = true;
+      return;
+    }
+
+    ExecutorService executor =
+        Executors.newSingleThreadExecutor(new NamedThreadFactory("index-handler-refresh"));
+
+    SwingWorker<DirectoryReader, Void> task =
+        new SwingWorker<>() {
+
+          @Override
+          protected DirectoryReader doInBackground() throws IOException {
+            DirectoryReader newReader = DirectoryReader.openIfChanged(oldReader);
+            if (newReader != null
+                && newReader.getIndexCommit().getGeneration() == oldReader.getIndexCommit().getGeneration()) {
+              closeReaderOnly(newReader);
+              return null;
+            }
+            return newReader;
+          }
+
+          @Override
+          protected void done() {
+            refreshTask = null;
+            DirectoryReader newReader = null;
+            try {
+              newReader = get();
+            } catch (InterruptedException e) {
+              Thread.currentThread().interrupt();
+            } catch (ExecutionException e) {
+              log.log(Level.WARNING, "Error refreshing index", e.getCause());
+            }
+
+            if (newReader != null) {
+              // The index may have been closed, reopened or replaced while refreshing.
+              if (indexOpened() && state.reader == oldReader) {
+                onRefreshed.accept(swapReader(oldReader, newReader));
+              } else {
+                closeReaderOnly(newReader);
+              }
+            }
+
+            if (refreshPending) {
+              refreshPending = false;
+              refreshInBackground(onRefreshed);
+            }
+          }
+        };
+
+    refreshTask = task;
+    executor.submit(task);
+    executor.shutdown();
   }
 
   public LukeState getState() {
@@ -0,0 +1,126 @@
+//Copyright 2026 Tamás Balog. Use of this source code is governed by the Apache 2.0 license that can be found in the LICENSE file.
+package com.picimako.org.apache.lucene.luke.app;
+
+import org.apache.lucene.index.IndexFileNames;
+import org.apache.lucene.luke.util.LoggerFactory;
+import org.apache.lucene.util.NamedThreadFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Watches an index directory for new commits, i.e. for new {@code segments_N} files.
+ * <p>
+ * Writers usually create a few files in quick succession for a single commit, and frequent commits would
+ * trigger just as many refreshes, so the callback is debounced: it is called only after no new commit
+ * was detected for {@link #DEBOUNCE_MILLIS} milliseconds.
+ * <p>
+ * The callback is called on a background thread.
+ */
+final class IndexWatcher implements Closeable {
+
+  private static final Logger log = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+
+  static final long DEBOUNCE_MILLIS = 1000;
+
+  private static final String COMMIT_FILE_PREFIX = IndexFileNames.SEGMENTS + "_";
+
+  private final Path indexPath;
+  private final Runnable onCommit;
+  private final WatchService watchService;
+  private final ExecutorService watchExecutor;
+  private final ScheduledExecutorService debounceExecutor;
+  private ScheduledFuture<?> pendingCommit;
+
+  private IndexWatcher(Path indexPath, Runnable onCommit) throws IOException {
+    this.indexPath = indexPath;
+    this.onCommit = onCommit;
+    this.watchService = FileSystems.getDefault().newWatchService();
+    this.watchExecutor = Executors.newSingleThreadExecutor(new NamedThreadFactory("index-watcher"));
+    this.debounceExecutor = Executors.newSingleThreadScheduledExecutor(new NamedThreadFactory("index-watcher-debounce"));
+  }
+
+  /**
+   * Starts watching the given index directory.
+   *
+   * @param onCommit called on a background thread when new commits have been detected
+   */
+  static IndexWatcher start(Path indexPath, Runnable onCommit) throws IOException {
+    IndexWatcher watcher = new IndexWatcher(indexPath, onCommit);
+    indexPath.register(watcher.watchService, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+    watcher.watchExecutor.submit(watcher::watch);
+    return watcher;
+  }
+
+  Path getIndexPath() {
+    return indexPath;
+  }
+
+  private void watch() {
+    try {
+      while (true) {
+        WatchKey key = watchService.take();
+        boolean committed = false;
+        for (WatchEvent<?> event : key.pollEvents()) {
+          if (event.kind() == StandardWatchEventKinds.OVERFLOW || isCommitFile(event.context())) {
+            committed = true;
+          }
+        }
+        if (committed) {
+          scheduleCallback();
+        }
+        if (!key.reset()) {
+          log.info("Index directory is no longer accessible, stopped watching it: " + indexPath);
+          return;
+        }
+      }
+    } catch (InterruptedException | ClosedWatchServiceException e) {
+      // the watcher has been closed
+    }
+  }
+
+  private static boolean isCommitFile(Object context) {
+    return context instanceof Path path && path.getFileName().toString().startsWith(COMMIT_FILE_PREFIX);
+  }
+
+  private synchronized void scheduleCallback() {
+    if (pendingCommit != null) {
+      pendingCommit.cancel(false);
+    }
+    pendingCommit = debounceExecutor.schedule(this::runCallback, DEBOUNCE_MILLIS, TimeUnit.MILLISECONDS);
+  }
+
+  private void runCallback() {
+    try {
+      onCommit.run();
+    } catch (Exception e) {
+      log.log(Level.WARNING, "Error while handling new commit in " + indexPath, e);
+    }
+  }
+
+  @Override
+  public void close() {
+    try {
+      watchService.close();
+    } catch (IOException e) {
+      log.log(Level.WARNING, "Error closing index watcher", e);
+    }
+    watchExecutor.shutdownNow();
+    debounceExecutor.shutdownNow();
+  }
+}
@@ -0,0 +1,102 @@
+//Copyright 2026 Tamás Balog. Use of this source code is governed by the Apache 2.0 license that can be found in the LICENSE file.
+package com.picimako.org.apache.lucene.luke.app;
+
+import org.apache.lucene.index.FilterLeafReader;
+import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.index.LeafReaderContext;
+import org.apache.lucene.index.SegmentCommitInfo;
+import org.apache.lucene.index.SegmentReader;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The difference between the segments of two readers of the same index, e.g. before and after an incremental reopen.
+ * <p>
+ * A segment is considered updated when it is present in both readers, but its deletions or doc values
+ * have changed in between.
+ */
+public final class SegmentChanges {
+
+  private final List<String> added;
+  private final List<String> dropped;
+  private final List<String> updated;
+
+  private SegmentChanges(List<String> added, List<String> dropped, List<String> updated) {
+    this.added = Collections.unmodifiableList(added);
+    this.dropped = Collections.unmodifiableList(dropped);
+    this.updated = Collections.unmodifiableList(updated);
+  }
+
+  public static SegmentChanges between(IndexReader oldReader, IndexReader newReader) {
+    return between(segments(oldReader), segments(newReader));
+  }
+
+  static SegmentChanges between(Map<String, SegmentCommitInfo> oldSegments, Map<String, SegmentCommitInfo> newSegments) {
+    List<String> added = new ArrayList<>();
+    List<String> updated = new ArrayList<>();
+    for (var segment : newSegments.entrySet()) {
+      SegmentCommitInfo oldInfo = oldSegments.get(segment.getKey());
+      if (oldInfo == null) {
+        added.add(segment.getKey());
+      } else if (isUpdated(oldInfo, segment.getValue())) {
+        updated.add(segment.getKey());
+      }
+    }
+
+    List<String> dropped = new ArrayList<>();
+    for (String name : oldSegments.keySet()) {
+      if (!newSegments.containsKey(name)) {
+        dropped.add(name);
+      }
+    }
+
+    return new SegmentChanges(added, dropped, updated);
+  }
+
+  /**
+   * Returns the segments of the reader by segment name.
+   */
+  static Map<String, SegmentCommitInfo> segments(IndexReader reader) {
+    Map<String, SegmentCommitInfo> segments = new LinkedHashMap<>();
+    for (LeafReaderContext context : reader.leaves()) {
+      if (FilterLeafReader.unwrap(context.reader()) instanceof SegmentReader segmentReader) {
+        segments.put(segmentReader.getSegmentName(), segmentReader.getSegmentInfo());
+      }
+    }
+    return segments;
+  }
+
+  private static boolean isUpdated(SegmentCommitInfo oldInfo, SegmentCommitInfo newInfo) {
+    return oldInfo.getDelGen() != newInfo.getDelGen()
+        || oldInfo.getDocValuesGen() != newInfo.getDocValuesGen()
+        || oldInfo.getFieldInfosGen() != newInfo.getFieldInfosGen();
+  }
+
+  /** Names of the segments that are present only in the new reader. */
+  public List<String> getAdded() {
+    return added;
+  }
+
+  /** Names of the segments that are present only in the old reader, e.g. because they were merged away. */
+  public List<String> getDropped() {
+    return dropped;
+  }
+
+  /** Names of the segments that are present in both readers, but with new deletions or doc values updates. */
+  public List<String> getUpdated() {
+    return updated;
+  }
+
+  public boolean isEmpty() {
+    return added.isEmpty() && dropped.isEmpty() && updated.isEmpty();
+  }
+
+  @Override
+  public String toString() {
+    return "added=" + added + ", dropped=" + dropped + ", updated=" + updated;
+  }
+}
@@ -42,6 +42,7 @@ public final class PreferencesImpl implements Preferences {
       System.getProperty("user.home") + FileSystems.getDefault().getSeparator() + ".luke.d";
   private static final String INIT_FILE = "luke.ini";
   private static final String HISTORY_FILE = "history";
+  private static final String STATS_CACHE_DIR = "stats-cache";
   private static final int MAX_HISTORY = 10;
 
   private final IniFile ini = new SimpleIniFile();
@@ -150,6 +151,13 @@ public final class PreferencesImpl implements Preferences {
     ini.store(iniFile());
   }
 
+  /**
+   * Returns the directory where computed index statistics are cached.
+   */
+  public Path getStatsCacheDir() {
+    return FileSystems.getDefault().getPath(CONFIG_DIR, STATS_CACHE_DIR);
+  }
+
   private Path iniFile() {
     return FileSystems.getDefault().getPath(CONFIG_DIR, INIT_FILE);
   }
@@ -0,0 +1,226 @@
+//Copyright 2026 Tamás Balog. Use of this source code is governed by the Apache 2.0 license that can be found in the LICENSE file.
+package com.picimako.org.apache.lucene.luke.app.desktop.components;
+
+import com.picimako.org.apache.lucene.luke.models.util.CancellationToken;
+import org.apache.lucene.util.NamedThreadFactory;
+
+import javax.swing.SwingWorker;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+
+/**
+ * A cancellable piece of work run on a dedicated background thread, whose callbacks are called on the EDT.
+ * <p>
+ * Cancelling the task cancels the {@link CancellationToken} passed to the work, but doesn't interrupt the thread,
+ * since interrupting a read from an NIOFSDirectory would close the index files. Once cancelled, none of the callbacks
+ * but {@link Builder#onFinish(Runnable)} are called anymore, so a newer task can take over the components the
+ * cancelled one was updating.
+ *
+ * @param <T> the type of the result of the work
+ * @param <V> the type of the intermediate results published by the work
+ */
+public final class BackgroundTask<T, V> {
+
+  private final Work<T, V> work;
+
+  private final IntConsumer onProgress;
+
+  private final Consumer<List<V>> onChunks;
+
+  private final Runnable onFinish;
+
+  private final Consumer<T> onSuccess;
+
+  private final Consumer<Throwable> onFailure;
+
+  private final CancellationToken cancellation = new CancellationToken();
+
+  private final Worker worker = new Worker();
+
+  /** Accessed on the EDT only. */
+  private boolean finished;
+
+  /**
+   * @param threadName - the name of the thread the work is run on
+   * @param work - the work to run
+   */
+  public static <T, V> Builder<T, V> builder(String threadName, Work<T, V> work) {
+    return new Builder<>(threadName, work);
+  }
+
+  private BackgroundTask(Builder<T, V> builder) {
+    this.work = builder.work;
+    this.onProgress = builder.onProgress;
+    this.onChunks = builder.onChunks;
+    this.onFinish = builder.onFinish;
+    this.onSuccess = builder.onSuccess;
+    this.onFailure = builder.onFailure;
+  }
+
+  private void run(String threadName) {
+    worker.addPropertyChangeListener(
+        e -> {
+          if ("progress".equals(e.getPropertyName()) && !finished) {
+            onProgress.accept((Integer) e.getNewValue());
+          }
+        });
+    ExecutorService executor = Executors.newSingleThreadExecutor(new NamedThreadFactory(threadName));
+    executor.submit(worker);
+    executor.shutdown();
+  }
+
+  /**
+   * Cancels the task, unless it has already finished. Must be called on the EDT.
+   */
+  public void cancel() {
+    if (!finished) {
+      cancellation.cancel();
+      worker.cancel(false);
+      finish();
+    }
+  }
+
+  private void finish() {
+    finished = true;
+    onFinish.run();
+  }
+
+  private final class Worker extends SwingWorker<T, V> implements Progress<V> {
+
+    @Override
+    protected T doInBackground() throws Exception {
+      return work.run(cancellation, this);
+    }
+
+    @Override
+    public void setPercent(int percent) {
+      setProgress(percent);
+    }
+
+    @Override
+    public void publishChunk(V chunk) {
+      publish(chunk);
+    }
+
+    @Override
+    protected void process(List<V> chunks) {
+      if (!finished) {
+        onChunks.accept(chunks);
+      }
+    }
+
+    @Override
+    protected void done() {
+      if (finished) {
+        return;
+      }
+      finish();
+
+      T result;
+      try {
+        result = get();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return;
+      } catch (ExecutionException e) {
+        onFailure.accept(e.getCause());
+        return;
+      }
+      onSuccess.accept(result);
+    }
+  }
+
+  /** Builder for {@link BackgroundTask} */
+  public static final class Builder<T, V> {
+
+    private final String threadName;
+
+    private final Work<T, V> work;
+
+    private IntConsumer onProgress = percent -> {};
+
+    private Consumer<List<V>> onChunks = chunks -> {};
+
+    private Runnable onFinish = () -> {};
+
+    private Consumer<T> onSuccess = result -> {};
+
+    private Consumer<Throwable> onFailure = cause -> {};
+
+    private Builder(String threadName, Work<T, V> work) {
+      this.threadName = threadName;
+      this.work = work;
+    }
+
+    /** Receives the percentages set by the work via {@link Progress#setPercent(int)}. */
+    public Builder<T, V> onProgress(IntConsumer val) {
+      onProgress = val;
+      return this;
+    }
+
+    /** Receives the chunks published by the work via {@link Progress#publishChunk(Object)}, in batches. */
+    public Builder<T, V> onChunks(Consumer<List<V>> val) {
+      onChunks = val;
+      return this;
+    }
+
+    /** Called when the task finishes, either by completing or by being cancelled, before any other callback. */
+    public Builder<T, V> onFinish(Runnable val) {
+      onFinish = val;
+      return this;
+    }
+
+    /** Receives the result of the work, if it completes normally. */
+    public Builder<T, V> onSuccess(Consumer<T> val) {
+      onSuccess = val;
+      return this;
+    }
+
+    /** Receives the exception the work failed with, unless the task has been cancelled. */
+    public Builder<T, V> onFailure(Consumer<Throwable> val) {
+      onFailure = val;
+      return this;
+    }
+
+    /** Starts running the work in the background. Must be called on the EDT. */
+    public BackgroundTask<T, V> start() {
+      BackgroundTask<T, V> task = new BackgroundTask<>(this);
+      task.run(threadName);
+      return task;
+    }
+  }
+
+  /**
+   * The work of a task, run on the background thread.
+   *
+   * @param <T> the type of the result of the work
+   * @param <V> the type of the intermediate results published by the work
+   */
+  @FunctionalInterface
+  public interface Work<T, V> {
+
+    /**
+     * @param cancellation - the token to stop the work with, cancelled when the task is cancelled
+     * @param progress - publishes the progress of the work
+     */
+    T run(CancellationToken cancellation, Progress<V> progress) throws Exception;
+  }
+
+  /**
+   * Publishes the progress of a work to the callbacks of its task.
+   *
+   * @param <V> the type of the intermediate results published by the work
+   */
+  public interface Progress<V> {
+
+    /** Sets the percentage of the work done, between 0 and 100. */
+    void setPercent(int percent);
+
+    /** Publishes an intermediate result. */
+    void publishChunk(V chunk);
+  }
+}
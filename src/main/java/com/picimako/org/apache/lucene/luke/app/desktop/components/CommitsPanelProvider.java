@@ -81,10 +81,12 @@ public final class CommitsPanelProvider {
 
   private ListenerFunctions listeners = new ListenerFunctions();
 
+  private final LazyIndexObserver indexObserver = new LazyIndexObserver(new Observer());
+
   private Commits commitsModel;
 
   public CommitsPanelProvider() {
-    IndexHandler.getInstance().addObserver(new Observer());
+    IndexHandler.getInstance().addObserver(indexObserver);
     DirectoryHandler.getInstance().addObserver(new Observer());
   }
 
@@ -99,6 +101,7 @@ public final class CommitsPanelProvider {
     splitPane.setBorder(BorderFactory.createEmptyBorder());
     splitPane.setDividerLocation(120);
     panel.add(splitPane);
+    indexObserver.initializeWhenShown(panel);
 
     return panel;
   }
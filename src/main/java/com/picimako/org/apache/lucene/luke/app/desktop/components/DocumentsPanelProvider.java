@@ -28,12 +28,24 @@ import com.intellij.util.ui.JBUI;
 import com.picimako.org.apache.lucene.luke.app.IndexHandler;
 import com.picimako.org.apache.lucene.luke.app.desktop.MessageBroker;
 import com.picimako.org.apache.lucene.luke.app.desktop.components.dialog.documents.AddDocumentDialogFactory;
+import com.picimako.org.apache.lucene.luke.app.desktop.components.dialog.documents.DocValuesBrowserDialogFactory;
 import com.picimako.org.apache.lucene.luke.app.desktop.components.dialog.documents.DocValuesDialogFactory;
+import com.picimako.org.apache.lucene.luke.app.desktop.components.dialog.documents.NumericDistributionDialogFactory;
+import com.picimako.org.apache.lucene.luke.app.desktop.components.dialog.documents.PointsDialogFactory;
+import com.picimako.org.apache.lucene.luke.app.desktop.components.dialog.documents.PostingsDialogFactory;
 import com.picimako.org.apache.lucene.luke.app.desktop.components.dialog.documents.StoredValueDialogFactory;
 import com.picimako.org.apache.lucene.luke.app.desktop.components.dialog.documents.TermVectorDialogFactory;
 import com.picimako.org.apache.lucene.luke.app.desktop.util.HelpHeaderRenderer;
+import com.picimako.org.apache.lucene.luke.models.documents.DocumentFieldsCache;
+import com.picimako.org.apache.lucene.luke.models.documents.PostingsList;
+import com.picimako.org.apache.lucene.luke.models.documents.TermEntry;
+import com.picimako.org.apache.lucene.luke.models.documents.TermFilterType;
+import com.picimako.org.apache.lucene.luke.models.documents.TermList;
 import org.apache.lucene.index.DocValuesType;
+import org.apache.lucene.index.FieldInfo;
+import org.apache.lucene.index.FieldInfos;
 import org.apache.lucene.index.IndexOptions;
+import org.apache.lucene.index.IndexReader;
 import org.apache.lucene.index.Term;
 import org.apache.lucene.luke.app.IndexObserver;
 import org.apache.lucene.luke.app.LukeState;
@@ -42,6 +54,7 @@ import org.apache.lucene.luke.app.desktop.components.TableModelBase;
 import org.apache.lucene.luke.app.desktop.util.MessageUtils;
 import org.apache.lucene.luke.app.desktop.util.StyleConstants;
 import org.apache.lucene.luke.app.desktop.util.TableUtils;
+import org.apache.lucene.luke.models.LukeException;
 import org.apache.lucene.luke.models.documents.DocValues;
 import org.apache.lucene.luke.models.documents.DocumentField;
 import org.apache.lucene.luke.models.documents.Documents;
@@ -49,6 +62,8 @@ import org.apache.lucene.luke.models.documents.DocumentsFactory;
 import org.apache.lucene.luke.models.documents.TermPosting;
 import org.apache.lucene.luke.models.documents.TermVectorEntry;
 import org.apache.lucene.luke.util.BytesRefUtils;
+import org.apache.lucene.luke.util.LoggerFactory;
+import org.apache.lucene.util.automaton.CompiledAutomaton;
 
 import javax.swing.*;
 import javax.swing.event.ChangeEvent;
@@ -59,12 +74,16 @@ import java.awt.datatransfer.StringSelection;
 import java.awt.event.ActionEvent;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
+import java.lang.invoke.MethodHandles;
 import java.math.BigDecimal;
 import java.math.BigInteger;
 import java.util.List;
 import java.util.Locale;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
 /**
  * Provider of the Documents panel
@@ -73,6 +92,11 @@ import java.util.Optional;
  */
 public final class DocumentsPanelProvider implements DocumentsTabOperator {
 
+  private static final Logger log = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+
+  /** The max number of documents whose fields are kept in memory. */
+  private static final int DOCUMENT_CACHE_SIZE = 100;
+
   private final DocumentsFactory documentsFactory = new DocumentsFactory();
 
   private final MessageBroker messageBroker;
@@ -93,6 +117,23 @@ public final class DocumentsPanelProvider implements DocumentsTabOperator {
 
   private final JButton nextTermBtn = new JButton();
 
+  private final JComboBox<String> termFilterTypeCombo =
+      new ComboBox<>(
+          new String[] {
+            MessageUtils.getLocalizedMessage("documents.combo.term_filter.prefix"),
+            MessageUtils.getLocalizedMessage("documents.combo.term_filter.wildcard"),
+            MessageUtils.getLocalizedMessage("documents.combo.term_filter.regex"),
+            MessageUtils.getLocalizedMessage("documents.combo.term_filter.fuzzy")
+          });
+
+  private final JTextField termFilterTF = new JTextField();
+
+  private final JButton termFilterBtn = new JButton();
+
+  private final JTable termTable = new JBTable();
+
+  private final JLabel numTermsLbl = new JLabel();
+
   private final JTextField selectedTermTF = new JTextField();
 
   private final JButton firstTermDocBtn = new JButton();
@@ -103,6 +144,8 @@ public final class DocumentsPanelProvider implements DocumentsTabOperator {
 
   private final JLabel termDocsNumLbl = new JLabel();
 
+  private final JButton postingsBtn = new JButton();
+
   private final JTable posTable = new JBTable();
 
   private final JSpinner docNumSpnr = new JSpinner();
@@ -121,8 +164,31 @@ public final class DocumentsPanelProvider implements DocumentsTabOperator {
 
   private final ListenerFunctions listeners = new ListenerFunctions();
 
+  private final LazyIndexObserver indexObserver = new LazyIndexObserver(new Observer());
+
   private Documents documentsModel;
 
+  private DocumentFieldsCache documentFieldsCache;
+
+  private BackgroundTask<List<DocumentField>, Void> docLoadingTask;
+
+  private IndexReader indexReader;
+
+  private TermList termList;
+
+  /** The automaton the terms in the term table must match, or null if all terms are listed. */
+  private CompiledAutomaton termFilter;
+
+  /** The term being browsed, or null if there is none. */
+  private Term selectedTerm;
+
+  private TermTableModel termTableModel;
+
+  private BackgroundTask<Long, Long> termScanTask;
+
+  /** Set while the term table selection is changed programmatically, so that the selected term is not browsed. */
+  private boolean adjustingTermSelection;
+
   private final Project project;
 
   public DocumentsPanelProvider(Project project) {
@@ -138,7 +204,7 @@ public final class DocumentsPanelProvider implements DocumentsTabOperator {
             createFlagsHelpDialog(),
             project);
 
-    IndexHandler.getInstance().addObserver(new Observer());
+    IndexHandler.getInstance().addObserver(indexObserver);
     operatorRegistry.register(DocumentsTabOperator.class, this);
   }
 
@@ -173,6 +239,7 @@ public final class DocumentsPanelProvider implements DocumentsTabOperator {
     panel.add(splitPane);
 
     setUpDocumentContextMenu();
+    indexObserver.initializeWhenShown(panel);
 
     return panel;
   }
@@ -255,6 +322,61 @@ public final class DocumentsPanelProvider implements DocumentsTabOperator {
     c.gridwidth = 1;
     center.add(nextTermBtn, c);
 
+    termFilterTypeCombo.addActionListener(listeners::applyTermFilter);
+    c.gridx = 0;
+    c.gridy = 2;
+    c.insets = JBUI.insets(5);
+    c.weightx = 0.2;
+    c.gridwidth = 1;
+    center.add(termFilterTypeCombo, c);
+
+    termFilterTF.setColumns(20);
+    termFilterTF.setMinimumSize(new Dimension(50, 25));
+    termFilterTF.setFont(StyleConstants.FONT_MONOSPACE_LARGE);
+    termFilterTF.addActionListener(listeners::applyTermFilter);
+    c.gridx = 1;
+    c.gridy = 2;
+    c.insets = JBUI.insets(5);
+    c.weightx = 0.5;
+    c.gridwidth = 1;
+    center.add(termFilterTF, c);
+
+    termFilterBtn.setText(MessageUtils.getLocalizedMessage("documents.button.filter"));
+    termFilterBtn.addActionListener(listeners::applyTermFilter);
+    c.gridx = 2;
+    c.gridy = 2;
+    c.insets = JBUI.insets(5);
+    c.weightx = 0.1;
+    c.gridwidth = 1;
+    center.add(termFilterBtn, c);
+
+    setTermTableModel(new TermTableModel());
+    termTable.getSelectionModel().setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+    termTable.setFont(StyleConstants.FONT_MONOSPACE_LARGE);
+    termTable
+        .getSelectionModel()
+        .addListSelectionListener(
+            e -> {
+              if (!e.getValueIsAdjusting() && !adjustingTermSelection) {
+                browseSelectedTerm();
+              }
+            });
+    JScrollPane termScrollPane = new JBScrollPane(termTable);
+    termScrollPane.setPreferredSize(new Dimension(300, 150));
+    c.gridx = 0;
+    c.gridy = 3;
+    c.insets = JBUI.insets(5);
+    c.weightx = 0.0;
+    c.gridwidth = 3;
+    center.add(termScrollPane, c);
+
+    c.gridx = 0;
+    c.gridy = 4;
+    c.insets = JBUI.insets(0, 5);
+    c.weightx = 0.0;
+    c.gridwidth = 3;
+    center.add(numTermsLbl, c);
+
     panel.add(center, BorderLayout.CENTER);
 
     JPanel footer = new JPanel(new FlowLayout(FlowLayout.LEADING, 20, 5));
@@ -333,6 +455,16 @@ public final class DocumentsPanelProvider implements DocumentsTabOperator {
     c.insets = JBUI.insets(5);
     center.add(termDocsNumLbl, c);
 
+    postingsBtn.setText(MessageUtils.getLocalizedMessage("documents.button.postings"));
+    postingsBtn.setEnabled(false);
+    postingsBtn.addActionListener(listeners::showPostingsDialog);
+    c.gridx = 4;
+    c.gridy = 2;
+    c.weightx = 0.2;
+    c.gridwidth = 1;
+    c.insets = JBUI.insets(5);
+    center.add(postingsBtn, c);
+
     TableUtils.setupTable(
         posTable,
         ListSelectionModel.SINGLE_SELECTION,
@@ -345,7 +477,7 @@ public final class DocumentsPanelProvider implements DocumentsTabOperator {
     scrollPane.setMinimumSize(new Dimension(100, 100));
     c.gridx = 0;
     c.gridy = 3;
-    c.gridwidth = 4;
+    c.gridwidth = 5;
     c.insets = JBUI.insets(5);
     center.add(scrollPane, c);
 
@@ -469,6 +601,24 @@ public final class DocumentsPanelProvider implements DocumentsTabOperator {
         new JMenuItem(MessageUtils.getLocalizedMessage("documents.doctable.menu.item4"));
     item4.addActionListener(listeners::copyStoredValue);
     documentContextMenu.add(item4);
+
+    // browse doc values of all documents
+    JMenuItem item5 =
+        new JMenuItem(MessageUtils.getLocalizedMessage("documents.doctable.menu.item5"));
+    item5.addActionListener(listeners::showDocValuesBrowserDialog);
+    documentContextMenu.add(item5);
+
+    // show value distribution
+    JMenuItem item6 =
+        new JMenuItem(MessageUtils.getLocalizedMessage("documents.doctable.menu.item6"));
+    item6.addActionListener(listeners::showNumericDistributionDialog);
+    documentContextMenu.add(item6);
+
+    // inspect points
+    JMenuItem item7 =
+        new JMenuItem(MessageUtils.getLocalizedMessage("documents.doctable.menu.item7"));
+    item7.addActionListener(listeners::showPointsDialog);
+    documentContextMenu.add(item7);
   }
 
   // control methods
@@ -483,6 +633,7 @@ public final class DocumentsPanelProvider implements DocumentsTabOperator {
 
     termDocIdxTF.setText("");
     clearPosTable();
+    showTermList(fieldName);
 
     Optional<Term> firstTerm = documentsModel.firstTerm(fieldName);
     String firstTermText = firstTerm.map(Term::text).orElse("");
@@ -495,12 +646,16 @@ public final class DocumentsPanelProvider implements DocumentsTabOperator {
       nextTermBtn.setEnabled(true);
       termTF.setEditable(true);
       firstTermDocBtn.setEnabled(true);
+      postingsBtn.setEnabled(true);
     } else {
       nextTermBtn.setEnabled(false);
       termTF.setEditable(false);
       firstTermDocBtn.setEnabled(false);
+      postingsBtn.setEnabled(false);
     }
     nextTermDocBtn.setEnabled(false);
+    selectedTerm = firstTerm.orElse(null);
+    selectTermInTable(firstTerm);
     messageBroker.clearStatusMessage();
   }
 
@@ -518,17 +673,22 @@ public final class DocumentsPanelProvider implements DocumentsTabOperator {
 
       termTF.setEditable(true);
       firstTermDocBtn.setEnabled(true);
+      postingsBtn.setEnabled(true);
     } else {
       nextTermBtn.setEnabled(false);
       termTF.setEditable(false);
       firstTermDocBtn.setEnabled(false);
+      postingsBtn.setEnabled(false);
     }
     nextTermDocBtn.setEnabled(false);
+    selectedTerm = nextTerm.orElse(null);
+    selectTermInTable(nextTerm);
     messageBroker.clearStatusMessage();
   }
 
   @Override
   public void seekNextTerm() {
+    indexObserver.initialize();
     termDocIdxTF.setText("");
     posTable.setModel(new PosTableModel());
 
@@ -544,13 +704,161 @@ public final class DocumentsPanelProvider implements DocumentsTabOperator {
 
       termTF.setEditable(true);
       firstTermDocBtn.setEnabled(true);
+      postingsBtn.setEnabled(true);
     } else {
       nextTermBtn.setEnabled(false);
       termTF.setEditable(false);
       firstTermDocBtn.setEnabled(false);
+      postingsBtn.setEnabled(false);
     }
     nextTermDocBtn.setEnabled(false);
+    selectedTerm = nextTerm.orElse(null);
+    selectTermInTable(nextTerm);
+    messageBroker.clearStatusMessage();
+  }
+
+  /**
+   * Filters the term table by the pattern entered in the filter text field, or removes the filter if the pattern
+   * is empty.
+   */
+  private void applyTermFilter() {
+    String pattern = termFilterTF.getText();
+    if (Objects.isNull(pattern) || pattern.isEmpty()) {
+      termFilter = null;
+    } else {
+      TermFilterType filterType = TermFilterType.values()[termFilterTypeCombo.getSelectedIndex()];
+      try {
+        termFilter = filterType.compile(pattern);
+      } catch (LukeException e) {
+        messageBroker.showStatusMessage(e.getMessage());
+        return;
+      }
+    }
     messageBroker.clearStatusMessage();
+
+    String field = (String) fieldsCombo.getSelectedItem();
+    if (indexReader != null && field != null && !field.isEmpty()) {
+      showTermList(field);
+      selectTermInTable(Optional.ofNullable(selectedTerm));
+    }
+  }
+
+  /**
+   * Shows the terms of the given field matching the current filter in the term table, unless they are already shown.
+   * The terms are scanned in a background thread, and the table grows as the scan progresses.
+   */
+  private void showTermList(String field) {
+    if (termList != null && termList.getField().equals(field) && termList.getFilter() == termFilter) {
+      return;
+    }
+    cancelTermScan();
+    TermList list = new TermList(indexReader, field, termFilter);
+    termList = list;
+    setTermTableModel(new TermTableModel(list));
+
+    numTermsLbl.setText(scanningTermsMessage(list, 0));
+    termScanTask =
+        BackgroundTask.<Long, Long>builder("documents-term-scan", (cancellation, progress) -> {
+              list.scan(cancellation, progress::publishChunk);
+              return list.getNumTerms();
+            })
+            .onChunks(numTerms -> {
+              long scannedTerms = numTerms.get(numTerms.size() - 1);
+              termTableModel.setNumTerms(scannedTerms);
+              numTermsLbl.setText(scanningTermsMessage(list, scannedTerms));
+            })
+            .onFinish(() -> termScanTask = null)
+            .onSuccess(numTerms -> {
+              termTableModel.setNumTerms(numTerms);
+              numTermsLbl.setText(
+                  list.getFilter() != null
+                      ? MessageUtils.getLocalizedMessage("documents.label.num_matching_terms", numTerms)
+                      : MessageUtils.getLocalizedMessage("documents.label.num_terms", numTerms));
+            })
+            .onFailure(cause -> {
+              log.log(Level.SEVERE, "Error scanning terms of field " + field, cause);
+              numTermsLbl.setText("");
+              messageBroker.showStatusMessage(cause.getMessage());
+            })
+            .start();
+  }
+
+  private static String scanningTermsMessage(TermList list, long scannedTerms) {
+    return list.getFilter() != null
+        ? MessageUtils.getLocalizedMessage("documents.label.scanning_matching_terms", scannedTerms)
+        : MessageUtils.getLocalizedMessage("documents.label.scanning_terms", scannedTerms);
+  }
+
+  private void cancelTermScan() {
+    if (termScanTask != null) {
+      termScanTask.cancel();
+    }
+  }
+
+  private void closeTermList() {
+    cancelTermScan();
+    termList = null;
+    setTermTableModel(new TermTableModel());
+    numTermsLbl.setText("");
+  }
+
+  private void setTermTableModel(TermTableModel model) {
+    if (termTableModel != null) {
+      termTableModel.close();
+    }
+    termTableModel = model;
+    termTable.setModel(model);
+    termTable
+        .getColumnModel()
+        .getColumn(TermTableModel.Column.RANK.getIndex())
+        .setMaxWidth(TermTableModel.Column.RANK.getColumnWidth());
+    termTable
+        .getColumnModel()
+        .getColumn(TermTableModel.Column.DOC_FREQ.getIndex())
+        .setMaxWidth(TermTableModel.Column.DOC_FREQ.getColumnWidth());
+    termTable
+        .getColumnModel()
+        .getColumn(TermTableModel.Column.TOTAL_FREQ.getIndex())
+        .setMaxWidth(TermTableModel.Column.TOTAL_FREQ.getColumnWidth());
+  }
+
+  /**
+   * Selects the given term in the term table and scrolls to it, or clears the selection if the term is not listed.
+   */
+  private void selectTermInTable(Optional<Term> term) {
+    OptionalLong position =
+        term.filter(t -> termList != null && termList.getField().equals(t.field()))
+            .map(t -> termList.indexOf(t.bytes()))
+            .orElse(OptionalLong.empty());
+    adjustingTermSelection = true;
+    try {
+      if (position.isEmpty()) {
+        termTable.clearSelection();
+        return;
+      }
+      int row = termTableModel.showPosition(position.getAsLong());
+      termTable.setRowSelectionInterval(row, row);
+      termTable.scrollRectToVisible(termTable.getCellRect(row, 0, true));
+    } finally {
+      adjustingTermSelection = false;
+    }
+  }
+
+  /**
+   * Browses the term selected in the term table, as if it had been entered in the term text field.
+   */
+  private void browseSelectedTerm() {
+    int row = termTable.getSelectedRow();
+    if (row < 0) {
+      return;
+    }
+    termTableModel
+        .getRow(row)
+        .ifPresent(
+            entry -> {
+              termTF.setText(entry.getDecodedTermText());
+              seekNextTerm();
+            });
   }
 
   private void clearPosTable() {
@@ -566,6 +874,7 @@ public final class DocumentsPanelProvider implements DocumentsTabOperator {
 
   @Override
   public void showFirstTermDoc() {
+    indexObserver.initialize();
     int docid = documentsModel.firstTermDoc().orElse(-1);
     if (docid < 0) {
       nextTermDocBtn.setEnabled(false);
@@ -614,6 +923,17 @@ public final class DocumentsPanelProvider implements DocumentsTabOperator {
     messageBroker.clearStatusMessage();
   }
 
+  /**
+   * Shows all postings of the term being browsed in a dialog.
+   */
+  private void showPostingsDialog() {
+    if (selectedTerm == null) {
+      return;
+    }
+    PostingsList postingsList = new PostingsList(indexReader, selectedTerm.field(), selectedTerm.bytes());
+    new PostingsDialogFactory(project, postingsList, this::displayDoc).show();
+  }
+
   private void showCurrentDoc() {
     int docid = (Integer) docNumSpnr.getValue();
     displayDoc(docid);
@@ -673,7 +993,7 @@ public final class DocumentsPanelProvider implements DocumentsTabOperator {
     }
   }
 
-  private void showStoredValueDialog() {
+  private void showDocValuesBrowserDialog() {
     int docid = (Integer) docNumSpnr.getValue();
     String field =
         (String)
@@ -681,18 +1001,75 @@ public final class DocumentsPanelProvider implements DocumentsTabOperator {
                 .getModel()
                 .getValueAt(
                     documentTable.getSelectedRow(), DocumentsTableModel.Column.FIELD.getIndex());
-    String value =
+    FieldInfo fieldInfo = FieldInfos.getMergedFieldInfos(indexReader).fieldInfo(field);
+    if (fieldInfo != null && fieldInfo.getDocValuesType() != DocValuesType.NONE) {
+      new DocValuesBrowserDialogFactory(project, indexReader, field, docid, this::displayDoc).show();
+      messageBroker.clearStatusMessage();
+    } else {
+      messageBroker.showStatusMessage(
+          MessageUtils.getLocalizedMessage(
+              "documents.docvalues.message.not_available", field, docid));
+    }
+  }
+
+  private void showNumericDistributionDialog() {
+    String field =
         (String)
             documentTable
                 .getModel()
                 .getValueAt(
-                    documentTable.getSelectedRow(), DocumentsTableModel.Column.VALUE.getIndex());
-    if (Objects.isNull(value)) {
+                    documentTable.getSelectedRow(), DocumentsTableModel.Column.FIELD.getIndex());
+    FieldInfo fieldInfo = FieldInfos.getMergedFieldInfos(indexReader).fieldInfo(field);
+    if (fieldInfo != null
+        && (fieldInfo.getDocValuesType() == DocValuesType.NUMERIC
+            || fieldInfo.getDocValuesType() == DocValuesType.SORTED_NUMERIC)) {
+      new NumericDistributionDialogFactory(project, indexReader, field).show();
+      messageBroker.clearStatusMessage();
+    } else {
+      messageBroker.showStatusMessage(
+          MessageUtils.getLocalizedMessage("documents.distribution.message.not_numeric", field));
+    }
+  }
+
+  private void showPointsDialog() {
+    String field =
+        (String)
+            documentTable
+                .getModel()
+                .getValueAt(
+                    documentTable.getSelectedRow(), DocumentsTableModel.Column.FIELD.getIndex());
+    FieldInfo fieldInfo = FieldInfos.getMergedFieldInfos(indexReader).fieldInfo(field);
+    if (fieldInfo != null && fieldInfo.getPointDimensionCount() > 0) {
+      new PointsDialogFactory(project, indexReader, field).show();
+      messageBroker.clearStatusMessage();
+    } else {
+      messageBroker.showStatusMessage(
+          MessageUtils.getLocalizedMessage("documents.points.message.not_available", field));
+    }
+  }
+
+  private void showStoredValueDialog() {
+    int docid = (Integer) docNumSpnr.getValue();
+    String field =
+        (String)
+            documentTable
+                .getModel()
+                .getValueAt(
+                    documentTable.getSelectedRow(), DocumentsTableModel.Column.FIELD.getIndex());
+    // the value is taken from the field, because the table holds binary values in their string form
+    DocumentField docField =
+        ((DocumentsTableModel) documentTable.getModel()).getDocumentField(documentTable.getSelectedRow());
+    if (docField.getStringValue() != null) {
+      new StoredValueDialogFactory(project, field, docField.getStringValue()).show();
+    } else if (docField.getNumericValue() != null) {
+      new StoredValueDialogFactory(project, field, String.valueOf(docField.getNumericValue())).show();
+    } else if (docField.getBinaryValue() != null) {
+      new StoredValueDialogFactory(project, field, docField.getBinaryValue()).show();
+    } else {
       messageBroker.showStatusMessage(
           MessageUtils.getLocalizedMessage("documents.stored.message.not_availabe", field, docid));
       return;
     }
-    new StoredValueDialogFactory(project, field, value).show();
     messageBroker.clearStatusMessage();
   }
 
@@ -765,6 +1142,7 @@ public final class DocumentsPanelProvider implements DocumentsTabOperator {
 
   @Override
   public void browseTerm(String field, String term) {
+    indexObserver.initialize();
     fieldsCombo.setSelectedItem(field);
     termTF.setText(term);
     seekNextTerm();
@@ -773,19 +1151,67 @@ public final class DocumentsPanelProvider implements DocumentsTabOperator {
 
   @Override
   public void displayLatestDoc() {
+    indexObserver.initialize();
     int docid = documentsModel.getMaxDoc() - 1;
     showDoc(docid);
   }
 
   @Override
   public void displayDoc(int docid) {
+    indexObserver.initialize();
     showDoc(docid);
   }
 
+  /**
+   * Shows the fields of the given document, right away if they are cached, otherwise once they are loaded
+   * in a background thread. The neighbouring documents are then prefetched.
+   */
   private void showDoc(int docid) {
-    docNumSpnr.setValue(docid);
+    if (!Objects.equals(docNumSpnr.getValue(), docid)) {
+      // the spinner's change listener shows the document
+      docNumSpnr.setValue(docid);
+      return;
+    }
+    cancelDocLoading();
 
-    List<DocumentField> doc = documentsModel.getDocumentFields(docid);
+    Optional<List<DocumentField>> cached = documentFieldsCache.getIfPresent(docid);
+    if (cached.isPresent()) {
+      showDocFields(cached.get());
+      messageBroker.clearStatusMessage();
+    } else {
+      loadDocInBackground(docid);
+    }
+    documentFieldsCache.prefetchAround(docid);
+  }
+
+  private void loadDocInBackground(int docid) {
+    DocumentFieldsCache cache = documentFieldsCache;
+
+    // the fields of the previous document must not be mistaken for the fields of this one while loading
+    documentTable.setModel(new DocumentsTableModel());
+    messageBroker.showStatusMessage(MessageUtils.getLocalizedMessage("documents.message.loading_doc", docid));
+    docLoadingTask =
+        BackgroundTask.<List<DocumentField>, Void>builder("documents-load-doc",
+                (cancellation, progress) -> cache.get(docid))
+            .onFinish(() -> docLoadingTask = null)
+            .onSuccess(doc -> {
+              showDocFields(doc);
+              messageBroker.clearStatusMessage();
+            })
+            .onFailure(cause -> {
+              log.log(Level.SEVERE, "Error loading document " + docid, cause);
+              messageBroker.showStatusMessage(cause.getMessage());
+            })
+            .start();
+  }
+
+  private void cancelDocLoading() {
+    if (docLoadingTask != null) {
+      docLoadingTask.cancel();
+    }
+  }
+
+  private void showDocFields(List<DocumentField> doc) {
     documentTable.setModel(new DocumentsTableModel(doc));
     documentTable.setFont(StyleConstants.FONT_MONOSPACE_LARGE);
     documentTable
@@ -816,8 +1242,6 @@ public final class DocumentsPanelProvider implements DocumentsTabOperator {
         .getColumnModel()
         .getColumn(DocumentsTableModel.Column.FLAGS.getIndex())
         .setHeaderRenderer(tableHeaderRenderer);
-
-    messageBroker.clearStatusMessage();
   }
 
   private class ListenerFunctions {
@@ -834,6 +1258,10 @@ public final class DocumentsPanelProvider implements DocumentsTabOperator {
       DocumentsPanelProvider.this.showNextTerm();
     }
 
+    void applyTermFilter(ActionEvent e) {
+      DocumentsPanelProvider.this.applyTermFilter();
+    }
+
     void showFirstTermDoc(ActionEvent e) {
       DocumentsPanelProvider.this.showFirstTermDoc();
     }
@@ -842,6 +1270,10 @@ public final class DocumentsPanelProvider implements DocumentsTabOperator {
       DocumentsPanelProvider.this.showNextTermDoc();
     }
 
+    void showPostingsDialog(ActionEvent e) {
+      DocumentsPanelProvider.this.showPostingsDialog();
+    }
+
     void showCurrentDoc(ChangeEvent e) {
       DocumentsPanelProvider.this.showCurrentDoc();
     }
@@ -872,6 +1304,18 @@ public final class DocumentsPanelProvider implements DocumentsTabOperator {
       DocumentsPanelProvider.this.showDocValuesDialog();
     }
 
+    void showDocValuesBrowserDialog(ActionEvent e) {
+      DocumentsPanelProvider.this.showDocValuesBrowserDialog();
+    }
+
+    void showNumericDistributionDialog(ActionEvent e) {
+      DocumentsPanelProvider.this.showNumericDistributionDialog();
+    }
+
+    void showPointsDialog(ActionEvent e) {
+      DocumentsPanelProvider.this.showPointsDialog();
+    }
+
     void showStoredValueDialog(ActionEvent e) {
       DocumentsPanelProvider.this.showStoredValueDialog();
     }
@@ -889,7 +1333,15 @@ public final class DocumentsPanelProvider implements DocumentsTabOperator {
 
     @Override
     public void openIndex(LukeState state) {
+      cancelDocLoading();
+      // the terms of the previous reader must not be shown, even if the same field is selected again
+      closeTermList();
+      indexReader = state.getIndexReader();
+      if (documentFieldsCache != null) {
+        documentFieldsCache.close();
+      }
       documentsModel = documentsFactory.newInstance(state.getIndexReader());
+      documentFieldsCache = new DocumentFieldsCache(documentsModel, DOCUMENT_CACHE_SIZE);
 
       addDocBtn.setEnabled(!state.readOnly() && state.hasDirectoryReader());
 
@@ -905,11 +1357,22 @@ public final class DocumentsPanelProvider implements DocumentsTabOperator {
         docNumSpnr.setEnabled(false);
       }
 
+      // incremental reopens don't close the index in between, so the previous fields have to be removed here
+      fieldsCombo.removeAllItems();
       documentsModel.getFieldNames().stream().sorted().forEach(fieldsCombo::addItem);
     }
 
     @Override
     public void closeIndex() {
+      cancelDocLoading();
+      closeTermList();
+      indexReader = null;
+      selectedTerm = null;
+      postingsBtn.setEnabled(false);
+      if (documentFieldsCache != null) {
+        documentFieldsCache.close();
+        documentFieldsCache = null;
+      }
       maxDocsLbl.setText("in ? docs");
       docNumSpnr.setEnabled(false);
       fieldsCombo.removeAllItems();
@@ -923,6 +1386,107 @@ public final class DocumentsPanelProvider implements DocumentsTabOperator {
     }
   }
 
+  static final class TermTableModel extends PagedTableModel<TermEntry, TermTableModel.Column> {
+
+    /**
+     * The max number of rows. The height of a table with hundreds of millions of rows would overflow,
+     * so only a window of the terms is listed, which is moved when a term outside of it is selected.
+     */
+    private static final int WINDOW_SIZE = 10_000 * TermList.PAGE_SIZE;
+
+    enum Column implements TableColumnInfo {
+      RANK("#", 0, Long.class, 100),
+      TERM("Term", 1, String.class, 300),
+      DOC_FREQ("Doc freq", 2, Integer.class, 100),
+      TOTAL_FREQ("Total freq", 3, Long.class, 100);
+
+      private final String colName;
+      private final int index;
+      private final Class<?> type;
+      private final int width;
+
+      Column(String colName, int index, Class<?> type, int width) {
+        this.colName = colName;
+        this.index = index;
+        this.type = type;
+        this.width = width;
+      }
+
+      @Override
+      public String getColName() {
+        return colName;
+      }
+
+      @Override
+      public int getIndex() {
+        return index;
+      }
+
+      @Override
+      public Class<?> getType() {
+        return type;
+      }
+
+      @Override
+      public int getColumnWidth() {
+        return width;
+      }
+    }
+
+    private final TermList termList;
+
+    /** The position of the term in the first row. Always the first term of a page. */
+    private volatile long windowStart;
+
+    TermTableModel() {
+      this(null);
+    }
+
+    TermTableModel(TermList termList) {
+      super(TermList.PAGE_SIZE, "documents-term-list");
+      this.termList = termList;
+    }
+
+    void setNumTerms(long numTerms) {
+      setRowCount((int) Math.min(numTerms - windowStart, WINDOW_SIZE));
+    }
+
+    /**
+     * Moves the window of listed terms, if needed, so that it includes the term at the given position.
+     *
+     * @return the row of the term
+     */
+    int showPosition(long position) {
+      if (position < windowStart || position >= windowStart + WINDOW_SIZE) {
+        long start = Math.max(0, position - WINDOW_SIZE / 2);
+        windowStart = start - start % TermList.PAGE_SIZE;
+        invalidate();
+      }
+      setNumTerms(termList.getNumTerms());
+      return (int) (position - windowStart);
+    }
+
+    @Override
+    protected Column[] columnInfos() {
+      return Column.values();
+    }
+
+    @Override
+    protected List<TermEntry> loadPage(int page) {
+      return termList.getPage((int) (windowStart / TermList.PAGE_SIZE) + page);
+    }
+
+    @Override
+    protected Object getColumnValue(int rowIndex, TermEntry entry, Column column) {
+      return switch (column) {
+        case RANK -> windowStart + rowIndex + 1;
+        case TERM -> entry.getDecodedTermText();
+        case DOC_FREQ -> entry.getDocFreq();
+        case TOTAL_FREQ -> entry.getTotalTermFreq();
+      };
+    }
+  }
+
   static final class PosTableModel extends TableModelBase<PosTableModel.Column> {
 
     enum Column implements TableColumnInfo {
@@ -1034,12 +1598,16 @@ public final class DocumentsPanelProvider implements DocumentsTabOperator {
       }
     }
 
+    private final List<DocumentField> doc;
+
     DocumentsTableModel() {
       super();
+      this.doc = List.of();
     }
 
     DocumentsTableModel(List<DocumentField> doc) {
       super(doc.size());
+      this.doc = doc;
 
       for (int i = 0; i < doc.size(); i++) {
         DocumentField docField = doc.get(i);
@@ -1058,6 +1626,10 @@ public final class DocumentsPanelProvider implements DocumentsTabOperator {
       }
     }
 
+    DocumentField getDocumentField(int rowIndex) {
+      return doc.get(rowIndex);
+    }
+
     private static String flags(DocumentField f) {
       StringBuilder sb = new StringBuilder();
       // index options
@@ -0,0 +1,72 @@
+//Copyright 2026 Tamás Balog. Use of this source code is governed by the Apache 2.0 license that can be found in the LICENSE file.
+package com.picimako.org.apache.lucene.luke.app.desktop.components;
+
+import org.apache.lucene.luke.app.IndexObserver;
+import org.apache.lucene.luke.app.LukeState;
+
+import javax.swing.*;
+import java.awt.event.HierarchyEvent;
+
+/**
+ * Index observer that defers opening the index in a tab until the tab is first shown.
+ * <p>
+ * Tabs build their models when an index is opened, which, for large indexes, can be expensive. With this observer,
+ * when an index is opened, only the tab currently shown does that work, while the other ones do it when they
+ * are first shown. After that, the tab keeps showing the same results until the next index (re)open.
+ * <p>
+ * Closing the index is always propagated to the delegate right away.
+ */
+final class LazyIndexObserver implements IndexObserver {
+
+  private final IndexObserver delegate;
+
+  private JComponent tab;
+
+  /** The state of the index opened, but not yet propagated to the delegate. */
+  private LukeState pendingState;
+
+  LazyIndexObserver(IndexObserver delegate) {
+    this.delegate = delegate;
+  }
+
+  /**
+   * Opens the pending index in the delegate whenever the given tab component becomes shown.
+   */
+  void initializeWhenShown(JComponent tab) {
+    this.tab = tab;
+    tab.addHierarchyListener(
+        e -> {
+          if ((e.getChangeFlags() & HierarchyEvent.SHOWING_CHANGED) != 0 && tab.isShowing()) {
+            initialize();
+          }
+        });
+  }
+
+  @Override
+  public void openIndex(LukeState state) {
+    pendingState = state;
+    if (tab == null || tab.isShowing()) {
+      initialize();
+    }
+  }
+
+  @Override
+  public void closeIndex() {
+    pendingState = null;
+    delegate.closeIndex();
+  }
+
+  /**
+   * Opens the pending index in the delegate, if there is one.
+   * <p>
+   * This must be called by operations that may be invoked on the tab from other tabs or dialogs,
+   * so that they don't operate on the models of a previous index.
+   */
+  void initialize() {
+    if (pendingState != null) {
+      LukeState state = pendingState;
+      pendingState = null;
+      delegate.openIndex(state);
+    }
+  }
+}
@@ -18,13 +18,18 @@
 package com.picimako.org.apache.lucene.luke.app.desktop.components;
 
 import com.intellij.openapi.project.Project;
+import com.intellij.openapi.ui.JBCheckboxMenuItem;
 import com.intellij.openapi.ui.JBMenuItem;
 import com.intellij.ui.components.JBMenu;
 import com.picimako.org.apache.lucene.luke.app.DirectoryHandler;
 import com.picimako.org.apache.lucene.luke.app.IndexHandler;
+import com.picimako.org.apache.lucene.luke.app.SegmentChanges;
+import com.picimako.org.apache.lucene.luke.app.desktop.MessageBroker;
 import com.picimako.org.apache.lucene.luke.app.desktop.components.dialog.menubar.CheckIndexDialogFactory;
 //import com.picimako.org.apache.lucene.luke.app.desktop.components.dialog.menubar.CreateIndexDialogFactory;
+import com.picimako.org.apache.lucene.luke.app.desktop.components.dialog.menubar.ExportDocumentsDialogFactory;
 import com.picimako.org.apache.lucene.luke.app.desktop.components.dialog.menubar.ExportTermsDialogFactory;
+import com.picimako.org.apache.lucene.luke.app.desktop.components.dialog.menubar.KnnBenchmarkDialogFactory;
 import com.picimako.org.apache.lucene.luke.app.desktop.components.dialog.menubar.OpenIndexDialogFactory;
 import com.picimako.org.apache.lucene.luke.app.desktop.components.dialog.menubar.OptimizeIndexDialogFactory;
 import org.apache.lucene.luke.app.DirectoryObserver;
@@ -48,16 +53,24 @@ public final class MenuBarProvider {
 
   private final IndexHandler indexHandler;
 
+  private final MessageBroker messageBroker;
+
   private final OptimizeIndexDialogFactory optimizeIndexDialogFactory;
 
   private final ExportTermsDialogFactory exportTermsDialogFactory;
 
+  private final ExportDocumentsDialogFactory exportDocumentsDialogFactory;
+
+  private final KnnBenchmarkDialogFactory knnBenchmarkDialogFactory;
+
   private final CheckIndexDialogFactory checkIndexDialogFactory;
 
   private final JMenuItem openIndexMItem = new JBMenuItem(MessageUtils.getLocalizedMessage("menu.item.open_index"));
 
   private final JMenuItem reopenIndexMItem = new JBMenuItem(MessageUtils.getLocalizedMessage("menu.item.reopen_index"));
 
+  private final JCheckBoxMenuItem watchIndexMItem = new JBCheckboxMenuItem(MessageUtils.getLocalizedMessage("menu.item.watch_index"));
+
 //  private final JMenuItem createIndexMItem = new JBMenuItem(MessageUtils.getLocalizedMessage("menu.item.create_index"));
 
   private final JMenuItem closeIndexMItem = new JBMenuItem(MessageUtils.getLocalizedMessage("menu.item.close_index"));
@@ -66,6 +79,10 @@ public final class MenuBarProvider {
 
   private final JMenuItem exportTermsMItem = new JBMenuItem(MessageUtils.getLocalizedMessage("menu.item.export.terms"));
 
+  private final JMenuItem exportDocumentsMItem = new JBMenuItem(MessageUtils.getLocalizedMessage("menu.item.export.documents"));
+
+  private final JMenuItem knnBenchmarkMItem = new JBMenuItem(MessageUtils.getLocalizedMessage("menu.item.knn_benchmark"));
+
   private final JMenuItem checkIndexMItem = new JBMenuItem(MessageUtils.getLocalizedMessage("menu.item.check_index"));
 
   private final ListenerFunctions listeners = new ListenerFunctions();
@@ -75,8 +92,11 @@ public final class MenuBarProvider {
     this.project = project;
     this.directoryHandler = DirectoryHandler.getInstance();
     this.indexHandler = IndexHandler.getInstance();
+    this.messageBroker = MessageBroker.getInstance();
     this.optimizeIndexDialogFactory = new OptimizeIndexDialogFactory();
     this.exportTermsDialogFactory = new ExportTermsDialogFactory();
+    this.exportDocumentsDialogFactory = new ExportDocumentsDialogFactory();
+    this.knnBenchmarkDialogFactory = new KnnBenchmarkDialogFactory();
     this.checkIndexDialogFactory = new CheckIndexDialogFactory();
 
     Observer observer = new Observer();
@@ -104,6 +124,10 @@ public final class MenuBarProvider {
     reopenIndexMItem.addActionListener(listeners::reopenIndex);
     fileMenu.add(reopenIndexMItem);
 
+    watchIndexMItem.setEnabled(false);
+    watchIndexMItem.addActionListener(listeners::watchIndex);
+    fileMenu.add(watchIndexMItem);
+
 //    createIndexMItem.addActionListener(listeners::showCreateIndexDialog);
 //    fileMenu.add(createIndexMItem);
 
@@ -126,6 +150,12 @@ public final class MenuBarProvider {
     exportTermsMItem.setEnabled(false);
     exportTermsMItem.addActionListener(listeners::showExportTermsDialog);
     toolsMenu.add(exportTermsMItem);
+    exportDocumentsMItem.setEnabled(false);
+    exportDocumentsMItem.addActionListener(listeners::showExportDocumentsDialog);
+    toolsMenu.add(exportDocumentsMItem);
+    knnBenchmarkMItem.setEnabled(false);
+    knnBenchmarkMItem.addActionListener(listeners::showKnnBenchmarkDialog);
+    toolsMenu.add(knnBenchmarkMItem);
     return toolsMenu;
   }
 
@@ -148,7 +178,35 @@ public final class MenuBarProvider {
 //    }
 
     void reopenIndex(ActionEvent e) {
-      indexHandler.reOpen();
+      showReopenStatus(indexHandler.reOpen());
+    }
+
+    void watchIndex(ActionEvent e) {
+      if (!watchIndexMItem.isSelected()) {
+        indexHandler.stopWatching();
+        messageBroker.showStatusMessage(MessageUtils.getLocalizedMessage("message.index_watch_stopped"));
+        return;
+      }
+      try {
+        indexHandler.startWatching(this::showReopenStatus);
+        messageBroker.showStatusMessage(MessageUtils.getLocalizedMessage("message.index_watch_started"));
+      } catch (LukeException ex) {
+        watchIndexMItem.setSelected(false);
+        messageBroker.showStatusMessage(ex.getMessage());
+      }
+    }
+
+    private void showReopenStatus(SegmentChanges changes) {
+      if (changes.isEmpty()) {
+        messageBroker.showStatusMessage(MessageUtils.getLocalizedMessage("message.index_up_to_date"));
+      } else {
+        messageBroker.showStatusMessage(
+            MessageUtils.getLocalizedMessage(
+                "message.index_reopened",
+                changes.getAdded().size(),
+                changes.getDropped().size(),
+                changes.getUpdated().size()));
+      }
     }
 
     void closeIndex(ActionEvent e) {
@@ -171,6 +229,14 @@ public final class MenuBarProvider {
     void showExportTermsDialog(ActionEvent e) {
       exportTermsDialogFactory.createDialog(project).show();
     }
+
+    void showExportDocumentsDialog(ActionEvent e) {
+      exportDocumentsDialogFactory.createDialog(project).show();
+    }
+
+    void showKnnBenchmarkDialog(ActionEvent e) {
+      knnBenchmarkDialogFactory.createDialog(project).show();
+    }
   }
 
   private class Observer implements IndexObserver, DirectoryObserver {
@@ -181,6 +247,8 @@ public final class MenuBarProvider {
       closeIndexMItem.setEnabled(false);
       optimizeIndexMItem.setEnabled(false);
       exportTermsMItem.setEnabled(false);
+      exportDocumentsMItem.setEnabled(false);
+      knnBenchmarkMItem.setEnabled(false);
       checkIndexMItem.setEnabled(true);
     }
 
@@ -194,11 +262,22 @@ public final class MenuBarProvider {
       reopenIndexMItem.setEnabled(true);
       closeIndexMItem.setEnabled(true);
       exportTermsMItem.setEnabled(true);
+      exportDocumentsMItem.setEnabled(true);
+      knnBenchmarkMItem.setEnabled(true);
       if (!state.readOnly() && state.hasDirectoryReader()) {
         optimizeIndexMItem.setEnabled(true);
       }
       if (state.hasDirectoryReader()) {
         checkIndexMItem.setEnabled(true);
+        watchIndexMItem.setEnabled(true);
+        if (watchIndexMItem.isSelected()) {
+          try {
+            indexHandler.startWatching(listeners::showReopenStatus);
+          } catch (LukeException e) {
+            watchIndexMItem.setSelected(false);
+            messageBroker.showStatusMessage(e.getMessage());
+          }
+        }
       }
     }
 
@@ -209,10 +288,13 @@ public final class MenuBarProvider {
 
     private void close() {
       reopenIndexMItem.setEnabled(false);
+      watchIndexMItem.setEnabled(false);
       closeIndexMItem.setEnabled(false);
       optimizeIndexMItem.setEnabled(false);
       checkIndexMItem.setEnabled(false);
       exportTermsMItem.setEnabled(false);
+      exportDocumentsMItem.setEnabled(false);
+      knnBenchmarkMItem.setEnabled(false);
     }
   }
 }
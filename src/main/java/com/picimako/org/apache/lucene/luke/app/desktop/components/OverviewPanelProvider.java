@@ -17,13 +17,16 @@
 
 package com.picimako.org.apache.lucene.luke.app.desktop.components;
 
+import com.intellij.openapi.ui.ComboBox;
 import com.intellij.ui.JBColor;
 import com.intellij.ui.JBIntSpinner;
 import com.intellij.ui.components.JBScrollPane;
+import com.intellij.ui.components.JBTabbedPane;
 import com.intellij.ui.table.JBTable;
 import com.intellij.util.ui.JBUI;
 import com.picimako.org.apache.lucene.luke.app.IndexHandler;
 import com.picimako.org.apache.lucene.luke.app.desktop.MessageBroker;
+import com.picimako.org.apache.lucene.luke.app.desktop.PreferencesImpl;
 import org.apache.lucene.luke.app.IndexObserver;
 import org.apache.lucene.luke.app.LukeState;
 import org.apache.lucene.luke.app.desktop.components.TableColumnInfo;
@@ -31,10 +34,17 @@ import org.apache.lucene.luke.app.desktop.components.TableModelBase;
 import org.apache.lucene.luke.app.desktop.util.MessageUtils;
 import org.apache.lucene.luke.app.desktop.util.StyleConstants;
 import org.apache.lucene.luke.app.desktop.util.TableUtils;
-import org.apache.lucene.luke.models.overview.Overview;
-import org.apache.lucene.luke.models.overview.OverviewFactory;
-import org.apache.lucene.luke.models.overview.TermCountsOrder;
-import org.apache.lucene.luke.models.overview.TermStats;
+import com.picimako.org.apache.lucene.luke.models.overview.FieldDiskUsage;
+import com.picimako.org.apache.lucene.luke.models.overview.IndexStructure;
+import com.picimako.org.apache.lucene.luke.models.overview.Overview;
+import com.picimako.org.apache.lucene.luke.models.overview.OverviewFactory;
+import com.picimako.org.apache.lucene.luke.models.overview.TermStats;
+import com.picimako.org.apache.lucene.luke.models.overview.TopTermsOrder;
+import com.picimako.org.apache.lucene.luke.models.overview.VectorFieldStats;
+import com.picimako.org.apache.lucene.luke.models.util.StatsCache;
+import org.apache.lucene.luke.util.LoggerFactory;
+import org.apache.lucene.util.RamUsageEstimator;
+import org.apache.lucene.util.quantization.ScalarQuantizer;
 
 import javax.swing.*;
 import javax.swing.table.DefaultTableCellRenderer;
@@ -43,9 +53,15 @@ import java.awt.*;
 import java.awt.event.ActionEvent;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
+import java.lang.invoke.MethodHandles;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.StringJoiner;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
 /**
  * Provider of the Overview panel
@@ -54,6 +70,8 @@ import java.util.Map;
  */
 public final class OverviewPanelProvider {
 
+  private static final Logger log = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+
   private static final int GRIDX_DESC = 0;
   private static final int GRIDX_VAL = 1;
   private static final double WEIGHTX_DESC = 0.1;
@@ -67,6 +85,8 @@ public final class OverviewPanelProvider {
 
   private final MessageBroker messageBroker;
 
+  private final StatsCache statsCache;
+
   private final JPanel panel = new JPanel();
 
   private final JLabel indexPathLbl = new JLabel();
@@ -91,26 +111,78 @@ public final class OverviewPanelProvider {
 
   private final JTable termCountsTable = new JBTable();
 
+  private final JPanel termCountsProgressPanel = new JPanel(new BorderLayout(5, 0));
+
+  private final JProgressBar termCountsProgressBar = new JProgressBar(0, 100);
+
+  private final JButton cancelTermCountsBtn = new JButton();
+
   private final JTextField selectedField = new JTextField();
 
   private final JButton showTopTermsBtn = new JButton();
 
   private final JSpinner numTopTermsSpnr = new JBIntSpinner(50, 0, 1000, 1);
 
+  private final JComboBox<String> topTermsOrderCombo =
+      new ComboBox<>(
+          new String[] {
+            MessageUtils.getLocalizedMessage("overview.combo.top_terms_order.doc_freq"),
+            MessageUtils.getLocalizedMessage("overview.combo.top_terms_order.total_term_freq")
+          });
+
   private final JTable topTermsTable = new JBTable();
 
   private final JPopupMenu topTermsContextMenu = new JPopupMenu();
 
+  private final JButton analyzeDiskUsageBtn = new JButton();
+
+  private final JPanel diskUsageProgressPanel = new JPanel(new BorderLayout(5, 0));
+
+  private final JProgressBar diskUsageProgressBar = new JProgressBar(0, 100);
+
+  private final JButton cancelDiskUsageBtn = new JButton();
+
+  private final JLabel diskUsageTotalLbl = new JLabel();
+
+  private final JTable diskUsageTable = new JBTable();
+
+  private final JButton inspectVectorsBtn = new JButton();
+
+  private final JPanel vectorStatsProgressPanel = new JPanel(new BorderLayout(5, 0));
+
+  private final JProgressBar vectorStatsProgressBar = new JProgressBar(0, 100);
+
+  private final JButton cancelVectorStatsBtn = new JButton();
+
+  private final JLabel vectorStatsTotalLbl = new JLabel();
+
+  private final JTable vectorStatsTable = new JBTable();
+
+  private final JTable vectorLevelsTable = new JBTable();
+
   private final ListenerFunctions listeners = new ListenerFunctions();
 
+  private final LazyIndexObserver indexObserver = new LazyIndexObserver(new Observer());
+
   private Overview overviewModel;
 
+  private BackgroundTask<Long, Map.Entry<String, Long>> termCountsTask;
+
+  private BackgroundTask<List<TermStats>, Void> topTermsTask;
+
+  private BackgroundTask<List<FieldDiskUsage>, Void> diskUsageTask;
+
+  private BackgroundTask<List<VectorFieldStats>, Void> vectorStatsTask;
+
+  private List<VectorFieldStats> vectorStats = List.of();
+
   public OverviewPanelProvider() {
     this.messageBroker = MessageBroker.getInstance();
     this.operatorRegistry = ComponentOperatorRegistry.getInstance();
     this.tabSwitcher = TabSwitcherProxy.getInstance();
+    this.statsCache = StatsCache.open(PreferencesImpl.getInstance().getStatsCacheDir());
 
-    IndexHandler.getInstance().addObserver(new Observer());
+    IndexHandler.getInstance().addObserver(indexObserver);
   }
 
   public JPanel get() {
@@ -125,6 +197,7 @@ public final class OverviewPanelProvider {
     panel.add(splitPane);
 
     setUpTopTermsContextMenu();
+    indexObserver.initializeWhenShown(panel);
 
     return panel;
   }
@@ -256,7 +329,15 @@ public final class OverviewPanelProvider {
     return panel;
   }
 
-  private JPanel initLowerPanel() {
+  private JTabbedPane initLowerPanel() {
+    JTabbedPane tabbedPane = new JBTabbedPane();
+    tabbedPane.addTab(MessageUtils.getLocalizedMessage("overview.tab.terms"), initTermsPanel());
+    tabbedPane.addTab(MessageUtils.getLocalizedMessage("overview.tab.disk_usage"), initDiskUsagePanel());
+    tabbedPane.addTab(MessageUtils.getLocalizedMessage("overview.tab.vectors"), initVectorsPanel());
+    return tabbedPane;
+  }
+
+  private JPanel initTermsPanel() {
     JPanel panel = new JPanel(new BorderLayout());
     panel.setOpaque(false);
 
@@ -297,6 +378,16 @@ public final class OverviewPanelProvider {
     JScrollPane scrollPane = new JBScrollPane(termCountsTable);
     panel.add(scrollPane, BorderLayout.CENTER);
 
+    termCountsProgressPanel.setOpaque(false);
+    termCountsProgressPanel.setBorder(BorderFactory.createEmptyBorder(5, 0, 0, 0));
+    termCountsProgressBar.setStringPainted(true);
+    termCountsProgressPanel.add(termCountsProgressBar, BorderLayout.CENTER);
+    cancelTermCountsBtn.setText(MessageUtils.getLocalizedMessage("button.cancel"));
+    cancelTermCountsBtn.addActionListener(listeners::cancelTermCounts);
+    termCountsProgressPanel.add(cancelTermCountsBtn, BorderLayout.LINE_END);
+    termCountsProgressPanel.setVisible(false);
+    panel.add(termCountsProgressPanel, BorderLayout.PAGE_END);
+
     panel.setOpaque(false);
     return panel;
   }
@@ -348,6 +439,16 @@ public final class OverviewPanelProvider {
     innerPanel5.add(numTopTermsSpnr);
     innerPanel.add(innerPanel5);
 
+    JPanel innerPanel6 = new JPanel(new FlowLayout(FlowLayout.LEADING));
+    innerPanel6.setOpaque(false);
+    innerPanel6.add(new JLabel(MessageUtils.getLocalizedMessage("overview.label.top_terms_order")));
+    innerPanel.add(innerPanel6);
+
+    JPanel innerPanel7 = new JPanel(new FlowLayout(FlowLayout.LEADING));
+    innerPanel7.setOpaque(false);
+    innerPanel7.add(topTermsOrderCombo);
+    innerPanel.add(innerPanel7);
+
     JPanel termsPanel = new JPanel(new BorderLayout());
     termsPanel.setOpaque(false);
     JLabel label = new JLabel(MessageUtils.getLocalizedMessage("overview.label.top_terms"));
@@ -378,6 +479,102 @@ public final class OverviewPanelProvider {
     return panel;
   }
 
+  private JPanel initDiskUsagePanel() {
+    JPanel panel = new JPanel(new BorderLayout());
+    panel.setOpaque(false);
+    panel.setBorder(BorderFactory.createEmptyBorder(5, 10, 10, 10));
+
+    JPanel header = new JPanel(new FlowLayout(FlowLayout.LEADING));
+    header.setOpaque(false);
+    analyzeDiskUsageBtn.setText(MessageUtils.getLocalizedMessage("overview.button.analyze_disk_usage"));
+    analyzeDiskUsageBtn.addActionListener(listeners::analyzeDiskUsage);
+    analyzeDiskUsageBtn.setEnabled(false);
+    header.add(analyzeDiskUsageBtn);
+    header.add(diskUsageTotalLbl);
+    panel.add(header, BorderLayout.PAGE_START);
+
+    TableUtils.setupTable(
+        diskUsageTable,
+        ListSelectionModel.SINGLE_SELECTION,
+        new DiskUsageTableModel(),
+        null,
+        DiskUsageTableModel.Column.NAME.getColumnWidth());
+    JScrollPane scrollPane = new JBScrollPane(diskUsageTable);
+    panel.add(scrollPane, BorderLayout.CENTER);
+
+    diskUsageProgressPanel.setOpaque(false);
+    diskUsageProgressPanel.setBorder(BorderFactory.createEmptyBorder(5, 0, 0, 0));
+    diskUsageProgressBar.setStringPainted(true);
+    diskUsageProgressPanel.add(diskUsageProgressBar, BorderLayout.CENTER);
+    cancelDiskUsageBtn.setText(MessageUtils.getLocalizedMessage("button.cancel"));
+    cancelDiskUsageBtn.addActionListener(listeners::cancelDiskUsage);
+    diskUsageProgressPanel.add(cancelDiskUsageBtn, BorderLayout.LINE_END);
+    diskUsageProgressPanel.setVisible(false);
+    panel.add(diskUsageProgressPanel, BorderLayout.PAGE_END);
+
+    return panel;
+  }
+
+  private JPanel initVectorsPanel() {
+    JPanel panel = new JPanel(new BorderLayout());
+    panel.setOpaque(false);
+    panel.setBorder(BorderFactory.createEmptyBorder(5, 10, 10, 10));
+
+    JPanel header = new JPanel(new FlowLayout(FlowLayout.LEADING));
+    header.setOpaque(false);
+    inspectVectorsBtn.setText(MessageUtils.getLocalizedMessage("overview.button.inspect_vectors"));
+    inspectVectorsBtn.addActionListener(listeners::inspectVectors);
+    inspectVectorsBtn.setEnabled(false);
+    header.add(inspectVectorsBtn);
+    header.add(vectorStatsTotalLbl);
+    panel.add(header, BorderLayout.PAGE_START);
+
+    TableUtils.setupTable(
+        vectorStatsTable,
+        ListSelectionModel.SINGLE_SELECTION,
+        new VectorStatsTableModel(),
+        null,
+        VectorStatsTableModel.Column.SEGMENT.getColumnWidth(),
+        VectorStatsTableModel.Column.FIELD.getColumnWidth());
+    vectorStatsTable.getSelectionModel().addListSelectionListener(e -> {
+      if (!e.getValueIsAdjusting()) {
+        showVectorLevels();
+      }
+    });
+    TableUtils.setupTable(
+        vectorLevelsTable,
+        ListSelectionModel.SINGLE_SELECTION,
+        new VectorLevelsTableModel(),
+        null,
+        VectorLevelsTableModel.Column.LEVEL.getColumnWidth(),
+        VectorLevelsTableModel.Column.NODES.getColumnWidth(),
+        VectorLevelsTableModel.Column.MIN_DEGREE.getColumnWidth(),
+        VectorLevelsTableModel.Column.AVG_DEGREE.getColumnWidth(),
+        VectorLevelsTableModel.Column.MAX_DEGREE.getColumnWidth());
+
+    JPanel levels = new JPanel(new BorderLayout());
+    levels.setOpaque(false);
+    levels.add(new JLabel(MessageUtils.getLocalizedMessage("overview.label.vector_levels")), BorderLayout.PAGE_START);
+    levels.add(new JBScrollPane(vectorLevelsTable), BorderLayout.CENTER);
+
+    JSplitPane splitPane = new JSplitPane(JSplitPane.VERTICAL_SPLIT, new JBScrollPane(vectorStatsTable), levels);
+    splitPane.setOpaque(false);
+    splitPane.setResizeWeight(0.6);
+    panel.add(splitPane, BorderLayout.CENTER);
+
+    vectorStatsProgressPanel.setOpaque(false);
+    vectorStatsProgressPanel.setBorder(BorderFactory.createEmptyBorder(5, 0, 0, 0));
+    vectorStatsProgressBar.setStringPainted(true);
+    vectorStatsProgressPanel.add(vectorStatsProgressBar, BorderLayout.CENTER);
+    cancelVectorStatsBtn.setText(MessageUtils.getLocalizedMessage("button.cancel"));
+    cancelVectorStatsBtn.addActionListener(listeners::cancelVectorStats);
+    vectorStatsProgressPanel.add(cancelVectorStatsBtn, BorderLayout.LINE_END);
+    vectorStatsProgressPanel.setVisible(false);
+    panel.add(vectorStatsProgressPanel, BorderLayout.PAGE_END);
+
+    return panel;
+  }
+
   private void setUpTopTermsContextMenu() {
     JMenuItem item1 =
         new JMenuItem(MessageUtils.getLocalizedMessage("overview.toptermtable.menu.item1"));
@@ -392,28 +589,283 @@ public final class OverviewPanelProvider {
 
   // control methods
 
+  /**
+   * Counts the terms of each field in a background thread, and fills in the rows of the term counts table
+   * as the fields are counted.
+   */
+  private void countTermsInBackground() {
+    cancelTermCounts();
+
+    Overview model = overviewModel;
+    TermCountsTableModel tableModel = (TermCountsTableModel) termCountsTable.getModel();
+    List<String> fields = List.copyOf(model.getFieldNames());
+
+    termCountsProgressBar.setValue(0);
+    termCountsProgressPanel.setVisible(true);
+    numTermsLbl.setText(MessageUtils.getLocalizedMessage("overview.label.counting_terms"));
+    termCountsTask =
+        BackgroundTask.<Long, Map.Entry<String, Long>>builder("overview-term-counts", (cancellation, progress) -> {
+              long numTerms = 0;
+              for (int i = 0; i < fields.size() && !cancellation.isCancelled(); i++) {
+                String field = fields.get(i);
+                long count = model.getNumTerms(field, cancellation);
+                numTerms += count;
+                progress.publishChunk(Map.entry(field, count));
+                progress.setPercent((i + 1) * 100 / fields.size());
+              }
+              return numTerms;
+            })
+            .onProgress(termCountsProgressBar::setValue)
+            .onChunks(termCounts -> {
+              for (Map.Entry<String, Long> termCount : termCounts) {
+                tableModel.setTermCount(termCount.getKey(), termCount.getValue());
+              }
+            })
+            .onFinish(() -> {
+              termCountsTask = null;
+              termCountsProgressPanel.setVisible(false);
+            })
+            .onSuccess(numTerms -> {
+              numTermsLbl.setText(Long.toString(numTerms));
+              tableModel.setRatios(numTerms);
+              termCountsTable
+                  .getRowSorter()
+                  .setSortKeys(
+                      List.of(
+                          new RowSorter.SortKey(
+                              TermCountsTableModel.Column.TERM_COUNT.getIndex(), SortOrder.DESCENDING)));
+            })
+            .onFailure(cause -> {
+              log.log(Level.SEVERE, "Error counting terms", cause);
+              numTermsLbl.setText("?");
+              messageBroker.showStatusMessage(MessageUtils.getLocalizedMessage("message.error.unknown"));
+            })
+            .start();
+  }
+
+  private void cancelTermCounts() {
+    if (termCountsTask != null) {
+      termCountsTask.cancel();
+      numTermsLbl.setText("?");
+    }
+  }
+
   private void selectField() {
     String field = getSelectedField();
     selectedField.setText(field);
     showTopTermsBtn.setEnabled(true);
   }
 
+  /**
+   * Collects the top terms of the selected field in a background thread, then shows them in the top terms table.
+   */
   private void showTopTerms() {
     String field = getSelectedField();
     int numTerms = (int) numTopTermsSpnr.getModel().getValue();
-    List<TermStats> termStats = overviewModel.getTopTerms(field, numTerms);
+    TopTermsOrder order = TopTermsOrder.values()[topTermsOrderCombo.getSelectedIndex()];
+    Overview model = overviewModel;
+
+    cancelTopTerms();
+    showTopTermsBtn.setEnabled(false);
+    messageBroker.showStatusMessage(
+        MessageUtils.getLocalizedMessage("overview.message.collecting_top_terms", field));
+    topTermsTask =
+        BackgroundTask.<List<TermStats>, Void>builder("overview-top-terms-task",
+                (cancellation, progress) -> model.getTopTerms(field, numTerms, order, cancellation))
+            .onFinish(() -> {
+              topTermsTask = null;
+              showTopTermsBtn.setEnabled(true);
+            })
+            .onSuccess(termStats -> {
+              // update top terms table
+              topTermsTable.setModel(new TopTermsTableModel(termStats, numTerms));
+              topTermsTable
+                  .getColumnModel()
+                  .getColumn(TopTermsTableModel.Column.RANK.getIndex())
+                  .setMaxWidth(TopTermsTableModel.Column.RANK.getColumnWidth());
+              topTermsTable
+                  .getColumnModel()
+                  .getColumn(TopTermsTableModel.Column.FREQ.getIndex())
+                  .setMaxWidth(TopTermsTableModel.Column.FREQ.getColumnWidth());
+              topTermsTable
+                  .getColumnModel()
+                  .getColumn(TopTermsTableModel.Column.TOTAL_FREQ.getIndex())
+                  .setMaxWidth(TopTermsTableModel.Column.TOTAL_FREQ.getColumnWidth());
+              messageBroker.clearStatusMessage();
+            })
+            .onFailure(cause -> {
+              log.log(Level.SEVERE, "Error collecting top terms", cause);
+              messageBroker.showStatusMessage(cause.getMessage());
+            })
+            .start();
+  }
+
+  private void cancelTopTerms() {
+    if (topTermsTask != null) {
+      topTermsTask.cancel();
+    }
+  }
 
-    // update top terms table
-    topTermsTable.setModel(new TopTermsTableModel(termStats, numTerms));
-    topTermsTable
+  /**
+   * Analyzes the disk usage of the fields in a background thread, then shows them in the disk usage table.
+   */
+  private void analyzeDiskUsage() {
+    cancelDiskUsage();
+
+    Overview model = overviewModel;
+
+    analyzeDiskUsageBtn.setEnabled(false);
+    diskUsageProgressBar.setValue(0);
+    diskUsageProgressPanel.setVisible(true);
+    messageBroker.showStatusMessage(MessageUtils.getLocalizedMessage("overview.message.analyzing_disk_usage"));
+    diskUsageTask =
+        BackgroundTask.<List<FieldDiskUsage>, Void>builder("overview-disk-usage-task",
+                (cancellation, progress) -> model.getDiskUsage(progress::setPercent, cancellation))
+            .onProgress(diskUsageProgressBar::setValue)
+            .onFinish(() -> {
+              diskUsageTask = null;
+              diskUsageProgressPanel.setVisible(false);
+              analyzeDiskUsageBtn.setEnabled(true);
+            })
+            .onSuccess(diskUsage -> {
+              showDiskUsage(diskUsage);
+              messageBroker.clearStatusMessage();
+            })
+            .onFailure(cause -> {
+              log.log(Level.SEVERE, "Error analyzing disk usage", cause);
+              messageBroker.showStatusMessage(cause.getMessage());
+            })
+            .start();
+  }
+
+  private void cancelDiskUsage() {
+    if (diskUsageTask != null) {
+      diskUsageTask.cancel();
+    }
+  }
+
+  private void showDiskUsage(List<FieldDiskUsage> diskUsage) {
+    diskUsageTable.setModel(new DiskUsageTableModel(diskUsage));
+    diskUsageTable.setRowSorter(new TableRowSorter<>(diskUsageTable.getModel()));
+    diskUsageTable
+        .getRowSorter()
+        .setSortKeys(List.of(new RowSorter.SortKey(DiskUsageTableModel.Column.TOTAL.getIndex(), SortOrder.DESCENDING)));
+    diskUsageTable
+        .getColumnModel()
+        .getColumn(DiskUsageTableModel.Column.NAME.getIndex())
+        .setPreferredWidth(DiskUsageTableModel.Column.NAME.getColumnWidth());
+    DefaultTableCellRenderer sizeRenderer = newSizeRenderer();
+    for (DiskUsageTableModel.Column column : DiskUsageTableModel.Column.values()) {
+      if (column != DiskUsageTableModel.Column.NAME) {
+        diskUsageTable.getColumnModel().getColumn(column.getIndex()).setCellRenderer(sizeRenderer);
+      }
+    }
+
+    long totalBytes = diskUsage.stream().mapToLong(FieldDiskUsage::getTotalBytes).sum();
+    diskUsageTotalLbl.setText(
+        MessageUtils.getLocalizedMessage("overview.label.disk_usage_total", RamUsageEstimator.humanReadableUnits(totalBytes)));
+  }
+
+  private static DefaultTableCellRenderer newSizeRenderer() {
+    DefaultTableCellRenderer sizeRenderer =
+        new DefaultTableCellRenderer() {
+          @Override
+          protected void setValue(Object value) {
+            setText(value instanceof Long bytes ? RamUsageEstimator.humanReadableUnits(bytes) : "");
+          }
+        };
+    sizeRenderer.setHorizontalAlignment(JLabel.RIGHT);
+    return sizeRenderer;
+  }
+
+  /**
+   * Collects the statistics of the vector fields of each segment in a background thread, then shows them in the vectors
+   * table.
+   */
+  private void inspectVectors() {
+    cancelVectorStats();
+
+    Overview model = overviewModel;
+
+    inspectVectorsBtn.setEnabled(false);
+    vectorStatsProgressBar.setValue(0);
+    vectorStatsProgressPanel.setVisible(true);
+    messageBroker.showStatusMessage(MessageUtils.getLocalizedMessage("overview.message.inspecting_vectors"));
+    vectorStatsTask =
+        BackgroundTask.<List<VectorFieldStats>, Void>builder("overview-vector-stats-task",
+                (cancellation, progress) -> model.getVectorStats(progress::setPercent, cancellation))
+            .onProgress(vectorStatsProgressBar::setValue)
+            .onFinish(() -> {
+              vectorStatsTask = null;
+              vectorStatsProgressPanel.setVisible(false);
+              inspectVectorsBtn.setEnabled(true);
+            })
+            .onSuccess(stats -> {
+              showVectorStats(stats);
+              messageBroker.clearStatusMessage();
+            })
+            .onFailure(cause -> {
+              log.log(Level.SEVERE, "Error inspecting vectors", cause);
+              messageBroker.showStatusMessage(cause.getMessage());
+            })
+            .start();
+  }
+
+  private void cancelVectorStats() {
+    if (vectorStatsTask != null) {
+      vectorStatsTask.cancel();
+    }
+  }
+
+  private void showVectorStats(List<VectorFieldStats> stats) {
+    vectorStats = stats;
+    vectorStatsTable.setModel(new VectorStatsTableModel(stats));
+    vectorStatsTable.setRowSorter(new TableRowSorter<>(vectorStatsTable.getModel()));
+    vectorStatsTable
         .getColumnModel()
-        .getColumn(TopTermsTableModel.Column.RANK.getIndex())
-        .setMaxWidth(TopTermsTableModel.Column.RANK.getColumnWidth());
-    topTermsTable
+        .getColumn(VectorStatsTableModel.Column.SEGMENT.getIndex())
+        .setPreferredWidth(VectorStatsTableModel.Column.SEGMENT.getColumnWidth());
+    vectorStatsTable
         .getColumnModel()
-        .getColumn(TopTermsTableModel.Column.FREQ.getIndex())
-        .setMaxWidth(TopTermsTableModel.Column.FREQ.getColumnWidth());
-    messageBroker.clearStatusMessage();
+        .getColumn(VectorStatsTableModel.Column.FIELD.getIndex())
+        .setPreferredWidth(VectorStatsTableModel.Column.FIELD.getColumnWidth());
+    DefaultTableCellRenderer sizeRenderer = newSizeRenderer();
+    for (VectorStatsTableModel.Column column : VectorStatsTableModel.Column.values()) {
+      if (column.isSize) {
+        vectorStatsTable.getColumnModel().getColumn(column.getIndex()).setCellRenderer(sizeRenderer);
+      }
+    }
+    vectorLevelsTable.setModel(new VectorLevelsTableModel());
+
+    long searchBytes = stats.stream().mapToLong(VectorFieldStats::getSearchBytes).sum();
+    vectorStatsTotalLbl.setText(
+        MessageUtils.getLocalizedMessage(
+            "overview.label.vector_stats_total",
+            stats.size(),
+            RamUsageEstimator.humanReadableUnits(searchBytes)));
+  }
+
+  private void showVectorLevels() {
+    int row = vectorStatsTable.getSelectedRow();
+    if (row < 0 || vectorStatsTable.getModel().getRowCount() != vectorStats.size()) {
+      vectorLevelsTable.setModel(new VectorLevelsTableModel());
+      return;
+    }
+    vectorLevelsTable.setModel(
+        new VectorLevelsTableModel(vectorStats.get(vectorStatsTable.convertRowIndexToModel(row))));
+    for (VectorLevelsTableModel.Column column : VectorLevelsTableModel.Column.values()) {
+      if (column != VectorLevelsTableModel.Column.DISTRIBUTION) {
+        vectorLevelsTable.getColumnModel().getColumn(column.getIndex()).setPreferredWidth(column.getColumnWidth());
+      }
+    }
+  }
+
+  private void clearVectorStats() {
+    vectorStats = List.of();
+    vectorStatsTable.setRowSorter(null);
+    vectorStatsTable.setModel(new VectorStatsTableModel());
+    vectorLevelsTable.setModel(new VectorLevelsTableModel());
+    vectorStatsTotalLbl.setText("");
   }
 
   private void browseByTerm() {
@@ -471,6 +923,29 @@ public final class OverviewPanelProvider {
       OverviewPanelProvider.this.showTopTerms();
     }
 
+    void cancelTermCounts(ActionEvent e) {
+      OverviewPanelProvider.this.cancelTermCounts();
+      messageBroker.showStatusMessage(MessageUtils.getLocalizedMessage("overview.message.term_counts_cancelled"));
+    }
+
+    void analyzeDiskUsage(ActionEvent e) {
+      OverviewPanelProvider.this.analyzeDiskUsage();
+    }
+
+    void cancelDiskUsage(ActionEvent e) {
+      OverviewPanelProvider.this.cancelDiskUsage();
+      messageBroker.showStatusMessage(MessageUtils.getLocalizedMessage("overview.message.disk_usage_cancelled"));
+    }
+
+    void inspectVectors(ActionEvent e) {
+      OverviewPanelProvider.this.inspectVectors();
+    }
+
+    void cancelVectorStats(ActionEvent e) {
+      OverviewPanelProvider.this.cancelVectorStats();
+      messageBroker.showStatusMessage(MessageUtils.getLocalizedMessage("overview.message.vector_stats_cancelled"));
+    }
+
     void showTopTermsContextMenu(MouseEvent e) {
       if (e.getClickCount() == 2 && !e.isConsumed()) {
         int row = topTermsTable.rowAtPoint(e.getPoint());
@@ -494,13 +969,23 @@ public final class OverviewPanelProvider {
 
     @Override
     public void openIndex(LukeState state) {
-      overviewModel = overviewFactory.newInstance(state.getIndexReader(), state.getIndexPath());
+      // the index may be reopened without being closed, so tasks working on the previous model are cancelled here
+      cancelTopTerms();
+      cancelDiskUsage();
+      cancelVectorStats();
+      selectedField.setText("");
+      showTopTermsBtn.setEnabled(false);
+      diskUsageTable.setRowSorter(null);
+      diskUsageTable.setModel(new DiskUsageTableModel());
+      diskUsageTotalLbl.setText("");
+      clearVectorStats();
+
+      overviewModel = overviewFactory.newInstance(state.getIndexReader(), state.getIndexPath(), statsCache);
 
       indexPathLbl.setText(overviewModel.getIndexPath());
       indexPathLbl.setToolTipText(overviewModel.getIndexPath());
       numFieldsLbl.setText(Integer.toString(overviewModel.getNumFields()));
       numDocsLbl.setText(Integer.toString(overviewModel.getNumDocuments()));
-      numTermsLbl.setText(Long.toString(overviewModel.getNumTerms()));
       String del =
           overviewModel.hasDeletions()
               ? String.format(Locale.ENGLISH, "Yes (%d)", overviewModel.getNumDeletedDocs())
@@ -513,10 +998,8 @@ public final class OverviewPanelProvider {
       commitPointLbl.setText(overviewModel.getCommitDescription().orElse("---"));
       commitUserDataLbl.setText(overviewModel.getCommitUserData().orElse("---"));
 
-      // term counts table
-      Map<String, Long> termCounts = overviewModel.getSortedTermCounts(TermCountsOrder.COUNT_DESC);
-      long numTerms = overviewModel.getNumTerms();
-      termCountsTable.setModel(new TermCountsTableModel(numTerms, termCounts));
+      // term counts table, the counts are filled in by a background task
+      termCountsTable.setModel(new TermCountsTableModel(overviewModel.getFieldNames()));
       termCountsTable.setRowSorter(new TableRowSorter<>(termCountsTable.getModel()));
       termCountsTable
           .getColumnModel()
@@ -544,10 +1027,19 @@ public final class OverviewPanelProvider {
           .getColumn(TopTermsTableModel.Column.FREQ.getIndex())
           .setMaxWidth(TopTermsTableModel.Column.FREQ.getColumnWidth());
       topTermsTable.getColumnModel().setColumnMargin(StyleConstants.TABLE_COLUMN_MARGIN_DEFAULT);
+
+      countTermsInBackground();
+      analyzeDiskUsageBtn.setEnabled(true);
+      inspectVectorsBtn.setEnabled(true);
     }
 
     @Override
     public void closeIndex() {
+      cancelTermCounts();
+      cancelTopTerms();
+      cancelDiskUsage();
+      cancelVectorStats();
+
       indexPathLbl.setText("");
       numFieldsLbl.setText("");
       numDocsLbl.setText("");
@@ -565,6 +1057,12 @@ public final class OverviewPanelProvider {
       termCountsTable.setRowSorter(null);
       termCountsTable.setModel(new TermCountsTableModel());
       topTermsTable.setModel(new TopTermsTableModel());
+      analyzeDiskUsageBtn.setEnabled(false);
+      diskUsageTable.setRowSorter(null);
+      diskUsageTable.setModel(new DiskUsageTableModel());
+      diskUsageTotalLbl.setText("");
+      inspectVectorsBtn.setEnabled(false);
+      clearVectorStats();
     }
   }
 
@@ -612,16 +1110,40 @@ public final class OverviewPanelProvider {
       super();
     }
 
-    TermCountsTableModel(double numTerms, Map<String, Long> termCounts) {
-      super(termCounts.size());
+    private final Map<String, Integer> rowsByField = new HashMap<>();
+
+    /**
+     * Creates a model with a row for each field, without term counts. The term counts are filled in
+     * via {@link #setTermCount(String, long)} as they become available.
+     */
+    TermCountsTableModel(Collection<String> fields) {
+      super(fields.size());
       int i = 0;
-      for (Map.Entry<String, Long> e : termCounts.entrySet()) {
-        String term = e.getKey();
-        Long count = e.getValue();
-        data[i++] =
-            new Object[] {
-              term, count, String.format(Locale.ENGLISH, "%.2f %%", count / numTerms * 100)
-            };
+      for (String field : fields) {
+        rowsByField.put(field, i);
+        data[i++] = new Object[] {field, null, ""};
+      }
+    }
+
+    void setTermCount(String field, long count) {
+      Integer row = rowsByField.get(field);
+      if (row != null) {
+        data[row][Column.TERM_COUNT.getIndex()] = count;
+        fireTableRowsUpdated(row, row);
+      }
+    }
+
+    /**
+     * Sets the ratio of each field's term count compared to the total number of terms.
+     */
+    void setRatios(double numTerms) {
+      for (Object[] row : data) {
+        if (row[Column.TERM_COUNT.getIndex()] instanceof Long count) {
+          row[Column.RATIO.getIndex()] = String.format(Locale.ENGLISH, "%.2f %%", count / numTerms * 100);
+        }
+      }
+      if (data.length > 0) {
+        fireTableRowsUpdated(0, data.length - 1);
       }
     }
 
@@ -636,7 +1158,8 @@ public final class OverviewPanelProvider {
     enum Column implements TableColumnInfo {
       RANK("Rank", 0, Integer.class, 50),
       FREQ("Freq", 1, Integer.class, 80),
-      TEXT("Text", 2, String.class, Integer.MAX_VALUE);
+      TOTAL_FREQ("Total freq", 2, Long.class, 100),
+      TEXT("Text", 3, String.class, Integer.MAX_VALUE);
 
       private final String colName;
       private final int index;
@@ -680,9 +1203,268 @@ public final class OverviewPanelProvider {
       for (int i = 0; i < data.length; i++) {
         int rank = i + 1;
         int freq = termStats.get(i).getDocFreq();
+        long totalFreq = termStats.get(i).getTotalTermFreq();
         String termText = termStats.get(i).getDecodedTermText();
-        data[i] = new Object[] {rank, freq, termText};
+        data[i] = new Object[] {rank, freq, totalFreq, termText};
+      }
+    }
+
+    @Override
+    protected Column[] columnInfos() {
+      return Column.values();
+    }
+  }
+
+  static final class DiskUsageTableModel extends TableModelBase<DiskUsageTableModel.Column> {
+
+    enum Column implements TableColumnInfo {
+      NAME("Name", 0, String.class, 150, null),
+      TOTAL("Total", 1, Long.class, 100, null),
+      TERMS("Terms", 2, Long.class, 100, IndexStructure.TERMS),
+      POSTINGS("Postings", 3, Long.class, 100, IndexStructure.POSTINGS),
+      POSITIONS("Positions", 4, Long.class, 100, IndexStructure.POSITIONS),
+      DOC_VALUES("Doc values", 5, Long.class, 100, IndexStructure.DOC_VALUES),
+      POINTS("Points", 6, Long.class, 100, IndexStructure.POINTS),
+      NORMS("Norms", 7, Long.class, 100, IndexStructure.NORMS),
+      STORED_FIELDS("Stored fields", 8, Long.class, 100, IndexStructure.STORED_FIELDS),
+      TERM_VECTORS("Term vectors", 9, Long.class, 100, IndexStructure.TERM_VECTORS),
+      VECTORS("Vectors", 10, Long.class, 100, IndexStructure.VECTORS);
+
+      private final String colName;
+      private final int index;
+      private final Class<?> type;
+      private final int width;
+      private final IndexStructure structure;
+
+      Column(String colName, int index, Class<?> type, int width, IndexStructure structure) {
+        this.colName = colName;
+        this.index = index;
+        this.type = type;
+        this.width = width;
+        this.structure = structure;
+      }
+
+      @Override
+      public String getColName() {
+        return colName;
+      }
+
+      @Override
+      public int getIndex() {
+        return index;
+      }
+
+      @Override
+      public Class<?> getType() {
+        return type;
+      }
+
+      @Override
+      public int getColumnWidth() {
+        return width;
+      }
+    }
+
+    DiskUsageTableModel() {
+      super();
+    }
+
+    DiskUsageTableModel(List<FieldDiskUsage> diskUsage) {
+      super(diskUsage.size());
+      Column[] columns = Column.values();
+      for (int i = 0; i < data.length; i++) {
+        FieldDiskUsage fieldDiskUsage = diskUsage.get(i);
+        Object[] row = new Object[columns.length];
+        row[Column.NAME.getIndex()] = fieldDiskUsage.getField();
+        row[Column.TOTAL.getIndex()] = fieldDiskUsage.getTotalBytes();
+        for (Column column : columns) {
+          if (column.structure != null) {
+            row[column.getIndex()] = fieldDiskUsage.getBytes(column.structure);
+          }
+        }
+        data[i] = row;
+      }
+    }
+
+    @Override
+    protected Column[] columnInfos() {
+      return Column.values();
+    }
+  }
+
+  static final class VectorStatsTableModel extends TableModelBase<VectorStatsTableModel.Column> {
+
+    enum Column implements TableColumnInfo {
+      SEGMENT("Segment", 0, String.class, 70, false),
+      FIELD("Field", 1, String.class, 150, false),
+      FORMAT("Format", 2, String.class, 150, false),
+      ENCODING("Encoding", 3, String.class, 70, false),
+      DIMENSION("Dims", 4, Integer.class, 50, false),
+      SIMILARITY("Similarity", 5, String.class, 100, false),
+      VECTORS("Vectors", 6, Integer.class, 80, false),
+      LEVELS("Levels", 7, Integer.class, 50, false),
+      AVG_DEGREE("Avg degree", 8, String.class, 70, false),
+      MAX_DEGREE("Max degree", 9, Integer.class, 70, false),
+      VECTOR_BYTES("Raw vectors", 10, Long.class, 90, true),
+      QUANTIZED_BYTES("Quantized vectors", 11, Long.class, 90, true),
+      GRAPH_BYTES("Graph", 12, Long.class, 90, true),
+      QUANTIZATION("Quantization", 13, String.class, 200, false);
+
+      private final String colName;
+      private final int index;
+      private final Class<?> type;
+      private final int width;
+      private final boolean isSize;
+
+      Column(String colName, int index, Class<?> type, int width, boolean isSize) {
+        this.colName = colName;
+        this.index = index;
+        this.type = type;
+        this.width = width;
+        this.isSize = isSize;
+      }
+
+      @Override
+      public String getColName() {
+        return colName;
+      }
+
+      @Override
+      public int getIndex() {
+        return index;
+      }
+
+      @Override
+      public Class<?> getType() {
+        return type;
+      }
+
+      @Override
+      public int getColumnWidth() {
+        return width;
+      }
+    }
+
+    VectorStatsTableModel() {
+      super();
+    }
+
+    VectorStatsTableModel(List<VectorFieldStats> stats) {
+      super(stats.size());
+      for (int i = 0; i < data.length; i++) {
+        VectorFieldStats fieldStats = stats.get(i);
+        List<VectorFieldStats.LevelStats> levels = fieldStats.getLevels();
+        ScalarQuantizer quantizer = fieldStats.getQuantizer();
+        data[i] = new Object[] {
+            fieldStats.getSegment(),
+            fieldStats.getField(),
+            fieldStats.getFormat(),
+            fieldStats.getEncoding().name(),
+            fieldStats.getDimension(),
+            fieldStats.getSimilarity().name(),
+            fieldStats.getNumVectors(),
+            levels.size(),
+            levels.isEmpty() ? "" : String.format(Locale.ENGLISH, "%.2f", levels.get(0).getAvgDegree()),
+            levels.isEmpty() ? null : levels.get(0).getMaxDegree(),
+            fieldStats.getVectorBytes(),
+            quantizer == null ? null : fieldStats.getQuantizedVectorBytes(),
+            fieldStats.getGraphBytes(),
+            quantizer == null
+                ? ""
+                : String.format(
+                    Locale.ENGLISH,
+                    "%d bits, quantiles [%g, %g]",
+                    quantizer.getBits(),
+                    quantizer.getLowerQuantile(),
+                    quantizer.getUpperQuantile())
+        };
+      }
+    }
+
+    @Override
+    protected Column[] columnInfos() {
+      return Column.values();
+    }
+  }
+
+  static final class VectorLevelsTableModel extends TableModelBase<VectorLevelsTableModel.Column> {
+
+    /** The maximum number of degree ranges the distribution is shown in. */
+    private static final int MAX_DEGREE_RANGES = 8;
+
+    enum Column implements TableColumnInfo {
+      LEVEL("Level", 0, Integer.class, 50),
+      NODES("Nodes", 1, Integer.class, 80),
+      MIN_DEGREE("Min degree", 2, Integer.class, 80),
+      AVG_DEGREE("Avg degree", 3, String.class, 80),
+      MAX_DEGREE("Max degree", 4, Integer.class, 80),
+      DISTRIBUTION("Degree distribution (degrees: nodes)", 5, String.class, Integer.MAX_VALUE);
+
+      private final String colName;
+      private final int index;
+      private final Class<?> type;
+      private final int width;
+
+      Column(String colName, int index, Class<?> type, int width) {
+        this.colName = colName;
+        this.index = index;
+        this.type = type;
+        this.width = width;
+      }
+
+      @Override
+      public String getColName() {
+        return colName;
+      }
+
+      @Override
+      public int getIndex() {
+        return index;
+      }
+
+      @Override
+      public Class<?> getType() {
+        return type;
+      }
+
+      @Override
+      public int getColumnWidth() {
+        return width;
+      }
+    }
+
+    VectorLevelsTableModel() {
+      super();
+    }
+
+    VectorLevelsTableModel(VectorFieldStats stats) {
+      super(stats.getLevels().size());
+      for (int i = 0; i < data.length; i++) {
+        VectorFieldStats.LevelStats level = stats.getLevels().get(i);
+        data[i] = new Object[] {
+            i,
+            level.getNumNodes(),
+            level.getMinDegree(),
+            String.format(Locale.ENGLISH, "%.2f", level.getAvgDegree()),
+            level.getMaxDegree(),
+            formatDistribution(level.getDegreeCounts())
+        };
+      }
+    }
+
+    /** Sums the node counts into at most {@link #MAX_DEGREE_RANGES} ranges of degrees of equal width. */
+    private static String formatDistribution(long[] degreeCounts) {
+      int width = (degreeCounts.length + MAX_DEGREE_RANGES - 1) / MAX_DEGREE_RANGES;
+      StringJoiner joiner = new StringJoiner(", ");
+      for (int from = 0; from < degreeCounts.length; from += width) {
+        int to = Math.min(from + width, degreeCounts.length) - 1;
+        long count = 0;
+        for (int degree = from; degree <= to; degree++) {
+          count += degreeCounts[degree];
+        }
+        joiner.add((from == to ? Integer.toString(from) : from + "-" + to) + ": " + count);
       }
+      return joiner.toString();
     }
 
     @Override
@@ -0,0 +1,243 @@
+//Copyright 2026 Tamás Balog. Use of this source code is governed by the Apache 2.0 license that can be found in the LICENSE file.
+package com.picimako.org.apache.lucene.luke.app.desktop.components;
+
+import org.apache.lucene.luke.app.desktop.components.TableColumnInfo;
+import org.apache.lucene.luke.util.LoggerFactory;
+import org.apache.lucene.util.NamedThreadFactory;
+
+import javax.swing.*;
+import javax.swing.table.AbstractTableModel;
+import java.io.Closeable;
+import java.lang.invoke.MethodHandles;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Table model that materializes only the rows being displayed.
+ * <p>
+ * The rows are loaded page by page, on a background thread, when a row of a page is first displayed. Until then,
+ * the cells of the page are empty. Only the most recently displayed pages are kept in memory, and when the table is
+ * scrolled quickly, the pages requested most recently are loaded first, while the ones scrolled past are dropped.
+ * <p>
+ * Apart from {@link #loadPage(int)}, the methods must be called on the event dispatch thread.
+ *
+ * @param <T> the type of the rows
+ * @param <C> the type of the column infos
+ */
+public abstract class PagedTableModel<T, C extends TableColumnInfo> extends AbstractTableModel implements Closeable {
+
+  private static final Logger log = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+
+  /** The max number of pages kept in memory, and the max number of pages waiting to be loaded. */
+  private static final int MAX_PAGES = 32;
+
+  private final int pageSize;
+
+  private final Map<Integer, List<T>> pages =
+      new LinkedHashMap<>(MAX_PAGES, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Integer, List<T>> eldest) {
+          return size() > MAX_PAGES;
+        }
+      };
+
+  /** The pages waiting to be loaded, the most recently requested first. Guarded by itself. */
+  private final Deque<PageRequest> requestedPages = new ArrayDeque<>();
+
+  /** The pages requested, but not yet received. */
+  private final Set<Integer> pendingPages = new HashSet<>();
+
+  private final ExecutorService loader;
+
+  /** Incremented when the pages are invalidated, so that pages loaded before that are discarded. */
+  private int generation;
+
+  private int rowCount;
+
+  private boolean closed;
+
+  /** Resolved on first use, so that {@link #columnInfos()} may rely on the state of the subclass. */
+  private C[] columns;
+
+  /**
+   * @param pageSize - the number of rows on a page
+   * @param threadName - the name of the thread loading the pages
+   */
+  protected PagedTableModel(int pageSize, String threadName) {
+    this.pageSize = pageSize;
+    this.loader = Executors.newSingleThreadExecutor(new NamedThreadFactory(threadName));
+  }
+
+  protected abstract C[] columnInfos();
+
+  private C[] columns() {
+    if (columns == null) {
+      columns = columnInfos();
+    }
+    return columns;
+  }
+
+  /**
+   * Loads the rows of the given page. Called on a background thread.
+   * <p>
+   * Each page, except the last one, must have exactly as many rows as the page size.
+   *
+   * @param page - the 0-based index of the page
+   */
+  protected abstract List<T> loadPage(int page) throws Exception;
+
+  /**
+   * Returns the value of the given cell.
+   *
+   * @param rowIndex - the index of the row in the table
+   * @param row - the row
+   * @param column - the column
+   */
+  protected abstract Object getColumnValue(int rowIndex, T row, C column);
+
+  public int getPageSize() {
+    return pageSize;
+  }
+
+  /**
+   * Sets the number of rows. Growing the table keeps the pages loaded so far, shrinking it discards them.
+   */
+  public void setRowCount(int rowCount) {
+    int oldRowCount = this.rowCount;
+    this.rowCount = rowCount;
+    if (rowCount > oldRowCount) {
+      // the last page may have been loaded while it was incomplete
+      pages.remove((oldRowCount - 1) / pageSize);
+      fireTableRowsInserted(oldRowCount, rowCount - 1);
+    } else if (rowCount < oldRowCount) {
+      invalidate();
+    }
+  }
+
+  /**
+   * Discards the pages loaded so far, so that they are reloaded when displayed.
+   */
+  public void invalidate() {
+    generation++;
+    pages.clear();
+    pendingPages.clear();
+    synchronized (requestedPages) {
+      requestedPages.clear();
+    }
+    fireTableDataChanged();
+  }
+
+  /**
+   * Returns the given row, if its page is loaded. Otherwise, the page is requested to be loaded.
+   */
+  public Optional<T> getRow(int rowIndex) {
+    if (rowIndex < 0 || rowIndex >= rowCount) {
+      return Optional.empty();
+    }
+    int page = rowIndex / pageSize;
+    List<T> rows = pages.get(page);
+    if (rows == null) {
+      requestPage(page);
+      return Optional.empty();
+    }
+    int index = rowIndex % pageSize;
+    return index < rows.size() ? Optional.of(rows.get(index)) : Optional.empty();
+  }
+
+  @Override
+  public int getRowCount() {
+    return rowCount;
+  }
+
+  @Override
+  public int getColumnCount() {
+    return columns().length;
+  }
+
+  @Override
+  public String getColumnName(int colIndex) {
+    return columns()[colIndex].getColName();
+  }
+
+  @Override
+  public Class<?> getColumnClass(int colIndex) {
+    return columns()[colIndex].getType();
+  }
+
+  @Override
+  public Object getValueAt(int rowIndex, int columnIndex) {
+    return getRow(rowIndex).map(row -> getColumnValue(rowIndex, row, columns()[columnIndex])).orElse(null);
+  }
+
+  private void requestPage(int page) {
+    if (closed || !pendingPages.add(page)) {
+      return;
+    }
+    PageRequest dropped = null;
+    synchronized (requestedPages) {
+      requestedPages.addFirst(new PageRequest(page, generation));
+      if (requestedPages.size() > MAX_PAGES) {
+        dropped = requestedPages.removeLast();
+      }
+    }
+    if (dropped != null) {
+      // scrolled past, it is requested again if it is displayed again
+      pendingPages.remove(dropped.page());
+    }
+    loader.execute(this::loadNextPage);
+  }
+
+  private void loadNextPage() {
+    PageRequest request;
+    synchronized (requestedPages) {
+      request = requestedPages.pollFirst();
+    }
+    if (request == null) {
+      return;
+    }
+    List<T> rows;
+    try {
+      rows = loadPage(request.page());
+    } catch (Exception e) {
+      log.log(Level.SEVERE, "Error loading page " + request.page(), e);
+      rows = List.of();
+    }
+    List<T> loadedRows = rows;
+    SwingUtilities.invokeLater(
+        () -> {
+          if (closed || generation != request.generation() || !pendingPages.remove(request.page())) {
+            return;
+          }
+          pages.put(request.page(), loadedRows);
+          int firstRow = request.page() * pageSize;
+          if (firstRow < rowCount) {
+            fireTableRowsUpdated(firstRow, Math.min(firstRow + pageSize, rowCount) - 1);
+          }
+        });
+  }
+
+  /**
+   * Stops loading pages. The rows loaded so far remain available.
+   */
+  @Override
+  public void close() {
+    closed = true;
+    synchronized (requestedPages) {
+      requestedPages.clear();
+    }
+    loader.shutdown();
+  }
+
+  private record PageRequest(int page, int generation) {
+  }
+}
@@ -24,6 +24,7 @@ import com.intellij.ui.JBColor;
 import com.intellij.ui.components.JBScrollPane;
 import com.intellij.ui.components.JBTabbedPane;
 import com.intellij.ui.table.JBTable;
+import com.intellij.ui.treeStructure.Tree;
 import com.intellij.util.ui.JBUI;
 import com.picimako.org.apache.lucene.luke.app.IndexHandler;
 import com.picimako.org.apache.lucene.luke.app.desktop.MessageBroker;
@@ -31,6 +32,8 @@ import com.picimako.org.apache.lucene.luke.app.desktop.components.dialog.search.
 import com.picimako.org.apache.lucene.luke.app.desktop.components.fragments.search.AnalyzerPaneProvider;
 import com.picimako.org.apache.lucene.luke.app.desktop.components.fragments.search.FieldValuesPaneProvider;
 import com.picimako.org.apache.lucene.luke.app.desktop.components.fragments.search.FieldValuesTabOperator;
+import com.picimako.org.apache.lucene.luke.app.desktop.components.fragments.search.KnnPaneProvider;
+import com.picimako.org.apache.lucene.luke.app.desktop.components.fragments.search.KnnTabOperator;
 import com.picimako.org.apache.lucene.luke.app.desktop.components.fragments.search.MLTPaneProvider;
 import com.picimako.org.apache.lucene.luke.app.desktop.components.fragments.search.MLTTabOperator;
 import com.picimako.org.apache.lucene.luke.app.desktop.components.fragments.search.QueryParserPaneProvider;
@@ -39,6 +42,13 @@ import com.picimako.org.apache.lucene.luke.app.desktop.components.fragments.sear
 import com.picimako.org.apache.lucene.luke.app.desktop.components.fragments.search.SimilarityTabOperator;
 import com.picimako.org.apache.lucene.luke.app.desktop.components.fragments.search.SortPaneProvider;
 import com.picimako.org.apache.lucene.luke.app.desktop.components.fragments.search.SortTabOperator;
+import com.picimako.org.apache.lucene.luke.models.search.ConcurrencyConfig;
+import com.picimako.org.apache.lucene.luke.models.search.KnnSearch;
+import com.picimako.org.apache.lucene.luke.models.search.QueryProfile;
+import com.picimako.org.apache.lucene.luke.models.search.SearchResults;
+import com.picimako.org.apache.lucene.luke.models.search.SearchSession;
+import com.picimako.org.apache.lucene.luke.models.search.SliceStats;
+import com.picimako.org.apache.lucene.luke.models.util.CancellationToken;
 import org.apache.lucene.analysis.Analyzer;
 import org.apache.lucene.analysis.standard.StandardAnalyzer;
 import org.apache.lucene.index.Term;
@@ -54,10 +64,10 @@ import org.apache.lucene.luke.models.search.MLTConfig;
 import org.apache.lucene.luke.models.search.QueryParserConfig;
 import org.apache.lucene.luke.models.search.Search;
 import org.apache.lucene.luke.models.search.SearchFactory;
-import org.apache.lucene.luke.models.search.SearchResults;
 import org.apache.lucene.luke.models.search.SimilarityConfig;
 import org.apache.lucene.luke.models.tools.IndexTools;
 import org.apache.lucene.luke.models.tools.IndexToolsFactory;
+import org.apache.lucene.luke.util.LoggerFactory;
 import org.apache.lucene.search.Explanation;
 import org.apache.lucene.search.Query;
 import org.apache.lucene.search.Sort;
@@ -65,16 +75,27 @@ import org.apache.lucene.search.TermQuery;
 import org.apache.lucene.search.TotalHits;
 
 import javax.swing.*;
+import javax.swing.tree.DefaultMutableTreeNode;
+import javax.swing.tree.DefaultTreeCellRenderer;
+import javax.swing.tree.DefaultTreeModel;
 import java.awt.*;
 import java.awt.event.ActionEvent;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
+import java.lang.invoke.MethodHandles;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
 import java.util.Set;
+import java.util.function.Function;
+import java.util.function.ObjLongConsumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
 
 /**
  * Provider of the Search panel
@@ -83,7 +104,13 @@ import java.util.Set;
  */
 public final class SearchPanelProvider implements SearchTabOperator {
 
-  private static final int DEFAULT_PAGE_SIZE = 10;
+  private static final Logger log = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+
+  private static final int DEFAULT_PAGE_SIZE = 1000;
+
+  private static final int DEFAULT_TIMEOUT_MILLIS = 10_000;
+
+  private static final int MAX_PROFILED_QUERY_LENGTH = 200;
 
   private final SearchFactory searchFactory;
 
@@ -111,6 +138,8 @@ public final class SearchPanelProvider implements SearchTabOperator {
 
   private final JScrollPane mlt;
 
+  private final JScrollPane knn;
+
   private final JCheckBox termQueryCB = new JCheckBox();
 
   private final JTextArea queryStringTA = new JTextArea();
@@ -129,6 +158,20 @@ public final class SearchPanelProvider implements SearchTabOperator {
 
   private final JFormattedTextField mltDocFTF = new JFormattedTextField();
 
+  private final JFormattedTextField pageSizeFTF = new JFormattedTextField();
+
+  private final JFormattedTextField timeoutFTF = new JFormattedTextField();
+
+  private final JCheckBox profileCB = new JCheckBox();
+
+  private final JCheckBox concurrentCB = new JCheckBox();
+
+  private final JFormattedTextField numThreadsFTF = new JFormattedTextField();
+
+  private final JFormattedTextField maxDocsPerSliceFTF = new JFormattedTextField();
+
+  private final JFormattedTextField maxSegmentsPerSliceFTF = new JFormattedTextField();
+
   private final JLabel totalHitsLbl = new JLabel();
 
   private final JLabel startLbl = new JLabel();
@@ -139,16 +182,50 @@ public final class SearchPanelProvider implements SearchTabOperator {
 
   private final JButton nextBtn = new JButton();
 
+  private final JFormattedTextField pageFTF = new JFormattedTextField();
+
+  private final JButton goToPageBtn = new JButton();
+
   private final JButton delBtn = new JButton(AllIcons.Actions.GC);
 
   private final JTable resultsTable = new JBTable();
 
+  private SearchResultsTableModel resultsTableModel = new SearchResultsTableModel();
+
+  private final JLabel sliceStatsLbl = new JLabel();
+
+  private final JTable sliceStatsTable = new JBTable();
+
+  private final JTabbedPane detailsTabbedPane = new JBTabbedPane();
+
+  private final JPanel profilePane = new JPanel(new BorderLayout());
+
+  private final JLabel profileLbl = new JLabel();
+
+  private final JTree profileTree = new Tree(new DefaultMutableTreeNode());
+
+  private final JPanel searchProgressPanel = new JPanel(new BorderLayout(5, 0));
+
+  private final JButton cancelSearchBtn = new JButton();
+
   private final ListenerFunctions listeners = new ListenerFunctions();
 
+  private final LazyIndexObserver indexObserver = new LazyIndexObserver(new Observer());
+
   private Search searchModel;
 
+  private SearchSession searchSession;
+
   private IndexTools toolsModel;
 
+  /**
+   * Whether the current results are kNN hits. The approximate kNN queries select the top k hits per segment when
+   * deleting by query, so these results can't be deleted by their query.
+   */
+  private boolean knnResults;
+
+  private BackgroundTask<TimedSearch, Void> searchTask;
+
   private final Project project;
 
   public SearchPanelProvider(Project project) {
@@ -165,8 +242,9 @@ public final class SearchPanelProvider implements SearchTabOperator {
     this.sort = new SortPaneProvider().get();
     this.values = new FieldValuesPaneProvider().get();
     this.mlt = new MLTPaneProvider().get();
+    this.knn = new KnnPaneProvider().get();
 
-    indexHandler.addObserver(new Observer());
+    indexHandler.addObserver(indexObserver);
     operatorRegistry.register(SearchTabOperator.class, this);
   }
 
@@ -178,8 +256,9 @@ public final class SearchPanelProvider implements SearchTabOperator {
     JSplitPane splitPane =
         new JSplitPane(JSplitPane.VERTICAL_SPLIT, initUpperPanel(), initLowerPanel());
     splitPane.setOpaque(false);
-    splitPane.setDividerLocation(350);
+    splitPane.setDividerLocation(400);
     panel.add(splitPane);
+    indexObserver.initializeWhenShown(panel);
 
     return panel;
   }
@@ -206,6 +285,7 @@ public final class SearchPanelProvider implements SearchTabOperator {
     tabbedPane.addTab("Sort", sort);
     tabbedPane.addTab("Field Values", values);
     tabbedPane.addTab("More Like This", mlt);
+    tabbedPane.addTab("kNN", knn);
 
     panel.add(tabbedPane, BorderLayout.CENTER);
 
@@ -333,6 +413,64 @@ public final class SearchPanelProvider implements SearchTabOperator {
     c.insets = JBUI.insets(8, 0, 0, 2);
     panel.add(docNo, c);
 
+    JPanel timeout = new JPanel(new FlowLayout(FlowLayout.LEADING));
+    timeout.setOpaque(false);
+    timeout.add(new JLabel(MessageUtils.getLocalizedMessage("search.label.page_size")));
+    pageSizeFTF.setColumns(4);
+    pageSizeFTF.setValue(DEFAULT_PAGE_SIZE);
+    timeout.add(pageSizeFTF);
+    timeout.add(new JLabel(MessageUtils.getLocalizedMessage("search.label.timeout")));
+    timeoutFTF.setColumns(6);
+    timeoutFTF.setValue(DEFAULT_TIMEOUT_MILLIS);
+    timeout.add(timeoutFTF);
+    timeout.add(new JLabel(MessageUtils.getLocalizedMessage("search.label.timeout_hint")));
+    profileCB.setText(MessageUtils.getLocalizedMessage("search.checkbox.profile"));
+    profileCB.setOpaque(false);
+    timeout.add(profileCB);
+    c.gridx = 0;
+    c.gridy = 7;
+    c.gridwidth = 3;
+    c.weightx = 0.0;
+    c.insets = JBUI.insets(5, 0, 0, 2);
+    panel.add(timeout, c);
+
+    ConcurrencyConfig defaultConcurrency = new ConcurrencyConfig.Builder().build();
+
+    JPanel concurrent = new JPanel(new FlowLayout(FlowLayout.LEADING));
+    concurrent.setOpaque(false);
+    concurrentCB.setText(MessageUtils.getLocalizedMessage("search.checkbox.concurrent"));
+    concurrentCB.setOpaque(false);
+    concurrentCB.addActionListener(listeners::toggleConcurrentSearch);
+    concurrent.add(concurrentCB);
+    concurrent.add(new JLabel(MessageUtils.getLocalizedMessage("search.label.num_threads")));
+    numThreadsFTF.setColumns(4);
+    numThreadsFTF.setValue(defaultConcurrency.getNumThreads());
+    concurrent.add(numThreadsFTF);
+    c.gridx = 0;
+    c.gridy = 8;
+    c.gridwidth = 3;
+    c.weightx = 0.0;
+    c.insets = JBUI.insets(2, 0, 0, 2);
+    panel.add(concurrent, c);
+
+    JPanel slices = new JPanel(new FlowLayout(FlowLayout.LEADING));
+    slices.setOpaque(false);
+    slices.add(new JLabel(MessageUtils.getLocalizedMessage("search.label.max_docs_per_slice")));
+    maxDocsPerSliceFTF.setColumns(8);
+    maxDocsPerSliceFTF.setValue(defaultConcurrency.getMaxDocsPerSlice());
+    slices.add(maxDocsPerSliceFTF);
+    slices.add(new JLabel(MessageUtils.getLocalizedMessage("search.label.max_segments_per_slice")));
+    maxSegmentsPerSliceFTF.setColumns(4);
+    maxSegmentsPerSliceFTF.setValue(defaultConcurrency.getMaxSegmentsPerSlice());
+    slices.add(maxSegmentsPerSliceFTF);
+    c.gridx = 0;
+    c.gridy = 9;
+    c.gridwidth = 3;
+    c.weightx = 0.0;
+    c.insets = JBUI.insets(0, 0, 0, 2);
+    panel.add(slices, c);
+    toggleConcurrentSearch();
+
     return panel;
   }
 
@@ -342,7 +480,25 @@ public final class SearchPanelProvider implements SearchTabOperator {
     panel.setBorder(BorderFactory.createEmptyBorder(10, 10, 10, 10));
 
     panel.add(initSearchResultsHeaderPane(), BorderLayout.PAGE_START);
-    panel.add(initSearchResultsTablePane(), BorderLayout.CENTER);
+
+    detailsTabbedPane.addTab(MessageUtils.getLocalizedMessage("search.tab.slices"), initSliceStatsPane());
+    detailsTabbedPane.addTab(MessageUtils.getLocalizedMessage("search.tab.profile"), initProfilePane());
+    JSplitPane splitPane =
+        new JSplitPane(JSplitPane.HORIZONTAL_SPLIT, initSearchResultsTablePane(), detailsTabbedPane);
+    splitPane.setOpaque(false);
+    splitPane.setResizeWeight(0.75);
+    panel.add(splitPane, BorderLayout.CENTER);
+
+    searchProgressPanel.setOpaque(false);
+    searchProgressPanel.setBorder(BorderFactory.createEmptyBorder(5, 0, 0, 0));
+    JProgressBar progressBar = new JProgressBar();
+    progressBar.setIndeterminate(true);
+    searchProgressPanel.add(progressBar, BorderLayout.CENTER);
+    cancelSearchBtn.setText(MessageUtils.getLocalizedMessage("button.cancel"));
+    cancelSearchBtn.addActionListener(listeners::cancelSearch);
+    searchProgressPanel.add(cancelSearchBtn, BorderLayout.LINE_END);
+    searchProgressPanel.setVisible(false);
+    panel.add(searchProgressPanel, BorderLayout.PAGE_END);
 
     return panel;
   }
@@ -389,6 +545,23 @@ public final class SearchPanelProvider implements SearchTabOperator {
     nextBtn.addActionListener(listeners::nextPage);
     resultsInfo.add(nextBtn);
 
+    JSeparator pageSep = new JSeparator(JSeparator.VERTICAL);
+    pageSep.setPreferredSize(new Dimension(5, 1));
+    resultsInfo.add(pageSep);
+
+    resultsInfo.add(new JLabel(MessageUtils.getLocalizedMessage("search.label.page")));
+    pageFTF.setColumns(5);
+    pageFTF.setValue(1);
+    pageFTF.setEnabled(false);
+    pageFTF.addActionListener(listeners::goToPage);
+    resultsInfo.add(pageFTF);
+
+    goToPageBtn.setText(MessageUtils.getLocalizedMessage("search.button.go"));
+    goToPageBtn.setMargin(JBUI.insets(3, 0));
+    goToPageBtn.setEnabled(false);
+    goToPageBtn.addActionListener(listeners::goToPage);
+    resultsInfo.add(goToPageBtn);
+
     JSeparator sep = new JSeparator(JSeparator.VERTICAL);
     sep.setPreferredSize(new Dimension(5, 1));
     resultsInfo.add(sep);
@@ -416,7 +589,7 @@ public final class SearchPanelProvider implements SearchTabOperator {
     TableUtils.setupTable(
         resultsTable,
         ListSelectionModel.SINGLE_SELECTION,
-        new SearchResultsTableModel(),
+        resultsTableModel,
         new MouseAdapter() {
           @Override
           public void mousePressed(MouseEvent e) {
@@ -431,8 +604,55 @@ public final class SearchPanelProvider implements SearchTabOperator {
     return panel;
   }
 
+  private JPanel initSliceStatsPane() {
+    JPanel panel = new JPanel(new BorderLayout());
+    panel.setOpaque(false);
+
+    JPanel summary = new JPanel(new FlowLayout(FlowLayout.LEADING, 5, 2));
+    summary.setOpaque(false);
+    summary.add(sliceStatsLbl);
+    panel.add(summary, BorderLayout.PAGE_START);
+
+    TableUtils.setupTable(
+        sliceStatsTable,
+        ListSelectionModel.SINGLE_SELECTION,
+        new SliceStatsTableModel(),
+        null,
+        SliceStatsTableModel.Column.SLICE.getColumnWidth(),
+        SliceStatsTableModel.Column.SEGMENTS.getColumnWidth());
+    panel.add(new JBScrollPane(sliceStatsTable), BorderLayout.CENTER);
+
+    return panel;
+  }
+
+  private JPanel initProfilePane() {
+    profilePane.setOpaque(false);
+
+    JPanel summary = new JPanel(new FlowLayout(FlowLayout.LEADING, 5, 2));
+    summary.setOpaque(false);
+    summary.add(profileLbl);
+    profilePane.add(summary, BorderLayout.PAGE_START);
+
+    profileTree.setRootVisible(false);
+    profileTree.setShowsRootHandles(true);
+    DefaultTreeCellRenderer renderer = new DefaultTreeCellRenderer();
+    renderer.setOpenIcon(null);
+    renderer.setClosedIcon(null);
+    renderer.setLeafIcon(null);
+    profileTree.setCellRenderer(renderer);
+    profilePane.add(new JBScrollPane(profileTree), BorderLayout.CENTER);
+
+    return profilePane;
+  }
+
   // control methods
 
+  private void toggleConcurrentSearch() {
+    numThreadsFTF.setEnabled(concurrentCB.isSelected());
+    maxDocsPerSliceFTF.setEnabled(concurrentCB.isSelected());
+    maxSegmentsPerSliceFTF.setEnabled(concurrentCB.isSelected());
+  }
+
   private void toggleTermQuery() {
     if (termQueryCB.isSelected()) {
       enableTermQuery();
@@ -448,7 +668,8 @@ public final class SearchPanelProvider implements SearchTabOperator {
     if (tabbedPane.getSelectedIndex() == Tab.QPARSER.index()
         || tabbedPane.getSelectedIndex() == Tab.ANALYZER.index()
         || tabbedPane.getSelectedIndex() == Tab.SIMILARITY.index()
-        || tabbedPane.getSelectedIndex() == Tab.MLT.index()) {
+        || tabbedPane.getSelectedIndex() == Tab.MLT.index()
+        || tabbedPane.getSelectedIndex() == Tab.KNN.index()) {
       tabbedPane.setSelectedIndex(Tab.SORT.index());
     }
     parseBtn.setEnabled(false);
@@ -497,30 +718,51 @@ public final class SearchPanelProvider implements SearchTabOperator {
             .get(FieldValuesTabOperator.class)
             .map(FieldValuesTabOperator::getFieldsToLoad)
             .orElse(Collections.emptySet());
-    SearchResults results =
-        searchModel.search(
-            query, simConfig, sort, fieldsToLoad, DEFAULT_PAGE_SIZE, exactHitsCntCB.isSelected());
-
-    TableUtils.setupTable(
-        resultsTable,
-        ListSelectionModel.SINGLE_SELECTION,
-        new SearchResultsTableModel(),
-        null,
-        SearchResultsTableModel.Column.DOCID.getColumnWidth(),
-        SearchResultsTableModel.Column.SCORE.getColumnWidth());
-    populateResults(results);
-
-    messageBroker.clearStatusMessage();
+    boolean exactHitsCount = exactHitsCntCB.isSelected();
+    int pageSize = getPageSize();
+    ConcurrencyConfig concurrency = getConcurrencyConfig();
+    boolean profile = profileCB.isSelected();
+    long timeoutMillis = getTimeoutMillis();
+    SearchSession session = searchSession;
+    searchInBackground(
+        cancellation ->
+            Optional.of(
+                session.search(
+                    query,
+                    simConfig,
+                    sort,
+                    fieldsToLoad,
+                    pageSize,
+                    exactHitsCount,
+                    concurrency,
+                    profile,
+                    timeoutMillis,
+                    cancellation)),
+        (results, elapsedNanos) -> showNewResults(results, false));
   }
 
   private void nextPage() {
-    searchModel.nextPage().ifPresent(this::populateResults);
-    messageBroker.clearStatusMessage();
+    SearchSession session = searchSession;
+    searchInBackground(session::nextPage, (results, elapsedNanos) -> populateResults(results));
   }
 
   private void prevPage() {
-    searchModel.prevPage().ifPresent(this::populateResults);
-    messageBroker.clearStatusMessage();
+    SearchSession session = searchSession;
+    searchInBackground(session::prevPage, (results, elapsedNanos) -> populateResults(results));
+  }
+
+  private void goToPage() {
+    if (Objects.isNull(pageFTF.getValue())) {
+      throw new LukeException("Page number is not set.");
+    }
+    int page = ((Number) pageFTF.getValue()).intValue();
+    if (page < 1) {
+      throw new LukeException("Page number must be a positive integer.");
+    }
+    SearchSession session = searchSession;
+    searchInBackground(
+        cancellation -> Optional.of(session.goToPage(page - 1, cancellation)),
+        (results, elapsedNanos) -> populateResults(results));
   }
 
   private void doMLTSearch() {
@@ -544,20 +786,178 @@ public final class SearchPanelProvider implements SearchTabOperator {
             .get(FieldValuesTabOperator.class)
             .map(FieldValuesTabOperator::getFieldsToLoad)
             .orElse(Collections.emptySet());
-    SearchResults results =
-        searchModel.search(
-            query, new SimilarityConfig.Builder().build(), fieldsToLoad, DEFAULT_PAGE_SIZE, false);
+    int pageSize = getPageSize();
+    ConcurrencyConfig concurrency = getConcurrencyConfig();
+    boolean profile = profileCB.isSelected();
+    long timeoutMillis = getTimeoutMillis();
+    SearchSession session = searchSession;
+    searchInBackground(
+        cancellation ->
+            Optional.of(
+                session.search(
+                    query,
+                    new SimilarityConfig.Builder().build(),
+                    null,
+                    fieldsToLoad,
+                    pageSize,
+                    false,
+                    concurrency,
+                    profile,
+                    timeoutMillis,
+                    cancellation)),
+        (results, elapsedNanos) -> showNewResults(results, false));
+  }
 
-    TableUtils.setupTable(
-        resultsTable,
-        ListSelectionModel.SINGLE_SELECTION,
-        new SearchResultsTableModel(),
-        null,
-        SearchResultsTableModel.Column.DOCID.getColumnWidth(),
-        SearchResultsTableModel.Column.SCORE.getColumnWidth());
+  private void doKnnSearch() {
+    KnnSearch.Stats stats = new KnnSearch.Stats();
+    Query query =
+        operatorRegistry
+            .get(KnnTabOperator.class)
+            .map(operator -> operator.createQuery(stats))
+            .orElseThrow(() -> new LukeException("kNN search is not available."));
+    Set<String> fieldsToLoad =
+        operatorRegistry
+            .get(FieldValuesTabOperator.class)
+            .map(FieldValuesTabOperator::getFieldsToLoad)
+            .orElse(Collections.emptySet());
+    int pageSize = getPageSize();
+    ConcurrencyConfig concurrency = getConcurrencyConfig();
+    boolean profile = profileCB.isSelected();
+    long timeoutMillis = getTimeoutMillis();
+    SearchSession session = searchSession;
+    searchInBackground(
+        cancellation ->
+            Optional.of(
+                session.search(
+                    query,
+                    new SimilarityConfig.Builder().build(),
+                    null,
+                    fieldsToLoad,
+                    pageSize,
+                    false,
+                    concurrency,
+                    profile,
+                    timeoutMillis,
+                    cancellation)),
+        (results, elapsedNanos) -> {
+          showNewResults(results, true);
+          operatorRegistry
+              .get(KnnTabOperator.class)
+              .ifPresent(operator -> operator.showStats(stats, elapsedNanos));
+        });
+  }
+
+  private int getPageSize() {
+    if (Objects.isNull(pageSizeFTF.getValue())) {
+      throw new LukeException("Page size is not set.");
+    }
+    int pageSize = ((Number) pageSizeFTF.getValue()).intValue();
+    if (pageSize < 1) {
+      throw new LukeException("Page size must be a positive integer.");
+    }
+    return pageSize;
+  }
+
+  private long getTimeoutMillis() {
+    if (Objects.isNull(timeoutFTF.getValue())) {
+      throw new LukeException("Timeout is not set.");
+    }
+    long timeoutMillis = ((Number) timeoutFTF.getValue()).longValue();
+    if (timeoutMillis < 0) {
+      throw new LukeException("Timeout must not be negative.");
+    }
+    return timeoutMillis;
+  }
+
+  private ConcurrencyConfig getConcurrencyConfig() {
+    if (!concurrentCB.isSelected()) {
+      return null;
+    }
+    if (Objects.isNull(numThreadsFTF.getValue())
+        || Objects.isNull(maxDocsPerSliceFTF.getValue())
+        || Objects.isNull(maxSegmentsPerSliceFTF.getValue())) {
+      throw new LukeException("The number of threads and the slice limits must be set.");
+    }
+    try {
+      return new ConcurrencyConfig.Builder()
+          .numThreads(((Number) numThreadsFTF.getValue()).intValue())
+          .maxDocsPerSlice(((Number) maxDocsPerSliceFTF.getValue()).intValue())
+          .maxSegmentsPerSlice(((Number) maxSegmentsPerSliceFTF.getValue()).intValue())
+          .build();
+    } catch (IllegalArgumentException e) {
+      throw new LukeException(e.getMessage(), e);
+    }
+  }
+
+  /**
+   * Runs a search in the background, cancelling the running one, if there is any.
+   *
+   * @param search - runs the search with the given cancellation token, and returns the page of hits to show,
+   *     if there is any
+   * @param onSuccess - receives the page of hits and the time the search took in nanoseconds, on the EDT
+   */
+  private void searchInBackground(
+      Function<CancellationToken, Optional<SearchResults>> search, ObjLongConsumer<SearchResults> onSuccess) {
+    cancelSearch();
+
+    searchProgressPanel.setVisible(true);
+    messageBroker.showStatusMessage(MessageUtils.getLocalizedMessage("search.message.searching"));
+    searchTask =
+        BackgroundTask.<TimedSearch, Void>builder("search-task", (cancellation, progress) -> {
+              long start = System.nanoTime();
+              Optional<SearchResults> results = search.apply(cancellation);
+              return new TimedSearch(results, System.nanoTime() - start);
+            })
+            .onFinish(() -> {
+              searchTask = null;
+              searchProgressPanel.setVisible(false);
+            })
+            .onSuccess(timedSearch -> {
+              Optional<SearchResults> results = timedSearch.results();
+              results.ifPresent(res -> onSuccess.accept(res, timedSearch.elapsedNanos()));
+              if (results.isPresent() && results.get().isPartial()) {
+                messageBroker.showStatusMessage(MessageUtils.getLocalizedMessage("search.message.timed_out"));
+              } else {
+                messageBroker.clearStatusMessage();
+              }
+            })
+            .onFailure(cause -> {
+              log.log(Level.SEVERE, "Error while searching", cause);
+              messageBroker.showStatusMessage(cause.getMessage());
+            })
+            .start();
+  }
+
+  private void cancelSearch() {
+    if (searchTask != null) {
+      searchTask.cancel();
+      messageBroker.clearStatusMessage();
+    }
+  }
+
+  private void showNewResults(SearchResults results, boolean knn) {
+    knnResults = knn;
+    setResultsTableModel(new SearchResultsTableModel());
     populateResults(results);
+  }
 
-    messageBroker.clearStatusMessage();
+  private void setResultsTableModel(SearchResultsTableModel model) {
+    // stops loading the stored fields of the previous hits
+    resultsTableModel.close();
+    resultsTableModel = model;
+    resultsTable.setModel(model);
+    resultsTable
+        .getColumnModel()
+        .getColumn(SearchResultsTableModel.Column.DOCID.getIndex())
+        .setPreferredWidth(SearchResultsTableModel.Column.DOCID.getColumnWidth());
+    resultsTable
+        .getColumnModel()
+        .getColumn(SearchResultsTableModel.Column.SCORE.getIndex())
+        .setPreferredWidth(SearchResultsTableModel.Column.SCORE.getColumnWidth());
+    resultsTable
+        .getColumnModel()
+        .getColumn(SearchResultsTableModel.Column.VALUE.getIndex())
+        .setPreferredWidth(SearchResultsTableModel.Column.VALUE.getColumnWidth());
   }
 
   private Query parse(boolean rewrite) {
@@ -582,42 +982,126 @@ public final class SearchPanelProvider implements SearchTabOperator {
   }
 
   private void populateResults(SearchResults res) {
-    totalHitsLbl.setText(String.valueOf(res.getTotalHits()));
+    showSliceStats(res.getSliceStats());
+    showProfile(res);
+    totalHitsLbl.setText(
+        res.isPartial()
+            ? MessageUtils.getLocalizedMessage("search.label.partial", res.getTotalHits())
+            : String.valueOf(res.getTotalHits()));
     if (res.getTotalHits().value > 0) {
       startLbl.setText(String.valueOf(res.getOffset() + 1));
       endLbl.setText(String.valueOf(res.getOffset() + res.size()));
 
-      prevBtn.setEnabled(res.getOffset() > 0);
-      nextBtn.setEnabled(
-          res.getTotalHits().relation == TotalHits.Relation.GREATER_THAN_OR_EQUAL_TO
-              || res.getTotalHits().value > res.getOffset() + res.size());
+      prevBtn.setEnabled(res.getPage() > 0);
+      nextBtn.setEnabled(res.hasNextPage());
+      pageFTF.setValue(res.getPage() + 1);
+      pageFTF.setEnabled(true);
+      goToPageBtn.setEnabled(true);
 
-      if (!indexHandler.getState().readOnly() && indexHandler.getState().hasDirectoryReader()) {
+      if (!knnResults && !indexHandler.getState().readOnly() && indexHandler.getState().hasDirectoryReader()) {
         delBtn.setEnabled(true);
       }
 
-      resultsTable.setModel(new SearchResultsTableModel(res));
-      resultsTable
-          .getColumnModel()
-          .getColumn(SearchResultsTableModel.Column.DOCID.getIndex())
-          .setPreferredWidth(SearchResultsTableModel.Column.DOCID.getColumnWidth());
-      resultsTable
-          .getColumnModel()
-          .getColumn(SearchResultsTableModel.Column.SCORE.getIndex())
-          .setPreferredWidth(SearchResultsTableModel.Column.SCORE.getColumnWidth());
-      resultsTable
-          .getColumnModel()
-          .getColumn(SearchResultsTableModel.Column.VALUE.getIndex())
-          .setPreferredWidth(SearchResultsTableModel.Column.VALUE.getColumnWidth());
+      setResultsTableModel(new SearchResultsTableModel(res));
     } else {
       startLbl.setText("0");
       endLbl.setText("0");
       prevBtn.setEnabled(false);
       nextBtn.setEnabled(false);
+      pageFTF.setValue(1);
+      pageFTF.setEnabled(false);
+      goToPageBtn.setEnabled(false);
       delBtn.setEnabled(false);
     }
   }
 
+  private void showSliceStats(List<SliceStats> sliceStats) {
+    long slowestNanos = sliceStats.stream().mapToLong(SliceStats::getElapsedNanos).max().orElse(0);
+    long totalNanos = sliceStats.stream().mapToLong(SliceStats::getElapsedNanos).sum();
+    sliceStatsLbl.setText(
+        MessageUtils.getLocalizedMessage(
+            "search.label.slices",
+            sliceStats.size(),
+            String.format(Locale.ENGLISH, "%.2f", slowestNanos / 1_000_000d),
+            String.format(Locale.ENGLISH, "%.2f", totalNanos / 1_000_000d)));
+    sliceStatsTable.setModel(new SliceStatsTableModel(sliceStats));
+    sliceStatsTable
+        .getColumnModel()
+        .getColumn(SliceStatsTableModel.Column.SLICE.getIndex())
+        .setPreferredWidth(SliceStatsTableModel.Column.SLICE.getColumnWidth());
+    sliceStatsTable
+        .getColumnModel()
+        .getColumn(SliceStatsTableModel.Column.SEGMENTS.getIndex())
+        .setPreferredWidth(SliceStatsTableModel.Column.SEGMENTS.getColumnWidth());
+  }
+
+  private void showProfile(SearchResults res) {
+    DefaultMutableTreeNode root = new DefaultMutableTreeNode();
+    Optional<QueryProfile> profile = res.getProfile();
+    if (profile.isPresent()) {
+      profileLbl.setText(
+          MessageUtils.getLocalizedMessage("search.label.profile", formatMillis(profile.get().getRewriteNanos())));
+      profile.get().getRoots().forEach(node -> root.add(createProfileNode(node)));
+    } else {
+      profileLbl.setText(MessageUtils.getLocalizedMessage("search.label.profile_disabled"));
+    }
+    profileTree.setModel(new DefaultTreeModel(root));
+    // expand the clauses and their operations, but not the segments
+    for (int row = 0; row < profileTree.getRowCount(); row++) {
+      Object node = profileTree.getPathForRow(row).getLastPathComponent();
+      if (((DefaultMutableTreeNode) node).getUserObject() instanceof ProfiledClause) {
+        profileTree.expandRow(row);
+      }
+    }
+    if (profile.isPresent()) {
+      detailsTabbedPane.setSelectedComponent(profilePane);
+    }
+  }
+
+  private static DefaultMutableTreeNode createProfileNode(QueryProfile.Node node) {
+    DefaultMutableTreeNode treeNode = new DefaultMutableTreeNode(new ProfiledClause(node));
+    addOperationNodes(treeNode, node.getTimings());
+    if (!node.getSegments().isEmpty()) {
+      DefaultMutableTreeNode segments =
+          new DefaultMutableTreeNode(
+              MessageUtils.getLocalizedMessage("search.label.profile_segments", node.getSegments().size()));
+      for (QueryProfile.SegmentTimings segment : node.getSegments()) {
+        DefaultMutableTreeNode segmentNode =
+            new DefaultMutableTreeNode(
+                String.format(
+                    Locale.ENGLISH,
+                    "#%d %s: %s ms",
+                    segment.getOrd(),
+                    Objects.requireNonNullElse(segment.getSegmentName(), ""),
+                    formatMillis(segment.getTimings().getTotalNanos())));
+        addOperationNodes(segmentNode, segment.getTimings());
+        segments.add(segmentNode);
+      }
+      treeNode.add(segments);
+    }
+    node.getChildren().forEach(child -> treeNode.add(createProfileNode(child)));
+    return treeNode;
+  }
+
+  private static void addOperationNodes(DefaultMutableTreeNode parent, QueryProfile.Timings timings) {
+    for (QueryProfile.Operation operation : QueryProfile.Operation.values()) {
+      if (timings.getCount(operation) > 0) {
+        parent.add(
+            new DefaultMutableTreeNode(
+                String.format(
+                    Locale.ENGLISH,
+                    "%s: %s ms (%,d calls)",
+                    operation.getDisplayName(),
+                    formatMillis(timings.getNanos(operation)),
+                    timings.getCount(operation))));
+      }
+    }
+  }
+
+  private static String formatMillis(long nanos) {
+    return String.format(Locale.ENGLISH, "%.3f", nanos / 1_000_000d);
+  }
+
   private void confirmDeletion() {
     if (Messages.showYesNoDialog(MessageUtils.getLocalizedMessage("search.message.delete_confirm"), "Confirm Deletion", Messages.getWarningIcon()) == Messages.YES) {
       deleteDocs();
@@ -625,7 +1109,7 @@ public final class SearchPanelProvider implements SearchTabOperator {
   }
 
   private void deleteDocs() {
-    Query query = searchModel.getCurrentQuery();
+    Query query = searchSession.getCurrentQuery();
     if (query != null) {
       toolsModel.deleteDocuments(query);
       indexHandler.reOpen();
@@ -650,7 +1134,7 @@ public final class SearchPanelProvider implements SearchTabOperator {
                       .getValueAt(
                           resultsTable.getSelectedRow(),
                           SearchResultsTableModel.Column.DOCID.getIndex());
-          Explanation explanation = searchModel.explain(parse(false), docid);
+          Explanation explanation = searchSession.explain(searchSession.getCurrentQuery(), docid);
           new ExplainDialogFactory(project, docid, explanation).show();
         });
     popup.add(item1);
@@ -679,6 +1163,7 @@ public final class SearchPanelProvider implements SearchTabOperator {
 
   @Override
   public void searchByTerm(String field, String term) {
+    indexObserver.initialize();
     termQueryCB.setSelected(true);
     enableTermQuery();
     queryStringTA.setText(field + ":" + term);
@@ -687,11 +1172,18 @@ public final class SearchPanelProvider implements SearchTabOperator {
 
   @Override
   public void mltSearch(int docNum) {
+    indexObserver.initialize();
     mltDocFTF.setValue(docNum);
     doMLTSearch();
     tabbedPane.setSelectedIndex(Tab.MLT.index());
   }
 
+  @Override
+  public void knnSearch() {
+    indexObserver.initialize();
+    doKnnSearch();
+  }
+
   @Override
   public void enableExactHitsCB(boolean value) {
     exactHitsCntCB.setEnabled(value);
@@ -724,10 +1216,22 @@ public final class SearchPanelProvider implements SearchTabOperator {
       SearchPanelProvider.this.prevPage();
     }
 
+    void goToPage(ActionEvent e) {
+      SearchPanelProvider.this.goToPage();
+    }
+
     void execMLTSearch(ActionEvent e) {
       SearchPanelProvider.this.doMLTSearch();
     }
 
+    void toggleConcurrentSearch(ActionEvent e) {
+      SearchPanelProvider.this.toggleConcurrentSearch();
+    }
+
+    void cancelSearch(ActionEvent e) {
+      SearchPanelProvider.this.cancelSearch();
+    }
+
     void confirmDeletion(ActionEvent e) {
       SearchPanelProvider.this.confirmDeletion();
     }
@@ -746,7 +1250,9 @@ public final class SearchPanelProvider implements SearchTabOperator {
 
     @Override
     public void openIndex(LukeState state) {
+      cancelSearch();
       searchModel = searchFactory.newInstance(state.getIndexReader());
+      searchSession = new SearchSession(state.getIndexReader());
       toolsModel =
           toolsFactory.newInstance(
               state.getIndexReader(), state.useCompound(), state.keepAllCommits());
@@ -770,6 +1276,9 @@ public final class SearchPanelProvider implements SearchTabOperator {
       operatorRegistry
           .get(MLTTabOperator.class)
           .ifPresent(operator -> operator.setFields(searchModel.getFieldNames()));
+      operatorRegistry
+          .get(KnnTabOperator.class)
+          .ifPresent(operator -> operator.setKnnSearch(new KnnSearch(state.getIndexReader())));
 
       queryStringTA.setText("*:*");
       parsedQueryTA.setText("");
@@ -780,8 +1289,11 @@ public final class SearchPanelProvider implements SearchTabOperator {
 
     @Override
     public void closeIndex() {
+      cancelSearch();
       searchModel = null;
+      searchSession = null;
       toolsModel = null;
+      operatorRegistry.get(KnnTabOperator.class).ifPresent(operator -> operator.setKnnSearch(null));
 
       queryStringTA.setText("");
       parsedQueryTA.setText("");
@@ -793,14 +1305,39 @@ public final class SearchPanelProvider implements SearchTabOperator {
       endLbl.setText("0");
       nextBtn.setEnabled(false);
       prevBtn.setEnabled(false);
+      pageFTF.setValue(1);
+      pageFTF.setEnabled(false);
+      goToPageBtn.setEnabled(false);
       delBtn.setEnabled(false);
+      sliceStatsLbl.setText("");
+      profileLbl.setText("");
+      profileTree.setModel(new DefaultTreeModel(new DefaultMutableTreeNode()));
       TableUtils.setupTable(
-          resultsTable,
+          sliceStatsTable,
           ListSelectionModel.SINGLE_SELECTION,
-          new SearchResultsTableModel(),
+          new SliceStatsTableModel(),
           null,
-          SearchResultsTableModel.Column.DOCID.getColumnWidth(),
-          SearchResultsTableModel.Column.SCORE.getColumnWidth());
+          SliceStatsTableModel.Column.SLICE.getColumnWidth(),
+          SliceStatsTableModel.Column.SEGMENTS.getColumnWidth());
+      setResultsTableModel(new SearchResultsTableModel());
+    }
+  }
+
+  /** The label of a profiled clause in the profile tree. */
+  private record ProfiledClause(QueryProfile.Node node) {
+
+    @Override
+    public String toString() {
+      String description = node.getDescription();
+      if (description.length() > MAX_PROFILED_QUERY_LENGTH) {
+        description = description.substring(0, MAX_PROFILED_QUERY_LENGTH) + "...";
+      }
+      return String.format(
+          Locale.ENGLISH,
+          "%s [%s]: %s ms",
+          node.getQueryType(),
+          description,
+          formatMillis(node.getTimings().getTotalNanos()));
     }
   }
 
@@ -811,7 +1348,8 @@ public final class SearchPanelProvider implements SearchTabOperator {
     SIMILARITY(2),
     SORT(3),
     VALUES(4),
-    MLT(5);
+    MLT(5),
+    KNN(6);
 
     private final int tabIdx;
 
@@ -824,8 +1362,16 @@ public final class SearchPanelProvider implements SearchTabOperator {
     }
   }
 
+  /** The page of hits a search returned, if there is any, and the time the search took. */
+  private record TimedSearch(Optional<SearchResults> results, long elapsedNanos) {
+  }
+
+  /**
+   * Table model of the hits of a page. The doc ids and the scores are shown right away, while the stored fields
+   * are loaded only for the rows being displayed, in batches, on a background thread.
+   */
   static final class SearchResultsTableModel
-      extends TableModelBase<SearchResultsTableModel.Column> {
+      extends PagedTableModel<Map<String, String[]>, SearchResultsTableModel.Column> {
 
     enum Column implements TableColumnInfo {
       DOCID("Doc ID", 0, Integer.class, 50),
@@ -865,29 +1411,114 @@ public final class SearchPanelProvider implements SearchTabOperator {
       }
     }
 
+    private final SearchResults results;
+
+    private final List<SearchResults.Doc> hits;
+
     SearchResultsTableModel() {
-      super();
+      this(null);
     }
 
     SearchResultsTableModel(SearchResults results) {
-      super(results.size());
-      for (int i = 0; i < results.size(); i++) {
-        SearchResults.Doc doc = results.getHits().get(i);
-        data[i][Column.DOCID.getIndex()] = doc.getDocId();
-        if (!Float.isNaN(doc.getScore())) {
-          data[i][Column.SCORE.getIndex()] = doc.getScore();
-        } else {
-          data[i][Column.SCORE.getIndex()] = 1.0f;
-        }
-        List<String> concatValues =
-            doc.getFieldValues().entrySet().stream()
-                .map(
-                    e -> {
-                      String v = String.join(",", Arrays.asList(e.getValue()));
-                      return e.getKey() + "=" + v + ";";
-                    })
-                .toList();
-        data[i][Column.VALUE.getIndex()] = String.join(" ", concatValues);
+      super(SearchResults.FIELD_VALUES_BATCH_SIZE, "search-results-fields");
+      this.results = results;
+      this.hits = results == null ? List.of() : results.getHits();
+      setRowCount(hits.size());
+    }
+
+    @Override
+    public Object getValueAt(int rowIndex, int columnIndex) {
+      // only the field values need to be loaded
+      if (columnIndex == Column.DOCID.getIndex()) {
+        return hits.get(rowIndex).getDocId();
+      } else if (columnIndex == Column.SCORE.getIndex()) {
+        return score(hits.get(rowIndex));
+      }
+      return super.getValueAt(rowIndex, columnIndex);
+    }
+
+    @Override
+    protected Column[] columnInfos() {
+      return Column.values();
+    }
+
+    @Override
+    protected List<Map<String, String[]>> loadPage(int page) {
+      int from = page * getPageSize();
+      return results.loadFieldValues(from, Math.min(from + getPageSize(), hits.size()));
+    }
+
+    @Override
+    protected Object getColumnValue(int rowIndex, Map<String, String[]> fieldValues, Column column) {
+      return switch (column) {
+        case DOCID -> hits.get(rowIndex).getDocId();
+        case SCORE -> score(hits.get(rowIndex));
+        case VALUE -> fieldValues.entrySet().stream()
+            .map(e -> e.getKey() + "=" + String.join(",", Arrays.asList(e.getValue())) + ";")
+            .collect(Collectors.joining(" "));
+      };
+    }
+
+    private static float score(SearchResults.Doc doc) {
+      return Float.isNaN(doc.getScore()) ? 1.0f : doc.getScore();
+    }
+  }
+
+  static final class SliceStatsTableModel extends TableModelBase<SliceStatsTableModel.Column> {
+
+    enum Column implements TableColumnInfo {
+      SLICE("Slice", 0, Integer.class, 50),
+      SEGMENTS("Segments", 1, Integer.class, 70),
+      DOCS("Docs", 2, Long.class, 90),
+      TIME("Time (ms)", 3, Double.class, 80),
+      THREAD("Thread", 4, String.class, 150);
+
+      private final String colName;
+      private final int index;
+      private final Class<?> type;
+      private final int width;
+
+      Column(String colName, int index, Class<?> type, int width) {
+        this.colName = colName;
+        this.index = index;
+        this.type = type;
+        this.width = width;
+      }
+
+      @Override
+      public String getColName() {
+        return colName;
+      }
+
+      @Override
+      public int getIndex() {
+        return index;
+      }
+
+      @Override
+      public Class<?> getType() {
+        return type;
+      }
+
+      @Override
+      public int getColumnWidth() {
+        return width;
+      }
+    }
+
+    SliceStatsTableModel() {
+      super();
+    }
+
+    SliceStatsTableModel(List<SliceStats> sliceStats) {
+      super(sliceStats.size());
+      for (int i = 0; i < sliceStats.size(); i++) {
+        SliceStats stats = sliceStats.get(i);
+        data[i][Column.SLICE.getIndex()] = stats.getSlice();
+        data[i][Column.SEGMENTS.getIndex()] = stats.getNumSegments();
+        data[i][Column.DOCS.getIndex()] = stats.getNumDocs();
+        data[i][Column.TIME.getIndex()] = Math.round(stats.getElapsedNanos() / 10_000d) / 100d;
+        data[i][Column.THREAD.getIndex()] = stats.getThread();
       }
     }
 
@@ -27,6 +27,8 @@ public interface SearchTabOperator extends ComponentOperatorRegistry.ComponentOp
 
   void mltSearch(int docNum);
 
+  void knnSearch();
+
   void enableExactHitsCB(boolean value);
 
   void setExactHits(boolean value);
@@ -0,0 +1,366 @@
+//Copyright 2026 Tamás Balog. Use of this source code is governed by the Apache 2.0 license that can be found in the LICENSE file.
+package com.picimako.org.apache.lucene.luke.app.desktop.components.dialog.documents;
+
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.ui.ComboBox;
+import com.intellij.openapi.ui.DialogWrapper;
+import com.intellij.ui.JBIntSpinner;
+import com.intellij.ui.components.JBLabel;
+import com.intellij.ui.components.JBScrollPane;
+import com.intellij.ui.table.JBTable;
+import com.picimako.org.apache.lucene.luke.app.desktop.LukeMain;
+import com.picimako.org.apache.lucene.luke.app.desktop.components.BackgroundTask;
+import com.picimako.org.apache.lucene.luke.app.desktop.components.PagedTableModel;
+import com.picimako.org.apache.lucene.luke.app.desktop.components.dialog.documents.DocValuesDialogFactory.Decoder;
+import com.picimako.org.apache.lucene.luke.models.documents.DocValuesColumn;
+import com.picimako.org.apache.lucene.luke.models.documents.DocValuesEntry;
+import com.picimako.org.apache.lucene.luke.models.documents.DocValuesSummary;
+import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.luke.app.desktop.components.TableColumnInfo;
+import org.apache.lucene.luke.app.desktop.util.MessageUtils;
+import org.apache.lucene.luke.app.desktop.util.TableUtils;
+import org.apache.lucene.luke.models.LukeException;
+import org.apache.lucene.luke.util.BytesRefUtils;
+import org.apache.lucene.luke.util.LoggerFactory;
+import org.apache.lucene.util.BytesRef;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.lang.invoke.MethodHandles;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.IntConsumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
+
+/**
+ * Factory of the dialog listing the doc values of a field in a range of documents, one document per row.
+ * <p>
+ * Only the rows being displayed are read from the index. The statistics of the range are computed in a background
+ * thread, in a single pass over the documents.
+ */
+public final class DocValuesBrowserDialogFactory extends DialogWrapper {
+
+  private static final Logger log = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+
+  /** The max number of rows, since the height of a table with hundreds of millions of rows would overflow. */
+  private static final int MAX_ROWS = 10_000 * DocValuesColumn.PAGE_SIZE;
+
+  private final IndexReader reader;
+
+  private final String field;
+
+  private final IntConsumer docSelectionHandler;
+
+  private final JSpinner fromDocSpnr;
+
+  private final JSpinner toDocSpnr;
+
+  private final JComboBox<String> decodersCombo = new ComboBox<>();
+
+  private final JTable valuesTable = new JBTable();
+
+  private final DocValuesTableModel tableModel = new DocValuesTableModel();
+
+  private final JLabel typeLbl = new JLabel();
+
+  private final JLabel summaryLbl = new JLabel();
+
+  private DocValuesColumn column;
+
+  private DocValuesSummary summary;
+
+  private BackgroundTask<DocValuesSummary, Integer> summaryTask;
+
+  /**
+   * @param reader - the index reader
+   * @param field - the name of a field with doc values
+   * @param docId - the id of the document to show initially
+   * @param docSelectionHandler - receives the id of the document double-clicked in the table
+   * @throws LukeException - if the field has no doc values
+   */
+  public DocValuesBrowserDialogFactory(@Nullable Project project, IndexReader reader, String field, int docId,
+                                       IntConsumer docSelectionHandler) {
+    super(project, LukeMain.getOwnerFrame(), false, IdeModalityType.IDE);
+
+    this.reader = Objects.requireNonNull(reader);
+    this.field = Objects.requireNonNull(field);
+    this.docSelectionHandler = Objects.requireNonNull(docSelectionHandler);
+
+    // the initial range starts at the page of the document, unless the whole index fits in the table
+    int maxDoc = reader.maxDoc();
+    int fromDoc = maxDoc <= MAX_ROWS ? 0 : Math.min(docId - docId % DocValuesColumn.PAGE_SIZE, maxDoc - MAX_ROWS);
+    int toDoc = Math.min(maxDoc, fromDoc + MAX_ROWS);
+    this.fromDocSpnr = new JBIntSpinner(fromDoc, 0, maxDoc, 1);
+    this.toDocSpnr = new JBIntSpinner(toDoc, 0, maxDoc, 1);
+    this.column = new DocValuesColumn(reader, field, fromDoc, toDoc);
+
+    setTitle("Doc Values");
+    setSize(800, 500);
+    setCancelButtonText(MessageUtils.getLocalizedMessage("button.close"));
+
+    init();
+    showRange(docId);
+  }
+
+  @Override
+  protected Action @NotNull [] createActions() {
+    return new Action[]{getCancelAction()};
+  }
+
+  @Override
+  protected @Nullable JComponent createCenterPanel() {
+    return content();
+  }
+
+  private JPanel content() {
+    JPanel panel = new JPanel(new BorderLayout());
+    panel.setOpaque(false);
+    panel.setBorder(BorderFactory.createEmptyBorder(15, 15, 15, 15));
+    panel.add(headerPanel(), BorderLayout.PAGE_START);
+
+    TableUtils.setupTable(
+        valuesTable,
+        ListSelectionModel.SINGLE_SELECTION,
+        tableModel,
+        new MouseAdapter() {
+          @Override
+          public void mouseClicked(MouseEvent e) {
+            if (e.getClickCount() == 2) {
+              tableModel
+                  .getRow(valuesTable.rowAtPoint(e.getPoint()))
+                  .ifPresent(entry -> docSelectionHandler.accept(entry.getDocId()));
+            }
+          }
+        },
+        DocValuesTableModel.Column.DOC_ID.getColumnWidth(),
+        DocValuesTableModel.Column.COUNT.getColumnWidth());
+    panel.add(new JBScrollPane(valuesTable), BorderLayout.CENTER);
+
+    JPanel footer = new JPanel(new FlowLayout(FlowLayout.LEADING, 5, 5));
+    footer.setOpaque(false);
+    footer.add(summaryLbl);
+    panel.add(footer, BorderLayout.PAGE_END);
+
+    return panel;
+  }
+
+  private JPanel headerPanel() {
+    JPanel header = new JPanel();
+    header.setOpaque(false);
+    header.setLayout(new BoxLayout(header, BoxLayout.PAGE_AXIS));
+
+    JPanel fieldHeader = new JPanel(new FlowLayout(FlowLayout.LEADING, 5, 5));
+    fieldHeader.setOpaque(false);
+    fieldHeader.add(new JBLabel(MessageUtils.getLocalizedMessage("documents.docvalues.label.doc_values")));
+    fieldHeader.add(new JLabel(field));
+    fieldHeader.add(new JBLabel(MessageUtils.getLocalizedMessage("documents.docvalues.label.type")));
+    fieldHeader.add(typeLbl);
+    header.add(fieldHeader);
+
+    JPanel rangeHeader = new JPanel(new FlowLayout(FlowLayout.LEADING, 5, 5));
+    rangeHeader.setOpaque(false);
+    rangeHeader.add(new JBLabel(MessageUtils.getLocalizedMessage("documents.dvbrowser.label.from_doc")));
+    rangeHeader.add(fromDocSpnr);
+    rangeHeader.add(new JBLabel(MessageUtils.getLocalizedMessage("documents.dvbrowser.label.to_doc")));
+    rangeHeader.add(toDocSpnr);
+    JButton showBtn = new JButton(MessageUtils.getLocalizedMessage("documents.dvbrowser.button.show"));
+    showBtn.addActionListener(e -> changeRange());
+    rangeHeader.add(showBtn);
+    rangeHeader.add(new JBLabel(MessageUtils.getLocalizedMessage("documents.dvbrowser.label.decoded_as")));
+    String[] decoders = Arrays.stream(Decoder.values()).map(Decoder::toString).toArray(String[]::new);
+    decodersCombo.setModel(new DefaultComboBoxModel<>(decoders));
+    decodersCombo.setSelectedItem(Decoder.LONG.toString());
+    decodersCombo.addActionListener(e -> selectDecoder());
+    rangeHeader.add(decodersCombo);
+    header.add(rangeHeader);
+
+    return header;
+  }
+
+  // control methods
+
+  private void changeRange() {
+    int fromDoc = (Integer) fromDocSpnr.getValue();
+    int toDoc = (Integer) toDocSpnr.getValue();
+    if (toDoc <= fromDoc) {
+      summaryLbl.setText(MessageUtils.getLocalizedMessage("documents.dvbrowser.message.invalid_range"));
+      return;
+    }
+    if (toDoc - fromDoc > MAX_ROWS) {
+      toDoc = fromDoc + MAX_ROWS;
+      toDocSpnr.setValue(toDoc);
+    }
+    column = new DocValuesColumn(reader, field, fromDoc, toDoc);
+    showRange(fromDoc);
+  }
+
+  /** Shows the doc values of the current range, scrolled to the given document, and starts summarizing them. */
+  private void showRange(int docId) {
+    typeLbl.setText(column.getType().toString());
+    decodersCombo.setEnabled(column.isNumeric());
+    tableModel.setColumn(column);
+    int row = docId - column.getFromDoc();
+    if (row >= 0 && row < column.getNumDocs()) {
+      valuesTable.changeSelection(row, 0, false, false);
+    }
+    summarize();
+  }
+
+  private void summarize() {
+    cancelSummary();
+    summary = null;
+
+    DocValuesColumn summarizedColumn = column;
+    summaryLbl.setText(MessageUtils.getLocalizedMessage("documents.dvbrowser.label.summarizing", 0));
+    summaryTask =
+        BackgroundTask.<DocValuesSummary, Integer>builder("documents-docvalues-summary",
+                (cancellation, progress) -> summarizedColumn.summarize(cancellation, progress::publishChunk))
+            .onChunks(numDocs ->
+                summaryLbl.setText(
+                    MessageUtils.getLocalizedMessage(
+                        "documents.dvbrowser.label.summarizing", numDocs.get(numDocs.size() - 1))))
+            .onFinish(() -> summaryTask = null)
+            .onSuccess(result -> {
+              summary = result;
+              showSummary();
+            })
+            .onFailure(cause -> {
+              log.log(Level.SEVERE, "Error summarizing doc values", cause);
+              summaryLbl.setText(cause.getMessage());
+            })
+            .start();
+  }
+
+  private void cancelSummary() {
+    if (summaryTask != null) {
+      summaryTask.cancel();
+    }
+  }
+
+  private void showSummary() {
+    if (summary.getNumValues() == 0) {
+      summaryLbl.setText(
+          MessageUtils.getLocalizedMessage(
+              "documents.dvbrowser.label.summary_no_values", summary.getNumDocs()));
+      return;
+    }
+    summaryLbl.setText(
+        MessageUtils.getLocalizedMessage(
+            "documents.dvbrowser.label.summary",
+            summary.getNumDocs(),
+            summary.getNumDocsWithValues(),
+            summary.getNumValues(),
+            format(summary.getMin()),
+            format(summary.getMax()),
+            (summary.isCardinalityExact() ? "" : ">") + summary.getCardinality()));
+  }
+
+  private void selectDecoder() {
+    tableModel.fireTableDataChanged();
+    if (summary != null) {
+      showSummary();
+    }
+  }
+
+  /** Formats a numeric value with the selected decoder, and a binary value as text. */
+  private String format(Object value) {
+    if (value instanceof Long longValue) {
+      return Decoder.fromLabel((String) decodersCombo.getSelectedItem()).format(longValue);
+    }
+    return BytesRefUtils.decode((BytesRef) value);
+  }
+
+  @Override
+  protected void dispose() {
+    cancelSummary();
+    tableModel.close();
+    super.dispose();
+  }
+
+  final class DocValuesTableModel extends PagedTableModel<DocValuesEntry, DocValuesTableModel.Column> {
+
+    enum Column implements TableColumnInfo {
+      DOC_ID("Doc #", 0, Integer.class, 100),
+      COUNT("Count", 1, Integer.class, 80),
+      VALUES("Values", 2, String.class, 600);
+
+      private final String colName;
+      private final int index;
+      private final Class<?> type;
+      private final int width;
+
+      Column(String colName, int index, Class<?> type, int width) {
+        this.colName = colName;
+        this.index = index;
+        this.type = type;
+        this.width = width;
+      }
+
+      @Override
+      public String getColName() {
+        return colName;
+      }
+
+      @Override
+      public int getIndex() {
+        return index;
+      }
+
+      @Override
+      public Class<?> getType() {
+        return type;
+      }
+
+      @Override
+      public int getColumnWidth() {
+        return width;
+      }
+    }
+
+    /** The column being displayed, read by the page loader thread. */
+    private volatile DocValuesColumn column;
+
+    DocValuesTableModel() {
+      super(DocValuesColumn.PAGE_SIZE, "documents-docvalues-list");
+    }
+
+    void setColumn(DocValuesColumn column) {
+      this.column = column;
+      invalidate();
+      setRowCount(column.getNumDocs());
+    }
+
+    @Override
+    protected Column[] columnInfos() {
+      return Column.values();
+    }
+
+    @Override
+    protected List<DocValuesEntry> loadPage(int page) {
+      return column.getPage(page);
+    }
+
+    @Override
+    protected Object getColumnValue(int rowIndex, DocValuesEntry entry, Column column) {
+      return switch (column) {
+        case DOC_ID -> entry.getDocId();
+        case COUNT -> entry.isDeleted() ? null : entry.getNumValues();
+        case VALUES -> entry.isDeleted()
+            ? MessageUtils.getLocalizedMessage("documents.dvbrowser.label.deleted")
+            : values(entry);
+      };
+    }
+
+    private String values(DocValuesEntry entry) {
+      List<?> values = entry.getNumericValues().isEmpty() ? entry.getValues() : entry.getNumericValues();
+      return values.stream().map(DocValuesBrowserDialogFactory.this::format).collect(Collectors.joining(", "));
+    }
+  }
+}
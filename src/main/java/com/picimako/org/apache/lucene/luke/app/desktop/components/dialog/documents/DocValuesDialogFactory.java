@@ -244,6 +244,20 @@ public final class DocValuesDialogFactory extends DialogWrapper {
       return label;
     }
 
+    /** Returns the given doc value decoded as a double. */
+    public double toDouble(long value) {
+      return switch (this) {
+        case LONG -> value;
+        case FLOAT -> NumericUtils.sortableIntToFloat((int) value);
+        case DOUBLE -> NumericUtils.sortableLongToDouble(value);
+      };
+    }
+
+    /** Returns the given doc value decoded as text. */
+    public String format(long value) {
+      return this == LONG ? String.valueOf(value) : String.valueOf(toDouble(value));
+    }
+
     public static Decoder fromLabel(String label) {
       for (Decoder d : values()) {
         if (d.label.equalsIgnoreCase(label)) {
@@ -0,0 +1,416 @@
+//Copyright 2026 Tamás Balog. Use of this source code is governed by the Apache 2.0 license that can be found in the LICENSE file.
+package com.picimako.org.apache.lucene.luke.app.desktop.components.dialog.documents;
+
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.ui.ComboBox;
+import com.intellij.openapi.ui.DialogWrapper;
+import com.intellij.ui.components.JBLabel;
+import com.intellij.ui.components.JBScrollPane;
+import com.intellij.ui.table.JBTable;
+import com.picimako.org.apache.lucene.luke.app.desktop.LukeMain;
+import com.picimako.org.apache.lucene.luke.app.desktop.components.BackgroundTask;
+import com.picimako.org.apache.lucene.luke.app.desktop.components.dialog.documents.DocValuesDialogFactory.Decoder;
+import com.picimako.org.apache.lucene.luke.models.documents.NumericDistribution;
+import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.luke.app.desktop.components.TableColumnInfo;
+import org.apache.lucene.luke.app.desktop.components.TableModelBase;
+import org.apache.lucene.luke.app.desktop.util.MessageUtils;
+import org.apache.lucene.luke.app.desktop.util.TableUtils;
+import org.apache.lucene.luke.util.LoggerFactory;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import javax.swing.*;
+import javax.swing.table.TableCellRenderer;
+import java.awt.*;
+import java.lang.invoke.MethodHandles;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Factory of the dialog showing the histogram and the percentiles of the values of a numeric doc values field.
+ * <p>
+ * The distribution is computed in a background thread, again when the decoder is changed.
+ * <p>
+ * The minimum and maximum are displayed from their stored values, so they are exact, while the other bucket bounds
+ * and percentiles are estimates computed from doubles.
+ */
+public final class NumericDistributionDialogFactory extends DialogWrapper {
+
+  private static final Logger log = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+
+  private static final double[] PERCENTILES = {0, 1, 5, 10, 25, 50, 75, 90, 95, 99, 99.9, 100};
+
+  private static final Integer[] NUM_BUCKETS = {10, 20, 50, 100};
+
+  private final IndexReader reader;
+
+  private final String field;
+
+  private final JComboBox<String> decodersCombo = new ComboBox<>();
+
+  private final JComboBox<Integer> numBucketsCombo = new ComboBox<>(NUM_BUCKETS);
+
+  private final JTable histogramTable = new JBTable();
+
+  private final JTable percentilesTable = new JBTable();
+
+  private final JLabel summaryLbl = new JLabel();
+
+  private NumericDistribution distribution;
+
+  private Decoder decoder = Decoder.LONG;
+
+  private BackgroundTask<NumericDistribution, Void> distributionTask;
+
+  /**
+   * @param reader - the index reader
+   * @param field - the name of a numeric or sorted numeric doc values field
+   */
+  public NumericDistributionDialogFactory(@Nullable Project project, IndexReader reader, String field) {
+    super(project, LukeMain.getOwnerFrame(), false, IdeModalityType.IDE);
+
+    this.reader = Objects.requireNonNull(reader);
+    this.field = Objects.requireNonNull(field);
+
+    setTitle("Value Distribution");
+    setSize(800, 500);
+    setCancelButtonText(MessageUtils.getLocalizedMessage("button.close"));
+
+    init();
+    computeDistribution();
+  }
+
+  @Override
+  protected Action @NotNull [] createActions() {
+    return new Action[]{getCancelAction()};
+  }
+
+  @Override
+  protected @Nullable JComponent createCenterPanel() {
+    return content();
+  }
+
+  private JPanel content() {
+    JPanel panel = new JPanel(new BorderLayout());
+    panel.setOpaque(false);
+    panel.setBorder(BorderFactory.createEmptyBorder(15, 15, 15, 15));
+
+    JPanel header = new JPanel(new FlowLayout(FlowLayout.LEADING, 5, 5));
+    header.setOpaque(false);
+    header.add(new JBLabel(MessageUtils.getLocalizedMessage("documents.distribution.label.field")));
+    header.add(new JLabel(field));
+    header.add(new JBLabel(MessageUtils.getLocalizedMessage("documents.dvbrowser.label.decoded_as")));
+    String[] decoders = Arrays.stream(Decoder.values()).map(Decoder::toString).toArray(String[]::new);
+    decodersCombo.setModel(new DefaultComboBoxModel<>(decoders));
+    decodersCombo.setSelectedItem(decoder.toString());
+    decodersCombo.addActionListener(e -> selectDecoder());
+    header.add(decodersCombo);
+    header.add(new JBLabel(MessageUtils.getLocalizedMessage("documents.distribution.label.buckets")));
+    numBucketsCombo.setSelectedItem(20);
+    numBucketsCombo.addActionListener(e -> showHistogram());
+    header.add(numBucketsCombo);
+    panel.add(header, BorderLayout.PAGE_START);
+
+    TableUtils.setupTable(
+        histogramTable,
+        ListSelectionModel.SINGLE_SELECTION,
+        new HistogramTableModel(),
+        null,
+        HistogramTableModel.Column.FROM.getColumnWidth(),
+        HistogramTableModel.Column.TO.getColumnWidth(),
+        HistogramTableModel.Column.COUNT.getColumnWidth());
+    TableUtils.setupTable(
+        percentilesTable,
+        ListSelectionModel.SINGLE_SELECTION,
+        new PercentilesTableModel(),
+        null,
+        PercentilesTableModel.Column.PERCENTILE.getColumnWidth());
+
+    JSplitPane splitPane =
+        new JSplitPane(
+            JSplitPane.HORIZONTAL_SPLIT, new JBScrollPane(histogramTable), new JBScrollPane(percentilesTable));
+    splitPane.setOpaque(false);
+    splitPane.setResizeWeight(0.7);
+    panel.add(splitPane, BorderLayout.CENTER);
+
+    JPanel footer = new JPanel(new FlowLayout(FlowLayout.LEADING, 5, 5));
+    footer.setOpaque(false);
+    footer.add(summaryLbl);
+    panel.add(footer, BorderLayout.PAGE_END);
+
+    return panel;
+  }
+
+  // control methods
+
+  private void selectDecoder() {
+    Decoder selected = Decoder.fromLabel((String) decodersCombo.getSelectedItem());
+    if (selected != decoder) {
+      decoder = selected;
+      computeDistribution();
+    }
+  }
+
+  private void computeDistribution() {
+    cancelDistribution();
+    distribution = null;
+    showHistogram();
+    showPercentiles();
+
+    Decoder taskDecoder = decoder;
+    summaryLbl.setText(MessageUtils.getLocalizedMessage("documents.distribution.label.computing"));
+    distributionTask =
+        BackgroundTask.<NumericDistribution, Void>builder("documents-numeric-distribution-dialog",
+                (cancellation, progress) ->
+                    NumericDistribution.compute(reader, field, taskDecoder::toDouble, cancellation))
+            .onFinish(() -> distributionTask = null)
+            .onSuccess(result -> {
+              distribution = result;
+              if (distribution == null) {
+                summaryLbl.setText(MessageUtils.getLocalizedMessage("documents.distribution.label.no_values"));
+                return;
+              }
+              summaryLbl.setText(
+                  MessageUtils.getLocalizedMessage(
+                      "documents.distribution.label.summary",
+                      distribution.getNumDocsWithValues(),
+                      distribution.getNumValues(),
+                      formatter().formatStored(distribution.getMinStoredValue()),
+                      formatter().formatStored(distribution.getMaxStoredValue()),
+                      formatter().format(distribution.getMean()),
+                      distribution.getNumNonFiniteValues()));
+              showHistogram();
+              showPercentiles();
+            })
+            .onFailure(cause -> {
+              log.log(Level.SEVERE, "Error computing value distribution", cause);
+              summaryLbl.setText(cause.getMessage());
+            })
+            .start();
+  }
+
+  private void cancelDistribution() {
+    if (distributionTask != null) {
+      distributionTask.cancel();
+    }
+  }
+
+  private void showHistogram() {
+    if (distribution == null) {
+      histogramTable.setModel(new HistogramTableModel());
+    } else {
+      int numBuckets = (Integer) numBucketsCombo.getSelectedItem();
+      histogramTable.setModel(new HistogramTableModel(distribution, numBuckets, formatter()));
+    }
+    for (HistogramTableModel.Column column : HistogramTableModel.Column.values()) {
+      histogramTable.getColumnModel().getColumn(column.getIndex()).setPreferredWidth(column.getColumnWidth());
+    }
+    histogramTable
+        .getColumnModel()
+        .getColumn(HistogramTableModel.Column.SHARE.getIndex())
+        .setCellRenderer(new ShareCellRenderer());
+  }
+
+  private void showPercentiles() {
+    percentilesTable.setModel(
+        distribution == null ? new PercentilesTableModel() : new PercentilesTableModel(distribution, formatter()));
+    percentilesTable
+        .getColumnModel()
+        .getColumn(PercentilesTableModel.Column.PERCENTILE.getIndex())
+        .setPreferredWidth(PercentilesTableModel.Column.PERCENTILE.getColumnWidth());
+  }
+
+  private ValueFormatter formatter() {
+    Decoder formatDecoder = decoder;
+    boolean hasFiniteValues = distribution != null && !Double.isNaN(distribution.getMin());
+    return new ValueFormatter() {
+      @Override
+      public String format(double value) {
+        // bucket bounds and percentiles fall between long values
+        return formatDecoder == Decoder.LONG && Double.isFinite(value)
+            ? String.valueOf(Math.round(value))
+            : String.valueOf(value);
+      }
+
+      @Override
+      public String formatStored(long value) {
+        return hasFiniteValues ? formatDecoder.format(value) : String.valueOf(Double.NaN);
+      }
+    };
+  }
+
+  @Override
+  protected void dispose() {
+    cancelDistribution();
+    super.dispose();
+  }
+
+  /** Renders the share of a bucket as a bar. */
+  static final class ShareCellRenderer implements TableCellRenderer {
+
+    private final JProgressBar bar = new JProgressBar(0, 1000);
+
+    ShareCellRenderer() {
+      bar.setStringPainted(true);
+    }
+
+    @Override
+    public Component getTableCellRendererComponent(
+        JTable table, Object value, boolean isSelected, boolean hasFocus, int row, int column) {
+      double share = value instanceof Double d ? d : 0;
+      bar.setValue((int) Math.round(share * 1000));
+      bar.setString(String.format(Locale.ENGLISH, "%.2f%%", share * 100));
+      return bar;
+    }
+  }
+
+  interface ValueFormatter {
+
+    /** Formats a decoded value. */
+    String format(double value);
+
+    /** Formats a stored value, exactly. */
+    String formatStored(long value);
+  }
+
+  static final class HistogramTableModel extends TableModelBase<HistogramTableModel.Column> {
+
+    enum Column implements TableColumnInfo {
+      FROM("From", 0, String.class, 150),
+      TO("To", 1, String.class, 150),
+      COUNT("Count", 2, Long.class, 100),
+      SHARE("Share", 3, Double.class, 200);
+
+      private final String colName;
+      private final int index;
+      private final Class<?> type;
+      private final int width;
+
+      Column(String colName, int index, Class<?> type, int width) {
+        this.colName = colName;
+        this.index = index;
+        this.type = type;
+        this.width = width;
+      }
+
+      @Override
+      public String getColName() {
+        return colName;
+      }
+
+      @Override
+      public int getIndex() {
+        return index;
+      }
+
+      @Override
+      public Class<?> getType() {
+        return type;
+      }
+
+      @Override
+      public int getColumnWidth() {
+        return width;
+      }
+    }
+
+    HistogramTableModel() {
+      super();
+    }
+
+    HistogramTableModel(NumericDistribution distribution, int numBuckets, ValueFormatter formatter) {
+      super(numBuckets);
+
+      long[] buckets = distribution.histogram(numBuckets);
+      long numFiniteValues = distribution.getNumValues() - distribution.getNumNonFiniteValues();
+      for (int i = 0; i < numBuckets; i++) {
+        data[i] =
+            new Object[] {
+              i == 0
+                  ? formatter.formatStored(distribution.getMinStoredValue())
+                  : formatter.format(distribution.bucketLowerBound(i, numBuckets)),
+              i == numBuckets - 1
+                  ? formatter.formatStored(distribution.getMaxStoredValue())
+                  : formatter.format(distribution.bucketUpperBound(i, numBuckets)),
+              buckets[i],
+              numFiniteValues > 0 ? (double) buckets[i] / numFiniteValues : 0d
+            };
+      }
+    }
+
+    @Override
+    protected Column[] columnInfos() {
+      return Column.values();
+    }
+  }
+
+  static final class PercentilesTableModel extends TableModelBase<PercentilesTableModel.Column> {
+
+    enum Column implements TableColumnInfo {
+      PERCENTILE("Percentile", 0, String.class, 100),
+      VALUE("Value", 1, String.class, 150);
+
+      private final String colName;
+      private final int index;
+      private final Class<?> type;
+      private final int width;
+
+      Column(String colName, int index, Class<?> type, int width) {
+        this.colName = colName;
+        this.index = index;
+        this.type = type;
+        this.width = width;
+      }
+
+      @Override
+      public String getColName() {
+        return colName;
+      }
+
+      @Override
+      public int getIndex() {
+        return index;
+      }
+
+      @Override
+      public Class<?> getType() {
+        return type;
+      }
+
+      @Override
+      public int getColumnWidth() {
+        return width;
+      }
+    }
+
+    PercentilesTableModel() {
+      super();
+    }
+
+    PercentilesTableModel(NumericDistribution distribution, ValueFormatter formatter) {
+      super(PERCENTILES.length);
+
+      for (int i = 0; i < PERCENTILES.length; i++) {
+        double percentile = PERCENTILES[i];
+        // the extremes are exact
+        String value =
+            percentile == 0
+                ? formatter.formatStored(distribution.getMinStoredValue())
+                : percentile == 100
+                    ? formatter.formatStored(distribution.getMaxStoredValue())
+                    : formatter.format(distribution.percentile(percentile));
+        String label = percentile == (int) percentile ? "p" + (int) percentile : "p" + percentile;
+        data[i] = new Object[] {label, value};
+      }
+    }
+
+    @Override
+    protected Column[] columnInfos() {
+      return Column.values();
+    }
+  }
+}
@@ -0,0 +1,533 @@
+//Copyright 2026 Tamás Balog. Use of this source code is governed by the Apache 2.0 license that can be found in the LICENSE file.
+package com.picimako.org.apache.lucene.luke.app.desktop.components.dialog.documents;
+
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.ui.ComboBox;
+import com.intellij.openapi.ui.DialogWrapper;
+import com.intellij.ui.components.JBLabel;
+import com.intellij.ui.components.JBScrollPane;
+import com.intellij.ui.components.JBTextField;
+import com.intellij.ui.table.JBTable;
+import com.picimako.org.apache.lucene.luke.app.desktop.LukeMain;
+import com.picimako.org.apache.lucene.luke.app.desktop.components.BackgroundTask;
+import com.picimako.org.apache.lucene.luke.models.documents.PointsInspector;
+import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.luke.app.desktop.components.TableColumnInfo;
+import org.apache.lucene.luke.app.desktop.components.TableModelBase;
+import org.apache.lucene.luke.app.desktop.util.MessageUtils;
+import org.apache.lucene.luke.app.desktop.util.TableUtils;
+import org.apache.lucene.luke.models.LukeException;
+import org.apache.lucene.luke.util.LoggerFactory;
+import org.apache.lucene.util.NumericUtils;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import javax.swing.*;
+import java.awt.*;
+import java.lang.invoke.MethodHandles;
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.IntStream;
+
+/**
+ * Factory of the dialog showing the structure of the BKD trees of a point field, the estimated density of its values,
+ * and how the trees are intersected with a range.
+ * <p>
+ * The trees are walked in a background thread, again when the dimension, the decoder or the number of buckets is
+ * changed.
+ */
+public final class PointsDialogFactory extends DialogWrapper {
+
+  private static final Logger log = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+
+  private static final Integer[] NUM_BUCKETS = {10, 20, 50, 100};
+
+  private final PointsInspector inspector;
+
+  private final JComboBox<Integer> dimCombo = new ComboBox<>();
+
+  private final JComboBox<String> decodersCombo = new ComboBox<>();
+
+  private final JComboBox<Integer> numBucketsCombo = new ComboBox<>(NUM_BUCKETS);
+
+  private final JTable segmentsTable = new JBTable();
+
+  private final JTable densityTable = new JBTable();
+
+  private final JTextField lowerTF = new JBTextField(15);
+
+  private final JTextField upperTF = new JBTextField(15);
+
+  private final JButton analyzeBtn = new JButton();
+
+  private final JLabel rangeLbl = new JLabel();
+
+  private final JLabel statusLbl = new JLabel();
+
+  private BackgroundTask<PointsInspector.Report, Void> inspectTask;
+
+  private BackgroundTask<PointsInspector.RangeStats, Void> rangeTask;
+
+  /**
+   * @param reader - the index reader
+   * @param field - the name of a point field
+   * @throws LukeException - if the field has no points
+   */
+  public PointsDialogFactory(@Nullable Project project, IndexReader reader, String field) {
+    super(project, LukeMain.getOwnerFrame(), false, IdeModalityType.IDE);
+
+    this.inspector = new PointsInspector(Objects.requireNonNull(reader), Objects.requireNonNull(field));
+
+    setTitle("Points");
+    setSize(900, 600);
+    setCancelButtonText(MessageUtils.getLocalizedMessage("button.close"));
+
+    init();
+    inspect();
+  }
+
+  @Override
+  protected Action @NotNull [] createActions() {
+    return new Action[]{getCancelAction()};
+  }
+
+  @Override
+  protected @Nullable JComponent createCenterPanel() {
+    return content();
+  }
+
+  private JPanel content() {
+    JPanel panel = new JPanel(new BorderLayout());
+    panel.setOpaque(false);
+    panel.setBorder(BorderFactory.createEmptyBorder(15, 15, 15, 15));
+    panel.add(headerPanel(), BorderLayout.PAGE_START);
+
+    TableUtils.setupTable(segmentsTable, ListSelectionModel.SINGLE_SELECTION, new SegmentsTableModel(), null);
+    TableUtils.setupTable(densityTable, ListSelectionModel.SINGLE_SELECTION, new DensityTableModel(), null);
+    JSplitPane splitPane =
+        new JSplitPane(JSplitPane.VERTICAL_SPLIT, new JBScrollPane(segmentsTable), new JBScrollPane(densityTable));
+    splitPane.setOpaque(false);
+    splitPane.setResizeWeight(0.4);
+    panel.add(splitPane, BorderLayout.CENTER);
+
+    panel.add(rangePanel(), BorderLayout.PAGE_END);
+    return panel;
+  }
+
+  private JPanel headerPanel() {
+    JPanel header = new JPanel();
+    header.setOpaque(false);
+    header.setLayout(new BoxLayout(header, BoxLayout.PAGE_AXIS));
+
+    JPanel fieldHeader = new JPanel(new FlowLayout(FlowLayout.LEADING, 5, 5));
+    fieldHeader.setOpaque(false);
+    fieldHeader.add(new JBLabel(MessageUtils.getLocalizedMessage("documents.points.label.points")));
+    fieldHeader.add(new JLabel(inspector.getField()));
+    fieldHeader.add(
+        new JLabel(
+            MessageUtils.getLocalizedMessage(
+                "documents.points.label.dimensions",
+                inspector.getNumDims(),
+                inspector.getNumIndexDims(),
+                inspector.getBytesPerDim())));
+    header.add(fieldHeader);
+
+    JPanel optionsHeader = new JPanel(new FlowLayout(FlowLayout.LEADING, 5, 5));
+    optionsHeader.setOpaque(false);
+    optionsHeader.add(new JBLabel(MessageUtils.getLocalizedMessage("documents.points.label.dimension")));
+    dimCombo.setModel(
+        new DefaultComboBoxModel<>(IntStream.range(0, inspector.getNumIndexDims()).boxed().toArray(Integer[]::new)));
+    dimCombo.setEnabled(inspector.getNumIndexDims() > 1);
+    dimCombo.addActionListener(e -> inspect());
+    optionsHeader.add(dimCombo);
+    optionsHeader.add(new JBLabel(MessageUtils.getLocalizedMessage("documents.dvbrowser.label.decoded_as")));
+    String[] decoders = Arrays.stream(PointDecoder.values()).map(PointDecoder::toString).toArray(String[]::new);
+    decodersCombo.setModel(new DefaultComboBoxModel<>(decoders));
+    decodersCombo.setSelectedItem(PointDecoder.NUMBER.toString());
+    decodersCombo.addActionListener(e -> inspect());
+    optionsHeader.add(decodersCombo);
+    optionsHeader.add(new JBLabel(MessageUtils.getLocalizedMessage("documents.distribution.label.buckets")));
+    numBucketsCombo.setSelectedItem(20);
+    numBucketsCombo.addActionListener(e -> inspect());
+    optionsHeader.add(numBucketsCombo);
+    optionsHeader.add(statusLbl);
+    header.add(optionsHeader);
+
+    return header;
+  }
+
+  private JPanel rangePanel() {
+    JPanel range = new JPanel();
+    range.setOpaque(false);
+    range.setLayout(new BoxLayout(range, BoxLayout.PAGE_AXIS));
+
+    JPanel bounds = new JPanel(new FlowLayout(FlowLayout.LEADING, 5, 5));
+    bounds.setOpaque(false);
+    bounds.add(new JBLabel(MessageUtils.getLocalizedMessage("documents.points.label.range")));
+    bounds.add(lowerTF);
+    bounds.add(new JBLabel(MessageUtils.getLocalizedMessage("documents.points.label.range_to")));
+    bounds.add(upperTF);
+    analyzeBtn.setText(MessageUtils.getLocalizedMessage("documents.points.button.analyze"));
+    analyzeBtn.addActionListener(e -> analyzeRange());
+    bounds.add(analyzeBtn);
+    range.add(bounds);
+
+    JPanel result = new JPanel(new FlowLayout(FlowLayout.LEADING, 5, 5));
+    result.setOpaque(false);
+    result.add(rangeLbl);
+    range.add(result);
+
+    return range;
+  }
+
+  // control methods
+
+  private PointDecoder selectedDecoder() {
+    return PointDecoder.fromLabel((String) decodersCombo.getSelectedItem());
+  }
+
+  private void inspect() {
+    cancelInspection();
+
+    int dim = (Integer) dimCombo.getSelectedItem();
+    PointDecoder decoder = selectedDecoder();
+    int numBuckets = (Integer) numBucketsCombo.getSelectedItem();
+    statusLbl.setText(MessageUtils.getLocalizedMessage("documents.points.label.walking"));
+    inspectTask =
+        BackgroundTask.<PointsInspector.Report, Void>builder("documents-points-dialog",
+                (cancellation, progress) -> inspector.inspect(dim, decoder::toDouble, numBuckets, cancellation))
+            .onFinish(() -> inspectTask = null)
+            .onSuccess(report -> {
+              segmentsTable.setModel(new SegmentsTableModel(report.getSegments(), decoder));
+              densityTable.setModel(new DensityTableModel(report, decoder, inspector.getBytesPerDim()));
+              densityTable
+                  .getColumnModel()
+                  .getColumn(DensityTableModel.Column.SHARE.getIndex())
+                  .setCellRenderer(new NumericDistributionDialogFactory.ShareCellRenderer());
+              statusLbl.setText("");
+            })
+            .onFailure(cause -> {
+              log.log(Level.SEVERE, "Error inspecting points", cause);
+              statusLbl.setText(cause.getMessage());
+            })
+            .start();
+  }
+
+  private void cancelInspection() {
+    if (inspectTask != null) {
+      inspectTask.cancel();
+    }
+  }
+
+  private void analyzeRange() {
+    int dim = (Integer) dimCombo.getSelectedItem();
+    PointDecoder decoder = selectedDecoder();
+    byte[] lower;
+    byte[] upper;
+    try {
+      lower = decoder.parse(lowerTF.getText().trim(), inspector.getBytesPerDim());
+      upper = decoder.parse(upperTF.getText().trim(), inspector.getBytesPerDim());
+    } catch (IllegalArgumentException e) {
+      rangeLbl.setText(MessageUtils.getLocalizedMessage("documents.points.message.invalid_bound", e.getMessage()));
+      return;
+    }
+
+    cancelRangeAnalysis();
+    rangeLbl.setText(MessageUtils.getLocalizedMessage("documents.points.label.analyzing"));
+    rangeTask =
+        BackgroundTask.<PointsInspector.RangeStats, Void>builder("documents-points-range",
+                (cancellation, progress) -> inspector.analyzeRange(dim, lower, upper, cancellation))
+            .onFinish(() -> rangeTask = null)
+            .onSuccess(stats ->
+                rangeLbl.setText(
+                    MessageUtils.getLocalizedMessage(
+                        "documents.points.label.range_stats",
+                        stats.getCellsInside(),
+                        stats.getCellsCrossing(),
+                        stats.getCellsOutside(),
+                        stats.getPointsCollected(),
+                        stats.getPointsChecked(),
+                        stats.getPointsMatched(),
+                        TimeUnit.NANOSECONDS.toMillis(stats.getElapsedNanos()))))
+            .onFailure(cause -> {
+              log.log(Level.SEVERE, "Error analyzing range", cause);
+              rangeLbl.setText(cause.getMessage());
+            })
+            .start();
+  }
+
+  private void cancelRangeAnalysis() {
+    if (rangeTask != null) {
+      rangeTask.cancel();
+    }
+  }
+
+  @Override
+  protected void dispose() {
+    cancelInspection();
+    cancelRangeAnalysis();
+    super.dispose();
+  }
+
+  /** point value decoders */
+  public enum PointDecoder {
+    NUMBER("int/long"),
+    FLOATING("float/double"),
+    HEX("hex");
+
+    /** The number of leading bytes of a hex value {@link #toDouble(byte[])} takes into account. */
+    private static final int HEX_NUMBER_BYTES = 6;
+
+    private final String label;
+
+    PointDecoder(String label) {
+      this.label = label;
+    }
+
+    @Override
+    public String toString() {
+      return label;
+    }
+
+    /** Returns the given packed value of a dimension decoded as text. */
+    public String format(byte[] value) {
+      return switch (decoding(value.length)) {
+        case NUMBER -> switch (value.length) {
+          case Integer.BYTES -> String.valueOf(NumericUtils.sortableBytesToInt(value, 0));
+          case Long.BYTES -> String.valueOf(NumericUtils.sortableBytesToLong(value, 0));
+          default -> NumericUtils.sortableBytesToBigInt(value, 0, value.length).toString();
+        };
+        case FLOATING -> String.valueOf(toDouble(value));
+        case HEX -> HexFormat.of().formatHex(value);
+      };
+    }
+
+    /** Returns the given packed value of a dimension as a number, preserving the order of the values. */
+    public double toDouble(byte[] value) {
+      return switch (decoding(value.length)) {
+        case NUMBER -> switch (value.length) {
+          case Integer.BYTES -> NumericUtils.sortableBytesToInt(value, 0);
+          case Long.BYTES -> NumericUtils.sortableBytesToLong(value, 0);
+          default -> NumericUtils.sortableBytesToBigInt(value, 0, value.length).doubleValue();
+        };
+        case FLOATING -> value.length == Integer.BYTES
+            ? NumericUtils.sortableIntToFloat(NumericUtils.sortableBytesToInt(value, 0))
+            : NumericUtils.sortableLongToDouble(NumericUtils.sortableBytesToLong(value, 0));
+        case HEX -> {
+          // the leading bytes as an unsigned number, which fits into a double exactly
+          double result = 0;
+          for (int i = 0; i < Math.min(value.length, HEX_NUMBER_BYTES); i++) {
+            result = result * 256 + Byte.toUnsignedInt(value[i]);
+          }
+          yield result;
+        }
+      };
+    }
+
+    /**
+     * Formats a number returned by {@link #toDouble(byte[])} for values of the given length, or one between two such
+     * numbers. Hex values are formatted as their leading bytes in hex, followed by "..." if the values are longer.
+     */
+    public String formatDouble(double number, int bytesPerDim) {
+      return switch (decoding(bytesPerDim)) {
+        case NUMBER -> String.valueOf(Math.round(number));
+        case FLOATING -> String.valueOf(number);
+        case HEX -> {
+          int numBytes = Math.min(bytesPerDim, HEX_NUMBER_BYTES);
+          byte[] leadingBytes = new byte[numBytes];
+          long bits = Math.round(number);
+          for (int i = numBytes - 1; i >= 0; i--) {
+            leadingBytes[i] = (byte) bits;
+            bits >>>= 8;
+          }
+          yield HexFormat.of().formatHex(leadingBytes) + (bytesPerDim > numBytes ? "..." : "");
+        }
+      };
+    }
+
+    /**
+     * Returns the packed value of a dimension of the given length, parsed from the given text.
+     *
+     * @throws IllegalArgumentException - if the text is not a valid value
+     */
+    public byte[] parse(String text, int bytesPerDim) {
+      byte[] value = new byte[bytesPerDim];
+      switch (decoding(bytesPerDim)) {
+        case NUMBER -> {
+          switch (bytesPerDim) {
+            case Integer.BYTES -> NumericUtils.intToSortableBytes(Integer.parseInt(text), value, 0);
+            case Long.BYTES -> NumericUtils.longToSortableBytes(Long.parseLong(text), value, 0);
+            default -> NumericUtils.bigIntToSortableBytes(new BigInteger(text), bytesPerDim, value, 0);
+          }
+        }
+        case FLOATING -> {
+          if (bytesPerDim == Integer.BYTES) {
+            NumericUtils.intToSortableBytes(NumericUtils.floatToSortableInt(Float.parseFloat(text)), value, 0);
+          } else {
+            NumericUtils.longToSortableBytes(NumericUtils.doubleToSortableLong(Double.parseDouble(text)), value, 0);
+          }
+        }
+        case HEX -> {
+          value = HexFormat.of().parseHex(text);
+          if (value.length != bytesPerDim) {
+            throw new IllegalArgumentException("expected " + bytesPerDim + " bytes: " + text);
+          }
+        }
+      }
+      return value;
+    }
+
+    /** Returns the decoder actually used for values of the given length, hex for lengths it can't decode. */
+    private PointDecoder decoding(int bytesPerDim) {
+      return this == FLOATING && bytesPerDim != Integer.BYTES && bytesPerDim != Long.BYTES ? HEX : this;
+    }
+
+    public static PointDecoder fromLabel(String label) {
+      for (PointDecoder d : values()) {
+        if (d.label.equalsIgnoreCase(label)) {
+          return d;
+        }
+      }
+      throw new IllegalArgumentException("No such decoder: " + label);
+    }
+  }
+
+  static final class SegmentsTableModel extends TableModelBase<SegmentsTableModel.Column> {
+
+    enum Column implements TableColumnInfo {
+      SEGMENT("Segment", 0, String.class),
+      POINTS("Points", 1, Long.class),
+      DOCS("Docs", 2, Integer.class),
+      MIN("Min", 3, String.class),
+      MAX("Max", 4, String.class),
+      LEAVES("Leaf cells", 5, Integer.class),
+      DEPTH("Depth", 6, Integer.class),
+      LEAF_SIZE("Points per leaf", 7, String.class);
+
+      private final String colName;
+      private final int index;
+      private final Class<?> type;
+
+      Column(String colName, int index, Class<?> type) {
+        this.colName = colName;
+        this.index = index;
+        this.type = type;
+      }
+
+      @Override
+      public String getColName() {
+        return colName;
+      }
+
+      @Override
+      public int getIndex() {
+        return index;
+      }
+
+      @Override
+      public Class<?> getType() {
+        return type;
+      }
+    }
+
+    SegmentsTableModel() {
+      super();
+    }
+
+    SegmentsTableModel(List<PointsInspector.SegmentStats> segments, PointDecoder decoder) {
+      super(segments.size());
+
+      for (int i = 0; i < segments.size(); i++) {
+        PointsInspector.SegmentStats segment = segments.get(i);
+        String leafSize =
+            segment.getMinLeafSize() == segment.getMaxLeafSize()
+                ? String.valueOf(segment.getMaxLeafSize())
+                : segment.getMinLeafSize() + " - " + segment.getMaxLeafSize();
+        data[i] =
+            new Object[] {
+              segment.getSegmentName(),
+              segment.getNumPoints(),
+              segment.getDocCount(),
+              decoder.format(segment.getMinPackedValue()),
+              decoder.format(segment.getMaxPackedValue()),
+              segment.getNumLeaves(),
+              segment.getMaxDepth(),
+              leafSize
+            };
+      }
+    }
+
+    @Override
+    protected Column[] columnInfos() {
+      return Column.values();
+    }
+  }
+
+  static final class DensityTableModel extends TableModelBase<DensityTableModel.Column> {
+
+    enum Column implements TableColumnInfo {
+      FROM("From", 0, String.class),
+      TO("To", 1, String.class),
+      POINTS("Points (estimated)", 2, Long.class),
+      SHARE("Share", 3, Double.class);
+
+      private final String colName;
+      private final int index;
+      private final Class<?> type;
+
+      Column(String colName, int index, Class<?> type) {
+        this.colName = colName;
+        this.index = index;
+        this.type = type;
+      }
+
+      @Override
+      public String getColName() {
+        return colName;
+      }
+
+      @Override
+      public int getIndex() {
+        return index;
+      }
+
+      @Override
+      public Class<?> getType() {
+        return type;
+      }
+    }
+
+    DensityTableModel() {
+      super();
+    }
+
+    DensityTableModel(PointsInspector.Report report, PointDecoder decoder, int bytesPerDim) {
+      super(report.getSegments().isEmpty() ? 0 : report.getDensity().length);
+
+      double[] density = report.getDensity();
+      double total = Arrays.stream(density).sum();
+      double min = report.getMin();
+      double width = report.getMax() / density.length - min / density.length;
+      for (int i = 0; i < data.length; i++) {
+        data[i] =
+            new Object[] {
+              decoder.formatDouble(min + width * i, bytesPerDim),
+              decoder.formatDouble(i == density.length - 1 ? report.getMax() : min + width * (i + 1), bytesPerDim),
+              Math.round(density[i]),
+              total > 0 ? density[i] / total : 0d
+            };
+      }
+    }
+
+    @Override
+    protected Column[] columnInfos() {
+      return Column.values();
+    }
+  }
+}
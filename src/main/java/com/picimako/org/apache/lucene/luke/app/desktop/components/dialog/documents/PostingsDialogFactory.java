@@ -0,0 +1,247 @@
+//Copyright 2026 Tamás Balog. Use of this source code is governed by the Apache 2.0 license that can be found in the LICENSE file.
+package com.picimako.org.apache.lucene.luke.app.desktop.components.dialog.documents;
+
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.ui.DialogWrapper;
+import com.intellij.ui.components.JBLabel;
+import com.intellij.ui.components.JBScrollPane;
+import com.intellij.ui.table.JBTable;
+import com.picimako.org.apache.lucene.luke.app.desktop.LukeMain;
+import com.picimako.org.apache.lucene.luke.app.desktop.components.BackgroundTask;
+import com.picimako.org.apache.lucene.luke.app.desktop.components.PagedTableModel;
+import com.picimako.org.apache.lucene.luke.models.documents.PostingEntry;
+import com.picimako.org.apache.lucene.luke.models.documents.PostingsList;
+import org.apache.lucene.luke.app.desktop.components.TableColumnInfo;
+import org.apache.lucene.luke.app.desktop.util.MessageUtils;
+import org.apache.lucene.luke.app.desktop.util.TableUtils;
+import org.apache.lucene.luke.util.BytesRefUtils;
+import org.apache.lucene.luke.util.LoggerFactory;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.lang.invoke.MethodHandles;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.function.IntConsumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
+
+/**
+ * Factory of the dialog listing all postings of a term.
+ * <p>
+ * The postings are scanned in a background thread, and the table grows as the scan progresses. Only the rows being
+ * displayed are read from the index, with their positions, offsets and payloads.
+ */
+public final class PostingsDialogFactory extends DialogWrapper {
+
+  private static final Logger log = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+
+  /** The max number of rows, since the height of a table with hundreds of millions of rows would overflow. */
+  private static final int MAX_ROWS = 10_000 * PostingsList.PAGE_SIZE;
+
+  private final PostingsList postingsList;
+
+  private final IntConsumer docSelectionHandler;
+
+  private final PostingsTableModel tableModel;
+
+  private final JLabel numDocsLbl = new JLabel();
+
+  private BackgroundTask<Integer, Integer> scanTask;
+
+  /**
+   * @param postingsList - the postings to list
+   * @param docSelectionHandler - receives the id of the document double-clicked in the table
+   */
+  public PostingsDialogFactory(@Nullable Project project, PostingsList postingsList, IntConsumer docSelectionHandler) {
+    super(project, LukeMain.getOwnerFrame(), false, IdeModalityType.IDE);
+
+    this.postingsList = Objects.requireNonNull(postingsList);
+    this.docSelectionHandler = Objects.requireNonNull(docSelectionHandler);
+    this.tableModel = new PostingsTableModel(postingsList);
+
+    setTitle("Postings");
+    setSize(800, 500);
+    setCancelButtonText(MessageUtils.getLocalizedMessage("button.close"));
+
+    init();
+    scanPostings();
+  }
+
+  @Override
+  protected Action @NotNull [] createActions() {
+    return new Action[]{getCancelAction()};
+  }
+
+  @Override
+  protected @Nullable JComponent createCenterPanel() {
+    return content();
+  }
+
+  private JPanel content() {
+    JPanel panel = new JPanel(new BorderLayout());
+    panel.setOpaque(false);
+    panel.setBorder(BorderFactory.createEmptyBorder(15, 15, 15, 15));
+
+    JPanel header = new JPanel(new FlowLayout(FlowLayout.LEADING, 5, 5));
+    header.setOpaque(false);
+    header.add(new JBLabel(MessageUtils.getLocalizedMessage("documents.postings.label.postings")));
+    header.add(new JLabel(postingsList.getField() + ":" + postingsList.getDecodedTermText()));
+    header.add(numDocsLbl);
+    panel.add(header, BorderLayout.PAGE_START);
+
+    JTable postingsTable = new JBTable();
+    TableUtils.setupTable(
+        postingsTable,
+        ListSelectionModel.SINGLE_SELECTION,
+        tableModel,
+        new MouseAdapter() {
+          @Override
+          public void mouseClicked(MouseEvent e) {
+            if (e.getClickCount() == 2) {
+              tableModel
+                  .getRow(postingsTable.rowAtPoint(e.getPoint()))
+                  .ifPresent(entry -> docSelectionHandler.accept(entry.getDocId()));
+            }
+          }
+        },
+        PostingsTableModel.Column.DOC_ID.getColumnWidth(),
+        PostingsTableModel.Column.FREQ.getColumnWidth());
+    panel.add(new JBScrollPane(postingsTable), BorderLayout.CENTER);
+
+    JPanel footer = new JPanel(new FlowLayout(FlowLayout.LEADING, 5, 5));
+    footer.setOpaque(false);
+    footer.add(
+        new JLabel(MessageUtils.getLocalizedMessage("documents.postings.label.hint", PostingsList.MAX_POSITIONS)));
+    panel.add(footer, BorderLayout.PAGE_END);
+
+    return panel;
+  }
+
+  private void scanPostings() {
+    numDocsLbl.setText(MessageUtils.getLocalizedMessage("documents.postings.label.scanning", 0));
+    scanTask =
+        BackgroundTask.<Integer, Integer>builder("documents-postings-scan", (cancellation, progress) -> {
+              postingsList.scan(cancellation, progress::publishChunk);
+              return postingsList.getNumDocs();
+            })
+            .onChunks(numDocs -> {
+              int scannedDocs = numDocs.get(numDocs.size() - 1);
+              tableModel.setRowCount(Math.min(scannedDocs, MAX_ROWS));
+              numDocsLbl.setText(MessageUtils.getLocalizedMessage("documents.postings.label.scanning", scannedDocs));
+            })
+            .onFinish(() -> scanTask = null)
+            .onSuccess(numDocs -> {
+              tableModel.setRowCount(Math.min(numDocs, MAX_ROWS));
+              numDocsLbl.setText(
+                  numDocs > MAX_ROWS
+                      ? MessageUtils.getLocalizedMessage(
+                          "documents.postings.label.num_docs_truncated", MAX_ROWS, numDocs)
+                      : MessageUtils.getLocalizedMessage("documents.postings.label.num_docs", numDocs));
+            })
+            .onFailure(cause -> {
+              log.log(Level.SEVERE, "Error scanning postings", cause);
+              numDocsLbl.setText(cause.getMessage());
+            })
+            .start();
+  }
+
+  @Override
+  protected void dispose() {
+    if (scanTask != null) {
+      scanTask.cancel();
+    }
+    tableModel.close();
+    super.dispose();
+  }
+
+  static final class PostingsTableModel extends PagedTableModel<PostingEntry, PostingsTableModel.Column> {
+
+    enum Column implements TableColumnInfo {
+      DOC_ID("Doc #", 0, Integer.class, 100),
+      FREQ("Freq", 1, Integer.class, 80),
+      POSITIONS("Positions", 2, String.class, 200),
+      OFFSETS("Offsets", 3, String.class, 200),
+      PAYLOADS("Payloads", 4, String.class, 200);
+
+      private final String colName;
+      private final int index;
+      private final Class<?> type;
+      private final int width;
+
+      Column(String colName, int index, Class<?> type, int width) {
+        this.colName = colName;
+        this.index = index;
+        this.type = type;
+        this.width = width;
+      }
+
+      @Override
+      public String getColName() {
+        return colName;
+      }
+
+      @Override
+      public int getIndex() {
+        return index;
+      }
+
+      @Override
+      public Class<?> getType() {
+        return type;
+      }
+
+      @Override
+      public int getColumnWidth() {
+        return width;
+      }
+    }
+
+    private final PostingsList postingsList;
+
+    PostingsTableModel(PostingsList postingsList) {
+      super(PostingsList.PAGE_SIZE, "documents-postings-list");
+      this.postingsList = postingsList;
+    }
+
+    @Override
+    protected Column[] columnInfos() {
+      return Column.values();
+    }
+
+    @Override
+    protected List<PostingEntry> loadPage(int page) {
+      return postingsList.getPage(page);
+    }
+
+    @Override
+    protected Object getColumnValue(int rowIndex, PostingEntry entry, Column column) {
+      return switch (column) {
+        case DOC_ID -> entry.getDocId();
+        case FREQ -> entry.getFreq();
+        case POSITIONS -> join(entry, pos -> Integer.toString(pos.getPosition()));
+        case OFFSETS -> join(entry, PostingsTableModel::offsets);
+        case PAYLOADS -> join(entry, pos -> pos.getPayload() != null ? BytesRefUtils.decode(pos.getPayload()) : "");
+      };
+    }
+
+    /** Joins the given property of the positions, or returns null if none of the positions has that property. */
+    private static String join(PostingEntry entry, Function<PostingEntry.Position, String> property) {
+      List<String> values = entry.getPositions().stream().map(property).collect(Collectors.toList());
+      if (values.stream().allMatch(String::isEmpty)) {
+        return null;
+      }
+      return String.join(",", values) + (entry.hasMorePositions() ? ",..." : "");
+    }
+
+    private static String offsets(PostingEntry.Position pos) {
+      return pos.getStartOffset() >= 0 ? pos.getStartOffset() + "-" + pos.getEndOffset() : "";
+    }
+  }
+}
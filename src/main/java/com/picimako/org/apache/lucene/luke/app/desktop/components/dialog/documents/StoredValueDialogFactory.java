@@ -20,41 +20,100 @@ package com.picimako.org.apache.lucene.luke.app.desktop.components.dialog.docume
 import com.intellij.icons.AllIcons;
 import com.intellij.openapi.project.Project;
 import com.intellij.openapi.ui.DialogWrapper;
+import com.intellij.ui.components.JBCheckBox;
 import com.intellij.ui.components.JBScrollPane;
 import com.intellij.ui.components.JBTextArea;
+import com.intellij.ui.table.JBTable;
 import com.picimako.org.apache.lucene.luke.app.desktop.LukeMain;
+import com.picimako.org.apache.lucene.luke.app.desktop.components.BackgroundTask;
+import com.picimako.org.apache.lucene.luke.app.desktop.util.JsonPrettyPrinter;
+import org.apache.lucene.luke.app.desktop.components.TableColumnInfo;
 import org.apache.lucene.luke.app.desktop.util.MessageUtils;
+import org.apache.lucene.luke.app.desktop.util.StyleConstants;
+import org.apache.lucene.luke.app.desktop.util.TableUtils;
+import org.apache.lucene.luke.util.LoggerFactory;
+import org.apache.lucene.util.BytesRef;
 import org.jetbrains.annotations.Nullable;
 
 import javax.swing.*;
+import javax.swing.table.AbstractTableModel;
 import java.awt.*;
 import java.awt.datatransfer.Clipboard;
 import java.awt.datatransfer.StringSelection;
+import java.lang.invoke.MethodHandles;
+import java.util.Locale;
 import java.util.Objects;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
 /**
  * Factory of stored values dialog
  * <p>
+ * String values are displayed in chunks of {@link #CHUNK_SIZE} characters, so that multi-megabyte values don't have
+ * to be laid out by the text component at once. JSON values can be pretty-printed, which runs in a background thread.
+ * Binary values are displayed in a hex view, which decodes only the rows being displayed, and only the selected rows
+ * of it are copied.
+ * <p>
  * LICENSE NOTE: This is the modified version of {@link org.apache.lucene.luke.app.desktop.components.dialog.documents.StoredValueDialogFactory}.
  */
 public final class StoredValueDialogFactory extends DialogWrapper {
 
+  private static final Logger log = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+
+  /** The number of characters displayed at once. */
+  private static final int CHUNK_SIZE = 1 << 15;
+
   private final String field;
 
+  /** The string value, or null if the value is binary. */
   private final String value;
 
+  /** The binary value, or null if the value is a string. */
+  private final BytesRef binaryValue;
+
+  private final JTextArea valueTA = new JBTextArea();
+
+  private final JButton prevChunkBtn = new JButton();
+
+  private final JButton nextChunkBtn = new JButton();
+
+  private final JLabel chunkLbl = new JLabel();
+
+  private final JCheckBox prettyPrintCB = new JBCheckBox();
+
+  private final JTable hexTable = new JBTable();
+
+  /** The text being displayed, i.e. the value or its pretty-printed form. */
+  private String text;
+
+  private String prettyPrintedText;
+
+  private int chunk;
+
+  private BackgroundTask<String, Void> prettyPrintTask;
+
   public StoredValueDialogFactory(@Nullable Project project, String field, String value) {
+    this(project, field, value, null);
+  }
+
+  public StoredValueDialogFactory(@Nullable Project project, String field, BytesRef binaryValue) {
+    this(project, field, null, binaryValue);
+  }
+
+  private StoredValueDialogFactory(@Nullable Project project, String field, String value, BytesRef binaryValue) {
     super(project, LukeMain.getOwnerFrame(), false, IdeModalityType.IDE);
 
-    if (Objects.isNull(field) || Objects.isNull(value)) {
+    if (Objects.isNull(field) || (Objects.isNull(value) && Objects.isNull(binaryValue))) {
       throw new IllegalStateException("field name and/or stored value is not set.");
     }
 
     this.field = field;
     this.value = value;
+    this.binaryValue = binaryValue;
+    this.text = value;
 
-    setTitle("Term Vector");
-    setSize(400, 300);
+    setTitle("Stored Value");
+    setSize(800, 600);
     setOKButtonText(MessageUtils.getLocalizedMessage("button.copy"));
     setOKButtonIcon(AllIcons.Actions.Copy);
     setCancelButtonText(MessageUtils.getLocalizedMessage("button.close"));
@@ -65,11 +124,19 @@ public final class StoredValueDialogFactory extends DialogWrapper {
   @Override
   protected void doOKAction() {
     Clipboard clipboard = Toolkit.getDefaultToolkit().getSystemClipboard();
-    StringSelection selection = new StringSelection(value);
+    StringSelection selection = new StringSelection(value != null ? text : selectedHex());
     clipboard.setContents(selection, null);
     super.doOKAction();
   }
 
+  /** Returns the hex of the bytes in the selected rows of the hex view. */
+  private String selectedHex() {
+    ListSelectionModel selectionModel = hexTable.getSelectionModel();
+    int start = selectionModel.getMinSelectionIndex() * HexTableModel.BYTES_PER_ROW;
+    int end = Math.min((selectionModel.getMaxSelectionIndex() + 1) * HexTableModel.BYTES_PER_ROW, binaryValue.length);
+    return new BytesRef(binaryValue.bytes, binaryValue.offset + start, end - start).toString();
+  }
+
   @Override
   protected @Nullable JComponent createCenterPanel() {
     return content();
@@ -84,15 +151,229 @@ public final class StoredValueDialogFactory extends DialogWrapper {
     header.setOpaque(false);
     header.add(new JLabel(MessageUtils.getLocalizedMessage("documents.stored.label.stored_value")));
     header.add(new JLabel(field));
+    header.add(
+        new JLabel(
+            value != null
+                ? MessageUtils.getLocalizedMessage("documents.stored.label.num_chars", value.length())
+                : MessageUtils.getLocalizedMessage("documents.stored.label.num_bytes", binaryValue.length)));
     panel.add(header, BorderLayout.PAGE_START);
 
-    JTextArea valueTA = new JBTextArea(value);
+    if (value != null) {
+      panel.add(textView(), BorderLayout.CENTER);
+      panel.add(chunkNavigation(), BorderLayout.PAGE_END);
+      showChunk(0);
+    } else {
+      panel.add(hexView(), BorderLayout.CENTER);
+    }
+
+    return panel;
+  }
+
+  private JScrollPane textView() {
     valueTA.setLineWrap(true);
     valueTA.setEditable(false);
-//    valueTA.setBackground(Color.white);
-    JScrollPane scrollPane = new JBScrollPane(valueTA);
-    panel.add(scrollPane, BorderLayout.CENTER);
+    return new JBScrollPane(valueTA);
+  }
+
+  private JPanel chunkNavigation() {
+    JPanel panel = new JPanel(new FlowLayout(FlowLayout.LEADING, 5, 5));
+    panel.setOpaque(false);
+
+    prevChunkBtn.setText(MessageUtils.getLocalizedMessage("documents.stored.button.prev_chunk"));
+    prevChunkBtn.addActionListener(e -> showChunk(chunk - 1));
+    panel.add(prevChunkBtn);
+    nextChunkBtn.setText(MessageUtils.getLocalizedMessage("documents.stored.button.next_chunk"));
+    nextChunkBtn.addActionListener(e -> showChunk(chunk + 1));
+    panel.add(nextChunkBtn);
+    panel.add(chunkLbl);
+
+    prettyPrintCB.setText(MessageUtils.getLocalizedMessage("documents.stored.checkbox.pretty_print"));
+    prettyPrintCB.setOpaque(false);
+    prettyPrintCB.setEnabled(JsonPrettyPrinter.looksLikeJson(value));
+    prettyPrintCB.addActionListener(e -> togglePrettyPrint());
+    panel.add(prettyPrintCB);
 
     return panel;
   }
+
+  private JScrollPane hexView() {
+    TableUtils.setupTable(
+        hexTable,
+        ListSelectionModel.SINGLE_INTERVAL_SELECTION,
+        new HexTableModel(binaryValue),
+        null,
+        HexTableModel.Column.OFFSET.getColumnWidth());
+    hexTable.setFont(StyleConstants.FONT_MONOSPACE_LARGE);
+    hexTable
+        .getColumnModel()
+        .getColumn(HexTableModel.Column.HEX.getIndex())
+        .setPreferredWidth(HexTableModel.Column.HEX.getColumnWidth());
+    // materializing the hex of a multi-megabyte value on the EDT would freeze the UI, so only the selection is copied
+    setOKActionEnabled(false);
+    hexTable
+        .getSelectionModel()
+        .addListSelectionListener(e -> setOKActionEnabled(!hexTable.getSelectionModel().isSelectionEmpty()));
+    return new JBScrollPane(hexTable);
+  }
+
+  /** Displays the given chunk of the text. */
+  private void showChunk(int chunk) {
+    this.chunk = chunk;
+    int start = chunkBoundary(chunk);
+    int end = chunkBoundary(chunk + 1);
+    valueTA.setText(text.substring(start, end));
+    valueTA.setCaretPosition(0);
+    chunkLbl.setText(
+        MessageUtils.getLocalizedMessage(
+            "documents.stored.label.chunk", text.isEmpty() ? 0 : start + 1, end, text.length()));
+    prevChunkBtn.setEnabled(start > 0);
+    nextChunkBtn.setEnabled(end < text.length());
+  }
+
+  /** Returns the start of the given chunk, which is moved forward by one, if it would split a surrogate pair. */
+  private int chunkBoundary(int chunk) {
+    long boundary = (long) chunk * CHUNK_SIZE;
+    if (boundary >= text.length()) {
+      return text.length();
+    }
+    int start = (int) boundary;
+    return start > 0 && Character.isLowSurrogate(text.charAt(start)) ? start + 1 : start;
+  }
+
+  private void togglePrettyPrint() {
+    if (!prettyPrintCB.isSelected()) {
+      text = value;
+      showChunk(0);
+    } else if (prettyPrintedText != null) {
+      text = prettyPrintedText;
+      showChunk(0);
+    } else {
+      prettyPrint();
+    }
+  }
+
+  private void prettyPrint() {
+    prettyPrintCB.setEnabled(false);
+    chunkLbl.setText(MessageUtils.getLocalizedMessage("documents.stored.label.formatting"));
+    prettyPrintTask =
+        BackgroundTask.<String, Void>builder("documents-stored-value-format",
+                (cancellation, progress) -> JsonPrettyPrinter.prettyPrint(value, cancellation))
+            .onFinish(() -> {
+              prettyPrintTask = null;
+              prettyPrintCB.setEnabled(true);
+            })
+            .onSuccess(formatted -> {
+              prettyPrintedText = formatted;
+              if (prettyPrintCB.isSelected()) {
+                text = prettyPrintedText;
+                showChunk(0);
+              }
+            })
+            .onFailure(cause -> {
+              log.log(Level.SEVERE, "Error formatting stored value of field " + field, cause);
+              prettyPrintCB.setSelected(false);
+              chunkLbl.setText(cause.getMessage());
+            })
+            .start();
+  }
+
+  @Override
+  protected void dispose() {
+    if (prettyPrintTask != null) {
+      prettyPrintTask.cancel();
+    }
+    super.dispose();
+  }
+
+  /** Table model of the hex view, which decodes the bytes of a row when the row is displayed. */
+  static final class HexTableModel extends AbstractTableModel {
+
+    enum Column implements TableColumnInfo {
+      OFFSET("Offset", 0, String.class, 100),
+      HEX("Hex", 1, String.class, 450),
+      TEXT("Text", 2, String.class, 150);
+
+      private final String colName;
+      private final int index;
+      private final Class<?> type;
+      private final int width;
+
+      Column(String colName, int index, Class<?> type, int width) {
+        this.colName = colName;
+        this.index = index;
+        this.type = type;
+        this.width = width;
+      }
+
+      @Override
+      public String getColName() {
+        return colName;
+      }
+
+      @Override
+      public int getIndex() {
+        return index;
+      }
+
+      @Override
+      public Class<?> getType() {
+        return type;
+      }
+
+      @Override
+      public int getColumnWidth() {
+        return width;
+      }
+    }
+
+    static final int BYTES_PER_ROW = 16;
+
+    private final BytesRef bytes;
+
+    HexTableModel(BytesRef bytes) {
+      this.bytes = bytes;
+    }
+
+    @Override
+    public int getRowCount() {
+      return (bytes.length + BYTES_PER_ROW - 1) / BYTES_PER_ROW;
+    }
+
+    @Override
+    public int getColumnCount() {
+      return Column.values().length;
+    }
+
+    @Override
+    public String getColumnName(int columnIndex) {
+      return Column.values()[columnIndex].getColName();
+    }
+
+    @Override
+    public Class<?> getColumnClass(int columnIndex) {
+      return Column.values()[columnIndex].getType();
+    }
+
+    @Override
+    public Object getValueAt(int rowIndex, int columnIndex) {
+      int start = rowIndex * BYTES_PER_ROW;
+      int end = Math.min(start + BYTES_PER_ROW, bytes.length);
+      StringBuilder sb = new StringBuilder(BYTES_PER_ROW * 3);
+      switch (Column.values()[columnIndex]) {
+        case OFFSET -> sb.append(String.format(Locale.ENGLISH, "%08x", start));
+        case HEX -> {
+          for (int i = start; i < end; i++) {
+            sb.append(String.format(Locale.ENGLISH, i > start ? " %02x" : "%02x", bytes.bytes[bytes.offset + i]));
+          }
+        }
+        case TEXT -> {
+          for (int i = start; i < end; i++) {
+            int b = bytes.bytes[bytes.offset + i] & 0xFF;
+            sb.append(b >= 0x20 && b < 0x7F ? (char) b : '.');
+          }
+        }
+      }
+      return sb.toString();
+    }
+  }
 }
@@ -0,0 +1,326 @@
+//Copyright 2026 Tamás Balog. Use of this source code is governed by the Apache 2.0 license that can be found in the LICENSE file.
+package com.picimako.org.apache.lucene.luke.app.desktop.components.dialog.menubar;
+
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.ui.ComboBox;
+import com.intellij.openapi.ui.DialogWrapper;
+import com.intellij.ui.AnimatedIcon;
+import com.intellij.ui.JBColor;
+import com.intellij.ui.JBIntSpinner;
+import com.intellij.ui.components.JBCheckBox;
+import com.intellij.ui.components.JBRadioButton;
+import com.picimako.org.apache.lucene.luke.app.desktop.LukeMain;
+import com.picimako.org.apache.lucene.luke.app.desktop.components.AnalysisTabOperator;
+import com.picimako.org.apache.lucene.luke.app.desktop.components.BackgroundTask;
+import com.picimako.org.apache.lucene.luke.app.desktop.components.ComponentOperatorRegistry;
+import com.picimako.org.apache.lucene.luke.app.desktop.components.fragments.search.QueryParserTabOperator;
+import com.picimako.org.apache.lucene.luke.models.tools.DocumentExporter;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.luke.app.LukeState;
+import org.apache.lucene.luke.app.desktop.util.MessageUtils;
+import org.apache.lucene.luke.app.desktop.util.StyleConstants;
+import org.apache.lucene.luke.models.LukeException;
+import org.apache.lucene.luke.models.search.QueryParserConfig;
+import org.apache.lucene.luke.models.search.SearchFactory;
+import org.apache.lucene.luke.util.LoggerFactory;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.util.SuppressForbidden;
+import org.jetbrains.annotations.Nullable;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.event.ActionEvent;
+import java.io.File;
+import java.lang.invoke.MethodHandles;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Dialog to export the stored fields and doc values of a range of documents, or of the hits of a query,
+ * to a JSONL or CSV file.
+ * <p>
+ * The export runs in a background thread, reporting the number of exported documents and the export rate,
+ * and it is cancelled when the dialog is closed.
+ */
+public final class ExportDocumentsDialog extends DialogWrapper {
+
+  private static final Logger log = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+
+  private static final DateTimeFormatter FILE_NAME_TIMESTAMP =
+      DateTimeFormatter.ofPattern("yyyyMMddHHmmss", Locale.ROOT);
+
+  private final JRadioButton docRangeRB = new JBRadioButton();
+
+  private final JSpinner fromDocSpnr;
+
+  private final JSpinner toDocSpnr;
+
+  private final JRadioButton queryRB = new JBRadioButton();
+
+  private final JTextField queryTF = new JTextField();
+
+  private final JComboBox<String> formatCombo = new ComboBox<>();
+
+  private final JCheckBox gzipCB = new JBCheckBox();
+
+  private final JTextField destDir = new JTextField();
+
+  private final JLabel statusLbl = new JLabel();
+
+  private final JLabel indicatorLbl = new JLabel();
+
+  private final ComponentOperatorRegistry operatorRegistry;
+
+  private final LukeState lukeState;
+
+  private final DocumentExporter exporter;
+
+  private BackgroundTask<Long, Long> exportTask;
+
+  public ExportDocumentsDialog(@Nullable Project project, LukeState lukeState) {
+    super(project, LukeMain.getOwnerFrame(), false, IdeModalityType.IDE);
+    this.operatorRegistry = ComponentOperatorRegistry.getInstance();
+    this.lukeState = lukeState;
+    this.exporter = new DocumentExporter(lukeState.getIndexReader());
+
+    int maxDoc = lukeState.getIndexReader().maxDoc();
+    this.fromDocSpnr = new JBIntSpinner(0, 0, maxDoc, 1);
+    this.toDocSpnr = new JBIntSpinner(maxDoc, 0, maxDoc, 1);
+    for (DocumentExporter.Format format : DocumentExporter.Format.values()) {
+      formatCombo.addItem(format.name());
+    }
+
+    setTitle("Export documents");
+    setSize(600, 450);
+    setOKButtonText(MessageUtils.getLocalizedMessage("export.documents.button.export"));
+    setCancelButtonText(MessageUtils.getLocalizedMessage("button.close"));
+
+    init();
+  }
+
+  @Override
+  protected void doOKAction() {
+    export();
+  }
+
+  @Override
+  protected @Nullable JComponent createCenterPanel() {
+    return content();
+  }
+
+  private JPanel content() {
+    JPanel panel = new JPanel();
+    panel.setOpaque(false);
+    panel.setLayout(new BoxLayout(panel, BoxLayout.PAGE_AXIS));
+    panel.setBorder(BorderFactory.createEmptyBorder(15, 15, 15, 15));
+
+    panel.add(currentOpenIndexPanel());
+    panel.add(documentsPanel());
+    panel.add(formatPanel());
+    panel.add(destinationDirPanel());
+    panel.add(statusPanel());
+
+    return panel;
+  }
+
+  private JPanel currentOpenIndexPanel() {
+    JPanel panel = new JPanel(new FlowLayout(FlowLayout.LEADING));
+    panel.setOpaque(false);
+    panel.add(new JLabel(MessageUtils.getLocalizedMessage("export.documents.label.index_path")));
+    JLabel value = new JLabel(lukeState.getIndexPath());
+    value.setToolTipText(lukeState.getIndexPath());
+    panel.add(value);
+    return panel;
+  }
+
+  private JPanel documentsPanel() {
+    JPanel panel = new JPanel(new GridLayout(3, 1));
+    panel.setOpaque(false);
+
+    JPanel range = new JPanel(new FlowLayout(FlowLayout.LEADING));
+    range.setOpaque(false);
+    docRangeRB.setText(MessageUtils.getLocalizedMessage("export.documents.radio.doc_range"));
+    docRangeRB.setSelected(true);
+    range.add(docRangeRB);
+    fromDocSpnr.setPreferredSize(new Dimension(100, 30));
+    range.add(fromDocSpnr);
+    range.add(new JLabel(MessageUtils.getLocalizedMessage("export.documents.label.to")));
+    toDocSpnr.setPreferredSize(new Dimension(100, 30));
+    range.add(toDocSpnr);
+    panel.add(range);
+
+    JPanel query = new JPanel(new FlowLayout(FlowLayout.LEADING));
+    query.setOpaque(false);
+    queryRB.setText(MessageUtils.getLocalizedMessage("export.documents.radio.query"));
+    query.add(queryRB);
+    queryTF.setColumns(30);
+    queryTF.setFont(StyleConstants.FONT_MONOSPACE_LARGE);
+    query.add(queryTF);
+    panel.add(query);
+
+    JPanel queryHint = new JPanel(new FlowLayout(FlowLayout.LEADING));
+    queryHint.setOpaque(false);
+    queryHint.setBorder(BorderFactory.createEmptyBorder(0, 20, 0, 0));
+    queryHint.add(new JLabel(MessageUtils.getLocalizedMessage("export.documents.label.query_hint")));
+    panel.add(queryHint);
+
+    ButtonGroup group = new ButtonGroup();
+    group.add(docRangeRB);
+    group.add(queryRB);
+
+    return panel;
+  }
+
+  private JPanel formatPanel() {
+    JPanel panel = new JPanel(new FlowLayout(FlowLayout.LEADING));
+    panel.setOpaque(false);
+    panel.add(new JLabel(MessageUtils.getLocalizedMessage("export.documents.label.format")));
+    panel.add(formatCombo);
+    gzipCB.setText(MessageUtils.getLocalizedMessage("export.documents.checkbox.gzip"));
+    gzipCB.setOpaque(false);
+    panel.add(gzipCB);
+    return panel;
+  }
+
+  private JPanel destinationDirPanel() {
+    JPanel panel = new JPanel(new GridLayout(2, 1));
+    panel.setOpaque(false);
+
+    panel.add(new JLabel(MessageUtils.getLocalizedMessage("export.documents.label.output_path")));
+
+    JPanel inputPanel = new JPanel(new FlowLayout(FlowLayout.LEADING));
+    inputPanel.setOpaque(false);
+    destDir.setText(System.getProperty("user.home"));
+    destDir.setColumns(60);
+    destDir.setPreferredSize(new Dimension(200, 30));
+    destDir.setFont(StyleConstants.FONT_MONOSPACE_LARGE);
+    destDir.setEditable(false);
+    destDir.setBackground(JBColor.WHITE);
+    inputPanel.add(destDir);
+
+    JButton browseBtn = new JButton(MessageUtils.getLocalizedMessage("export.documents.button.browse"));
+    browseBtn.addActionListener(this::browseDirectory);
+    inputPanel.add(browseBtn);
+
+    panel.add(inputPanel);
+    return panel;
+  }
+
+  private JPanel statusPanel() {
+    JPanel status = new JPanel(new FlowLayout(FlowLayout.LEADING));
+    status.setOpaque(false);
+    indicatorLbl.setIcon(AnimatedIcon.Default.INSTANCE);
+    indicatorLbl.setVisible(false);
+    status.add(statusLbl);
+    status.add(indicatorLbl);
+    return status;
+  }
+
+  @SuppressForbidden(reason = "JFilechooser#getSelectedFile() returns java.io.File")
+  private void browseDirectory(ActionEvent e) {
+    JFileChooser fileChooser = new JFileChooser();
+    fileChooser.setFileSelectionMode(JFileChooser.DIRECTORIES_ONLY);
+    fileChooser.setFileHidingEnabled(false);
+    int retVal = fileChooser.showOpenDialog(getContentPanel());
+    if (retVal == JFileChooser.APPROVE_OPTION) {
+      File f = fileChooser.getSelectedFile();
+      destDir.setText(f.getAbsolutePath());
+    }
+  }
+
+  private void export() {
+    Query query;
+    try {
+      query = queryRB.isSelected() ? parseQuery() : null;
+    } catch (LukeException e) {
+      statusLbl.setText(MessageUtils.getLocalizedMessage("export.documents.label.error", e.getMessage()));
+      return;
+    }
+    int fromDoc = (Integer) fromDocSpnr.getValue();
+    int toDoc = (Integer) toDocSpnr.getValue();
+    DocumentExporter.Format format = DocumentExporter.Format.values()[formatCombo.getSelectedIndex()];
+    boolean gzip = gzipCB.isSelected();
+    Path file = Paths.get(destDir.getText(), fileName(format, gzip));
+
+    long startTime = System.nanoTime();
+    setOKActionEnabled(false);
+    indicatorLbl.setVisible(true);
+    statusLbl.setText(MessageUtils.getLocalizedMessage("export.documents.label.exporting", 0, 0));
+    exportTask =
+        BackgroundTask.<Long, Long>builder("export-documents-dialog", (cancellation, progress) ->
+                query != null
+                    ? exporter.exportHits(file, format, gzip, query, cancellation, progress::publishChunk)
+                    : exporter.exportRange(file, format, gzip, fromDoc, toDoc, cancellation, progress::publishChunk))
+            .onChunks(numDocs -> {
+              long exportedDocs = numDocs.get(numDocs.size() - 1);
+              statusLbl.setText(
+                  MessageUtils.getLocalizedMessage(
+                      "export.documents.label.exporting", exportedDocs, docsPerSecond(exportedDocs, startTime)));
+            })
+            .onFinish(() -> {
+              exportTask = null;
+              indicatorLbl.setVisible(false);
+              setOKActionEnabled(true);
+            })
+            .onSuccess(numDocs ->
+                statusLbl.setText(
+                    MessageUtils.getLocalizedMessage(
+                        "export.documents.label.success", numDocs, docsPerSecond(numDocs, startTime), file)))
+            .onFailure(cause -> {
+              log.log(Level.SEVERE, "Error while exporting documents", cause);
+              statusLbl.setText(MessageUtils.getLocalizedMessage("export.documents.label.error", cause.getMessage()));
+            })
+            .start();
+  }
+
+  /** Parses the query with the query parser settings and the analyzer of the Search and Analysis tabs. */
+  private Query parseQuery() {
+    String expr = queryTF.getText().isBlank() ? "*:*" : queryTF.getText();
+    String df =
+        operatorRegistry
+            .get(QueryParserTabOperator.class)
+            .map(QueryParserTabOperator::getDefaultField)
+            .orElse("");
+    QueryParserConfig config =
+        operatorRegistry
+            .get(QueryParserTabOperator.class)
+            .map(QueryParserTabOperator::getConfig)
+            .orElseGet(() -> new QueryParserConfig.Builder().build());
+    Analyzer analyzer =
+        operatorRegistry
+            .get(AnalysisTabOperator.class)
+            .map(AnalysisTabOperator::getCurrentAnalyzer)
+            .orElseGet(StandardAnalyzer::new);
+    IndexReader reader = lukeState.getIndexReader();
+    return new SearchFactory().newInstance(reader).parseQuery(expr, df, analyzer, config, false);
+  }
+
+  private static String fileName(DocumentExporter.Format format, boolean gzip) {
+    return "documents_"
+        + FILE_NAME_TIMESTAMP.format(LocalDateTime.now())
+        + "."
+        + format.getExtension()
+        + (gzip ? ".gz" : "");
+  }
+
+  private static long docsPerSecond(long numDocs, long startTime) {
+    long elapsedMillis = Math.max(1, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime));
+    return numDocs * 1000 / elapsedMillis;
+  }
+
+  @Override
+  protected void dispose() {
+    if (exportTask != null) {
+      exportTask.cancel();
+    }
+    super.dispose();
+  }
+}
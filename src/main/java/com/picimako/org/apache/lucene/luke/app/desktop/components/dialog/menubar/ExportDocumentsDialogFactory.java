@@ -0,0 +1,39 @@
+//Copyright 2026 Tamás Balog. Use of this source code is governed by the Apache 2.0 license that can be found in the LICENSE file.
+package com.picimako.org.apache.lucene.luke.app.desktop.components.dialog.menubar;
+
+import com.intellij.openapi.project.Project;
+import com.picimako.org.apache.lucene.luke.app.IndexHandler;
+import com.picimako.org.apache.lucene.luke.app.desktop.components.dialog.DialogFactory;
+import org.apache.lucene.luke.app.IndexObserver;
+import org.apache.lucene.luke.app.LukeState;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Factory of the export documents dialog.
+ */
+public final class ExportDocumentsDialogFactory implements DialogFactory<ExportDocumentsDialog> {
+
+  private LukeState lukeState;
+
+  public ExportDocumentsDialogFactory() {
+    IndexHandler.getInstance().addObserver(new Observer());
+  }
+
+  @Override
+  public ExportDocumentsDialog createDialog(@NotNull Project project) {
+    return new ExportDocumentsDialog(project, lukeState);
+  }
+
+  private class Observer implements IndexObserver {
+
+    @Override
+    public void openIndex(LukeState state) {
+      lukeState = state;
+    }
+
+    @Override
+    public void closeIndex() {
+      lukeState = null;
+    }
+  }
+}
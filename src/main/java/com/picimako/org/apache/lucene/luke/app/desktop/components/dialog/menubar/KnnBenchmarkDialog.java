@@ -0,0 +1,284 @@
+//Copyright 2026 Tamás Balog. Use of this source code is governed by the Apache 2.0 license that can be found in the LICENSE file.
+package com.picimako.org.apache.lucene.luke.app.desktop.components.dialog.menubar;
+
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.ui.ComboBox;
+import com.intellij.openapi.ui.DialogWrapper;
+import com.intellij.ui.JBIntSpinner;
+import com.intellij.ui.components.JBScrollPane;
+import com.intellij.ui.table.JBTable;
+import com.picimako.org.apache.lucene.luke.app.desktop.LukeMain;
+import com.picimako.org.apache.lucene.luke.app.desktop.components.BackgroundTask;
+import com.picimako.org.apache.lucene.luke.models.search.KnnBenchmark;
+import com.picimako.org.apache.lucene.luke.models.search.KnnSearch;
+import org.apache.lucene.luke.app.LukeState;
+import org.apache.lucene.luke.app.desktop.components.TableColumnInfo;
+import org.apache.lucene.luke.app.desktop.components.TableModelBase;
+import org.apache.lucene.luke.app.desktop.util.MessageUtils;
+import org.apache.lucene.luke.app.desktop.util.TableUtils;
+import org.apache.lucene.luke.util.LoggerFactory;
+import org.jetbrains.annotations.Nullable;
+
+import javax.swing.*;
+import java.awt.*;
+import java.lang.invoke.MethodHandles;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Dialog to measure the recall and the latency of approximate kNN queries of a vector field with different numbers
+ * of candidates, against the exact nearest neighbors.
+ * <p>
+ * The benchmark runs in a background thread, and it is cancelled when the dialog is closed.
+ */
+public final class KnnBenchmarkDialog extends DialogWrapper {
+
+  private static final Logger log = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+
+  private static final String DEFAULT_NUM_CANDIDATES = "10, 20, 50, 100, 200";
+
+  private final JComboBox<String> fieldCombo = new ComboBox<>();
+
+  private final JSpinner numQueriesSpnr = new JBIntSpinner(100, 1, 10_000, 10);
+
+  private final JSpinner kSpnr = new JBIntSpinner(10, 1, 1_000, 1);
+
+  private final JTextField numCandidatesTF = new JTextField(DEFAULT_NUM_CANDIDATES);
+
+  private final JSpinner numThreadsSpnr;
+
+  private final JProgressBar progressBar = new JProgressBar(0, 100);
+
+  private final JLabel statusLbl = new JLabel();
+
+  private final JTable resultsTable = new JBTable();
+
+  private final KnnBenchmark benchmark;
+
+  private BackgroundTask<KnnBenchmark.Report, Void> benchmarkTask;
+
+  public KnnBenchmarkDialog(@Nullable Project project, LukeState lukeState) {
+    super(project, LukeMain.getOwnerFrame(), false, IdeModalityType.IDE);
+    this.benchmark = new KnnBenchmark(lukeState.getIndexReader());
+
+    int processors = Runtime.getRuntime().availableProcessors();
+    this.numThreadsSpnr = new JBIntSpinner(processors, 1, Math.max(64, processors), 1);
+    new KnnSearch(lukeState.getIndexReader()).getVectorFieldNames().forEach(fieldCombo::addItem);
+
+    setTitle("kNN recall benchmark");
+    setSize(700, 500);
+    setOKButtonText(MessageUtils.getLocalizedMessage("knn_benchmark.button.run"));
+    setCancelButtonText(MessageUtils.getLocalizedMessage("button.close"));
+    setOKActionEnabled(fieldCombo.getItemCount() > 0);
+
+    init();
+  }
+
+  @Override
+  protected void doOKAction() {
+    runBenchmark();
+  }
+
+  @Override
+  protected @Nullable JComponent createCenterPanel() {
+    return content();
+  }
+
+  private JPanel content() {
+    JPanel panel = new JPanel(new BorderLayout());
+    panel.setOpaque(false);
+    panel.setBorder(BorderFactory.createEmptyBorder(15, 15, 15, 15));
+
+    panel.add(paramsPanel(), BorderLayout.PAGE_START);
+
+    TableUtils.setupTable(
+        resultsTable,
+        ListSelectionModel.SINGLE_SELECTION,
+        new ResultsTableModel(),
+        null,
+        ResultsTableModel.Column.CANDIDATES.getColumnWidth());
+    panel.add(new JBScrollPane(resultsTable), BorderLayout.CENTER);
+
+    JPanel status = new JPanel(new BorderLayout(5, 0));
+    status.setOpaque(false);
+    status.setBorder(BorderFactory.createEmptyBorder(5, 0, 0, 0));
+    progressBar.setStringPainted(true);
+    progressBar.setVisible(false);
+    status.add(statusLbl, BorderLayout.CENTER);
+    status.add(progressBar, BorderLayout.PAGE_END);
+    panel.add(status, BorderLayout.PAGE_END);
+
+    return panel;
+  }
+
+  private JPanel paramsPanel() {
+    JPanel panel = new JPanel(new GridLayout(4, 1));
+    panel.setOpaque(false);
+
+    JPanel field = new JPanel(new FlowLayout(FlowLayout.LEADING));
+    field.setOpaque(false);
+    field.add(new JLabel(MessageUtils.getLocalizedMessage("knn_benchmark.label.field")));
+    fieldCombo.setPreferredSize(new Dimension(200, fieldCombo.getPreferredSize().height));
+    field.add(fieldCombo);
+    panel.add(field);
+
+    JPanel queries = new JPanel(new FlowLayout(FlowLayout.LEADING));
+    queries.setOpaque(false);
+    queries.add(new JLabel(MessageUtils.getLocalizedMessage("knn_benchmark.label.num_queries")));
+    queries.add(numQueriesSpnr);
+    queries.add(new JLabel(MessageUtils.getLocalizedMessage("knn_benchmark.label.k")));
+    queries.add(kSpnr);
+    panel.add(queries);
+
+    JPanel candidates = new JPanel(new FlowLayout(FlowLayout.LEADING));
+    candidates.setOpaque(false);
+    candidates.add(new JLabel(MessageUtils.getLocalizedMessage("knn_benchmark.label.num_candidates")));
+    numCandidatesTF.setColumns(25);
+    candidates.add(numCandidatesTF);
+    panel.add(candidates);
+
+    JPanel threads = new JPanel(new FlowLayout(FlowLayout.LEADING));
+    threads.setOpaque(false);
+    threads.add(new JLabel(MessageUtils.getLocalizedMessage("knn_benchmark.label.num_threads")));
+    threads.add(numThreadsSpnr);
+    panel.add(threads);
+
+    return panel;
+  }
+
+  private void runBenchmark() {
+    String field = (String) fieldCombo.getSelectedItem();
+    int numQueries = (Integer) numQueriesSpnr.getValue();
+    int k = (Integer) kSpnr.getValue();
+    int numThreads = (Integer) numThreadsSpnr.getValue();
+    int[] numCandidates;
+    try {
+      numCandidates =
+          Arrays.stream(numCandidatesTF.getText().split("[\\s,]+"))
+              .filter(s -> !s.isEmpty())
+              .mapToInt(Integer::parseInt)
+              .toArray();
+    } catch (NumberFormatException e) {
+      statusLbl.setText(MessageUtils.getLocalizedMessage("knn_benchmark.label.invalid_candidates"));
+      return;
+    }
+
+    setOKActionEnabled(false);
+    progressBar.setValue(0);
+    progressBar.setVisible(true);
+    statusLbl.setText(MessageUtils.getLocalizedMessage("knn_benchmark.label.running"));
+    resultsTable.setModel(new ResultsTableModel());
+    benchmarkTask =
+        BackgroundTask.<KnnBenchmark.Report, Void>builder("knn-benchmark-dialog", (cancellation, progress) ->
+                benchmark.run(field, numQueries, k, numCandidates, numThreads, cancellation, progress::setPercent))
+            .onProgress(progressBar::setValue)
+            .onFinish(() -> {
+              benchmarkTask = null;
+              progressBar.setVisible(false);
+              setOKActionEnabled(true);
+            })
+            .onSuccess(this::showReport)
+            .onFailure(cause -> {
+              log.log(Level.SEVERE, "Error while running the kNN benchmark", cause);
+              statusLbl.setText(cause.getMessage());
+            })
+            .start();
+  }
+
+  private void showReport(KnnBenchmark.Report report) {
+    resultsTable.setModel(new ResultsTableModel(report));
+    resultsTable
+        .getColumnModel()
+        .getColumn(ResultsTableModel.Column.CANDIDATES.getIndex())
+        .setPreferredWidth(ResultsTableModel.Column.CANDIDATES.getColumnWidth());
+    statusLbl.setText(
+        MessageUtils.getLocalizedMessage(
+            "knn_benchmark.label.done",
+            report.getNumQueries(),
+            report.getField(),
+            report.getK(),
+            report.getNumThreads()));
+  }
+
+  @Override
+  protected void dispose() {
+    if (benchmarkTask != null) {
+      benchmarkTask.cancel();
+    }
+    super.dispose();
+  }
+
+  static final class ResultsTableModel extends TableModelBase<ResultsTableModel.Column> {
+
+    enum Column implements TableColumnInfo {
+      CANDIDATES("Num candidates", 0, String.class, 120),
+      RECALL("Recall@k", 1, String.class, 80),
+      P50("p50 latency (ms)", 2, String.class, 120),
+      P99("p99 latency (ms)", 3, String.class, 120),
+      VISITED("Avg vectors compared", 4, String.class, Integer.MAX_VALUE);
+
+      private final String colName;
+      private final int index;
+      private final Class<?> type;
+      private final int width;
+
+      Column(String colName, int index, Class<?> type, int width) {
+        this.colName = colName;
+        this.index = index;
+        this.type = type;
+        this.width = width;
+      }
+
+      @Override
+      public String getColName() {
+        return colName;
+      }
+
+      @Override
+      public int getIndex() {
+        return index;
+      }
+
+      @Override
+      public Class<?> getType() {
+        return type;
+      }
+
+      @Override
+      public int getColumnWidth() {
+        return width;
+      }
+    }
+
+    ResultsTableModel() {
+      super();
+    }
+
+    ResultsTableModel(KnnBenchmark.Report report) {
+      super(report.getApproximate().size() + 1);
+      data[0] = toRow("exact", report.getExact());
+      List<KnnBenchmark.Result> approximate = report.getApproximate();
+      for (int i = 0; i < approximate.size(); i++) {
+        data[i + 1] = toRow(Integer.toString(approximate.get(i).getNumCandidates()), approximate.get(i));
+      }
+    }
+
+    private static Object[] toRow(String candidates, KnnBenchmark.Result result) {
+      return new Object[] {
+          candidates,
+          String.format(Locale.ENGLISH, "%.4f", result.getRecall()),
+          String.format(Locale.ENGLISH, "%.3f", result.getP50LatencyNanos() / 1_000_000d),
+          String.format(Locale.ENGLISH, "%.3f", result.getP99LatencyNanos() / 1_000_000d),
+          String.format(Locale.ENGLISH, "%.1f", result.getAvgVisited())
+      };
+    }
+
+    @Override
+    protected Column[] columnInfos() {
+      return Column.values();
+    }
+  }
+}
@@ -25,6 +25,7 @@ import com.intellij.openapi.ui.ComboBox;
 import com.intellij.openapi.ui.DialogWrapper;
 import com.intellij.openapi.ui.Messages;
 import com.intellij.openapi.vfs.VfsUtil;
+import com.intellij.ui.AnimatedIcon;
 import com.intellij.ui.TitledSeparator;
 import com.intellij.util.PathUtil;
 import com.picimako.org.apache.lucene.luke.app.DirectoryHandler;
@@ -86,6 +87,10 @@ public final class OpenIndexDialogFactory extends DialogWrapper {
 
   private final JRadioButton keepAllCommitsRB = new JRadioButton();
 
+  private final JLabel statusLbl = new JLabel();
+
+  private final JLabel indicatorLbl = new JLabel();
+
   private final ListenerFunctions listeners;
 
   public OpenIndexDialogFactory(@Nullable Project project) throws IOException {
@@ -142,6 +147,9 @@ public final class OpenIndexDialogFactory extends DialogWrapper {
     keepAllCommitsRB.setText(MessageUtils.getLocalizedMessage("openindex.radio.keep_all_commits"));
     keepAllCommitsRB.setSelected(prefs.isKeepAllCommits());
     keepAllCommitsRB.setOpaque(false);
+
+    indicatorLbl.setIcon(AnimatedIcon.Default.INSTANCE);
+    indicatorLbl.setVisible(false);
   }
 
   @Override
@@ -158,6 +166,7 @@ public final class OpenIndexDialogFactory extends DialogWrapper {
     panel.add(basicSettings());
     panel.add(new TitledSeparator(MessageUtils.getLocalizedMessage("openindex.label.expert")));
     panel.add(expertSettings());
+    panel.add(statusPanel());
 
     return panel;
   }
@@ -233,10 +242,23 @@ public final class OpenIndexDialogFactory extends DialogWrapper {
     return panel;
   }
 
+  private JPanel statusPanel() {
+    JPanel status = new JPanel(new FlowLayout(FlowLayout.LEADING));
+    status.setOpaque(false);
+    status.add(statusLbl);
+    status.add(indicatorLbl);
+    return status;
+  }
+
   @Override
   protected void doOKAction() {
     listeners.openIndexOrDirectory();
-    super.doOKAction();
+  }
+
+  @Override
+  public void doCancelAction() {
+    indexHandler.cancelOpening();
+    super.doCancelAction();
   }
 
   private class ListenerFunctions {
@@ -301,20 +323,54 @@ public final class OpenIndexDialogFactory extends DialogWrapper {
           Messages.showErrorDialog(message, "Empty index path");
         } else if (isNoReader()) {
           directoryHandler.open(selectedPath, dirImplClazz);
-          addHistory(selectedPath);
+          onOpened(selectedPath, dirImplClazz);
         } else {
-          indexHandler.open(
-              selectedPath, dirImplClazz, isReadOnly(), useCompound(), keepAllCommits());
-          addHistory(selectedPath);
+          setOpening(true);
+          // Large indexes with many segments may take long to open, so it is done in the background,
+          // and the dialog is closed only when the index is ready, or the opening is cancelled.
+          indexHandler.openInBackground(
+              selectedPath,
+              dirImplClazz,
+              isReadOnly(),
+              useCompound(),
+              keepAllCommits(),
+              () -> {
+                setOpening(false);
+                try {
+                  onOpened(selectedPath, dirImplClazz);
+                } catch (Throwable cause) {
+                  handleError(cause);
+                }
+              },
+              cause -> {
+                setOpening(false);
+                handleError(cause);
+              });
         }
-        prefs.setIndexOpenerPrefs(
-            isReadOnly(), dirImplClazz, isNoReader(), useCompound(), keepAllCommits());
-        close(DialogWrapper.OK_EXIT_CODE);
-      } catch (LukeException ex) {
+      } catch (Throwable cause) {
+        handleError(cause);
+      }
+    }
+
+    private void onOpened(String selectedPath, String dirImplClazz) throws IOException {
+      addHistory(selectedPath);
+      prefs.setIndexOpenerPrefs(
+          isReadOnly(), dirImplClazz, isNoReader(), useCompound(), keepAllCommits());
+      close(DialogWrapper.OK_EXIT_CODE);
+    }
+
+    private void setOpening(boolean opening) {
+      statusLbl.setText(opening ? MessageUtils.getLocalizedMessage("openindex.message.opening") : "");
+      indicatorLbl.setVisible(opening);
+      setOKActionEnabled(!opening);
+    }
+
+    private void handleError(Throwable cause) {
+      if (cause instanceof LukeException) {
         String message =
-            ex.getMessage() + System.lineSeparator() + "See Logs tab for more details.";
+            cause.getMessage() + System.lineSeparator() + "See Logs tab for more details.";
         Messages.showErrorDialog(message, "Invalid index path");
-      } catch (Throwable cause) {
+      } else {
         Messages.showErrorDialog(MessageUtils.getLocalizedMessage("message.error.unknown"), "Unknown Error");
         log.log(Level.SEVERE, "Error opening index or directory", cause);
       }
@@ -0,0 +1,237 @@
+//Copyright 2026 Tamás Balog. Use of this source code is governed by the Apache 2.0 license that can be found in the LICENSE file.
+package com.picimako.org.apache.lucene.luke.app.desktop.components.fragments.search;
+
+import com.intellij.icons.AllIcons;
+import com.intellij.openapi.ui.ComboBox;
+import com.intellij.ui.components.JBScrollPane;
+import com.intellij.util.ui.JBUI;
+import com.picimako.org.apache.lucene.luke.app.desktop.components.ComponentOperatorRegistry;
+import com.picimako.org.apache.lucene.luke.app.desktop.components.SearchTabOperator;
+import com.picimako.org.apache.lucene.luke.models.search.KnnSearch;
+import org.apache.lucene.index.FieldInfo;
+import org.apache.lucene.luke.app.desktop.util.MessageUtils;
+import org.apache.lucene.luke.models.LukeException;
+import org.apache.lucene.search.Query;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.event.ActionEvent;
+import java.util.Locale;
+import java.util.Objects;
+
+/**
+ * Provider of the kNN pane
+ */
+public final class KnnPaneProvider implements KnnTabOperator {
+
+  private static final int DEFAULT_K = 10;
+
+  private static final int DEFAULT_NUM_CANDIDATES = 100;
+
+  private final JComboBox<String> fieldCB = new ComboBox<>();
+
+  private final JLabel fieldInfoLbl = new JLabel();
+
+  private final JTextArea vectorTA = new JTextArea(6, 40);
+
+  private final JFormattedTextField docFTF = new JFormattedTextField();
+
+  private final JButton loadBtn = new JButton();
+
+  private final JFormattedTextField kFTF = new JFormattedTextField();
+
+  private final JFormattedTextField numCandidatesFTF = new JFormattedTextField();
+
+  private final JButton searchBtn = new JButton(AllIcons.Actions.Find);
+
+  private final JLabel statsLbl = new JLabel();
+
+  private final ComponentOperatorRegistry operatorRegistry;
+
+  private final ListenerFunctions listeners = new ListenerFunctions();
+
+  private KnnSearch knnSearch;
+
+  public KnnPaneProvider() {
+    this.operatorRegistry = ComponentOperatorRegistry.getInstance();
+
+    operatorRegistry.register(KnnTabOperator.class, this);
+  }
+
+  public JScrollPane get() {
+    JPanel panel = new JPanel();
+    panel.setOpaque(false);
+    panel.setLayout(new BoxLayout(panel, BoxLayout.PAGE_AXIS));
+    panel.setBorder(BorderFactory.createEmptyBorder(3, 3, 3, 3));
+
+    panel.add(initFieldPanel());
+    panel.add(initVectorPanel());
+    panel.add(new JSeparator(JSeparator.HORIZONTAL));
+    panel.add(initParamsPanel());
+
+    JScrollPane scrollPane = new JBScrollPane(panel);
+    scrollPane.setOpaque(false);
+    scrollPane.getViewport().setOpaque(false);
+    return scrollPane;
+  }
+
+  private JPanel initFieldPanel() {
+    JPanel panel = new JPanel(new FlowLayout(FlowLayout.LEADING));
+    panel.setOpaque(false);
+
+    panel.add(new JLabel(MessageUtils.getLocalizedMessage("search_knn.label.field")));
+    fieldCB.setPreferredSize(new Dimension(200, fieldCB.getPreferredSize().height));
+    fieldCB.addActionListener(listeners::showFieldInfo);
+    panel.add(fieldCB);
+    panel.add(fieldInfoLbl);
+
+    return panel;
+  }
+
+  private JPanel initVectorPanel() {
+    JPanel panel = new JPanel(new BorderLayout());
+    panel.setOpaque(false);
+    panel.setBorder(BorderFactory.createEmptyBorder(0, 5, 0, 5));
+
+    panel.add(new JLabel(MessageUtils.getLocalizedMessage("search_knn.label.vector")), BorderLayout.PAGE_START);
+
+    vectorTA.setLineWrap(true);
+    panel.add(new JBScrollPane(vectorTA), BorderLayout.CENTER);
+
+    JPanel load = new JPanel(new FlowLayout(FlowLayout.LEADING));
+    load.setOpaque(false);
+    load.add(new JLabel(MessageUtils.getLocalizedMessage("search_knn.label.load_doc")));
+    docFTF.setColumns(8);
+    docFTF.setValue(0);
+    load.add(docFTF);
+    loadBtn.setText(MessageUtils.getLocalizedMessage("search_knn.button.load"));
+    loadBtn.setMargin(JBUI.insets(3));
+    loadBtn.addActionListener(listeners::loadVector);
+    load.add(loadBtn);
+    panel.add(load, BorderLayout.PAGE_END);
+
+    return panel;
+  }
+
+  private JPanel initParamsPanel() {
+    JPanel panel = new JPanel(new GridLayout(4, 1));
+    panel.setOpaque(false);
+
+    JPanel k = new JPanel(new FlowLayout(FlowLayout.LEADING));
+    k.setOpaque(false);
+    k.add(new JLabel(MessageUtils.getLocalizedMessage("search_knn.label.k")));
+    kFTF.setColumns(5);
+    kFTF.setValue(DEFAULT_K);
+    k.add(kFTF);
+    k.add(new JLabel(MessageUtils.getLocalizedMessage("label.int_required")));
+    panel.add(k);
+
+    JPanel numCandidates = new JPanel(new FlowLayout(FlowLayout.LEADING));
+    numCandidates.setOpaque(false);
+    numCandidates.add(new JLabel(MessageUtils.getLocalizedMessage("search_knn.label.num_candidates")));
+    numCandidatesFTF.setColumns(5);
+    numCandidatesFTF.setValue(DEFAULT_NUM_CANDIDATES);
+    numCandidates.add(numCandidatesFTF);
+    numCandidates.add(new JLabel(MessageUtils.getLocalizedMessage("label.int_required")));
+    panel.add(numCandidates);
+
+    JPanel search = new JPanel(new FlowLayout(FlowLayout.LEADING));
+    search.setOpaque(false);
+    searchBtn.setText(MessageUtils.getLocalizedMessage("search_knn.button.search"));
+    searchBtn.setMargin(JBUI.insets(3, 0));
+    searchBtn.addActionListener(listeners::execKnnSearch);
+    search.add(searchBtn);
+    panel.add(search);
+
+    JPanel stats = new JPanel(new FlowLayout(FlowLayout.LEADING));
+    stats.setOpaque(false);
+    stats.add(statsLbl);
+    panel.add(stats);
+
+    setEnabled(false);
+    return panel;
+  }
+
+  private void setEnabled(boolean enabled) {
+    loadBtn.setEnabled(enabled);
+    searchBtn.setEnabled(enabled);
+  }
+
+  private String getSelectedField() {
+    String field = (String) fieldCB.getSelectedItem();
+    if (field == null) {
+      throw new LukeException("The index has no vector fields.");
+    }
+    return field;
+  }
+
+  private void showFieldInfo() {
+    String field = (String) fieldCB.getSelectedItem();
+    if (knnSearch == null || field == null) {
+      fieldInfoLbl.setText("");
+      return;
+    }
+    FieldInfo fieldInfo = knnSearch.getVectorField(field);
+    fieldInfoLbl.setText(
+        MessageUtils.getLocalizedMessage(
+            "search_knn.label.field_info",
+            fieldInfo.getVectorEncoding().name().toLowerCase(Locale.ENGLISH),
+            fieldInfo.getVectorDimension(),
+            fieldInfo.getVectorSimilarityFunction().name()));
+  }
+
+  private void loadVector() {
+    if (Objects.isNull(docFTF.getValue())) {
+      throw new LukeException("Doc num is not set.");
+    }
+    vectorTA.setText(knnSearch.getVectorText(getSelectedField(), (int) docFTF.getValue()));
+    vectorTA.setCaretPosition(0);
+  }
+
+  @Override
+  public void setKnnSearch(KnnSearch knnSearch) {
+    this.knnSearch = knnSearch;
+    fieldCB.removeAllItems();
+    vectorTA.setText("");
+    statsLbl.setText("");
+    if (knnSearch != null) {
+      knnSearch.getVectorFieldNames().forEach(fieldCB::addItem);
+    }
+    showFieldInfo();
+    setEnabled(fieldCB.getItemCount() > 0);
+  }
+
+  @Override
+  public Query createQuery(KnnSearch.Stats stats) {
+    if (Objects.isNull(kFTF.getValue()) || Objects.isNull(numCandidatesFTF.getValue())) {
+      throw new LukeException("k and the number of candidates must be set.");
+    }
+    return knnSearch.newQuery(
+        getSelectedField(), vectorTA.getText(), (int) kFTF.getValue(), (int) numCandidatesFTF.getValue(), stats);
+  }
+
+  @Override
+  public void showStats(KnnSearch.Stats stats, long totalNanos) {
+    statsLbl.setText(
+        MessageUtils.getLocalizedMessage(
+            "search_knn.label.stats",
+            stats.getVisitedNodes(),
+            String.format(Locale.ENGLISH, "%.2f", stats.getLatencyNanos() / 1_000_000d),
+            String.format(Locale.ENGLISH, "%.2f", totalNanos / 1_000_000d)));
+  }
+
+  private class ListenerFunctions {
+
+    void showFieldInfo(ActionEvent e) {
+      KnnPaneProvider.this.showFieldInfo();
+    }
+
+    void loadVector(ActionEvent e) {
+      KnnPaneProvider.this.loadVector();
+    }
+
+    void execKnnSearch(ActionEvent e) {
+      operatorRegistry.get(SearchTabOperator.class).ifPresent(SearchTabOperator::knnSearch);
+    }
+  }
+}
@@ -0,0 +1,17 @@
+//Copyright 2026 Tamás Balog. Use of this source code is governed by the Apache 2.0 license that can be found in the LICENSE file.
+package com.picimako.org.apache.lucene.luke.app.desktop.components.fragments.search;
+
+import com.picimako.org.apache.lucene.luke.app.desktop.components.ComponentOperatorRegistry;
+import com.picimako.org.apache.lucene.luke.models.search.KnnSearch;
+import org.apache.lucene.search.Query;
+
+/**
+ * Operator of the kNN tab
+ */
+public interface KnnTabOperator extends ComponentOperatorRegistry.ComponentOperator {
+  void setKnnSearch(KnnSearch knnSearch);
+
+  Query createQuery(KnnSearch.Stats stats);
+
+  void showStats(KnnSearch.Stats stats, long totalNanos);
+}
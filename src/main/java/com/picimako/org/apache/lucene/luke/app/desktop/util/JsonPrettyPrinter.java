@@ -0,0 +1,111 @@
+//Copyright 2026 Tamás Balog. Use of this source code is governed by the Apache 2.0 license that can be found in the LICENSE file.
+package com.picimako.org.apache.lucene.luke.app.desktop.util;
+
+import com.picimako.org.apache.lucene.luke.models.util.CancellationToken;
+
+import java.util.concurrent.CancellationException;
+
+/**
+ * Indents JSON text.
+ * <p>
+ * The text is not parsed, only its brackets, commas and colons outside of strings are taken into account,
+ * so malformed JSON is indented as well, as far as possible.
+ */
+public final class JsonPrettyPrinter {
+
+  private static final String INDENT = "  ";
+
+  /** The number of characters processed between two checks for cancellation. Must be a power of 2. */
+  private static final int CANCELLATION_CHECK_INTERVAL = 1 << 16;
+
+  /** Returns true if the given text starts like a JSON object or array. */
+  public static boolean looksLikeJson(String text) {
+    for (int i = 0; i < text.length(); i++) {
+      char c = text.charAt(i);
+      if (!Character.isWhitespace(c)) {
+        return c == '{' || c == '[';
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Returns the given JSON text indented, with one value per line.
+   *
+   * @param json - the JSON text
+   * @param cancellation - the token to cancel the formatting with
+   * @throws CancellationException - if the formatting is cancelled
+   */
+  public static String prettyPrint(String json, CancellationToken cancellation) {
+    StringBuilder sb = new StringBuilder(json.length() + json.length() / 2);
+    int indent = 0;
+    boolean inString = false;
+    boolean escaped = false;
+    for (int i = 0; i < json.length(); i++) {
+      if ((i & (CANCELLATION_CHECK_INTERVAL - 1)) == 0) {
+        cancellation.throwIfCancelled("Formatting JSON has been cancelled.");
+      }
+      char c = json.charAt(i);
+      if (inString) {
+        sb.append(c);
+        if (escaped) {
+          escaped = false;
+        } else if (c == '\\') {
+          escaped = true;
+        } else if (c == '"') {
+          inString = false;
+        }
+        continue;
+      }
+      switch (c) {
+        case '"' -> {
+          inString = true;
+          sb.append(c);
+        }
+        case '{', '[' -> {
+          sb.append(c);
+          int next = skipWhitespace(json, i + 1);
+          if (next < json.length() && (json.charAt(next) == '}' || json.charAt(next) == ']')) {
+            // empty object or array
+            sb.append(json.charAt(next));
+            i = next;
+          } else {
+            newLine(sb, ++indent);
+          }
+        }
+        case '}', ']' -> {
+          indent = Math.max(0, indent - 1);
+          newLine(sb, indent);
+          sb.append(c);
+        }
+        case ',' -> {
+          sb.append(c);
+          newLine(sb, indent);
+        }
+        case ':' -> sb.append(": ");
+        case ' ', '\t', '\n', '\r' -> {
+        }
+        default -> sb.append(c);
+      }
+    }
+    return sb.toString();
+  }
+
+  private static int skipWhitespace(String text, int from) {
+    int i = from;
+    while (i < text.length() && Character.isWhitespace(text.charAt(i))) {
+      i++;
+    }
+    return i;
+  }
+
+  private static void newLine(StringBuilder sb, int indent) {
+    sb.append('\n');
+    for (int i = 0; i < indent; i++) {
+      sb.append(INDENT);
+    }
+  }
+
+  private JsonPrettyPrinter() {
+  }
+}
@@ -0,0 +1,368 @@
+//Copyright 2026 Tamás Balog. Use of this source code is governed by the Apache 2.0 license that can be found in the LICENSE file.
+package com.picimako.org.apache.lucene.luke.models.documents;
+
+import com.picimako.org.apache.lucene.luke.models.util.CancellationToken;
+import org.apache.lucene.index.BinaryDocValues;
+import org.apache.lucene.index.DocValues;
+import org.apache.lucene.index.DocValuesType;
+import org.apache.lucene.index.FieldInfo;
+import org.apache.lucene.index.FieldInfos;
+import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.index.LeafReader;
+import org.apache.lucene.index.LeafReaderContext;
+import org.apache.lucene.index.OrdinalMap;
+import org.apache.lucene.index.ReaderUtil;
+import org.apache.lucene.index.SortedNumericDocValues;
+import org.apache.lucene.index.SortedSetDocValues;
+import org.apache.lucene.luke.models.LukeException;
+import org.apache.lucene.util.Bits;
+import org.apache.lucene.util.BytesRef;
+import org.apache.lucene.util.LongBitSet;
+import org.apache.lucene.util.LongValues;
+import org.apache.lucene.util.packed.PackedInts;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.function.IntConsumer;
+
+/**
+ * The doc values of a field in a range of documents, readable page by page.
+ * <p>
+ * A page is read from fresh per-segment doc values iterators, advanced to the first document of the page, so any page
+ * can be read without reading the ones before it. The documents are visited in the order of their ids, as the doc
+ * values iterators require.
+ * <p>
+ * This class is thread-safe.
+ */
+public final class DocValuesColumn {
+
+  /** The number of documents on a page. */
+  public static final int PAGE_SIZE = 1024;
+
+  /**
+   * The max number of distinct numeric or binary values collected for the cardinality. Sorted and sorted set values
+   * are counted via their ordinals, so their cardinality is always exact.
+   */
+  private static final int MAX_EXACT_CARDINALITY = 1 << 16;
+
+  /** The number of documents summarized between two progress reports. Must be a power of 2. */
+  private static final int PROGRESS_INTERVAL = 1 << 16;
+
+  private final List<LeafReaderContext> leaves;
+
+  private final String field;
+
+  private final DocValuesType type;
+
+  private final int fromDoc;
+
+  private final int toDoc;
+
+  /**
+   * @param reader - the index reader
+   * @param field - the field name
+   * @param fromDoc - the first document id of the range, inclusive
+   * @param toDoc - the last document id of the range, exclusive
+   * @throws LukeException - if the field has no doc values, or the range is invalid
+   */
+  public DocValuesColumn(IndexReader reader, String field, int fromDoc, int toDoc) {
+    FieldInfo fieldInfo = FieldInfos.getMergedFieldInfos(reader).fieldInfo(field);
+    if (fieldInfo == null || fieldInfo.getDocValuesType() == DocValuesType.NONE) {
+      throw new LukeException(String.format(Locale.ENGLISH, "Field %s has no doc values.", field));
+    }
+    if (fromDoc < 0 || fromDoc > toDoc || toDoc > reader.maxDoc()) {
+      throw new LukeException(
+          String.format(
+              Locale.ENGLISH, "Invalid document range: %d - %d (max doc: %d)", fromDoc, toDoc, reader.maxDoc()));
+    }
+    this.leaves = reader.leaves();
+    this.field = Objects.requireNonNull(field);
+    this.type = fieldInfo.getDocValuesType();
+    this.fromDoc = fromDoc;
+    this.toDoc = toDoc;
+  }
+
+  public String getField() {
+    return field;
+  }
+
+  public DocValuesType getType() {
+    return type;
+  }
+
+  /** Returns the first document id of the range, inclusive. */
+  public int getFromDoc() {
+    return fromDoc;
+  }
+
+  /** Returns the number of documents in the range, including deleted ones. */
+  public int getNumDocs() {
+    return toDoc - fromDoc;
+  }
+
+  /** Returns true if the values of the field are longs. */
+  public boolean isNumeric() {
+    return type == DocValuesType.NUMERIC || type == DocValuesType.SORTED_NUMERIC;
+  }
+
+  /**
+   * Returns the doc values of the documents on the given page. Deleted documents are listed without values.
+   *
+   * @param page - the 0-based index of the page
+   * @throws LukeException - if an internal error occurs when accessing index
+   */
+  public List<DocValuesEntry> getPage(int page) {
+    int start = fromDoc + page * PAGE_SIZE;
+    int end = Math.min(toDoc, start + PAGE_SIZE);
+    List<DocValuesEntry> entries = new ArrayList<>(end - start);
+    if (start >= end) {
+      return entries;
+    }
+    try {
+      List<BytesRef> values = new ArrayList<>();
+      List<Long> numericValues = new ArrayList<>();
+      for (int i = ReaderUtil.subIndex(start, leaves); i < leaves.size() && leaves.get(i).docBase < end; i++) {
+        LeafReaderContext leaf = leaves.get(i);
+        Bits liveDocs = leaf.reader().getLiveDocs();
+        LeafValues leafValues = new LeafValues(leaf.reader());
+        int leafEnd = Math.min(end - leaf.docBase, leaf.reader().maxDoc());
+        for (int doc = Math.max(start - leaf.docBase, 0); doc < leafEnd; doc++) {
+          if (liveDocs != null && !liveDocs.get(doc)) {
+            entries.add(DocValuesEntry.deleted(leaf.docBase + doc));
+            continue;
+          }
+          values.clear();
+          numericValues.clear();
+          leafValues.read(doc, values, numericValues);
+          entries.add(DocValuesEntry.of(leaf.docBase + doc, values, numericValues));
+        }
+      }
+      return entries;
+    } catch (IOException e) {
+      throw new LukeException(String.format(Locale.ENGLISH, "Doc values not available for field: %s.", field), e);
+    }
+  }
+
+  /**
+   * Computes the statistics of the values of the live documents in the range, in a single pass over the documents.
+   *
+   * @param cancellation - the token to cancel the computation with
+   * @param progress - receives the number of documents visited so far, periodically during the computation
+   * @throws LukeException - if an internal error occurs when accessing index
+   * @throws CancellationException - if the computation is cancelled
+   */
+  public DocValuesSummary summarize(CancellationToken cancellation, IntConsumer progress) {
+    try {
+      return type == DocValuesType.SORTED || type == DocValuesType.SORTED_SET
+          ? summarizeOrds(cancellation, progress)
+          : summarizeValues(cancellation, progress);
+    } catch (IOException e) {
+      throw new LukeException(String.format(Locale.ENGLISH, "Doc values not available for field: %s.", field), e);
+    }
+  }
+
+  /** Summarizes numeric and binary values, collecting the distinct values up to {@link #MAX_EXACT_CARDINALITY}. */
+  private DocValuesSummary summarizeValues(CancellationToken cancellation, IntConsumer progress) throws IOException {
+    int numDocs = 0;
+    int numDocsWithValues = 0;
+    long numValues = 0;
+    long minLong = Long.MAX_VALUE;
+    long maxLong = Long.MIN_VALUE;
+    BytesRef minBytes = null;
+    BytesRef maxBytes = null;
+    Set<Object> distinct = new HashSet<>();
+    boolean cardinalityExact = true;
+
+    List<BytesRef> values = new ArrayList<>();
+    List<Long> numericValues = new ArrayList<>();
+    int visited = 0;
+    for (LeafReaderContext leaf : leavesInRange()) {
+      Bits liveDocs = leaf.reader().getLiveDocs();
+      LeafValues leafValues = new LeafValues(leaf.reader());
+      int leafEnd = Math.min(toDoc - leaf.docBase, leaf.reader().maxDoc());
+      for (int doc = Math.max(fromDoc - leaf.docBase, 0); doc < leafEnd; doc++) {
+        if ((++visited & (PROGRESS_INTERVAL - 1)) == 0) {
+          cancellation.throwIfCancelled("Summarizing the doc values of field '" + field + "' has been cancelled.");
+          progress.accept(visited);
+        }
+        if (liveDocs != null && !liveDocs.get(doc)) {
+          continue;
+        }
+        numDocs++;
+        values.clear();
+        numericValues.clear();
+        leafValues.read(doc, values, numericValues);
+        if (values.isEmpty() && numericValues.isEmpty()) {
+          continue;
+        }
+        numDocsWithValues++;
+        numValues += values.size() + numericValues.size();
+        for (long value : numericValues) {
+          minLong = Math.min(minLong, value);
+          maxLong = Math.max(maxLong, value);
+        }
+        for (BytesRef value : values) {
+          if (minBytes == null || value.compareTo(minBytes) < 0) {
+            minBytes = value;
+          }
+          if (maxBytes == null || value.compareTo(maxBytes) > 0) {
+            maxBytes = value;
+          }
+        }
+        if (cardinalityExact) {
+          distinct.addAll(numericValues);
+          distinct.addAll(values);
+          if (distinct.size() > MAX_EXACT_CARDINALITY) {
+            // only a lower bound is reported from here on
+            cardinalityExact = false;
+          }
+        }
+      }
+    }
+    progress.accept(visited);
+
+    boolean hasValues = numValues > 0;
+    return new DocValuesSummary(
+        numDocs,
+        numDocsWithValues,
+        numValues,
+        !hasValues ? null : isNumeric() ? minLong : minBytes,
+        !hasValues ? null : isNumeric() ? maxLong : maxBytes,
+        distinct.size(),
+        cardinalityExact);
+  }
+
+  /**
+   * Summarizes sorted and sorted set values via their ordinals. The ordinals of each segment are mapped to global
+   * ordinals to count the distinct values across segments.
+   */
+  private DocValuesSummary summarizeOrds(CancellationToken cancellation, IntConsumer progress) throws IOException {
+    int numDocs = 0;
+    int numDocsWithValues = 0;
+    long numValues = 0;
+
+    List<LeafReaderContext> leavesInRange = leavesInRange();
+    SortedSetDocValues[] leafValues = new SortedSetDocValues[leavesInRange.size()];
+    LongBitSet[] leafOrds = new LongBitSet[leavesInRange.size()];
+    int visited = 0;
+    for (int i = 0; i < leavesInRange.size(); i++) {
+      LeafReaderContext leaf = leavesInRange.get(i);
+      Bits liveDocs = leaf.reader().getLiveDocs();
+      SortedSetDocValues dv = DocValues.getSortedSet(leaf.reader(), field);
+      LongBitSet ords = new LongBitSet(dv.getValueCount());
+      int leafEnd = Math.min(toDoc - leaf.docBase, leaf.reader().maxDoc());
+      for (int doc = Math.max(fromDoc - leaf.docBase, 0); doc < leafEnd; doc++) {
+        if ((++visited & (PROGRESS_INTERVAL - 1)) == 0) {
+          cancellation.throwIfCancelled("Summarizing the doc values of field '" + field + "' has been cancelled.");
+          progress.accept(visited);
+        }
+        if (liveDocs != null && !liveDocs.get(doc)) {
+          continue;
+        }
+        numDocs++;
+        if (dv.advanceExact(doc)) {
+          numDocsWithValues++;
+          int count = dv.docValueCount();
+          numValues += count;
+          for (int k = 0; k < count; k++) {
+            ords.set(dv.nextOrd());
+          }
+        }
+      }
+      leafValues[i] = dv;
+      leafOrds[i] = ords;
+    }
+    progress.accept(visited);
+
+    BytesRef min = null;
+    BytesRef max = null;
+    for (int i = 0; i < leavesInRange.size(); i++) {
+      LongBitSet ords = leafOrds[i];
+      if (ords.length() == 0 || ords.nextSetBit(0) < 0) {
+        continue;
+      }
+      BytesRef leafMin = leafValues[i].lookupOrd(ords.nextSetBit(0));
+      if (min == null || leafMin.compareTo(min) < 0) {
+        min = BytesRef.deepCopyOf(leafMin);
+      }
+      BytesRef leafMax = leafValues[i].lookupOrd(ords.prevSetBit(ords.length() - 1));
+      if (max == null || leafMax.compareTo(max) > 0) {
+        max = BytesRef.deepCopyOf(leafMax);
+      }
+    }
+
+    return new DocValuesSummary(
+        numDocs, numDocsWithValues, numValues, min, max, cardinality(leafValues, leafOrds), true);
+  }
+
+  /** Counts the distinct values of the given segment ordinals. */
+  private static long cardinality(SortedSetDocValues[] leafValues, LongBitSet[] leafOrds) throws IOException {
+    if (leafValues.length == 1) {
+      return leafOrds[0].cardinality();
+    }
+    // looking up terms doesn't depend on the position of the iterators, so they can be reused for the mapping
+    OrdinalMap ordinalMap = OrdinalMap.build(null, leafValues, PackedInts.DEFAULT);
+    LongBitSet globalOrds = new LongBitSet(ordinalMap.getValueCount());
+    for (int i = 0; i < leafValues.length; i++) {
+      LongValues toGlobalOrd = ordinalMap.getGlobalOrds(i);
+      LongBitSet ords = leafOrds[i];
+      long ord = ords.length() > 0 ? ords.nextSetBit(0) : -1;
+      while (ord >= 0) {
+        globalOrds.set(toGlobalOrd.get(ord));
+        ord = ord + 1 < ords.length() ? ords.nextSetBit(ord + 1) : -1;
+      }
+    }
+    return globalOrds.cardinality();
+  }
+
+  private List<LeafReaderContext> leavesInRange() {
+    List<LeafReaderContext> result = new ArrayList<>();
+    for (LeafReaderContext leaf : leaves) {
+      if (leaf.docBase < toDoc && leaf.docBase + leaf.reader().maxDoc() > fromDoc) {
+        result.add(leaf);
+      }
+    }
+    return result;
+  }
+
+  /** The doc values of the field in a segment, read in the order of document ids. */
+  private final class LeafValues {
+
+    private final SortedNumericDocValues numericValues;
+
+    private final BinaryDocValues binaryValues;
+
+    private final SortedSetDocValues sortedSetValues;
+
+    LeafValues(LeafReader reader) throws IOException {
+      // numeric values are read as single-valued sorted numeric values, and sorted values as sorted set values
+      this.numericValues = isNumeric() ? DocValues.getSortedNumeric(reader, field) : null;
+      this.binaryValues = type == DocValuesType.BINARY ? DocValues.getBinary(reader, field) : null;
+      this.sortedSetValues =
+          type == DocValuesType.SORTED || type == DocValuesType.SORTED_SET
+              ? DocValues.getSortedSet(reader, field)
+              : null;
+    }
+
+    /** Adds the values of the given document, which must be greater than the previously read one, to the lists. */
+    void read(int doc, List<BytesRef> values, List<Long> longValues) throws IOException {
+      if (numericValues != null && numericValues.advanceExact(doc)) {
+        for (int i = 0; i < numericValues.docValueCount(); i++) {
+          longValues.add(numericValues.nextValue());
+        }
+      } else if (binaryValues != null && binaryValues.advanceExact(doc)) {
+        values.add(BytesRef.deepCopyOf(binaryValues.binaryValue()));
+      } else if (sortedSetValues != null && sortedSetValues.advanceExact(doc)) {
+        for (int i = 0; i < sortedSetValues.docValueCount(); i++) {
+          values.add(BytesRef.deepCopyOf(sortedSetValues.lookupOrd(sortedSetValues.nextOrd())));
+        }
+      }
+    }
+  }
+}
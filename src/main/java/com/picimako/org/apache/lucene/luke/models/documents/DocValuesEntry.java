@@ -0,0 +1,74 @@
+//Copyright 2026 Tamás Balog. Use of this source code is governed by the Apache 2.0 license that can be found in the LICENSE file.
+package com.picimako.org.apache.lucene.luke.models.documents;
+
+import org.apache.lucene.util.BytesRef;
+
+import java.util.List;
+
+/**
+ * Holder for the doc values of a field in a document.
+ */
+public final class DocValuesEntry {
+
+  private final int docId;
+
+  private final boolean deleted;
+
+  private final List<BytesRef> values;
+
+  private final List<Long> numericValues;
+
+  static DocValuesEntry deleted(int docId) {
+    return new DocValuesEntry(docId, true, List.of(), List.of());
+  }
+
+  static DocValuesEntry of(int docId, List<BytesRef> values, List<Long> numericValues) {
+    return new DocValuesEntry(docId, false, values, numericValues);
+  }
+
+  private DocValuesEntry(int docId, boolean deleted, List<BytesRef> values, List<Long> numericValues) {
+    this.docId = docId;
+    this.deleted = deleted;
+    this.values = List.copyOf(values);
+    this.numericValues = List.copyOf(numericValues);
+  }
+
+  /** Returns the id of the document. */
+  public int getDocId() {
+    return docId;
+  }
+
+  /** Returns true if the document is deleted, in which case its values are not read. */
+  public boolean isDeleted() {
+    return deleted;
+  }
+
+  /** Returns the values of a binary, sorted or sorted set field. */
+  public List<BytesRef> getValues() {
+    return values;
+  }
+
+  /** Returns the values of a numeric or sorted numeric field. */
+  public List<Long> getNumericValues() {
+    return numericValues;
+  }
+
+  /** Returns the number of values of the document. */
+  public int getNumValues() {
+    return values.size() + numericValues.size();
+  }
+
+  @Override
+  public String toString() {
+    return "DocValuesEntry{"
+        + "docId="
+        + docId
+        + ", deleted="
+        + deleted
+        + ", values="
+        + values
+        + ", numericValues="
+        + numericValues
+        + '}';
+  }
+}
@@ -0,0 +1,92 @@
+//Copyright 2026 Tamás Balog. Use of this source code is governed by the Apache 2.0 license that can be found in the LICENSE file.
+package com.picimako.org.apache.lucene.luke.models.documents;
+
+import org.apache.lucene.util.BytesRef;
+
+/**
+ * Statistics of the doc values of a field in a range of documents.
+ * <p>
+ * The minimum and maximum values are longs for numeric and sorted numeric fields, and {@link BytesRef}s otherwise.
+ */
+public final class DocValuesSummary {
+
+  private final int numDocs;
+
+  private final int numDocsWithValues;
+
+  private final long numValues;
+
+  private final Object min;
+
+  private final Object max;
+
+  private final long cardinality;
+
+  private final boolean cardinalityExact;
+
+  DocValuesSummary(int numDocs, int numDocsWithValues, long numValues, Object min, Object max,
+                   long cardinality, boolean cardinalityExact) {
+    this.numDocs = numDocs;
+    this.numDocsWithValues = numDocsWithValues;
+    this.numValues = numValues;
+    this.min = min;
+    this.max = max;
+    this.cardinality = cardinality;
+    this.cardinalityExact = cardinalityExact;
+  }
+
+  /** Returns the number of live documents in the range. */
+  public int getNumDocs() {
+    return numDocs;
+  }
+
+  /** Returns the number of live documents in the range that have at least one value. */
+  public int getNumDocsWithValues() {
+    return numDocsWithValues;
+  }
+
+  /** Returns the number of values of the live documents in the range. */
+  public long getNumValues() {
+    return numValues;
+  }
+
+  /** Returns the minimum value, or null if there are no values. */
+  public Object getMin() {
+    return min;
+  }
+
+  /** Returns the maximum value, or null if there are no values. */
+  public Object getMax() {
+    return max;
+  }
+
+  /** Returns the number of distinct values, or a lower bound of it, if it is not exact. */
+  public long getCardinality() {
+    return cardinality;
+  }
+
+  /** Returns true if {@link #getCardinality()} is the exact number of distinct values. */
+  public boolean isCardinalityExact() {
+    return cardinalityExact;
+  }
+
+  @Override
+  public String toString() {
+    return "DocValuesSummary{"
+        + "numDocs="
+        + numDocs
+        + ", numDocsWithValues="
+        + numDocsWithValues
+        + ", numValues="
+        + numValues
+        + ", min="
+        + min
+        + ", max="
+        + max
+        + ", cardinality="
+        + cardinality
+        + ", cardinalityExact="
+        + cardinalityExact
+        + '}';
+  }
+}
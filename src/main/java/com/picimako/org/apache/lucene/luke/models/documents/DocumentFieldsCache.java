@@ -0,0 +1,127 @@
+//Copyright 2026 Tamás Balog. Use of this source code is governed by the Apache 2.0 license that can be found in the LICENSE file.
+package com.picimako.org.apache.lucene.luke.models.documents;
+
+import org.apache.lucene.luke.models.documents.DocumentField;
+import org.apache.lucene.luke.models.documents.Documents;
+import org.apache.lucene.luke.util.LoggerFactory;
+import org.apache.lucene.util.NamedThreadFactory;
+
+import java.io.Closeable;
+import java.lang.invoke.MethodHandles;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Least recently used cache of the fields of documents, loaded via a {@link Documents} model.
+ * <p>
+ * Loading a document decompresses a whole block of stored fields, so browsing documents one by one
+ * repeats that work for every document. To avoid that, the neighbours of the document being viewed can be
+ * prefetched in the background via {@link #prefetchAround(int)}, so they are already cached when they are viewed.
+ * <p>
+ * This class is thread-safe.
+ */
+public final class DocumentFieldsCache implements Closeable {
+
+  private static final Logger log = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+
+  /** The number of documents prefetched in each direction around the document being viewed. */
+  private static final int PREFETCH_DISTANCE = 2;
+
+  private final Documents documentsModel;
+
+  private final Map<Integer, List<DocumentField>> cache;
+
+  private final ExecutorService prefetchExecutor =
+      Executors.newSingleThreadExecutor(new NamedThreadFactory("documents-prefetch"));
+
+  /** Incremented by each prefetch request, so that prefetches around previously viewed documents are skipped. */
+  private final AtomicLong prefetchGeneration = new AtomicLong();
+
+  public DocumentFieldsCache(Documents documentsModel, int capacity) {
+    this.documentsModel = Objects.requireNonNull(documentsModel);
+    this.cache =
+        new LinkedHashMap<>(capacity, 0.75f, true) {
+          @Override
+          protected boolean removeEldestEntry(Map.Entry<Integer, List<DocumentField>> eldest) {
+            return size() > capacity;
+          }
+        };
+  }
+
+  /**
+   * Returns the fields of the given document if they are cached.
+   */
+  public synchronized Optional<List<DocumentField>> getIfPresent(int docid) {
+    return Optional.ofNullable(cache.get(docid));
+  }
+
+  /**
+   * Returns the fields of the given document, loading them if they are not cached.
+   * <p>
+   * Loading may be slow, so this should not be called on the event dispatch thread when the document is not cached.
+   *
+   * @throws org.apache.lucene.luke.models.LukeException - if an internal error occurs when accessing index
+   */
+  public List<DocumentField> get(int docid) {
+    Optional<List<DocumentField>> cached = getIfPresent(docid);
+    if (cached.isPresent()) {
+      return cached.get();
+    }
+    // loaded outside the lock, so that concurrent loads (e.g. a prefetch) don't block each other
+    List<DocumentField> fields = List.copyOf(documentsModel.getDocumentFields(docid));
+    synchronized (this) {
+      cache.put(docid, fields);
+    }
+    return fields;
+  }
+
+  /**
+   * Loads the neighbours of the given document into the cache in the background, the following documents first.
+   * A new request supersedes the previous one, whose documents not yet loaded are skipped.
+   */
+  public void prefetchAround(int docid) {
+    long generation = prefetchGeneration.incrementAndGet();
+    int maxDoc = documentsModel.getMaxDoc();
+    for (int distance = 1; distance <= PREFETCH_DISTANCE; distance++) {
+      prefetch(docid + distance, maxDoc, generation);
+      prefetch(docid - distance, maxDoc, generation);
+    }
+  }
+
+  private void prefetch(int docid, int maxDoc, long generation) {
+    if (docid < 0 || docid >= maxDoc || prefetchExecutor.isShutdown()) {
+      return;
+    }
+    prefetchExecutor.execute(
+        () -> {
+          if (prefetchGeneration.get() != generation) {
+            return;
+          }
+          try {
+            get(docid);
+          } catch (Exception e) {
+            // the error is reported when the document is actually viewed
+            log.log(Level.FINE, "Error prefetching document " + docid, e);
+          }
+        });
+  }
+
+  /**
+   * Stops prefetching. The cached documents remain available.
+   */
+  @Override
+  public void close() {
+    // skips the queued prefetches without interrupting the running one,
+    // since interrupting a read from an NIOFSDirectory would close the index files
+    prefetchGeneration.incrementAndGet();
+    prefetchExecutor.shutdown();
+  }
+}
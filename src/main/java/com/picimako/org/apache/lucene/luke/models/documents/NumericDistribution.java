@@ -0,0 +1,347 @@
+//Copyright 2026 Tamás Balog. Use of this source code is governed by the Apache 2.0 license that can be found in the LICENSE file.
+package com.picimako.org.apache.lucene.luke.models.documents;
+
+import com.picimako.org.apache.lucene.luke.models.util.CancellationToken;
+import com.picimako.org.apache.lucene.luke.models.util.ParallelTasks;
+import org.apache.lucene.index.DocValues;
+import org.apache.lucene.index.DocValuesType;
+import org.apache.lucene.index.FieldInfo;
+import org.apache.lucene.index.FieldInfos;
+import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.index.LeafReaderContext;
+import org.apache.lucene.index.SortedNumericDocValues;
+import org.apache.lucene.luke.models.LukeException;
+import org.apache.lucene.search.DocIdSetIterator;
+import org.apache.lucene.util.Bits;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CancellationException;
+import java.util.function.LongToDoubleFunction;
+
+/**
+ * The distribution of the values of a numeric or sorted numeric doc values field, in the live documents.
+ * <p>
+ * The values are counted in {@link #NUM_BINS} equal-width bins between the minimum and maximum decoded values, so
+ * the percentiles are estimates, accurate to the width of a bin. The segments are read in parallel, via {@link ParallelTasks}, twice: once for
+ * the range of the values, and once for the bins.
+ * <p>
+ * The decoded values are doubles, so long values above 2<sup>53</sup> are rounded when they are counted in the bins.
+ * The stored long values of the minimum and maximum are kept as well, so that the extremes are exact regardless.
+ * <p>
+ * Values that decode to NaN or infinity are only counted in {@link #getNumNonFiniteValues()}.
+ */
+public final class NumericDistribution {
+
+  /** The number of bins the values are counted in. Divisible by the usual numbers of histogram buckets. */
+  public static final int NUM_BINS = 4000;
+
+  /** The number of documents processed between two checks for cancellation. Must be a power of 2. */
+  private static final int CANCELLATION_CHECK_INTERVAL = 1 << 14;
+
+  private final String field;
+
+  private final long numDocsWithValues;
+
+  private final long numValues;
+
+  private final long numNonFiniteValues;
+
+  private final double min;
+
+  private final double max;
+
+  private final long minStoredValue;
+
+  private final long maxStoredValue;
+
+  private final double mean;
+
+  private final long[] bins;
+
+  private NumericDistribution(String field, Range range, long[] bins) {
+    this.field = field;
+    this.numDocsWithValues = range.numDocsWithValues;
+    this.numValues = range.numValues;
+    this.numNonFiniteValues = range.numNonFiniteValues;
+    this.min = range.min;
+    this.max = range.max;
+    this.minStoredValue = range.minStoredValue;
+    this.maxStoredValue = range.maxStoredValue;
+    this.mean = range.sum / (range.numValues - range.numNonFiniteValues);
+    this.bins = bins;
+  }
+
+  /**
+   * Computes the distribution of the values of the given field.
+   *
+   * @param reader - the index reader
+   * @param field - the name of a numeric or sorted numeric doc values field
+   * @param decoder - converts the stored long values to the values whose distribution is computed
+   * @param cancellation - the token to cancel the computation with
+   * @return the distribution, or null if the live documents have no values
+   * @throws LukeException - if the field is not numeric, or an internal error occurs when accessing index
+   * @throws CancellationException - if the computation is cancelled
+   */
+  public static NumericDistribution compute(IndexReader reader, String field, LongToDoubleFunction decoder,
+                                            CancellationToken cancellation) {
+    FieldInfo fieldInfo = FieldInfos.getMergedFieldInfos(reader).fieldInfo(field);
+    if (fieldInfo == null
+        || (fieldInfo.getDocValuesType() != DocValuesType.NUMERIC
+            && fieldInfo.getDocValuesType() != DocValuesType.SORTED_NUMERIC)) {
+      throw new LukeException(String.format(Locale.ENGLISH, "Field %s has no numeric doc values.", field));
+    }
+    List<LeafReaderContext> leaves = reader.leaves();
+    if (leaves.isEmpty()) {
+      return null;
+    }
+
+    // pass 1: the range of the values
+    Range range = new Range();
+    for (Range leafRange : runPerLeaf(leaves, cancellation, (leaf, token) -> rangeOf(leaf, field, decoder, token))) {
+      range.add(leafRange);
+    }
+    if (range.numValues == 0) {
+      return null;
+    }
+
+    // pass 2: the number of values per bin
+    long[] bins = new long[NUM_BINS];
+    for (long[] leafBins :
+        runPerLeaf(leaves, cancellation, (leaf, token) -> binsOf(leaf, field, decoder, range, token))) {
+      for (int i = 0; i < NUM_BINS; i++) {
+        bins[i] += leafBins[i];
+      }
+    }
+    return new NumericDistribution(field, range, bins);
+  }
+
+  private static <R> List<R> runPerLeaf(List<LeafReaderContext> leaves, CancellationToken cancellation,
+                                        ParallelTasks.Task<LeafReaderContext, R> task) {
+    try {
+      return ParallelTasks.run(leaves, cancellation, task);
+    } catch (IOException e) {
+      throw new LukeException("Doc values not available.", e);
+    }
+  }
+
+  private static Range rangeOf(LeafReaderContext leaf, String field, LongToDoubleFunction decoder,
+                               CancellationToken cancellation) throws IOException {
+    Range range = new Range();
+    SortedNumericDocValues values = DocValues.getSortedNumeric(leaf.reader(), field);
+    Bits liveDocs = leaf.reader().getLiveDocs();
+    int count = 0;
+    for (int doc = values.nextDoc(); doc != DocIdSetIterator.NO_MORE_DOCS; doc = values.nextDoc()) {
+      checkCancellation(++count, cancellation);
+      if (liveDocs != null && !liveDocs.get(doc)) {
+        continue;
+      }
+      range.numDocsWithValues++;
+      for (int i = 0; i < values.docValueCount(); i++) {
+        long value = values.nextValue();
+        range.add(value, decoder.applyAsDouble(value));
+      }
+    }
+    return range;
+  }
+
+  private static long[] binsOf(LeafReaderContext leaf, String field, LongToDoubleFunction decoder, Range range,
+                               CancellationToken cancellation) throws IOException {
+    long[] bins = new long[NUM_BINS];
+    SortedNumericDocValues values = DocValues.getSortedNumeric(leaf.reader(), field);
+    Bits liveDocs = leaf.reader().getLiveDocs();
+    double width = binWidth(range.min, range.max, NUM_BINS);
+    int count = 0;
+    for (int doc = values.nextDoc(); doc != DocIdSetIterator.NO_MORE_DOCS; doc = values.nextDoc()) {
+      checkCancellation(++count, cancellation);
+      if (liveDocs != null && !liveDocs.get(doc)) {
+        continue;
+      }
+      for (int i = 0; i < values.docValueCount(); i++) {
+        double value = decoder.applyAsDouble(values.nextValue());
+        if (Double.isFinite(value)) {
+          bins[binOf(value, range.min, width)]++;
+        }
+      }
+    }
+    return bins;
+  }
+
+  private static int binOf(double value, double min, double width) {
+    if (width == 0) {
+      return 0;
+    }
+    // the maximum value belongs to the last bin
+    return Math.min((int) ((value - min) / width), NUM_BINS - 1);
+  }
+
+  /** Returns the width of the given number of bins between min and max, without overflowing for huge ranges. */
+  private static double binWidth(double min, double max, int numBins) {
+    return max / numBins - min / numBins;
+  }
+
+  private static void checkCancellation(int count, CancellationToken cancellation) {
+    if ((count & (CANCELLATION_CHECK_INTERVAL - 1)) == 0) {
+      cancellation.throwIfCancelled("Computing the value distribution has been cancelled.");
+    }
+  }
+
+  public String getField() {
+    return field;
+  }
+
+  /** Returns the number of live documents with at least one value. */
+  public long getNumDocsWithValues() {
+    return numDocsWithValues;
+  }
+
+  /** Returns the number of values of the live documents. */
+  public long getNumValues() {
+    return numValues;
+  }
+
+  /** Returns the number of values that decode to NaN or infinity. */
+  public long getNumNonFiniteValues() {
+    return numNonFiniteValues;
+  }
+
+  /** Returns the minimum finite decoded value, or NaN if there is none. */
+  public double getMin() {
+    return min;
+  }
+
+  /** Returns the maximum finite decoded value, or NaN if there is none. */
+  public double getMax() {
+    return max;
+  }
+
+  /**
+   * Returns the stored long value the minimum finite value is decoded from. Unlike {@link #getMin()}, it is exact for
+   * long values above 2<sup>53</sup>. Undefined if there is no finite value.
+   */
+  public long getMinStoredValue() {
+    return minStoredValue;
+  }
+
+  /**
+   * Returns the stored long value the maximum finite value is decoded from. Unlike {@link #getMax()}, it is exact for
+   * long values above 2<sup>53</sup>. Undefined if there is no finite value.
+   */
+  public long getMaxStoredValue() {
+    return maxStoredValue;
+  }
+
+  /** Returns the mean of the finite decoded values, or NaN if there is none. */
+  public double getMean() {
+    return mean;
+  }
+
+  /**
+   * Returns the number of finite values in each of the given number of equal-width buckets between the minimum and
+   * maximum values.
+   *
+   * @param numBuckets - the number of buckets, a divisor of {@link #NUM_BINS}
+   */
+  public long[] histogram(int numBuckets) {
+    if (numBuckets <= 0 || NUM_BINS % numBuckets != 0) {
+      throw new IllegalArgumentException("The number of buckets must be a divisor of " + NUM_BINS);
+    }
+    long[] buckets = new long[numBuckets];
+    int binsPerBucket = NUM_BINS / numBuckets;
+    for (int i = 0; i < NUM_BINS; i++) {
+      buckets[i / binsPerBucket] += bins[i];
+    }
+    return buckets;
+  }
+
+  /** Returns the lower bound of the given bucket of {@link #histogram(int)}. */
+  public double bucketLowerBound(int bucket, int numBuckets) {
+    return bucket == 0 ? min : min + binWidth(min, max, numBuckets) * bucket;
+  }
+
+  /** Returns the upper bound of the given bucket of {@link #histogram(int)}, inclusive for the last bucket. */
+  public double bucketUpperBound(int bucket, int numBuckets) {
+    return bucket == numBuckets - 1 ? max : min + binWidth(min, max, numBuckets) * (bucket + 1);
+  }
+
+  /**
+   * Returns the estimated value below which the given percentage of the finite values falls, interpolated linearly
+   * within the bin of that value.
+   *
+   * @param percent - the percentage, between 0 and 100
+   */
+  public double percentile(double percent) {
+    long numFiniteValues = numValues - numNonFiniteValues;
+    if (numFiniteValues == 0) {
+      return Double.NaN;
+    }
+    double rank = percent / 100 * numFiniteValues;
+    double width = binWidth(min, max, NUM_BINS);
+    long count = 0;
+    for (int i = 0; i < NUM_BINS; i++) {
+      if (bins[i] > 0 && count + bins[i] >= rank) {
+        double value = min + width * (i + (rank - count) / bins[i]);
+        return Math.max(min, Math.min(max, value));
+      }
+      count += bins[i];
+    }
+    return max;
+  }
+
+  /** The counts and the range of the finite values, mergeable across segments. */
+  private static final class Range {
+    long numDocsWithValues;
+    long numValues;
+    long numNonFiniteValues;
+    double min = Double.NaN;
+    double max = Double.NaN;
+    long minStoredValue;
+    long maxStoredValue;
+    double sum;
+
+    void add(long storedValue, double value) {
+      numValues++;
+      if (!Double.isFinite(value)) {
+        numNonFiniteValues++;
+        return;
+      }
+      if (isBelowMin(value, storedValue)) {
+        min = value;
+        minStoredValue = storedValue;
+      }
+      if (isAboveMax(value, storedValue)) {
+        max = value;
+        maxStoredValue = storedValue;
+      }
+      sum += value;
+    }
+
+    // the ties are broken by the stored values, because long values above 2^53 may decode to the same double
+
+    private boolean isBelowMin(double value, long storedValue) {
+      return Double.isNaN(min) || value < min || (value == min && storedValue < minStoredValue);
+    }
+
+    private boolean isAboveMax(double value, long storedValue) {
+      return Double.isNaN(max) || value > max || (value == max && storedValue > maxStoredValue);
+    }
+
+    void add(Range other) {
+      numDocsWithValues += other.numDocsWithValues;
+      numValues += other.numValues;
+      numNonFiniteValues += other.numNonFiniteValues;
+      if (!Double.isNaN(other.min)) {
+        if (isBelowMin(other.min, other.minStoredValue)) {
+          min = other.min;
+          minStoredValue = other.minStoredValue;
+        }
+        if (isAboveMax(other.max, other.maxStoredValue)) {
+          max = other.max;
+          maxStoredValue = other.maxStoredValue;
+        }
+      }
+      sum += other.sum;
+    }
+  }
+}
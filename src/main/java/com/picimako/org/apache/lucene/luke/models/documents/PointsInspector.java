@@ -0,0 +1,526 @@
+//Copyright 2026 Tamás Balog. Use of this source code is governed by the Apache 2.0 license that can be found in the LICENSE file.
+package com.picimako.org.apache.lucene.luke.models.documents;
+
+import com.picimako.org.apache.lucene.luke.models.util.CancellationToken;
+import com.picimako.org.apache.lucene.luke.models.util.ParallelTasks;
+import org.apache.lucene.index.FieldInfo;
+import org.apache.lucene.index.FieldInfos;
+import org.apache.lucene.index.FilterLeafReader;
+import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.index.LeafReaderContext;
+import org.apache.lucene.index.PointValues;
+import org.apache.lucene.index.SegmentReader;
+import org.apache.lucene.luke.models.LukeException;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CancellationException;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Inspects the BKD trees of a point field.
+ * <p>
+ * {@link #inspect} walks the trees of the segments in parallel, without reading the points themselves, and
+ * {@link #analyzeRange} intersects them with a range, the same way a point range query does.
+ * <p>
+ * The values of a dimension are passed to and returned from this class in their packed, sortable byte form.
+ */
+public final class PointsInspector {
+
+  /** The number of leaf cells visited between two checks for cancellation. Must be a power of 2. */
+  private static final int CANCELLATION_CHECK_INTERVAL = 1 << 10;
+
+  private final IndexReader reader;
+
+  private final String field;
+
+  private final int numDims;
+
+  private final int numIndexDims;
+
+  private final int bytesPerDim;
+
+  /**
+   * @param reader - the index reader
+   * @param field - the name of a point field
+   * @throws LukeException - if the field has no points
+   */
+  public PointsInspector(IndexReader reader, String field) {
+    FieldInfo fieldInfo = FieldInfos.getMergedFieldInfos(reader).fieldInfo(field);
+    if (fieldInfo == null || fieldInfo.getPointDimensionCount() == 0) {
+      throw new LukeException(String.format(Locale.ENGLISH, "Field %s has no points.", field));
+    }
+    this.reader = reader;
+    this.field = field;
+    this.numDims = fieldInfo.getPointDimensionCount();
+    this.numIndexDims = fieldInfo.getPointIndexDimensionCount();
+    this.bytesPerDim = fieldInfo.getPointNumBytes();
+  }
+
+  public String getField() {
+    return field;
+  }
+
+  /** Returns the number of dimensions of the points. */
+  public int getNumDims() {
+    return numDims;
+  }
+
+  /** Returns the number of dimensions the BKD trees are split on, the first ones of the points. */
+  public int getNumIndexDims() {
+    return numIndexDims;
+  }
+
+  public int getBytesPerDim() {
+    return bytesPerDim;
+  }
+
+  /**
+   * Walks the BKD trees of the segments, and estimates the distribution of the values of a dimension from the bounds
+   * of the leaf cells, assuming the points are spread evenly within a cell.
+   *
+   * @param dim - the index dimension whose values are reported
+   * @param decoder - converts the packed value of the dimension to a number, preserving their order
+   * @param numBuckets - the number of buckets of the density histogram
+   * @param cancellation - the token to cancel the inspection with
+   * @throws LukeException - if an internal error occurs when accessing index
+   * @throws CancellationException - if the inspection is cancelled
+   */
+  public Report inspect(int dim, ToDoubleFunction<byte[]> decoder, int numBuckets, CancellationToken cancellation) {
+    checkIndexDim(dim);
+    List<LeafReaderContext> leaves = leavesWithPoints();
+    if (leaves.isEmpty()) {
+      return new Report(List.of(), Double.NaN, Double.NaN, new double[numBuckets]);
+    }
+    // the bounds of the histogram are known without walking the trees
+    double min = Double.POSITIVE_INFINITY;
+    double max = Double.NEGATIVE_INFINITY;
+    try {
+      for (LeafReaderContext leaf : leaves) {
+        PointValues values = leaf.reader().getPointValues(field);
+        min = Math.min(min, decoder.applyAsDouble(slice(values.getMinPackedValue(), dim)));
+        max = Math.max(max, decoder.applyAsDouble(slice(values.getMaxPackedValue(), dim)));
+      }
+    } catch (IOException e) {
+      throw new LukeException(String.format(Locale.ENGLISH, "Points not available for field: %s.", field), e);
+    }
+
+    double histogramMin = min;
+    double histogramMax = max;
+    List<SegmentTreeWalk> walks =
+        runPerLeaf(leaves, cancellation, (leaf, token) ->
+            new SegmentTreeWalk(dim, decoder, histogramMin, histogramMax, numBuckets).walk(leaf, token));
+    double[] density = new double[numBuckets];
+    List<SegmentStats> segments = new ArrayList<>(walks.size());
+    for (SegmentTreeWalk walk : walks) {
+      segments.add(walk.stats);
+      for (int i = 0; i < numBuckets; i++) {
+        density[i] += walk.density[i];
+      }
+    }
+    return new Report(segments, min, max, density);
+  }
+
+  /**
+   * Intersects the BKD trees of the segments with a range on a dimension, and counts the cells and points visited.
+   *
+   * @param dim - the index dimension of the range
+   * @param lower - the packed lower bound of the range, inclusive
+   * @param upper - the packed upper bound of the range, inclusive
+   * @param cancellation - the token to cancel the analysis with
+   * @throws LukeException - if an internal error occurs when accessing index
+   * @throws CancellationException - if the analysis is cancelled
+   */
+  public RangeStats analyzeRange(int dim, byte[] lower, byte[] upper, CancellationToken cancellation) {
+    checkIndexDim(dim);
+    if (lower.length != bytesPerDim || upper.length != bytesPerDim) {
+      throw new LukeException(String.format(Locale.ENGLISH, "The bounds must be %d bytes long.", bytesPerDim));
+    }
+    RangeStats total = new RangeStats();
+    for (RangeStats stats :
+        runPerLeaf(leavesWithPoints(), cancellation, (leaf, token) -> intersect(leaf, dim, lower, upper, token))) {
+      total.add(stats);
+    }
+    return total;
+  }
+
+  private RangeStats intersect(LeafReaderContext leaf, int dim, byte[] lower, byte[] upper,
+                               CancellationToken cancellation) throws IOException {
+    RangeStats stats = new RangeStats();
+    int from = dim * bytesPerDim;
+    int to = from + bytesPerDim;
+    long start = System.nanoTime();
+    leaf.reader().getPointValues(field).intersect(
+        new PointValues.IntersectVisitor() {
+          @Override
+          public void visit(int docID) {
+            stats.pointsCollected++;
+          }
+
+          @Override
+          public void visit(int docID, byte[] packedValue) {
+            stats.pointsChecked++;
+            if (Arrays.compareUnsigned(packedValue, from, to, lower, 0, bytesPerDim) >= 0
+                && Arrays.compareUnsigned(packedValue, from, to, upper, 0, bytesPerDim) <= 0) {
+              stats.pointsMatched++;
+            }
+          }
+
+          @Override
+          public PointValues.Relation compare(byte[] minPackedValue, byte[] maxPackedValue) {
+            if ((++stats.cellsCompared & (CANCELLATION_CHECK_INTERVAL - 1)) == 0) {
+              cancellation.throwIfCancelled("Analyzing the range has been cancelled.");
+            }
+            if (Arrays.compareUnsigned(minPackedValue, from, to, upper, 0, bytesPerDim) > 0
+                || Arrays.compareUnsigned(maxPackedValue, from, to, lower, 0, bytesPerDim) < 0) {
+              stats.cellsOutside++;
+              return PointValues.Relation.CELL_OUTSIDE_QUERY;
+            }
+            if (Arrays.compareUnsigned(minPackedValue, from, to, lower, 0, bytesPerDim) >= 0
+                && Arrays.compareUnsigned(maxPackedValue, from, to, upper, 0, bytesPerDim) <= 0) {
+              stats.cellsInside++;
+              return PointValues.Relation.CELL_INSIDE_QUERY;
+            }
+            stats.cellsCrossing++;
+            return PointValues.Relation.CELL_CROSSES_QUERY;
+          }
+        });
+    stats.pointsMatched += stats.pointsCollected;
+    stats.elapsedNanos = System.nanoTime() - start;
+    return stats;
+  }
+
+  private List<LeafReaderContext> leavesWithPoints() {
+    List<LeafReaderContext> leaves = new ArrayList<>();
+    try {
+      for (LeafReaderContext leaf : reader.leaves()) {
+        if (leaf.reader().getPointValues(field) != null) {
+          leaves.add(leaf);
+        }
+      }
+    } catch (IOException e) {
+      throw new LukeException(String.format(Locale.ENGLISH, "Points not available for field: %s.", field), e);
+    }
+    return leaves;
+  }
+
+  private <R> List<R> runPerLeaf(List<LeafReaderContext> leaves, CancellationToken cancellation,
+                                 ParallelTasks.Task<LeafReaderContext, R> task) {
+    try {
+      return ParallelTasks.run(leaves, cancellation, task);
+    } catch (IOException e) {
+      throw new LukeException(String.format(Locale.ENGLISH, "Points not available for field: %s.", field), e);
+    }
+  }
+
+
+  private void checkIndexDim(int dim) {
+    if (dim < 0 || dim >= numIndexDims) {
+      throw new IllegalArgumentException("Not an index dimension: " + dim);
+    }
+  }
+
+  private byte[] slice(byte[] packedValue, int dim) {
+    return Arrays.copyOfRange(packedValue, dim * bytesPerDim, (dim + 1) * bytesPerDim);
+  }
+
+  private static String segmentName(LeafReaderContext leaf) {
+    return FilterLeafReader.unwrap(leaf.reader()) instanceof SegmentReader segmentReader
+        ? segmentReader.getSegmentName()
+        : "#" + leaf.ord;
+  }
+
+  /** A depth-first walk of the BKD tree of a segment. */
+  private final class SegmentTreeWalk {
+
+    private final int dim;
+
+    private final ToDoubleFunction<byte[]> decoder;
+
+    private final double min;
+
+    private final double bucketWidth;
+
+    private final double[] density;
+
+    private SegmentStats stats;
+
+    private int numInnerNodes;
+
+    private int numLeaves;
+
+    private int maxDepth;
+
+    private long minLeafSize = Long.MAX_VALUE;
+
+    private long maxLeafSize;
+
+    SegmentTreeWalk(int dim, ToDoubleFunction<byte[]> decoder, double min, double max, int numBuckets) {
+      this.dim = dim;
+      this.decoder = decoder;
+      this.min = min;
+      this.bucketWidth = max / numBuckets - min / numBuckets;
+      this.density = new double[numBuckets];
+    }
+
+    SegmentTreeWalk walk(LeafReaderContext leaf, CancellationToken cancellation) throws IOException {
+      PointValues values = leaf.reader().getPointValues(field);
+      visit(values.getPointTree(), 0, cancellation);
+      stats =
+          new SegmentStats(
+              segmentName(leaf),
+              values.size(),
+              values.getDocCount(),
+              slice(values.getMinPackedValue(), dim),
+              slice(values.getMaxPackedValue(), dim),
+              numInnerNodes,
+              numLeaves,
+              maxDepth,
+              minLeafSize,
+              maxLeafSize);
+      return this;
+    }
+
+    private void visit(PointValues.PointTree tree, int depth, CancellationToken cancellation) throws IOException {
+      if (tree.moveToChild()) {
+        numInnerNodes++;
+        do {
+          visit(tree, depth + 1, cancellation);
+        } while (tree.moveToSibling());
+        tree.moveToParent();
+        return;
+      }
+      if ((++numLeaves & (CANCELLATION_CHECK_INTERVAL - 1)) == 0) {
+        cancellation.throwIfCancelled("Inspecting points has been cancelled.");
+      }
+      long size = tree.size();
+      maxDepth = Math.max(maxDepth, depth);
+      minLeafSize = Math.min(minLeafSize, size);
+      maxLeafSize = Math.max(maxLeafSize, size);
+      addToDensity(
+          decoder.applyAsDouble(slice(tree.getMinPackedValue(), dim)),
+          decoder.applyAsDouble(slice(tree.getMaxPackedValue(), dim)),
+          size);
+    }
+
+    /** Spreads the points of a cell over the buckets the cell overlaps, in proportion to the overlaps. */
+    private void addToDensity(double cellMin, double cellMax, long size) {
+      int first = bucketOf(cellMin);
+      int last = bucketOf(cellMax);
+      if (first == last) {
+        density[first] += size;
+        return;
+      }
+      double cellWidth = cellMax - cellMin;
+      for (int i = first; i <= last; i++) {
+        double bucketMin = Math.max(cellMin, min + bucketWidth * i);
+        double bucketMax = Math.min(cellMax, min + bucketWidth * (i + 1));
+        density[i] += size * Math.max(0, bucketMax - bucketMin) / cellWidth;
+      }
+    }
+
+    private int bucketOf(double value) {
+      if (bucketWidth == 0 || !(value > min)) {
+        return 0;
+      }
+      return (int) Math.min((value - min) / bucketWidth, density.length - 1);
+    }
+  }
+
+  /** The result of {@link #inspect}. */
+  public static final class Report {
+
+    private final List<SegmentStats> segments;
+
+    private final double min;
+
+    private final double max;
+
+    private final double[] density;
+
+    Report(List<SegmentStats> segments, double min, double max, double[] density) {
+      this.segments = List.copyOf(segments);
+      this.min = min;
+      this.max = max;
+      this.density = density;
+    }
+
+    /** Returns the statistics of the segments with points. */
+    public List<SegmentStats> getSegments() {
+      return segments;
+    }
+
+    /** Returns the decoded minimum value of the dimension, or NaN if there are no points. */
+    public double getMin() {
+      return min;
+    }
+
+    /** Returns the decoded maximum value of the dimension, or NaN if there are no points. */
+    public double getMax() {
+      return max;
+    }
+
+    /** Returns the estimated number of points in the equal-width buckets between the min and max values. */
+    public double[] getDensity() {
+      return density.clone();
+    }
+  }
+
+  /** The statistics of the BKD tree of a segment. */
+  public static final class SegmentStats {
+
+    private final String segmentName;
+
+    private final long numPoints;
+
+    private final int docCount;
+
+    private final byte[] minPackedValue;
+
+    private final byte[] maxPackedValue;
+
+    private final int numInnerNodes;
+
+    private final int numLeaves;
+
+    private final int maxDepth;
+
+    private final long minLeafSize;
+
+    private final long maxLeafSize;
+
+    SegmentStats(String segmentName, long numPoints, int docCount, byte[] minPackedValue, byte[] maxPackedValue,
+                 int numInnerNodes, int numLeaves, int maxDepth, long minLeafSize, long maxLeafSize) {
+      this.segmentName = segmentName;
+      this.numPoints = numPoints;
+      this.docCount = docCount;
+      this.minPackedValue = minPackedValue;
+      this.maxPackedValue = maxPackedValue;
+      this.numInnerNodes = numInnerNodes;
+      this.numLeaves = numLeaves;
+      this.maxDepth = maxDepth;
+      this.minLeafSize = minLeafSize;
+      this.maxLeafSize = maxLeafSize;
+    }
+
+    public String getSegmentName() {
+      return segmentName;
+    }
+
+    /** Returns the number of points, including those of deleted documents. */
+    public long getNumPoints() {
+      return numPoints;
+    }
+
+    /** Returns the number of documents with points, including deleted ones. */
+    public int getDocCount() {
+      return docCount;
+    }
+
+    /** Returns the packed minimum value of the inspected dimension. */
+    public byte[] getMinPackedValue() {
+      return minPackedValue.clone();
+    }
+
+    /** Returns the packed maximum value of the inspected dimension. */
+    public byte[] getMaxPackedValue() {
+      return maxPackedValue.clone();
+    }
+
+    public int getNumInnerNodes() {
+      return numInnerNodes;
+    }
+
+    /** Returns the number of leaf cells. */
+    public int getNumLeaves() {
+      return numLeaves;
+    }
+
+    /** Returns the depth of the deepest leaf cell, where the root is at depth 0. */
+    public int getMaxDepth() {
+      return maxDepth;
+    }
+
+    /** Returns the number of points in the smallest leaf cell. */
+    public long getMinLeafSize() {
+      return minLeafSize;
+    }
+
+    /** Returns the number of points in the largest leaf cell. */
+    public long getMaxLeafSize() {
+      return maxLeafSize;
+    }
+  }
+
+  /** The result of {@link #analyzeRange}. */
+  public static final class RangeStats {
+
+    private long cellsCompared;
+
+    private long cellsInside;
+
+    private long cellsCrossing;
+
+    private long cellsOutside;
+
+    private long pointsCollected;
+
+    private long pointsChecked;
+
+    private long pointsMatched;
+
+    private long elapsedNanos;
+
+    RangeStats() {
+    }
+
+    void add(RangeStats other) {
+      cellsCompared += other.cellsCompared;
+      cellsInside += other.cellsInside;
+      cellsCrossing += other.cellsCrossing;
+      cellsOutside += other.cellsOutside;
+      pointsCollected += other.pointsCollected;
+      pointsChecked += other.pointsChecked;
+      pointsMatched += other.pointsMatched;
+      elapsedNanos += other.elapsedNanos;
+    }
+
+    /** Returns the number of cells, inner or leaf, fully inside the range. Their points are collected in bulk. */
+    public long getCellsInside() {
+      return cellsInside;
+    }
+
+    /** Returns the number of cells crossing the range boundaries. */
+    public long getCellsCrossing() {
+      return cellsCrossing;
+    }
+
+    /** Returns the number of cells fully outside the range. They are skipped. */
+    public long getCellsOutside() {
+      return cellsOutside;
+    }
+
+    /** Returns the number of points collected from cells inside the range, without checking their values. */
+    public long getPointsCollected() {
+      return pointsCollected;
+    }
+
+    /** Returns the number of points of leaf cells crossing the range, whose values are checked one by one. */
+    public long getPointsChecked() {
+      return pointsChecked;
+    }
+
+    /** Returns the number of points in the range. */
+    public long getPointsMatched() {
+      return pointsMatched;
+    }
+
+    /** Returns the total time of the intersections in the segments, which run in parallel. */
+    public long getElapsedNanos() {
+      return elapsedNanos;
+    }
+  }
+}
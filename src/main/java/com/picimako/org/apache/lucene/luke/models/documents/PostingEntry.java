@@ -0,0 +1,136 @@
+//Copyright 2026 Tamás Balog. Use of this source code is governed by the Apache 2.0 license that can be found in the LICENSE file.
+package com.picimako.org.apache.lucene.luke.models.documents;
+
+import org.apache.lucene.index.PostingsEnum;
+import org.apache.lucene.util.BytesRef;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Holder for a posting of a term, i.e. a document containing the term, and the positions of the term in the document.
+ */
+public final class PostingEntry {
+
+  private final int docId;
+
+  private final int freq;
+
+  private final List<Position> positions;
+
+  /**
+   * Reads the current posting of the given postings enum.
+   *
+   * @param docId - the id of the document in the top-level reader
+   * @param postings - the postings enum positioned on the document
+   * @param withPositions - whether positions are requested from the postings enum
+   * @param maxPositions - the max number of positions read
+   */
+  static PostingEntry of(int docId, PostingsEnum postings, boolean withPositions, int maxPositions) throws IOException {
+    int freq = postings.freq();
+    List<Position> positions = new ArrayList<>();
+    if (withPositions) {
+      for (int i = 0; i < Math.min(freq, maxPositions); i++) {
+        int position = postings.nextPosition();
+        BytesRef payload = postings.getPayload();
+        positions.add(
+            new Position(
+                position,
+                postings.startOffset(),
+                postings.endOffset(),
+                payload != null ? BytesRef.deepCopyOf(payload) : null));
+      }
+    }
+    return new PostingEntry(docId, freq, positions);
+  }
+
+  private PostingEntry(int docId, int freq, List<Position> positions) {
+    this.docId = docId;
+    this.freq = freq;
+    this.positions = List.copyOf(positions);
+  }
+
+  /** Returns the id of the document. */
+  public int getDocId() {
+    return docId;
+  }
+
+  /** Returns the number of occurrences of the term in the document. */
+  public int getFreq() {
+    return freq;
+  }
+
+  /**
+   * Returns the positions of the term in the document. Empty if the field doesn't index positions,
+   * and it may be fewer than the frequency of the term, if the term occurs many times in the document.
+   */
+  public List<Position> getPositions() {
+    return positions;
+  }
+
+  /** Returns true if the term has more positions in the document than the ones returned by {@link #getPositions()}. */
+  public boolean hasMorePositions() {
+    return !positions.isEmpty() && positions.size() < freq;
+  }
+
+  @Override
+  public String toString() {
+    return "PostingEntry{" + "docId=" + docId + ", freq=" + freq + ", positions=" + positions + '}';
+  }
+
+  /**
+   * Holder for a position of a term in a document.
+   */
+  public static final class Position {
+
+    private final int position;
+
+    private final int startOffset;
+
+    private final int endOffset;
+
+    private final BytesRef payload;
+
+    private Position(int position, int startOffset, int endOffset, BytesRef payload) {
+      this.position = position;
+      this.startOffset = startOffset;
+      this.endOffset = endOffset;
+      this.payload = payload;
+    }
+
+    /** Returns the position of the term. */
+    public int getPosition() {
+      return position;
+    }
+
+    /** Returns the start offset of the term, or -1 if the field doesn't index offsets. */
+    public int getStartOffset() {
+      return startOffset;
+    }
+
+    /** Returns the end offset of the term, or -1 if the field doesn't index offsets. */
+    public int getEndOffset() {
+      return endOffset;
+    }
+
+    /** Returns the payload of the term at this position, or null if there is none. */
+    public BytesRef getPayload() {
+      return payload;
+    }
+
+    @Override
+    public String toString() {
+      return "Position{"
+          + "position="
+          + position
+          + ", startOffset="
+          + startOffset
+          + ", endOffset="
+          + endOffset
+          + ", payload="
+          + payload
+          + '}';
+    }
+  }
+}
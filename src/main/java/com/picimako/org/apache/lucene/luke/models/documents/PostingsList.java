@@ -0,0 +1,227 @@
+//Copyright 2026 Tamás Balog. Use of this source code is governed by the Apache 2.0 license that can be found in the LICENSE file.
+package com.picimako.org.apache.lucene.luke.models.documents;
+
+import com.picimako.org.apache.lucene.luke.models.util.CancellationToken;
+import org.apache.lucene.index.FieldInfo;
+import org.apache.lucene.index.FieldInfos;
+import org.apache.lucene.index.IndexOptions;
+import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.index.LeafReaderContext;
+import org.apache.lucene.index.MultiBits;
+import org.apache.lucene.index.PostingsEnum;
+import org.apache.lucene.index.ReaderUtil;
+import org.apache.lucene.index.Terms;
+import org.apache.lucene.index.TermsEnum;
+import org.apache.lucene.luke.models.LukeException;
+import org.apache.lucene.luke.util.BytesRefUtils;
+import org.apache.lucene.search.DocIdSetIterator;
+import org.apache.lucene.util.ArrayUtil;
+import org.apache.lucene.util.Bits;
+import org.apache.lucene.util.BytesRef;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.concurrent.CancellationException;
+import java.util.function.IntConsumer;
+
+/**
+ * The postings of a term, i.e. the live documents containing the term, readable page by page.
+ * <p>
+ * Only the id of the first document of each page of {@link #PAGE_SIZE} documents is kept in memory as a checkpoint.
+ * A page is read by advancing the postings of the term to its checkpoint, so terms with millions of postings can
+ * be inspected without holding their postings in memory.
+ * <p>
+ * The checkpoints are collected by {@link #scan}, which enumerates the documents of the term once, without their
+ * positions. Pages are available as soon as their checkpoints are collected.
+ * <p>
+ * This class is thread-safe.
+ */
+public final class PostingsList {
+
+  /** The number of documents on a page. */
+  public static final int PAGE_SIZE = 1024;
+
+  /** The max number of positions read per document, so that frequent terms of huge documents don't fill the memory. */
+  public static final int MAX_POSITIONS = 100;
+
+  /** The number of pages scanned between two progress reports. */
+  private static final int PROGRESS_INTERVAL = 32;
+
+  private final List<LeafReaderContext> leaves;
+
+  private final Bits liveDocs;
+
+  private final String field;
+
+  private final BytesRef term;
+
+  /** The features read from the postings enum, or -1 if the field has no postings. */
+  private final int flags;
+
+  /** The id of the first document of each page scanned so far. Guarded by this. */
+  private int[] checkpoints = new int[16];
+
+  private int numCheckpoints;
+
+  private volatile int numDocs;
+
+  private volatile boolean scanned;
+
+  /**
+   * @param reader - the index reader
+   * @param field - the field name
+   * @param term - the term
+   */
+  public PostingsList(IndexReader reader, String field, BytesRef term) {
+    this.leaves = reader.leaves();
+    this.liveDocs = MultiBits.getLiveDocs(reader);
+    this.field = Objects.requireNonNull(field);
+    this.term = BytesRef.deepCopyOf(Objects.requireNonNull(term));
+    this.flags = flagsOf(FieldInfos.getMergedFieldInfos(reader).fieldInfo(field));
+  }
+
+  private static int flagsOf(FieldInfo fieldInfo) {
+    if (fieldInfo == null || fieldInfo.getIndexOptions() == IndexOptions.NONE) {
+      return -1;
+    }
+    return switch (fieldInfo.getIndexOptions()) {
+      case DOCS -> PostingsEnum.NONE;
+      case DOCS_AND_FREQS -> PostingsEnum.FREQS;
+      default -> PostingsEnum.ALL;
+    };
+  }
+
+  public String getField() {
+    return field;
+  }
+
+  /** Returns the string representation for the term. */
+  public String getDecodedTermText() {
+    return BytesRefUtils.decode(term);
+  }
+
+  /**
+   * Returns the number of documents scanned so far, which is the number of documents containing the term
+   * once the scan is finished.
+   */
+  public int getNumDocs() {
+    return numDocs;
+  }
+
+  /** Returns true if all documents have been scanned. */
+  public boolean isScanned() {
+    return scanned;
+  }
+
+  /** Returns true if the positions of the term are available. */
+  public boolean hasPositions() {
+    return flags == PostingsEnum.ALL;
+  }
+
+  /**
+   * Enumerates the documents containing the term to collect the checkpoints of the pages.
+   * <p>
+   * The scan can be cancelled via the given token, in which case a {@link CancellationException} is thrown,
+   * and the pages scanned so far remain available.
+   *
+   * @param cancellation - the token to cancel the scan with
+   * @param progress - receives the number of documents scanned so far, periodically during the scan
+   * @throws LukeException - if an internal error occurs when accessing index
+   */
+  public void scan(CancellationToken cancellation, IntConsumer progress) {
+    if (scanned) {
+      return;
+    }
+    try {
+      int count = 0;
+      for (LeafReaderContext leaf : leaves) {
+        PostingsEnum postings = postingsOf(leaf, PostingsEnum.NONE);
+        if (postings == null) {
+          continue;
+        }
+        for (int doc = postings.nextDoc(); doc != DocIdSetIterator.NO_MORE_DOCS; doc = postings.nextDoc()) {
+          int docId = leaf.docBase + doc;
+          if (liveDocs != null && !liveDocs.get(docId)) {
+            continue;
+          }
+          if (count % PAGE_SIZE == 0) {
+            cancellation.throwIfCancelled(
+                "Scanning the postings of term '" + getDecodedTermText() + "' has been cancelled.");
+            addCheckpoint(docId);
+            // the completed pages become available
+            numDocs = count;
+            if ((count / PAGE_SIZE) % PROGRESS_INTERVAL == 0) {
+              progress.accept(count);
+            }
+          }
+          count++;
+        }
+      }
+      numDocs = count;
+      scanned = true;
+      progress.accept(count);
+    } catch (IOException e) {
+      throw new LukeException(
+          String.format(Locale.ENGLISH, "Postings not available for term: %s:%s.", field, getDecodedTermText()), e);
+    }
+  }
+
+  /**
+   * Returns the postings on the given page, with at most {@link #MAX_POSITIONS} positions per document.
+   * <p>
+   * The page must have been scanned, i.e. it must start below {@link #getNumDocs()}.
+   *
+   * @param page - the 0-based index of the page
+   * @throws LukeException - if an internal error occurs when accessing index
+   */
+  public List<PostingEntry> getPage(int page) {
+    int firstDocId = checkpoint(page);
+    List<PostingEntry> entries = new ArrayList<>(PAGE_SIZE);
+    try {
+      int firstLeaf = ReaderUtil.subIndex(firstDocId, leaves);
+      for (int i = firstLeaf; i < leaves.size() && entries.size() < PAGE_SIZE; i++) {
+        LeafReaderContext leaf = leaves.get(i);
+        PostingsEnum postings = postingsOf(leaf, flags);
+        if (postings == null) {
+          continue;
+        }
+        int doc = i == firstLeaf ? postings.advance(firstDocId - leaf.docBase) : postings.nextDoc();
+        for (; doc != DocIdSetIterator.NO_MORE_DOCS && entries.size() < PAGE_SIZE; doc = postings.nextDoc()) {
+          int docId = leaf.docBase + doc;
+          if (liveDocs == null || liveDocs.get(docId)) {
+            entries.add(PostingEntry.of(docId, postings, hasPositions(), MAX_POSITIONS));
+          }
+        }
+      }
+      return entries;
+    } catch (IOException e) {
+      throw new LukeException(
+          String.format(Locale.ENGLISH, "Postings not available for term: %s:%s.", field, getDecodedTermText()), e);
+    }
+  }
+
+  /** Returns the postings of the term in the given segment, or null if the term doesn't occur in it. */
+  private PostingsEnum postingsOf(LeafReaderContext leaf, int flags) throws IOException {
+    if (this.flags < 0) {
+      return null;
+    }
+    Terms terms = leaf.reader().terms(field);
+    if (terms == null) {
+      return null;
+    }
+    TermsEnum termsEnum = terms.iterator();
+    return termsEnum.seekExact(term) ? termsEnum.postings(null, flags) : null;
+  }
+
+  private synchronized void addCheckpoint(int docId) {
+    checkpoints = ArrayUtil.grow(checkpoints, numCheckpoints + 1);
+    checkpoints[numCheckpoints++] = docId;
+  }
+
+  private synchronized int checkpoint(int page) {
+    return checkpoints[page];
+  }
+}
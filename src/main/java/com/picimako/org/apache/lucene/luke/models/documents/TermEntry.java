@@ -0,0 +1,62 @@
+//Copyright 2026 Tamás Balog. Use of this source code is governed by the Apache 2.0 license that can be found in the LICENSE file.
+package com.picimako.org.apache.lucene.luke.models.documents;
+
+import org.apache.lucene.util.BytesRef;
+
+/**
+ * Holder for a term of a field and its statistics.
+ */
+public final class TermEntry {
+
+  private final BytesRef term;
+
+  private final String decodedTermText;
+
+  private final int docFreq;
+
+  private final long totalTermFreq;
+
+  static TermEntry of(BytesRef term, String decodedTermText, int docFreq, long totalTermFreq) {
+    return new TermEntry(BytesRef.deepCopyOf(term), decodedTermText, docFreq, totalTermFreq);
+  }
+
+  private TermEntry(BytesRef term, String decodedTermText, int docFreq, long totalTermFreq) {
+    this.term = term;
+    this.decodedTermText = decodedTermText;
+    this.docFreq = docFreq;
+    this.totalTermFreq = totalTermFreq;
+  }
+
+  /** Returns the bytes of this term. */
+  public BytesRef getTerm() {
+    return term;
+  }
+
+  /** Returns the string representation for this term. */
+  public String getDecodedTermText() {
+    return decodedTermText;
+  }
+
+  /** Returns the document frequency of this term. */
+  public int getDocFreq() {
+    return docFreq;
+  }
+
+  /** Returns the total number of occurrences of this term. */
+  public long getTotalTermFreq() {
+    return totalTermFreq;
+  }
+
+  @Override
+  public String toString() {
+    return "TermEntry{"
+        + "decodedTermText='"
+        + decodedTermText
+        + '\''
+        + ", docFreq="
+        + docFreq
+        + ", totalTermFreq="
+        + totalTermFreq
+        + '}';
+  }
+}
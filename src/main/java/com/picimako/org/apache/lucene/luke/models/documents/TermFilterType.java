@@ -0,0 +1,57 @@
+//Copyright 2026 Tamás Balog. Use of this source code is governed by the Apache 2.0 license that can be found in the LICENSE file.
+package com.picimako.org.apache.lucene.luke.models.documents;
+
+import org.apache.lucene.index.Term;
+import org.apache.lucene.luke.models.LukeException;
+import org.apache.lucene.search.PrefixQuery;
+import org.apache.lucene.search.WildcardQuery;
+import org.apache.lucene.util.BytesRef;
+import org.apache.lucene.util.automaton.Automaton;
+import org.apache.lucene.util.automaton.CompiledAutomaton;
+import org.apache.lucene.util.automaton.LevenshteinAutomata;
+import org.apache.lucene.util.automaton.Operations;
+import org.apache.lucene.util.automaton.RegExp;
+import org.apache.lucene.util.automaton.TooComplexToDeterminizeException;
+
+import java.util.Locale;
+
+/**
+ * The syntax of the patterns terms can be filtered by.
+ */
+public enum TermFilterType {
+  /** Matches the terms starting with the pattern. */
+  PREFIX,
+  /** Matches the terms via a wildcard pattern, where '*' matches any sequence of characters, '?' matches one. */
+  WILDCARD,
+  /** Matches the terms via a regular expression, as in {@link org.apache.lucene.search.RegexpQuery}. */
+  REGEX,
+  /** Matches the terms within two edits (insertions, deletions, substitutions or transpositions) of the pattern. */
+  FUZZY;
+
+  /**
+   * Compiles the given pattern into an automaton that can be used to enumerate the matching terms of a field.
+   * <p>
+   * The automaton is never simplified, so that it can always be used with
+   * {@link org.apache.lucene.index.Terms#intersect}.
+   *
+   * @param pattern - the pattern to compile
+   * @throws LukeException - if the pattern is invalid, or too complex
+   */
+  public CompiledAutomaton compile(String pattern) {
+    try {
+      return switch (this) {
+        case PREFIX -> compile(PrefixQuery.toAutomaton(new BytesRef(pattern)), true);
+        case WILDCARD -> compile(WildcardQuery.toAutomaton(new Term("", pattern)), false);
+        case REGEX -> compile(new RegExp(pattern).toAutomaton(), false);
+        case FUZZY -> compile(new LevenshteinAutomata(pattern, true).toAutomaton(2), false);
+      };
+    } catch (IllegalArgumentException | TooComplexToDeterminizeException e) {
+      throw new LukeException(
+          String.format(Locale.ENGLISH, "Invalid %s pattern: %s", name().toLowerCase(Locale.ENGLISH), pattern), e);
+    }
+  }
+
+  private static CompiledAutomaton compile(Automaton automaton, boolean isBinary) {
+    return new CompiledAutomaton(automaton, null, false, Operations.DEFAULT_DETERMINIZE_WORK_LIMIT, isBinary);
+  }
+}
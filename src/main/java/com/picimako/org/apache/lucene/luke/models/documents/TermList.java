@@ -0,0 +1,250 @@
+//Copyright 2026 Tamás Balog. Use of this source code is governed by the Apache 2.0 license that can be found in the LICENSE file.
+package com.picimako.org.apache.lucene.luke.models.documents;
+
+import com.picimako.org.apache.lucene.luke.models.util.CancellationToken;
+import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.index.MultiTerms;
+import org.apache.lucene.index.Terms;
+import org.apache.lucene.index.TermsEnum;
+import org.apache.lucene.luke.models.LukeException;
+import org.apache.lucene.luke.util.BytesRefUtils;
+import org.apache.lucene.util.BytesRef;
+import org.apache.lucene.util.BytesRefArray;
+import org.apache.lucene.util.BytesRefBuilder;
+import org.apache.lucene.util.Counter;
+import org.apache.lucene.util.automaton.CompiledAutomaton;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.OptionalLong;
+import java.util.concurrent.CancellationException;
+import java.util.function.LongConsumer;
+
+/**
+ * The terms of a field, optionally only the ones matching a filter, readable page by page.
+ * <p>
+ * Only the last term of each page of {@link #PAGE_SIZE} terms is kept in memory, as the checkpoint of the next page.
+ * A page is read by seeking the terms dictionary past the checkpoint of the page, so the terms of fields with
+ * hundreds of millions of terms can be browsed without holding them in memory.
+ * <p>
+ * When a filter is given, the terms are enumerated via {@link Terms#intersect}, so only the parts of the terms
+ * dictionary that can contain matching terms are visited.
+ * <p>
+ * The checkpoints are collected by {@link #scan}, which enumerates all (matching) terms once. Pages are available
+ * as soon as they are scanned, so the terms can be browsed while the scan is still in progress.
+ * <p>
+ * This class is thread-safe.
+ */
+public final class TermList {
+
+  /** The number of terms on a page. */
+  public static final int PAGE_SIZE = 1024;
+
+  /** The number of pages scanned between two progress reports. */
+  private static final int PROGRESS_INTERVAL = 32;
+
+  private final String field;
+
+  /** The terms of the field, or null if the field has no indexed terms. */
+  private final Terms terms;
+
+  /** The automaton the terms must match, or null if all terms are listed. */
+  private final CompiledAutomaton filter;
+
+  /** The last term of each page scanned so far. */
+  private final BytesRefArray checkpoints = new BytesRefArray(Counter.newCounter());
+
+  private volatile long numTerms;
+
+  private volatile boolean scanned;
+
+  /**
+   * @param reader - the index reader
+   * @param field - the field name
+   * @throws LukeException - if an internal error occurs when accessing index
+   */
+  public TermList(IndexReader reader, String field) {
+    this(reader, field, null);
+  }
+
+  /**
+   * @param reader - the index reader
+   * @param field - the field name
+   * @param filter - the automaton the listed terms must match, see {@link TermFilterType#compile(String)},
+   *     or null to list all terms
+   * @throws LukeException - if an internal error occurs when accessing index
+   */
+  public TermList(IndexReader reader, String field, CompiledAutomaton filter) {
+    this.field = Objects.requireNonNull(field);
+    this.filter = filter;
+    try {
+      this.terms = MultiTerms.getTerms(reader, field);
+    } catch (IOException e) {
+      throw new LukeException(String.format(Locale.ENGLISH, "Terms not available for field: %s.", field), e);
+    }
+  }
+
+  public String getField() {
+    return field;
+  }
+
+  /** Returns the automaton the terms must match, or null if all terms are listed. */
+  public CompiledAutomaton getFilter() {
+    return filter;
+  }
+
+  /**
+   * Returns the number of terms scanned so far, which is the number of (matching) terms in the field once the scan
+   * is finished.
+   */
+  public long getNumTerms() {
+    return numTerms;
+  }
+
+  /** Returns true if all terms have been scanned. */
+  public boolean isScanned() {
+    return scanned;
+  }
+
+  /**
+   * Enumerates all (matching) terms of the field to collect the checkpoints of the pages.
+   * <p>
+   * The scan can be cancelled via the given token, in which case a {@link CancellationException} is thrown,
+   * and the pages scanned so far remain available.
+   *
+   * @param cancellation - the token to cancel the scan with
+   * @param progress - receives the number of terms scanned so far, periodically during the scan
+   * @throws LukeException - if an internal error occurs when accessing index
+   */
+  public void scan(CancellationToken cancellation, LongConsumer progress) {
+    if (scanned) {
+      return;
+    }
+    if (terms == null) {
+      scanned = true;
+      progress.accept(0);
+      return;
+    }
+    try {
+      TermsEnum termsEnum = termsAfter(null);
+      long count = 0;
+      for (BytesRef term = termsEnum.next(); term != null; term = termsEnum.next()) {
+        count++;
+        if (count % PAGE_SIZE == 0) {
+          cancellation.throwIfCancelled("Scanning the terms of field '" + field + "' has been cancelled.");
+          synchronized (checkpoints) {
+            checkpoints.append(term);
+          }
+          // the completed page becomes available
+          numTerms = count;
+          if ((count / PAGE_SIZE) % PROGRESS_INTERVAL == 1) {
+            progress.accept(count);
+          }
+        }
+      }
+      numTerms = count;
+      scanned = true;
+      progress.accept(count);
+    } catch (IOException e) {
+      throw new LukeException(String.format(Locale.ENGLISH, "Terms not available for field: %s.", field), e);
+    }
+  }
+
+  /**
+   * Returns the terms on the given page, with their statistics.
+   * <p>
+   * The page must have been scanned, i.e. it must start below {@link #getNumTerms()}.
+   *
+   * @param page - the 0-based index of the page
+   * @throws LukeException - if an internal error occurs when accessing index
+   */
+  public List<TermEntry> getPage(int page) {
+    try {
+      TermsEnum termsEnum = termsAfter(page == 0 ? null : checkpoint(page - 1));
+      List<TermEntry> entries = new ArrayList<>(PAGE_SIZE);
+      for (BytesRef term = termsEnum.next(); term != null; term = termsEnum.next()) {
+        entries.add(TermEntry.of(term, BytesRefUtils.decode(term), termsEnum.docFreq(), termsEnum.totalTermFreq()));
+        if (entries.size() == PAGE_SIZE) {
+          break;
+        }
+      }
+      return entries;
+    } catch (IOException e) {
+      throw new LukeException(String.format(Locale.ENGLISH, "Terms not available for field: %s.", field), e);
+    }
+  }
+
+  /**
+   * Returns the position of the given term in the list.
+   * <p>
+   * Empty is returned if the term is not listed, e.g. because it doesn't match the filter, or if it is beyond
+   * the terms scanned so far.
+   *
+   * @param term - the term to find
+   * @throws LukeException - if an internal error occurs when accessing index
+   */
+  public OptionalLong indexOf(BytesRef term) {
+    long scannedTerms = numTerms;
+    int numPages = (int) ((scannedTerms + PAGE_SIZE - 1) / PAGE_SIZE);
+    if (numPages == 0) {
+      return OptionalLong.empty();
+    }
+    int page = pageOf(term, numPages);
+    try {
+      TermsEnum termsEnum = termsAfter(page == 0 ? null : checkpoint(page - 1));
+      long position = (long) page * PAGE_SIZE;
+      BytesRef current = termsEnum.next();
+      while (current != null && position < scannedTerms) {
+        int comparison = current.compareTo(term);
+        if (comparison >= 0) {
+          return comparison == 0 ? OptionalLong.of(position) : OptionalLong.empty();
+        }
+        current = termsEnum.next();
+        position++;
+      }
+      return OptionalLong.empty();
+    } catch (IOException e) {
+      throw new LukeException(String.format(Locale.ENGLISH, "Terms not available for field: %s.", field), e);
+    }
+  }
+
+  /**
+   * Returns an enum whose {@link TermsEnum#next()} returns the (matching) terms greater than the given term,
+   * or all (matching) terms, if it is null.
+   */
+  private TermsEnum termsAfter(BytesRef startTerm) throws IOException {
+    if (filter != null) {
+      return terms.intersect(filter, startTerm);
+    }
+    TermsEnum termsEnum = terms.iterator();
+    if (startTerm != null) {
+      // the start term is a listed term, so the enum is positioned on it, and next() returns the term after it
+      termsEnum.seekExact(startTerm);
+    }
+    return termsEnum;
+  }
+
+  /** Returns the page the given term would be on, i.e. the first page whose last term is not less than the term. */
+  private int pageOf(BytesRef term, int numPages) {
+    int low = 0;
+    int high = numPages - 1;
+    while (low < high) {
+      int mid = (low + high) >>> 1;
+      if (checkpoint(mid).compareTo(term) < 0) {
+        low = mid + 1;
+      } else {
+        high = mid;
+      }
+    }
+    return low;
+  }
+
+  private BytesRef checkpoint(int page) {
+    synchronized (checkpoints) {
+      return BytesRef.deepCopyOf(checkpoints.get(new BytesRefBuilder(), page));
+    }
+  }
+}
@@ -0,0 +1,654 @@
+//Copyright 2026 Tamás Balog. Use of this source code is governed by the Apache 2.0 license that can be found in the LICENSE file.
+package com.picimako.org.apache.lucene.luke.models.overview;
+
+import com.picimako.org.apache.lucene.luke.models.util.CancellationToken;
+import com.picimako.org.apache.lucene.luke.models.util.ParallelTasks;
+import com.picimako.org.apache.lucene.luke.models.util.StatsCache;
+import org.apache.lucene.codecs.Codec;
+import org.apache.lucene.codecs.DocValuesProducer;
+import org.apache.lucene.codecs.FieldsProducer;
+import org.apache.lucene.codecs.KnnVectorsReader;
+import org.apache.lucene.codecs.NormsProducer;
+import org.apache.lucene.codecs.PointsReader;
+import org.apache.lucene.codecs.StoredFieldsReader;
+import org.apache.lucene.codecs.TermVectorsReader;
+import org.apache.lucene.index.BinaryDocValues;
+import org.apache.lucene.index.DocValuesType;
+import org.apache.lucene.index.FieldInfo;
+import org.apache.lucene.index.FieldInfos;
+import org.apache.lucene.index.Fields;
+import org.apache.lucene.index.FilterLeafReader;
+import org.apache.lucene.index.IndexFileNames;
+import org.apache.lucene.index.IndexOptions;
+import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.index.LeafReaderContext;
+import org.apache.lucene.index.NumericDocValues;
+import org.apache.lucene.index.PointValues;
+import org.apache.lucene.index.PostingsEnum;
+import org.apache.lucene.index.SegmentCommitInfo;
+import org.apache.lucene.index.SegmentInfo;
+import org.apache.lucene.index.SegmentReadState;
+import org.apache.lucene.index.SegmentReader;
+import org.apache.lucene.index.SortedDocValues;
+import org.apache.lucene.index.SortedNumericDocValues;
+import org.apache.lucene.index.SortedSetDocValues;
+import org.apache.lucene.index.StoredFieldVisitor;
+import org.apache.lucene.index.Terms;
+import org.apache.lucene.index.TermsEnum;
+import org.apache.lucene.index.VectorEncoding;
+import org.apache.lucene.search.DocIdSetIterator;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.IOContext;
+import org.apache.lucene.util.BytesRef;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CancellationException;
+import java.util.function.IntConsumer;
+import java.util.stream.Collectors;
+
+/**
+ * Analyzes how many bytes each field takes up on disk, by {@link IndexStructure}.
+ * <p>
+ * The segments are analyzed in parallel, on the pool shared by {@link ParallelTasks}. Each segment's
+ * files are opened with the segment's codec via a {@link ReadTrackingDirectory}, all the data of each field is read,
+ * and the bytes of each file are attributed to fields by the range of the file read while visiting each field:
+ * <ul>
+ *   <li>terms, postings and positions: every term, with its docs, freqs, positions, payloads and offsets,</li>
+ *   <li>doc values and norms: the values of all documents,</li>
+ *   <li>points: every leaf of each field's tree.</li>
+ * </ul>
+ * Stored fields and term vectors compress the data of all fields together, so they are attributed in proportion to
+ * the uncompressed size of each field's values in all documents, and vectors in proportion to the size of their raw
+ * vector data. Bytes that are not read while visiting fields, e.g. metadata read when a file is opened, are
+ * attributed in proportion to the bytes already attributed in the same structure, so the results add up to the size
+ * of the files of each structure.
+ * <p>
+ * As every value of the index is read, the analysis of a large index takes about as long as reading it entirely.
+ * <p>
+ * Doc values updates are stored in separate files per field, whose sizes are attributed directly to their fields.
+ * Files that are not specific to any of the structures, e.g. segment infos and live docs, are not reported.
+ * <p>
+ * The result of each segment is stored in a {@link StatsCache}, so when an index is reopened with new segments,
+ * only the new segments have to be analyzed.
+ */
+final class DiskUsage {
+
+  /** The number of documents or values visited between two checks for cancellation. Must be a power of 2. */
+  private static final int CANCELLATION_CHECK_INTERVAL = 1 << 14;
+
+  private static final int NUM_STRUCTURES = IndexStructure.values().length;
+
+  private final IndexReader reader;
+
+  private final StatsCache statsCache;
+
+  private volatile List<FieldDiskUsage> diskUsage;
+
+  DiskUsage(IndexReader reader, StatsCache statsCache) {
+    this.reader = Objects.requireNonNull(reader);
+    this.statsCache = Objects.requireNonNull(statsCache);
+  }
+
+  /**
+   * Returns the disk usage of each field, ordered by field name.
+   *
+   * @param progress - receives the percentage of segments analyzed so far
+   * @param cancellation - the token to cancel the analysis with
+   * @throws Exception - if an error occurs when analyzing the segments
+   * @throws CancellationException - if the analysis is cancelled
+   */
+  List<FieldDiskUsage> getDiskUsage(IntConsumer progress, CancellationToken cancellation) throws Exception {
+    if (diskUsage == null) {
+      diskUsage = analyze(progress, cancellation);
+    }
+    progress.accept(100);
+    return diskUsage;
+  }
+
+  private List<FieldDiskUsage> analyze(IntConsumer progress, CancellationToken cancellation) throws IOException {
+    List<SegmentReader> segments = new ArrayList<>();
+    for (LeafReaderContext leaf : reader.leaves()) {
+      if (FilterLeafReader.unwrap(leaf.reader()) instanceof SegmentReader segmentReader) {
+        segments.add(segmentReader);
+      }
+    }
+    if (segments.isEmpty()) {
+      return List.of();
+    }
+
+    List<Map<String, long[]>> segmentUsages =
+        ParallelTasks.run(segments, cancellation, this::analyzeSegmentCached,
+            numDone -> progress.accept(numDone * 100 / segments.size()));
+    Map<String, long[]> usage = new TreeMap<>();
+    for (Map<String, long[]> segmentUsage : segmentUsages) {
+      for (var field : segmentUsage.entrySet()) {
+        long[] bytes = usage.computeIfAbsent(field.getKey(), k -> new long[NUM_STRUCTURES]);
+        for (int s = 0; s < NUM_STRUCTURES; s++) {
+          bytes[s] += field.getValue()[s];
+        }
+      }
+    }
+
+    List<FieldDiskUsage> result = new ArrayList<>(usage.size());
+    usage.forEach((field, bytes) -> result.add(new FieldDiskUsage(field, bytes)));
+    return List.copyOf(result);
+  }
+
+  private Map<String, long[]> analyzeSegmentCached(SegmentReader segmentReader, CancellationToken cancellation)
+      throws IOException {
+    Optional<String> cacheKey = StatsCache.segmentKey(segmentReader);
+    // doc values updates don't change the segment id, but they do change the doc values generation
+    String stat = "diskUsage." + segmentReader.getSegmentInfo().getDocValuesGen();
+    Optional<Map<String, long[]>> persisted = cacheKey.flatMap(key -> statsCache.get(key, stat)).flatMap(DiskUsage::decode);
+    if (persisted.isPresent()) {
+      return persisted.get();
+    }
+    Map<String, long[]> usage = analyzeSegment(segmentReader, cancellation);
+    cacheKey.ifPresent(key -> statsCache.put(key, stat, encode(usage)));
+    return usage;
+  }
+
+  private static Map<String, long[]> analyzeSegment(SegmentReader segmentReader, CancellationToken cancellation)
+      throws IOException {
+    SegmentCommitInfo commitInfo = segmentReader.getSegmentInfo();
+    SegmentInfo info = commitInfo.info;
+    Codec codec = info.getCodec();
+
+    Directory cfsReader = info.getUseCompoundFile() ? codec.compoundFormat().getCompoundReader(info.dir, info, IOContext.READ) : null;
+    try {
+      Directory segmentDir = cfsReader != null ? cfsReader : info.dir;
+      // the field infos the segment was written with, without the fields added by doc values updates
+      FieldInfos fieldInfos = codec.fieldInfosFormat().read(segmentDir, info, "", IOContext.READ);
+      SegmentUsage usage = new SegmentUsage(new ReadTrackingDirectory(segmentDir), info, fieldInfos, cancellation);
+
+      if (fieldInfos.hasPostings()) {
+        usage.analyzePostings();
+      }
+      if (fieldInfos.hasDocValues()) {
+        usage.analyzeDocValues();
+      }
+      if (fieldInfos.hasPointValues()) {
+        usage.analyzePoints();
+      }
+      if (fieldInfos.hasNorms()) {
+        usage.analyzeNorms();
+      }
+      usage.analyzeStoredFields();
+      if (fieldInfos.hasVectors()) {
+        usage.analyzeTermVectors();
+      }
+      if (fieldInfos.hasVectorValues()) {
+        usage.analyzeVectors();
+      }
+
+      FieldInfos updatedFieldInfos = segmentReader.getFieldInfos();
+      for (var updates : commitInfo.getDocValuesUpdatesFiles().entrySet()) {
+        FieldInfo fieldInfo = updatedFieldInfos.fieldInfo(updates.getKey());
+        if (fieldInfo != null) {
+          for (String file : updates.getValue()) {
+            usage.add(fieldInfo.name, IndexStructure.DOC_VALUES, info.dir.fileLength(file));
+          }
+        }
+      }
+      return usage.bytes;
+    } finally {
+      if (cfsReader != null) {
+        cfsReader.close();
+      }
+    }
+  }
+
+  /**
+   * The disk usage of the fields of a single segment.
+   */
+  private static final class SegmentUsage {
+
+    private final ReadTrackingDirectory dir;
+    private final SegmentInfo info;
+    private final FieldInfos fieldInfos;
+    private final SegmentReadState readState;
+    private final CancellationToken cancellation;
+    private final Map<String, long[]> bytes = new HashMap<>();
+
+    SegmentUsage(ReadTrackingDirectory dir, SegmentInfo info, FieldInfos fieldInfos, CancellationToken cancellation) {
+      this.dir = dir;
+      this.cancellation = cancellation;
+      this.info = info;
+      this.fieldInfos = fieldInfos;
+      this.readState = new SegmentReadState(dir, info, fieldInfos, IOContext.READ);
+      for (FieldInfo fieldInfo : fieldInfos) {
+        bytes.put(fieldInfo.name, new long[NUM_STRUCTURES]);
+      }
+    }
+
+    void add(String field, IndexStructure structure, long numBytes) {
+      bytes.computeIfAbsent(field, f -> new long[NUM_STRUCTURES])[structure.ordinal()] += numBytes;
+    }
+
+    void analyzePostings() throws IOException {
+      dir.resetOpenedFiles();
+      try (FieldsProducer fields = info.getCodec().postingsFormat().fieldsProducer(readState)) {
+        Map<String, Map<String, Long>> readBytes = new HashMap<>();
+        for (FieldInfo fieldInfo : fieldInfos) {
+          Terms terms = fieldInfo.getIndexOptions() != IndexOptions.NONE ? fields.terms(fieldInfo.name) : null;
+          if (terms == null) {
+            continue;
+          }
+          dir.resetReadBytes();
+          int flags = postingsFlags(fieldInfo);
+          TermsEnum termsEnum = terms.iterator();
+          PostingsEnum postings = null;
+          long count = 0;
+          while (termsEnum.next() != null) {
+            checkCancellation(++count);
+            postings = readPostings(termsEnum, postings, flags);
+          }
+          // seeking the extreme terms reads the terms index of the field, which enumerating the terms doesn't
+          seekExact(terms, terms.getMin());
+          seekExact(terms, terms.getMax());
+          readBytes.put(fieldInfo.name, dir.getReadBytes());
+        }
+
+        Set<String> files = dir.getOpenedFiles();
+        distribute(IndexStructure.POSTINGS, filesWithExtension(files, Set.of("doc")), readBytes);
+        distribute(IndexStructure.POSITIONS, filesWithExtension(files, Set.of("pos", "pay")), readBytes);
+        Set<String> termsFiles = files.stream()
+            .filter(file -> !Set.of("doc", "pos", "pay").contains(IndexFileNames.getExtension(file)))
+            .collect(Collectors.toSet());
+        distribute(IndexStructure.TERMS, termsFiles, readBytes);
+      }
+    }
+
+    private static int postingsFlags(FieldInfo fieldInfo) {
+      return switch (fieldInfo.getIndexOptions()) {
+        case NONE, DOCS -> PostingsEnum.NONE;
+        case DOCS_AND_FREQS -> PostingsEnum.FREQS;
+        case DOCS_AND_FREQS_AND_POSITIONS -> fieldInfo.hasPayloads() ? PostingsEnum.PAYLOADS : PostingsEnum.POSITIONS;
+        case DOCS_AND_FREQS_AND_POSITIONS_AND_OFFSETS -> PostingsEnum.ALL;
+      };
+    }
+
+    private PostingsEnum readPostings(TermsEnum termsEnum, PostingsEnum reuse, int flags) throws IOException {
+      PostingsEnum postings = termsEnum.postings(reuse, flags);
+      boolean hasFreqs = PostingsEnum.featureRequested(flags, PostingsEnum.FREQS);
+      boolean hasPositions = PostingsEnum.featureRequested(flags, PostingsEnum.POSITIONS);
+      long count = 0;
+      while (postings.nextDoc() != DocIdSetIterator.NO_MORE_DOCS) {
+        checkCancellation(++count);
+        if (hasFreqs) {
+          postings.freq();
+        }
+        if (hasPositions) {
+          for (int i = 0; i < postings.freq(); i++) {
+            postings.nextPosition();
+            postings.startOffset();
+            postings.endOffset();
+            postings.getPayload();
+          }
+        }
+      }
+      return postings;
+    }
+
+    private static void seekExact(Terms terms, BytesRef term) throws IOException {
+      if (term != null) {
+        terms.iterator().seekExact(term);
+      }
+    }
+
+    void analyzeDocValues() throws IOException {
+      dir.resetOpenedFiles();
+      try (DocValuesProducer docValues = info.getCodec().docValuesFormat().fieldsProducer(readState)) {
+        Map<String, Map<String, Long>> readBytes = new HashMap<>();
+        for (FieldInfo fieldInfo : fieldInfos) {
+          if (fieldInfo.getDocValuesType() == DocValuesType.NONE) {
+            continue;
+          }
+          dir.resetReadBytes();
+          readDocValues(docValues, fieldInfo);
+          readBytes.put(fieldInfo.name, dir.getReadBytes());
+        }
+        distribute(IndexStructure.DOC_VALUES, dir.getOpenedFiles(), readBytes);
+      }
+    }
+
+    private void readDocValues(DocValuesProducer docValues, FieldInfo fieldInfo) throws IOException {
+      long count = 0;
+      switch (fieldInfo.getDocValuesType()) {
+        case NUMERIC -> {
+          NumericDocValues values = docValues.getNumeric(fieldInfo);
+          while (values.nextDoc() != DocIdSetIterator.NO_MORE_DOCS) {
+            checkCancellation(++count);
+            values.longValue();
+          }
+        }
+        case BINARY -> {
+          BinaryDocValues values = docValues.getBinary(fieldInfo);
+          while (values.nextDoc() != DocIdSetIterator.NO_MORE_DOCS) {
+            checkCancellation(++count);
+            values.binaryValue();
+          }
+        }
+        case SORTED -> {
+          SortedDocValues values = docValues.getSorted(fieldInfo);
+          if (values.getValueCount() > 0) {
+            values.lookupOrd(0);
+            values.lookupOrd(values.getValueCount() - 1);
+          }
+          while (values.nextDoc() != DocIdSetIterator.NO_MORE_DOCS) {
+            checkCancellation(++count);
+            values.ordValue();
+          }
+        }
+        case SORTED_NUMERIC -> {
+          SortedNumericDocValues values = docValues.getSortedNumeric(fieldInfo);
+          while (values.nextDoc() != DocIdSetIterator.NO_MORE_DOCS) {
+            checkCancellation(++count);
+            for (int i = 0; i < values.docValueCount(); i++) {
+              values.nextValue();
+            }
+          }
+        }
+        case SORTED_SET -> {
+          SortedSetDocValues values = docValues.getSortedSet(fieldInfo);
+          if (values.getValueCount() > 0) {
+            values.lookupOrd(0);
+            values.lookupOrd(values.getValueCount() - 1);
+          }
+          while (values.nextDoc() != DocIdSetIterator.NO_MORE_DOCS) {
+            checkCancellation(++count);
+            for (int i = 0; i < values.docValueCount(); i++) {
+              values.nextOrd();
+            }
+          }
+        }
+        case NONE -> {
+        }
+      }
+    }
+
+    void analyzePoints() throws IOException {
+      dir.resetOpenedFiles();
+      try (PointsReader points = info.getCodec().pointsFormat().fieldsReader(readState)) {
+        Map<String, Map<String, Long>> readBytes = new HashMap<>();
+        for (FieldInfo fieldInfo : fieldInfos) {
+          PointValues values = fieldInfo.getPointDimensionCount() > 0 ? points.getValues(fieldInfo.name) : null;
+          if (values == null) {
+            continue;
+          }
+          dir.resetReadBytes();
+          readPoints(values);
+          readBytes.put(fieldInfo.name, dir.getReadBytes());
+        }
+        distribute(IndexStructure.POINTS, dir.getOpenedFiles(), readBytes);
+      }
+    }
+
+    /** Reads every leaf of a points tree, with the doc ids and the values of the points. */
+    private void readPoints(PointValues values) throws IOException {
+      values.intersect(
+          new PointValues.IntersectVisitor() {
+            private long count;
+
+            @Override
+            public void visit(int docID) {
+              checkCancellation(++count);
+            }
+
+            @Override
+            public void visit(int docID, byte[] packedValue) {
+              checkCancellation(++count);
+            }
+
+            @Override
+            public PointValues.Relation compare(byte[] minPackedValue, byte[] maxPackedValue) {
+              return PointValues.Relation.CELL_CROSSES_QUERY;
+            }
+          });
+    }
+
+    void analyzeNorms() throws IOException {
+      dir.resetOpenedFiles();
+      try (NormsProducer norms = info.getCodec().normsFormat().normsProducer(readState)) {
+        Map<String, Map<String, Long>> readBytes = new HashMap<>();
+        for (FieldInfo fieldInfo : fieldInfos) {
+          if (!fieldInfo.hasNorms()) {
+            continue;
+          }
+          dir.resetReadBytes();
+          NumericDocValues values = norms.getNorms(fieldInfo);
+          long count = 0;
+          while (values.nextDoc() != DocIdSetIterator.NO_MORE_DOCS) {
+            checkCancellation(++count);
+            values.longValue();
+          }
+          readBytes.put(fieldInfo.name, dir.getReadBytes());
+        }
+        distribute(IndexStructure.NORMS, dir.getOpenedFiles(), readBytes);
+      }
+    }
+
+    void analyzeStoredFields() throws IOException {
+      dir.resetOpenedFiles();
+      try (StoredFieldsReader storedFields =
+               info.getCodec().storedFieldsFormat().fieldsReader(dir, info, fieldInfos, IOContext.READ)) {
+        Map<String, Long> valueBytes = new HashMap<>();
+        StoredFieldVisitor visitor =
+            new StoredFieldVisitor() {
+              @Override
+              public Status needsField(FieldInfo fieldInfo) {
+                return Status.YES;
+              }
+
+              @Override
+              public void binaryField(FieldInfo fieldInfo, byte[] value) {
+                valueBytes.merge(fieldInfo.name, (long) value.length, Long::sum);
+              }
+
+              @Override
+              public void stringField(FieldInfo fieldInfo, String value) {
+                valueBytes.merge(fieldInfo.name, (long) value.getBytes(StandardCharsets.UTF_8).length, Long::sum);
+              }
+
+              @Override
+              public void intField(FieldInfo fieldInfo, int value) {
+                valueBytes.merge(fieldInfo.name, (long) Integer.BYTES, Long::sum);
+              }
+
+              @Override
+              public void longField(FieldInfo fieldInfo, long value) {
+                valueBytes.merge(fieldInfo.name, (long) Long.BYTES, Long::sum);
+              }
+
+              @Override
+              public void floatField(FieldInfo fieldInfo, float value) {
+                valueBytes.merge(fieldInfo.name, (long) Float.BYTES, Long::sum);
+              }
+
+              @Override
+              public void doubleField(FieldInfo fieldInfo, double value) {
+                valueBytes.merge(fieldInfo.name, (long) Double.BYTES, Long::sum);
+              }
+            };
+        for (int doc = 0; doc < info.maxDoc(); doc++) {
+          checkCancellation(doc + 1);
+          storedFields.document(doc, visitor);
+        }
+        distributeByWeight(IndexStructure.STORED_FIELDS, dir.getOpenedFiles(), valueBytes);
+      }
+    }
+
+    void analyzeTermVectors() throws IOException {
+      dir.resetOpenedFiles();
+      try (TermVectorsReader termVectors =
+               info.getCodec().termVectorsFormat().vectorsReader(dir, info, fieldInfos, IOContext.READ)) {
+        Map<String, Long> termBytes = new HashMap<>();
+        for (int doc = 0; doc < info.maxDoc(); doc++) {
+          checkCancellation(doc + 1);
+          Fields fields = termVectors.get(doc);
+          if (fields == null) {
+            continue;
+          }
+          for (String field : fields) {
+            Terms terms = fields.terms(field);
+            if (terms == null) {
+              continue;
+            }
+            // the bytes of the terms, and roughly a byte per position
+            long numBytes = Math.max(0, terms.getSumTotalTermFreq());
+            TermsEnum termsEnum = terms.iterator();
+            BytesRef term;
+            while ((term = termsEnum.next()) != null) {
+              numBytes += term.length;
+            }
+            termBytes.merge(field, numBytes, Long::sum);
+          }
+        }
+        distributeByWeight(IndexStructure.TERM_VECTORS, dir.getOpenedFiles(), termBytes);
+      }
+    }
+
+    void analyzeVectors() throws IOException {
+      dir.resetOpenedFiles();
+      try (KnnVectorsReader vectors = info.getCodec().knnVectorsFormat().fieldsReader(readState)) {
+        Map<String, Long> vectorBytes = new HashMap<>();
+        for (FieldInfo fieldInfo : fieldInfos) {
+          if (fieldInfo.getVectorDimension() == 0) {
+            continue;
+          }
+          long size =
+              fieldInfo.getVectorEncoding() == VectorEncoding.FLOAT32
+                  ? Optional.ofNullable(vectors.getFloatVectorValues(fieldInfo.name)).map(v -> (long) v.size()).orElse(0L)
+                  : Optional.ofNullable(vectors.getByteVectorValues(fieldInfo.name)).map(v -> (long) v.size()).orElse(0L);
+          vectorBytes.put(fieldInfo.name, size * fieldInfo.getVectorDimension() * fieldInfo.getVectorEncoding().byteSize);
+        }
+        distributeByWeight(IndexStructure.VECTORS, dir.getOpenedFiles(), vectorBytes);
+      }
+    }
+
+    /**
+     * Distributes the bytes of the given files among the fields in proportion to the given weights of the fields,
+     * which apply to all files.
+     */
+    private void distributeByWeight(IndexStructure structure, Set<String> files, Map<String, Long> weights) throws IOException {
+      Map<String, Map<String, Long>> weightsByFile = new HashMap<>();
+      for (var weight : weights.entrySet()) {
+        Map<String, Long> fileWeights = new HashMap<>();
+        files.forEach(file -> fileWeights.put(file, weight.getValue()));
+        weightsByFile.put(weight.getKey(), fileWeights);
+      }
+      distribute(structure, files, weightsByFile);
+    }
+
+    /**
+     * Distributes the bytes of each of the given files among the fields in proportion to the bytes read from that file
+     * while visiting each field. Files that have not been read while visiting any field are distributed in proportion
+     * to the bytes already attributed to each field, or evenly if none has been attributed.
+     */
+    private void distribute(IndexStructure structure, Set<String> files, Map<String, Map<String, Long>> readBytes)
+        throws IOException {
+      if (readBytes.isEmpty()) {
+        return;
+      }
+      Map<String, Double> fieldBytes = new HashMap<>();
+      long unattributed = 0;
+      for (String file : files) {
+        long length = dir.fileLength(file);
+        long totalRead = 0;
+        for (Map<String, Long> fileReads : readBytes.values()) {
+          totalRead += fileReads.getOrDefault(file, 0L);
+        }
+        if (totalRead == 0) {
+          unattributed += length;
+          continue;
+        }
+        for (var fieldReads : readBytes.entrySet()) {
+          long read = fieldReads.getValue().getOrDefault(file, 0L);
+          if (read > 0) {
+            fieldBytes.merge(fieldReads.getKey(), (double) length * read / totalRead, Double::sum);
+          }
+        }
+      }
+
+      if (unattributed > 0) {
+        double attributed = fieldBytes.values().stream().mapToDouble(Double::doubleValue).sum();
+        if (attributed > 0) {
+          for (var field : fieldBytes.entrySet()) {
+            field.setValue(field.getValue() + unattributed * field.getValue() / attributed);
+          }
+        } else {
+          for (String field : readBytes.keySet()) {
+            fieldBytes.put(field, (double) unattributed / readBytes.size());
+          }
+        }
+      }
+      fieldBytes.forEach((field, numBytes) -> add(field, structure, Math.round(numBytes)));
+    }
+
+    private void checkCancellation(long count) {
+      if ((count & (CANCELLATION_CHECK_INTERVAL - 1)) == 0) {
+        checkCancellation();
+      }
+    }
+
+    private void checkCancellation() {
+      cancellation.throwIfCancelled("Analyzing disk usage has been cancelled.");
+    }
+
+    private static Set<String> filesWithExtension(Set<String> files, Set<String> extensions) {
+      return files.stream()
+          .filter(file -> extensions.contains(IndexFileNames.getExtension(file)))
+          .collect(Collectors.toSet());
+    }
+  }
+
+  /**
+   * Encodes the disk usage of the fields of a segment to be stored in the statistics cache.
+   */
+  private static String encode(Map<String, long[]> usage) {
+    Base64.Encoder encoder = Base64.getEncoder();
+    return usage.entrySet().stream()
+        .map(field -> encoder.encodeToString(field.getKey().getBytes(StandardCharsets.UTF_8)) + ":"
+            + Arrays.stream(field.getValue()).mapToObj(Long::toString).collect(Collectors.joining(":")))
+        .collect(Collectors.joining(","));
+  }
+
+  /**
+   * Decodes the disk usage of the fields of a segment stored in the statistics cache. Returns empty if the value
+   * cannot be decoded, e.g. because it was stored for a different set of structures.
+   */
+  private static Optional<Map<String, long[]>> decode(String value) {
+    try {
+      Map<String, long[]> usage = new HashMap<>();
+      if (value.isEmpty()) {
+        return Optional.of(usage);
+      }
+      Base64.Decoder decoder = Base64.getDecoder();
+      for (String entry : value.split(",")) {
+        String[] parts = entry.split(":");
+        if (parts.length != NUM_STRUCTURES + 1) {
+          return Optional.empty();
+        }
+        long[] bytes = new long[NUM_STRUCTURES];
+        for (int i = 0; i < NUM_STRUCTURES; i++) {
+          bytes[i] = Long.parseLong(parts[i + 1]);
+        }
+        usage.put(new String(decoder.decode(parts[0]), StandardCharsets.UTF_8), bytes);
+      }
+      return Optional.of(usage);
+    } catch (RuntimeException e) {
+      return Optional.empty();
+    }
+  }
+}
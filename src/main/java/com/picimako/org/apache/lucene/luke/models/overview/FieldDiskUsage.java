@@ -0,0 +1,39 @@
+//Copyright 2026 Tamás Balog. Use of this source code is governed by the Apache 2.0 license that can be found in the LICENSE file.
+package com.picimako.org.apache.lucene.luke.models.overview;
+
+import java.util.Arrays;
+
+/**
+ * The number of bytes a field takes up on disk, by index structure.
+ */
+public final class FieldDiskUsage {
+
+  private final String field;
+
+  private final long[] bytes;
+
+  FieldDiskUsage(String field, long[] bytes) {
+    this.field = field;
+    this.bytes = bytes.clone();
+  }
+
+  /** Returns the field name. */
+  public String getField() {
+    return field;
+  }
+
+  /** Returns the number of bytes the field takes up in the given structure. */
+  public long getBytes(IndexStructure structure) {
+    return bytes[structure.ordinal()];
+  }
+
+  /** Returns the number of bytes the field takes up in all structures. */
+  public long getTotalBytes() {
+    return Arrays.stream(bytes).sum();
+  }
+
+  @Override
+  public String toString() {
+    return "FieldDiskUsage{field='" + field + '\'' + ", bytes=" + Arrays.toString(bytes) + '}';
+  }
+}
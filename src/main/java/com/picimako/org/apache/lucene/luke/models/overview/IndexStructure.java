@@ -0,0 +1,21 @@
+//Copyright 2026 Tamás Balog. Use of this source code is governed by the Apache 2.0 license that can be found in the LICENSE file.
+package com.picimako.org.apache.lucene.luke.models.overview;
+
+/**
+ * The data structures of an index, whose disk usage is reported per field.
+ */
+public enum IndexStructure {
+  /** The terms dictionary and its index. */
+  TERMS,
+  /** The document ids and frequencies in the postings lists. */
+  POSTINGS,
+  /** The positions, offsets and payloads in the postings lists. */
+  POSITIONS,
+  DOC_VALUES,
+  POINTS,
+  NORMS,
+  STORED_FIELDS,
+  TERM_VECTORS,
+  /** The kNN vectors, and their graphs. */
+  VECTORS
+}
@@ -0,0 +1,192 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.picimako.org.apache.lucene.luke.models.overview;
+
+import com.picimako.org.apache.lucene.luke.models.util.CancellationToken;
+import org.apache.lucene.luke.models.overview.TermCountsOrder;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.IntConsumer;
+
+/**
+ * A dedicated interface for Luke's Overview tab.
+ * <p>
+ * LICENSE NOTE: This is the modified version of {@link org.apache.lucene.luke.models.overview.Overview}.
+ * Term counts are computed on demand, per field, so that they can be computed in the background.
+ */
+public interface Overview {
+
+  /** Returns the currently opened index directory path, or the root directory path if multiple index directories are opened. */
+  String getIndexPath();
+
+  /** Returns the number of fields in this index. */
+  int getNumFields();
+
+  /** Returns the names of the fields in this index. */
+  Collection<String> getFieldNames();
+
+  /** Returns the number of documents in this index. */
+  int getNumDocuments();
+
+  /**
+   * Returns the total number of terms in this index.
+   * <p>
+   * This counts the terms of all fields that haven't been counted yet, see {@link #getNumTerms(String)}.
+   */
+  long getNumTerms();
+
+  /**
+   * Returns the number of unique terms in the given field.
+   * <p>
+   * The result is cached, so subsequent calls for the same field are cheap.
+   *
+   * @param field - field name
+   */
+  default long getNumTerms(String field) {
+    return getNumTerms(field, CancellationToken.NONE);
+  }
+
+  /**
+   * Returns the number of unique terms in the given field.
+   * <p>
+   * Counting can be cancelled via the given token, in which case a {@link java.util.concurrent.CancellationException}
+   * is thrown.
+   *
+   * @param field - field name
+   * @param cancellation - the token to cancel the counting with
+   */
+  long getNumTerms(String field, CancellationToken cancellation);
+
+  /** Returns true if this index includes deleted documents. */
+  boolean hasDeletions();
+
+  /** Returns the number of deleted documents in this index. */
+  int getNumDeletedDocs();
+
+  /**
+   * Returns true if the index is optimized. Empty Optional instance is returned if multiple indexes
+   * are opened.
+   */
+  Optional<Boolean> isOptimized();
+
+  /**
+   * Returns the version number when this index was opened. Empty Optional instance is returned if
+   * multiple indexes are opened.
+   */
+  Optional<Long> getIndexVersion();
+
+  /**
+   * Returns the string representation for Lucene codec version when this index was written. Empty
+   * Optional instance is returned if multiple indexes are opened.
+   */
+  Optional<String> getIndexFormat();
+
+  /**
+   * Returns the currently opened {@link org.apache.lucene.store.Directory} implementation class
+   * name. Empty Optional instance is returned if multiple indexes are opened.
+   */
+  Optional<String> getDirImpl();
+
+  /**
+   * Returns the information of the commit point that reader has opened.
+   *
+   * <p>Empty Optional instance is returned if multiple indexes are opened.
+   */
+  Optional<String> getCommitDescription();
+
+  /**
+   * Returns the user provided data for the commit point. Empty Optional instance is returned if
+   * multiple indexes are opened.
+   */
+  Optional<String> getCommitUserData();
+
+  /**
+   * Returns all fields with the number of terms for each field sorted by {@link TermCountsOrder}
+   *
+   * @param order - the sort order
+   * @return the ordered map of terms and their frequencies
+   */
+  Map<String, Long> getSortedTermCounts(TermCountsOrder order);
+
+  /**
+   * Returns the top indexed terms with their statistics for the specified field, ranked by their doc freqs.
+   *
+   * @param field - the field name
+   * @param numTerms - the max number of terms to be returned
+   * @throws org.apache.lucene.luke.models.LukeException - if an internal error occurs when accessing index
+   */
+  default List<TermStats> getTopTerms(String field, int numTerms) {
+    return getTopTerms(field, numTerms, TopTermsOrder.DOC_FREQ);
+  }
+
+  /**
+   * Returns the top indexed terms with their statistics for the specified field.
+   * <p>
+   * The segments are processed in parallel.
+   *
+   * @param field - the field name
+   * @param numTerms - the max number of terms to be returned
+   * @param order - the statistic the terms are ranked by
+   * @throws org.apache.lucene.luke.models.LukeException - if an internal error occurs when accessing index
+   */
+  default List<TermStats> getTopTerms(String field, int numTerms, TopTermsOrder order) {
+    return getTopTerms(field, numTerms, order, CancellationToken.NONE);
+  }
+
+  /**
+   * Returns the top indexed terms with their statistics for the specified field.
+   * <p>
+   * The segments are processed in parallel. The collection can be cancelled via the given token,
+   * in which case a {@link java.util.concurrent.CancellationException} is thrown.
+   *
+   * @param field - the field name
+   * @param numTerms - the max number of terms to be returned
+   * @param order - the statistic the terms are ranked by
+   * @param cancellation - the token to cancel the collection with
+   * @throws org.apache.lucene.luke.models.LukeException - if an internal error occurs when accessing index
+   */
+  List<TermStats> getTopTerms(String field, int numTerms, TopTermsOrder order, CancellationToken cancellation);
+
+  /**
+   * Returns the number of bytes each field takes up on disk, by index structure, ordered by field name.
+   * <p>
+   * The segments are analyzed in parallel. The analysis can be cancelled via the given token,
+   * in which case a {@link java.util.concurrent.CancellationException} is thrown.
+   *
+   * @param progress - receives the percentage of segments analyzed so far
+   * @param cancellation - the token to cancel the analysis with
+   * @throws org.apache.lucene.luke.models.LukeException - if an internal error occurs when accessing index
+   */
+  List<FieldDiskUsage> getDiskUsage(IntConsumer progress, CancellationToken cancellation);
+
+  /**
+   * Returns the statistics of the vector fields of each segment, with the node degree distribution of their
+   * HNSW graphs, in segment order, then ordered by field name.
+   * <p>
+   * The segments are analyzed in parallel. The analysis can be cancelled via the given token,
+   * in which case a {@link java.util.concurrent.CancellationException} is thrown.
+   *
+   * @param progress - receives the percentage of segments analyzed so far
+   * @param cancellation - the token to cancel the analysis with
+   * @throws org.apache.lucene.luke.models.LukeException - if an internal error occurs when accessing index
+   */
+  List<VectorFieldStats> getVectorStats(IntConsumer progress, CancellationToken cancellation);
+}
@@ -0,0 +1,247 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.picimako.org.apache.lucene.luke.models.overview;
+
+import com.picimako.org.apache.lucene.luke.models.util.CancellationToken;
+import com.picimako.org.apache.lucene.luke.models.util.StatsCache;
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.luke.models.LukeException;
+import org.apache.lucene.luke.models.LukeModel;
+import org.apache.lucene.luke.models.overview.TermCountsOrder;
+import org.apache.lucene.luke.models.util.IndexUtils;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.CancellationException;
+import java.util.function.IntConsumer;
+
+/**
+ * Default implementation of {@link Overview}
+ * <p>
+ * LICENSE NOTE: This is the modified version of {@link org.apache.lucene.luke.models.overview.OverviewImpl}.
+ * Term counts are no longer computed when this model is created, only when they are first requested,
+ * and term statistics are also cached on disk via a {@link StatsCache}. It also reports the disk usage of each field.
+ */
+public final class OverviewImpl extends LukeModel implements Overview {
+
+  private final String indexPath;
+
+  private final TermCounts termCounts;
+
+  private final TopTerms topTerms;
+
+  private final DiskUsage diskUsage;
+
+  private final VectorStats vectorStats;
+
+  /**
+   * Constructs an OverviewImpl that holds the given {@link IndexReader}.
+   *
+   * @param reader - the index reader
+   * @param indexPath - the (root) index directory path
+   * @param statsCache - the cache of the computed term statistics
+   * @throws LukeException - if an internal error is occurred when accessing index
+   */
+  public OverviewImpl(IndexReader reader, String indexPath, StatsCache statsCache) {
+    super(reader);
+    this.indexPath = Objects.requireNonNull(indexPath);
+    this.termCounts = new TermCounts(reader, statsCache);
+    this.topTerms = new TopTerms(reader, statsCache);
+    this.diskUsage = new DiskUsage(reader, statsCache);
+    this.vectorStats = new VectorStats(reader);
+  }
+
+  @Override
+  public String getIndexPath() {
+    return indexPath;
+  }
+
+  @Override
+  public int getNumFields() {
+    return IndexUtils.getFieldInfos(reader).size();
+  }
+
+  @Override
+  public Collection<String> getFieldNames() {
+    return termCounts.fieldNames();
+  }
+
+  @Override
+  public int getNumDocuments() {
+    return reader.numDocs();
+  }
+
+  @Override
+  public long getNumTerms() {
+    try {
+      return termCounts.numTerms();
+    } catch (IOException e) {
+      throw new LukeException("An error occurred when collecting term statistics.", e);
+    }
+  }
+
+  @Override
+  public long getNumTerms(String field, CancellationToken cancellation) {
+    Objects.requireNonNull(field);
+    Objects.requireNonNull(cancellation);
+    try {
+      return termCounts.numTerms(field, cancellation);
+    } catch (IOException e) {
+      throw new LukeException(
+          String.format(Locale.ENGLISH, "Term count for field %s not available.", field), e);
+    }
+  }
+
+  @Override
+  public boolean hasDeletions() {
+    return reader.hasDeletions();
+  }
+
+  @Override
+  public int getNumDeletedDocs() {
+    return reader.numDeletedDocs();
+  }
+
+  @Override
+  public Optional<Boolean> isOptimized() {
+    if (commit != null) {
+      return Optional.of(commit.getSegmentCount() == 1);
+    }
+    return Optional.empty();
+  }
+
+  @Override
+  public Optional<Long> getIndexVersion() {
+    if (reader instanceof DirectoryReader) {
+      return Optional.of(((DirectoryReader) reader).getVersion());
+    }
+    return Optional.empty();
+  }
+
+  @Override
+  public Optional<String> getIndexFormat() {
+    if (dir == null) {
+      return Optional.empty();
+    }
+    try {
+      return Optional.of(IndexUtils.getIndexFormat(dir));
+    } catch (IOException e) {
+      throw new LukeException("Index format not available.", e);
+    }
+  }
+
+  @Override
+  public Optional<String> getDirImpl() {
+    if (dir == null) {
+      return Optional.empty();
+    }
+    return Optional.of(dir.getClass().getName());
+  }
+
+  @Override
+  public Optional<String> getCommitDescription() {
+    if (commit == null) {
+      return Optional.empty();
+    }
+    return Optional.of(
+        commit.getSegmentsFileName()
+            + " (generation="
+            + commit.getGeneration()
+            + ", segs="
+            + commit.getSegmentCount()
+            + ")");
+  }
+
+  @Override
+  public Optional<String> getCommitUserData() {
+    if (commit == null) {
+      return Optional.empty();
+    }
+    try {
+      return Optional.of(IndexUtils.getCommitUserData(commit));
+    } catch (IOException e) {
+      throw new LukeException("Commit user data not available.", e);
+    }
+  }
+
+  @Override
+  public Map<String, Long> getSortedTermCounts(TermCountsOrder order) {
+    if (order == null) {
+      order = TermCountsOrder.COUNT_DESC;
+    }
+    try {
+      return termCounts.sortedTermCounts(order);
+    } catch (IOException e) {
+      throw new LukeException("An error occurred when collecting term statistics.", e);
+    }
+  }
+
+  @Override
+  public List<TermStats> getTopTerms(String field, int numTerms, TopTermsOrder order,
+                                    CancellationToken cancellation) {
+    Objects.requireNonNull(field);
+    Objects.requireNonNull(order);
+    Objects.requireNonNull(cancellation);
+
+    if (numTerms < 0) {
+      throw new IllegalArgumentException(
+          String.format(Locale.ENGLISH, "'numTerms' must be a positive integer: %d is not accepted.", numTerms));
+    }
+
+    try {
+      return topTerms.getTopTerms(field, numTerms, order, cancellation);
+    } catch (CancellationException e) {
+      throw e;
+    } catch (Exception e) {
+      throw new LukeException(
+          String.format(Locale.ENGLISH, "Top terms for field %s not available.", field), e);
+    }
+  }
+
+  @Override
+  public List<FieldDiskUsage> getDiskUsage(IntConsumer progress, CancellationToken cancellation) {
+    Objects.requireNonNull(progress);
+    Objects.requireNonNull(cancellation);
+    try {
+      return diskUsage.getDiskUsage(progress, cancellation);
+    } catch (CancellationException e) {
+      throw e;
+    } catch (Exception e) {
+      throw new LukeException("Disk usage not available.", e);
+    }
+  }
+
+  @Override
+  public List<VectorFieldStats> getVectorStats(IntConsumer progress, CancellationToken cancellation) {
+    Objects.requireNonNull(progress);
+    Objects.requireNonNull(cancellation);
+    try {
+      return vectorStats.getVectorStats(progress, cancellation);
+    } catch (CancellationException e) {
+      throw e;
+    } catch (Exception e) {
+      throw new LukeException("Vector statistics not available.", e);
+    }
+  }
+}
@@ -0,0 +1,148 @@
+//Copyright 2026 Tamás Balog. Use of this source code is governed by the Apache 2.0 license that can be found in the LICENSE file.
+package com.picimako.org.apache.lucene.luke.models.overview;
+
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FilterDirectory;
+import org.apache.lucene.store.IOContext;
+import org.apache.lucene.store.IndexInput;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Directory that records which files are opened, and which range of each file is read.
+ * <p>
+ * Most index structures store the data of a field contiguously, so when all the data of a field is visited, the range
+ * between the first and the last byte read is the size of the field's data in that file.
+ * <p>
+ * Not thread-safe, a directory is meant to be used by a single thread.
+ */
+final class ReadTrackingDirectory extends FilterDirectory {
+
+  private final Set<String> openedFiles = new LinkedHashSet<>();
+
+  /** The first (at index 0) and the last (at index 1) byte read in each file since the last reset. */
+  private final Map<String, long[]> readRanges = new HashMap<>();
+
+  /** Incremented on each reset, so that the inputs know when their cached ranges are stale. */
+  private int generation;
+
+  ReadTrackingDirectory(Directory in) {
+    super(in);
+  }
+
+  @Override
+  public IndexInput openInput(String name, IOContext context) throws IOException {
+    openedFiles.add(name);
+    return new TrackingIndexInput(name, in.openInput(name, context), 0);
+  }
+
+  /** Returns the files opened since the last call to {@link #resetOpenedFiles()}. */
+  Set<String> getOpenedFiles() {
+    return Set.copyOf(openedFiles);
+  }
+
+  void resetOpenedFiles() {
+    openedFiles.clear();
+  }
+
+  /** Returns the number of bytes between the first and the last byte read in each file since the last reset. */
+  Map<String, Long> getReadBytes() {
+    Map<String, Long> readBytes = new HashMap<>();
+    readRanges.forEach(
+        (file, range) -> {
+          if (range[0] <= range[1]) {
+            readBytes.put(file, range[1] - range[0] + 1);
+          }
+        });
+    return readBytes;
+  }
+
+  void resetReadBytes() {
+    readRanges.clear();
+    generation++;
+  }
+
+  private long[] readRange(String file) {
+    return readRanges.computeIfAbsent(file, f -> new long[] {Long.MAX_VALUE, Long.MIN_VALUE});
+  }
+
+  /**
+   * Input that reports its reads with their positions in the underlying file. Slices know their offset
+   * in the file, and random access slices fall back to {@link IndexInput}'s default implementation,
+   * which reads via seeks on a slice, so they are tracked as well.
+   */
+  private final class TrackingIndexInput extends IndexInput {
+
+    private final String file;
+    private final IndexInput in;
+    private final long offset;
+    // cached, because every byte read is tracked
+    private long[] range;
+    private int rangeGeneration = -1;
+
+    TrackingIndexInput(String file, IndexInput in, long offset) {
+      super("ReadTracking(" + in + ")");
+      this.file = file;
+      this.in = in;
+      this.offset = offset;
+    }
+
+    @Override
+    public byte readByte() throws IOException {
+      trackRead(offset + in.getFilePointer(), 1);
+      return in.readByte();
+    }
+
+    @Override
+    public void readBytes(byte[] b, int off, int len) throws IOException {
+      trackRead(offset + in.getFilePointer(), len);
+      in.readBytes(b, off, len);
+    }
+
+    private void trackRead(long position, long length) {
+      if (length <= 0) {
+        return;
+      }
+      if (rangeGeneration != generation) {
+        range = readRange(file);
+        rangeGeneration = generation;
+      }
+      range[0] = Math.min(range[0], position);
+      range[1] = Math.max(range[1], position + length - 1);
+    }
+
+    @Override
+    public void close() throws IOException {
+      in.close();
+    }
+
+    @Override
+    public long getFilePointer() {
+      return in.getFilePointer();
+    }
+
+    @Override
+    public void seek(long pos) throws IOException {
+      in.seek(pos);
+    }
+
+    @Override
+    public long length() {
+      return in.length();
+    }
+
+    @Override
+    public IndexInput slice(String sliceDescription, long offset, long length) throws IOException {
+      return new TrackingIndexInput(file, in.slice(sliceDescription, offset, length), this.offset + offset);
+    }
+
+    @Override
+    public IndexInput clone() {
+      return new TrackingIndexInput(file, in.clone(), offset);
+    }
+  }
+}
@@ -0,0 +1,150 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.picimako.org.apache.lucene.luke.models.overview;
+
+import com.picimako.org.apache.lucene.luke.models.util.CancellationToken;
+import com.picimako.org.apache.lucene.luke.models.util.StatsCache;
+import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.index.MultiTerms;
+import org.apache.lucene.index.Terms;
+import org.apache.lucene.index.TermsEnum;
+import org.apache.lucene.luke.models.overview.TermCountsOrder;
+import org.apache.lucene.luke.models.util.IndexUtils;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * An utility class that collects term counts terms for all fields in a index.
+ * <p>
+ * LICENSE NOTE: This is the modified version of {@link org.apache.lucene.luke.models.overview.TermCounts}.
+ * Term counts are computed per field, on demand, instead of for all fields at construction time, and the computation
+ * can be cancelled via a {@link CancellationToken}. Computed term counts are also stored in a {@link StatsCache},
+ * so that they are not recomputed when the same set of segments is opened again.
+ */
+final class TermCounts {
+
+  /** The number of terms enumerated between two checks for cancellation. Must be a power of 2. */
+  private static final int CANCELLATION_CHECK_INTERVAL = 1 << 14;
+
+  private final IndexReader reader;
+
+  private final Collection<String> fieldNames;
+
+  private final Map<String, Long> termCountMap = new ConcurrentHashMap<>();
+
+  private final StatsCache statsCache;
+
+  private final Optional<String> cacheKey;
+
+  TermCounts(IndexReader reader, StatsCache statsCache) {
+    this.reader = Objects.requireNonNull(reader);
+    this.fieldNames = IndexUtils.getFieldNames(reader);
+    this.statsCache = Objects.requireNonNull(statsCache);
+    this.cacheKey = StatsCache.readerKey(reader);
+  }
+
+  /**
+   * Returns the number of unique terms in the given field, computing it only if it hasn't been computed yet.
+   *
+   * @throws CancellationException if counting is cancelled via the given token
+   */
+  long numTerms(String field, CancellationToken cancellation) throws IOException {
+    Long cached = termCountMap.get(field);
+    if (cached != null) {
+      return cached;
+    }
+    String stat = "numTerms." + field;
+    Optional<String> persisted = cacheKey.flatMap(key -> statsCache.get(key, stat));
+    if (persisted.isPresent()) {
+      long count = Long.parseLong(persisted.get());
+      termCountMap.put(field, count);
+      return count;
+    }
+
+    long count = 0;
+    Terms terms = MultiTerms.getTerms(reader, field);
+    if (terms != null) {
+      // single segment indexes may know the exact number of terms, while multi-segment ones have to enumerate them
+      count = terms.size();
+      if (count < 0) {
+        count = 0;
+        TermsEnum termsEnum = terms.iterator();
+        while (termsEnum.next() != null) {
+          if ((++count & (CANCELLATION_CHECK_INTERVAL - 1)) == 0) {
+            cancellation.throwIfCancelled("Counting the terms of field '" + field + "' has been cancelled.");
+          }
+        }
+      }
+    }
+
+    termCountMap.put(field, count);
+    long finalCount = count;
+    cacheKey.ifPresent(key -> statsCache.put(key, stat, Long.toString(finalCount)));
+    return count;
+  }
+
+  /** Returns the total number of terms in this index. */
+  long numTerms() throws IOException {
+    long numTerms = 0;
+    for (String field : fieldNames) {
+      numTerms += numTerms(field, CancellationToken.NONE);
+    }
+    return numTerms;
+  }
+
+  /**
+   * Returns all fields with the number of terms for each field sorted by {@link TermCountsOrder}
+   *
+   * @param order - the sort order
+   * @return the ordered map of terms and their frequencies
+   */
+  Map<String, Long> sortedTermCounts(TermCountsOrder order) throws IOException {
+    Objects.requireNonNull(order);
+
+    Comparator<Map.Entry<String, Long>> comparator =
+        switch (order) {
+          case NAME_ASC -> Map.Entry.comparingByKey();
+          case NAME_DESC -> Map.Entry.<String, Long>comparingByKey().reversed();
+          case COUNT_ASC -> Map.Entry.comparingByValue();
+          case COUNT_DESC -> Map.Entry.<String, Long>comparingByValue().reversed();
+        };
+    return sortedTermCounts(comparator);
+  }
+
+  private Map<String, Long> sortedTermCounts(Comparator<Map.Entry<String, Long>> comparator) throws IOException {
+    for (String field : fieldNames) {
+      numTerms(field, CancellationToken.NONE);
+    }
+    return termCountMap.entrySet().stream()
+        .sorted(comparator)
+        .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue, (v1, v2) -> v1, LinkedHashMap::new));
+  }
+
+  Collection<String> fieldNames() {
+    return fieldNames;
+  }
+}
@@ -0,0 +1,82 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.picimako.org.apache.lucene.luke.models.overview;
+
+/**
+ * Holder for statistics for a term in a specific field.
+ * <p>
+ * LICENSE NOTE: This is the modified version of {@link org.apache.lucene.luke.models.overview.TermStats}.
+ * It also holds the total term frequency of the term.
+ */
+public final class TermStats {
+
+  private final String decodedTermText;
+
+  private final String field;
+
+  private final int docFreq;
+
+  private final long totalTermFreq;
+
+  static TermStats of(String field, String decodedTermText, int docFreq, long totalTermFreq) {
+    return new TermStats(decodedTermText, field, docFreq, totalTermFreq);
+  }
+
+  private TermStats(String decodedTermText, String field, int docFreq, long totalTermFreq) {
+    this.decodedTermText = decodedTermText;
+    this.field = field;
+    this.docFreq = docFreq;
+    this.totalTermFreq = totalTermFreq;
+  }
+
+  /** Returns the string representation for this term. */
+  public String getDecodedTermText() {
+    return decodedTermText;
+  }
+
+  /** Returns the field name. */
+  public String getField() {
+    return field;
+  }
+
+  /** Returns the document frequency of this term. */
+  public int getDocFreq() {
+    return docFreq;
+  }
+
+  /** Returns the total number of occurrences of this term. */
+  public long getTotalTermFreq() {
+    return totalTermFreq;
+  }
+
+  @Override
+  public String toString() {
+    return "TermStats{"
+        + "decodedTermText='"
+        + decodedTermText
+        + '\''
+        + ", field='"
+        + field
+        + '\''
+        + ", docFreq="
+        + docFreq
+        + ", totalTermFreq="
+        + totalTermFreq
+        + '}';
+  }
+}
@@ -0,0 +1,389 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.picimako.org.apache.lucene.luke.models.overview;
+
+import com.picimako.org.apache.lucene.luke.models.util.CancellationToken;
+import com.picimako.org.apache.lucene.luke.models.util.ParallelTasks;
+import com.picimako.org.apache.lucene.luke.models.util.StatsCache;
+import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.index.LeafReaderContext;
+import org.apache.lucene.index.MultiTerms;
+import org.apache.lucene.index.Terms;
+import org.apache.lucene.index.TermsEnum;
+import org.apache.lucene.luke.util.BytesRefUtils;
+import org.apache.lucene.util.BytesRef;
+import org.apache.lucene.util.PriorityQueue;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * An utility class that collects terms and their statistics in a specific field.
+ * <p>
+ * LICENSE NOTE: This is the modified version of {@link org.apache.lucene.luke.models.overview.TopTerms}.
+ * Instead of walking the merged terms of all segments in a single thread, the segments are processed in parallel,
+ * in three phases, on the pool shared by {@link ParallelTasks}:
+ * <ol>
+ *   <li>The top terms of each segment are collected, and their partial statistics are summed up. The score of the
+ *   last of the top {@code numTerms} of them is a lower bound of the score of the final last top term.</li>
+ *   <li>A term can only reach that bound if its score is at least {@code bound / numSegments} in at least one segment,
+ *   so each segment is walked again to collect those candidates.</li>
+ *   <li>The exact statistics of the candidates are looked up in each segment, and the top terms are selected
+ *   from them.</li>
+ * </ol>
+ * The first phase keeps at most {@code numTerms} terms per segment in bounded priority queues, and the candidates
+ * are limited to {@link #MAX_CANDIDATES} terms. In fields where the scores are so flat that more terms may reach the
+ * bound, e.g. in fields of unique ids, the candidate collection is aborted, and the top terms are collected from the
+ * merged terms of the segments in a single thread instead, with a queue of {@code numTerms} terms. The collection can
+ * be cancelled via a {@link CancellationToken}.
+ * <p>
+ * Both the per-segment top terms of the first phase, and the final top terms are stored in a {@link StatsCache},
+ * so when an index is reopened with new segments, only the new segments have to be processed in the first phase.
+ */
+final class TopTerms {
+
+  /** The number of terms enumerated between two checks for cancellation. Must be a power of 2. */
+  private static final int CANCELLATION_CHECK_INTERVAL = 1 << 14;
+
+  /** The max number of candidate terms collected in the second phase, across all segments. */
+  private static final int MAX_CANDIDATES = 1 << 17;
+
+  private final IndexReader reader;
+
+  private final Map<String, List<TermStats>> topTermsCache;
+
+  private final StatsCache statsCache;
+
+  TopTerms(IndexReader reader, StatsCache statsCache) {
+    this.reader = Objects.requireNonNull(reader);
+    this.topTermsCache = new ConcurrentHashMap<>();
+    this.statsCache = Objects.requireNonNull(statsCache);
+  }
+
+  /**
+   * Returns the top indexed terms with their statistics for the specified field.
+   *
+   * @param field - the field name
+   * @param numTerms - the max number of terms to be returned
+   * @param order - the statistic the terms are ranked by
+   * @param cancellation - the token to cancel the collection with
+   * @throws Exception - if an error occurs when collecting term statistics
+   * @throws CancellationException - if the collection is cancelled
+   */
+  List<TermStats> getTopTerms(String field, int numTerms, TopTermsOrder order, CancellationToken cancellation)
+      throws Exception {
+    String cacheKey = field + "/" + order;
+    List<TermStats> cached = topTermsCache.get(cacheKey);
+    if (cached == null || cached.size() < numTerms) {
+      cached = collectTopTermsCached(field, numTerms, order, cancellation);
+      // cache computed statistics for later uses
+      topTermsCache.put(cacheKey, cached);
+    }
+    return List.copyOf(cached.subList(0, Math.min(numTerms, cached.size())));
+  }
+
+  private List<TermStats> collectTopTermsCached(String field, int numTerms, TopTermsOrder order,
+                                                CancellationToken cancellation) throws IOException {
+    Optional<String> readerKey = StatsCache.readerKey(reader);
+    String stat = "topTerms." + order + "." + field;
+    Optional<List<TermScore>> persisted =
+        readerKey.flatMap(key -> statsCache.get(key, stat)).flatMap(value -> decode(value, numTerms, order));
+    if (persisted.isPresent()) {
+      return toTermStats(field, persisted.get());
+    }
+
+    List<TermScore> topTerms = collectTopTerms(field, numTerms, order, cancellation);
+    readerKey.ifPresent(key -> statsCache.put(key, stat, encode(topTerms, numTerms)));
+    return toTermStats(field, topTerms);
+  }
+
+  private List<TermScore> collectTopTerms(String field, int numTerms, TopTermsOrder order,
+                                          CancellationToken cancellation) throws IOException {
+    if (numTerms == 0) {
+      return List.of();
+    }
+    List<Segment> segments = new ArrayList<>();
+    for (LeafReaderContext leaf : reader.leaves()) {
+      Terms terms = leaf.reader().terms(field);
+      if (terms != null) {
+        segments.add(new Segment(terms, StatsCache.segmentKey(leaf.reader())));
+      }
+    }
+    if (segments.isEmpty()) {
+      return List.of();
+    }
+
+    // phase 1: the top terms per segment, and a lower bound of the score of the last top term
+    String segmentStat = "segmentTopTerms." + order + "." + field;
+    List<List<TermScore>> segmentTopTerms =
+        ParallelTasks.run(segments, cancellation, (segment, token) -> {
+          Optional<List<TermScore>> persisted =
+              segment.cacheKey.flatMap(key -> statsCache.get(key, segmentStat)).flatMap(value -> decode(value, numTerms, order));
+          if (persisted.isPresent()) {
+            return persisted.get();
+          }
+          List<TermScore> topTerms = topTermsOf(segment.terms, numTerms, order, token);
+          segment.cacheKey.ifPresent(key -> statsCache.put(key, segmentStat, encode(topTerms, numTerms)));
+          return topTerms;
+        });
+    if (segments.size() == 1) {
+      return segmentTopTerms.get(0);
+    }
+    long bound = lowerBound(segmentTopTerms, numTerms);
+
+    // phase 2: the terms that may reach the bound
+    long segmentThreshold = Math.max(1, bound / segments.size());
+    AtomicInteger numCandidates = new AtomicInteger();
+    List<List<BytesRef>> segmentCandidates =
+        ParallelTasks.run(segments, cancellation,
+            (segment, token) -> termsAbove(segment.terms, segmentThreshold, order, numCandidates, token));
+    if (segmentCandidates.contains(null)) {
+      // too many terms may reach the bound, the merged terms are walked with a bounded queue instead
+      return topTermsOf(MultiTerms.getTerms(reader, field), numTerms, order, cancellation);
+    }
+    Set<BytesRef> candidateSet = new HashSet<>();
+    segmentCandidates.forEach(candidateSet::addAll);
+    List<BytesRef> candidates = new ArrayList<>(candidateSet);
+    candidates.sort(null);
+
+    // phase 3: the exact statistics of the candidates
+    int[] docFreqs = new int[candidates.size()];
+    long[] totalTermFreqs = new long[candidates.size()];
+    for (long[][] stats :
+        ParallelTasks.run(segments, cancellation, (segment, token) -> statsOf(segment.terms, candidates, token))) {
+      for (int i = 0; i < candidates.size(); i++) {
+        docFreqs[i] += (int) stats[0][i];
+        totalTermFreqs[i] += stats[1][i];
+      }
+    }
+
+    TermScoreQueue queue = new TermScoreQueue(numTerms);
+    for (int i = 0; i < candidates.size(); i++) {
+      queue.insertWithOverflow(new TermScore(candidates.get(i), docFreqs[i], totalTermFreqs[i], order));
+    }
+    return queue.drainDescending();
+  }
+
+  /** Returns the top terms of a segment, in descending order of their scores. */
+  private static List<TermScore> topTermsOf(Terms terms, int numTerms, TopTermsOrder order,
+                                            CancellationToken cancellation) throws IOException {
+    TermScoreQueue queue = new TermScoreQueue(numTerms);
+    TermsEnum termsEnum = terms.iterator();
+    long count = 0;
+    TermScore reusable = null;
+    while (termsEnum.next() != null) {
+      checkCancellation(++count, cancellation);
+      long score = scoreOf(termsEnum, order);
+      // only copy the term bytes if the term gets into the queue
+      if (queue.size() == numTerms && score <= queue.top().score) {
+        continue;
+      }
+      TermScore termScore = reusable != null ? reusable : new TermScore();
+      termScore.set(BytesRef.deepCopyOf(termsEnum.term()), termsEnum.docFreq(), termsEnum.totalTermFreq(), order);
+      reusable = queue.insertWithOverflow(termScore);
+    }
+    return queue.drainDescending();
+  }
+
+  /**
+   * Returns the score of the last top term, among the partial statistics of the per-segment top terms.
+   */
+  private static long lowerBound(List<List<TermScore>> segmentTopTerms, int numTerms) {
+    Map<BytesRef, Long> partialScores = new HashMap<>();
+    for (List<TermScore> topTerms : segmentTopTerms) {
+      for (TermScore termScore : topTerms) {
+        partialScores.merge(termScore.term, termScore.score, Long::sum);
+      }
+    }
+    if (partialScores.size() < numTerms) {
+      // there are fewer terms in the top lists than requested, so every term may be a top term
+      return 0;
+    }
+    return partialScores.values().stream()
+        .sorted((s1, s2) -> Long.compare(s2, s1))
+        .skip(numTerms - 1)
+        .findFirst()
+        .orElse(0L);
+  }
+
+  /**
+   * Returns the terms of a segment whose score is at least the given threshold, or null if the number of candidates
+   * collected from all segments exceeds {@link #MAX_CANDIDATES}.
+   */
+  private static List<BytesRef> termsAbove(Terms terms, long threshold, TopTermsOrder order, AtomicInteger numCandidates,
+                                           CancellationToken cancellation) throws IOException {
+    List<BytesRef> result = new ArrayList<>();
+    TermsEnum termsEnum = terms.iterator();
+    long count = 0;
+    while (termsEnum.next() != null) {
+      checkCancellation(++count, cancellation);
+      if (scoreOf(termsEnum, order) >= threshold) {
+        if (numCandidates.incrementAndGet() > MAX_CANDIDATES) {
+          return null;
+        }
+        result.add(BytesRef.deepCopyOf(termsEnum.term()));
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Returns the doc freqs (at index 0) and total term freqs (at index 1) of the given, sorted terms in a segment.
+   */
+  private static long[][] statsOf(Terms terms, List<BytesRef> sortedTerms, CancellationToken cancellation)
+      throws IOException {
+    long[][] stats = new long[2][sortedTerms.size()];
+    TermsEnum termsEnum = terms.iterator();
+    for (int i = 0; i < sortedTerms.size(); i++) {
+      checkCancellation(i + 1, cancellation);
+      if (termsEnum.seekExact(sortedTerms.get(i))) {
+        stats[0][i] = termsEnum.docFreq();
+        stats[1][i] = termsEnum.totalTermFreq();
+      }
+    }
+    return stats;
+  }
+
+  private static long scoreOf(TermsEnum termsEnum, TopTermsOrder order) throws IOException {
+    return order == TopTermsOrder.TOTAL_TERM_FREQ ? termsEnum.totalTermFreq() : termsEnum.docFreq();
+  }
+
+  private static void checkCancellation(long count, CancellationToken cancellation) {
+    if ((count & (CANCELLATION_CHECK_INTERVAL - 1)) == 0) {
+      cancellation.throwIfCancelled("Collecting top terms has been cancelled.");
+    }
+  }
+
+  private static List<TermStats> toTermStats(String field, List<TermScore> termScores) {
+    List<TermStats> result = new ArrayList<>(termScores.size());
+    for (TermScore termScore : termScores) {
+      result.add(TermStats.of(field, BytesRefUtils.decode(termScore.term), termScore.docFreq, termScore.totalTermFreq));
+    }
+    return result;
+  }
+
+  /**
+   * Encodes the given top terms, collected for the given number of terms, to be stored in the statistics cache.
+   */
+  private static String encode(List<TermScore> termScores, int numTerms) {
+    StringBuilder sb = new StringBuilder().append(numTerms).append('|');
+    Base64.Encoder encoder = Base64.getEncoder();
+    for (int i = 0; i < termScores.size(); i++) {
+      TermScore termScore = termScores.get(i);
+      if (i > 0) {
+        sb.append(',');
+      }
+      sb.append(encoder.encodeToString(BytesRef.deepCopyOf(termScore.term).bytes))
+          .append(':').append(termScore.docFreq)
+          .append(':').append(termScore.totalTermFreq);
+    }
+    return sb.toString();
+  }
+
+  /**
+   * Decodes the top terms stored in the statistics cache. Returns empty if they were collected for fewer terms
+   * than requested, or if the value cannot be decoded.
+   */
+  private static Optional<List<TermScore>> decode(String value, int numTerms, TopTermsOrder order) {
+    try {
+      int separator = value.indexOf('|');
+      if (Integer.parseInt(value.substring(0, separator)) < numTerms) {
+        return Optional.empty();
+      }
+      String entries = value.substring(separator + 1);
+      List<TermScore> termScores = new ArrayList<>();
+      if (entries.isEmpty()) {
+        return Optional.of(termScores);
+      }
+      Base64.Decoder decoder = Base64.getDecoder();
+      for (String entry : entries.split(",")) {
+        if (termScores.size() == numTerms) {
+          break;
+        }
+        String[] parts = entry.split(":");
+        termScores.add(
+            new TermScore(new BytesRef(decoder.decode(parts[0])), Integer.parseInt(parts[1]), Long.parseLong(parts[2]), order));
+      }
+      return Optional.of(termScores);
+    } catch (RuntimeException e) {
+      return Optional.empty();
+    }
+  }
+
+  private record Segment(Terms terms, Optional<String> cacheKey) {
+  }
+
+  private static final class TermScore {
+    private BytesRef term;
+    private int docFreq;
+    private long totalTermFreq;
+    private long score;
+
+    TermScore() {
+    }
+
+    TermScore(BytesRef term, int docFreq, long totalTermFreq, TopTermsOrder order) {
+      set(term, docFreq, totalTermFreq, order);
+    }
+
+    void set(BytesRef term, int docFreq, long totalTermFreq, TopTermsOrder order) {
+      this.term = term;
+      this.docFreq = docFreq;
+      this.totalTermFreq = totalTermFreq;
+      this.score = order == TopTermsOrder.TOTAL_TERM_FREQ ? totalTermFreq : docFreq;
+    }
+  }
+
+  /**
+   * Min-heap of term scores, bounded to the requested number of terms. Among terms with equal scores,
+   * the ones coming first in term order are ranked higher.
+   */
+  private static final class TermScoreQueue extends PriorityQueue<TermScore> {
+
+    TermScoreQueue(int maxSize) {
+      super(maxSize);
+    }
+
+    @Override
+    protected boolean lessThan(TermScore a, TermScore b) {
+      if (a.score != b.score) {
+        return a.score < b.score;
+      }
+      return a.term.compareTo(b.term) > 0;
+    }
+
+    List<TermScore> drainDescending() {
+      TermScore[] termScores = new TermScore[size()];
+      for (int i = termScores.length - 1; i >= 0; i--) {
+        termScores[i] = pop();
+      }
+      return List.of(termScores);
+    }
+  }
+}
@@ -0,0 +1,12 @@
+//Copyright 2026 Tamás Balog. Use of this source code is governed by the Apache 2.0 license that can be found in the LICENSE file.
+package com.picimako.org.apache.lucene.luke.models.overview;
+
+/**
+ * The statistic top terms are ranked by.
+ */
+public enum TopTermsOrder {
+  /** Ranks terms by the number of documents containing them. */
+  DOC_FREQ,
+  /** Ranks terms by their total number of occurrences in all documents. */
+  TOTAL_TERM_FREQ
+}
@@ -0,0 +1,199 @@
+//Copyright 2026 Tamás Balog. Use of this source code is governed by the Apache 2.0 license that can be found in the LICENSE file.
+package com.picimako.org.apache.lucene.luke.models.overview;
+
+import org.apache.lucene.index.VectorEncoding;
+import org.apache.lucene.index.VectorSimilarityFunction;
+import org.apache.lucene.util.quantization.ScalarQuantizer;
+
+import java.util.List;
+
+/**
+ * The statistics of a vector field in a segment, with the shape of its HNSW graph.
+ */
+public final class VectorFieldStats {
+
+  private final String segment;
+
+  private final String field;
+
+  private final String format;
+
+  private final VectorEncoding encoding;
+
+  private final int dimension;
+
+  private final VectorSimilarityFunction similarity;
+
+  private final int numVectors;
+
+  private final List<LevelStats> levels;
+
+  private final ScalarQuantizer quantizer;
+
+  private final long vectorBytes;
+
+  private final long quantizedVectorBytes;
+
+  private final long graphBytes;
+
+  VectorFieldStats(
+      String segment,
+      String field,
+      String format,
+      VectorEncoding encoding,
+      int dimension,
+      VectorSimilarityFunction similarity,
+      int numVectors,
+      List<LevelStats> levels,
+      ScalarQuantizer quantizer,
+      long vectorBytes,
+      long quantizedVectorBytes,
+      long graphBytes) {
+    this.segment = segment;
+    this.field = field;
+    this.format = format;
+    this.encoding = encoding;
+    this.dimension = dimension;
+    this.similarity = similarity;
+    this.numVectors = numVectors;
+    this.levels = List.copyOf(levels);
+    this.quantizer = quantizer;
+    this.vectorBytes = vectorBytes;
+    this.quantizedVectorBytes = quantizedVectorBytes;
+    this.graphBytes = graphBytes;
+  }
+
+  /** Returns the segment name. */
+  public String getSegment() {
+    return segment;
+  }
+
+  /** Returns the field name. */
+  public String getField() {
+    return field;
+  }
+
+  /** Returns the name of the vectors format the field is written with, or an empty string if it is unknown. */
+  public String getFormat() {
+    return format;
+  }
+
+  /** Returns the encoding of the vector components. */
+  public VectorEncoding getEncoding() {
+    return encoding;
+  }
+
+  /** Returns the number of dimensions of the vectors. */
+  public int getDimension() {
+    return dimension;
+  }
+
+  /** Returns the similarity function of the vectors. */
+  public VectorSimilarityFunction getSimilarity() {
+    return similarity;
+  }
+
+  /** Returns the number of vectors in the segment. */
+  public int getNumVectors() {
+    return numVectors;
+  }
+
+  /** Returns true if the segment has an HNSW graph for the field. */
+  public boolean hasGraph() {
+    return !levels.isEmpty();
+  }
+
+  /** Returns the statistics of the graph levels, starting with the bottom level. Empty if there is no graph. */
+  public List<LevelStats> getLevels() {
+    return levels;
+  }
+
+  /** Returns the scalar quantization state of the field, or null if the vectors are not quantized. */
+  public ScalarQuantizer getQuantizer() {
+    return quantizer;
+  }
+
+  /** Returns the number of bytes the raw vectors take up. */
+  public long getVectorBytes() {
+    return vectorBytes;
+  }
+
+  /** Returns the estimated number of bytes the quantized vectors take up, or 0 if they are not quantized. */
+  public long getQuantizedVectorBytes() {
+    return quantizedVectorBytes;
+  }
+
+  /** Returns the estimated number of bytes the graph takes up. */
+  public long getGraphBytes() {
+    return graphBytes;
+  }
+
+  /**
+   * Returns the estimated number of bytes that are accessed off-heap when searching the field:
+   * the graph, and the quantized vectors if there are any, the raw vectors otherwise.
+   */
+  public long getSearchBytes() {
+    return graphBytes + (quantizer != null ? quantizedVectorBytes : vectorBytes);
+  }
+
+  @Override
+  public String toString() {
+    return "VectorFieldStats{segment='" + segment + "', field='" + field + "', numVectors=" + numVectors
+        + ", levels=" + levels + ", vectorBytes=" + vectorBytes + ", quantizedVectorBytes=" + quantizedVectorBytes
+        + ", graphBytes=" + graphBytes + '}';
+  }
+
+  /**
+   * The node degree distribution of a graph level.
+   */
+  public static final class LevelStats {
+
+    private final int numNodes;
+
+    private final long[] degreeCounts;
+
+    LevelStats(int numNodes, long[] degreeCounts) {
+      this.numNodes = numNodes;
+      this.degreeCounts = degreeCounts.clone();
+    }
+
+    /** Returns the number of nodes on the level. */
+    public int getNumNodes() {
+      return numNodes;
+    }
+
+    /** Returns the number of nodes with each degree, indexed by the degree, up to the maximum degree. */
+    public long[] getDegreeCounts() {
+      return degreeCounts.clone();
+    }
+
+    /** Returns the smallest number of neighbors of a node, or 0 if the level is empty. */
+    public int getMinDegree() {
+      for (int degree = 0; degree < degreeCounts.length; degree++) {
+        if (degreeCounts[degree] > 0) {
+          return degree;
+        }
+      }
+      return 0;
+    }
+
+    /** Returns the largest number of neighbors of a node, or 0 if the level is empty. */
+    public int getMaxDegree() {
+      return Math.max(0, degreeCounts.length - 1);
+    }
+
+    /** Returns the average number of neighbors of the nodes, or 0 if the level is empty. */
+    public double getAvgDegree() {
+      long edges = 0;
+      for (int degree = 0; degree < degreeCounts.length; degree++) {
+        edges += degree * degreeCounts[degree];
+      }
+      return numNodes == 0 ? 0 : (double) edges / numNodes;
+    }
+
+    @Override
+    public String toString() {
+      return "LevelStats{numNodes=" + numNodes + ", maxDegree=" + getMaxDegree() + '}';
+    }
+  }
+}
@@ -0,0 +1,212 @@
+//Copyright 2026 Tamás Balog. Use of this source code is governed by the Apache 2.0 license that can be found in the LICENSE file.
+package com.picimako.org.apache.lucene.luke.models.overview;
+
+import com.picimako.org.apache.lucene.luke.models.util.CancellationToken;
+import com.picimako.org.apache.lucene.luke.models.util.ParallelTasks;
+import org.apache.lucene.codecs.KnnVectorsReader;
+import org.apache.lucene.codecs.hnsw.HnswGraphProvider;
+import org.apache.lucene.codecs.perfield.PerFieldKnnVectorsFormat;
+import org.apache.lucene.index.ByteVectorValues;
+import org.apache.lucene.index.FieldInfo;
+import org.apache.lucene.index.FilterLeafReader;
+import org.apache.lucene.index.FloatVectorValues;
+import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.index.LeafReaderContext;
+import org.apache.lucene.index.SegmentReader;
+import org.apache.lucene.index.VectorEncoding;
+import org.apache.lucene.search.DocIdSetIterator;
+import org.apache.lucene.util.ArrayUtil;
+import org.apache.lucene.util.hnsw.HnswGraph;
+import org.apache.lucene.util.quantization.QuantizedVectorsReader;
+import org.apache.lucene.util.quantization.ScalarQuantizer;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CancellationException;
+import java.util.function.IntConsumer;
+
+/**
+ * Collects the statistics of the vector fields of each segment, and walks their HNSW graphs to compute the node degree
+ * distribution of each graph level.
+ * <p>
+ * The segments are analyzed in parallel, on the pool shared by {@link ParallelTasks}.
+ * <p>
+ * The sizes are estimates computed from the statistics, not from the files, because fields written with the same
+ * vectors format share their files:
+ * <ul>
+ *   <li>raw vectors: the number of vectors times the size of a vector,</li>
+ *   <li>quantized vectors: the number of vectors times the size of a quantized vector, with 4-bit vectors assumed
+ *   to be stored packed, plus the corrective offset of each vector,</li>
+ *   <li>graph: the neighbor lists, as the graph writer encodes them, with delta encoded variable length integers,
+ *   and the node lists of the upper levels. The offsets of the neighbor lists are not included.</li>
+ * </ul>
+ */
+final class VectorStats {
+
+  /** The number of graph nodes visited between two checks for cancellation. Must be a power of 2. */
+  private static final int CANCELLATION_CHECK_INTERVAL = 1 << 12;
+
+  private static final Comparator<VectorFieldStats> FIELD_ORDER = Comparator.comparing(VectorFieldStats::getField);
+
+  private final IndexReader reader;
+
+  private volatile List<VectorFieldStats> vectorStats;
+
+  VectorStats(IndexReader reader) {
+    this.reader = Objects.requireNonNull(reader);
+  }
+
+  /**
+   * Returns the statistics of the vector fields of each segment, in segment order, then ordered by field name.
+   *
+   * @param progress - receives the percentage of segments analyzed so far
+   * @param cancellation - the token to cancel the analysis with
+   * @throws Exception - if an error occurs when analyzing the segments
+   * @throws CancellationException - if the analysis is cancelled
+   */
+  List<VectorFieldStats> getVectorStats(IntConsumer progress, CancellationToken cancellation) throws Exception {
+    if (vectorStats == null) {
+      vectorStats = analyze(progress, cancellation);
+    }
+    progress.accept(100);
+    return vectorStats;
+  }
+
+  private List<VectorFieldStats> analyze(IntConsumer progress, CancellationToken cancellation) throws IOException {
+    List<SegmentReader> segments = new ArrayList<>();
+    for (LeafReaderContext leaf : reader.leaves()) {
+      if (FilterLeafReader.unwrap(leaf.reader()) instanceof SegmentReader segmentReader
+          && segmentReader.getFieldInfos().hasVectorValues()) {
+        segments.add(segmentReader);
+      }
+    }
+    if (segments.isEmpty()) {
+      return List.of();
+    }
+
+    List<List<VectorFieldStats>> segmentStats =
+        ParallelTasks.run(segments, cancellation, VectorStats::analyzeSegment,
+            numDone -> progress.accept(numDone * 100 / segments.size()));
+    List<VectorFieldStats> result = new ArrayList<>();
+    segmentStats.forEach(result::addAll);
+    return List.copyOf(result);
+  }
+
+  private static List<VectorFieldStats> analyzeSegment(SegmentReader segmentReader, CancellationToken cancellation)
+      throws IOException {
+    KnnVectorsReader vectorsReader = segmentReader.getVectorReader();
+    List<VectorFieldStats> stats = new ArrayList<>();
+    for (FieldInfo fieldInfo : segmentReader.getFieldInfos()) {
+      if (fieldInfo.hasVectorValues()) {
+        stats.add(analyzeField(segmentReader, vectorsReader, fieldInfo, cancellation));
+      }
+    }
+    stats.sort(FIELD_ORDER);
+    return stats;
+  }
+
+  private static VectorFieldStats analyzeField(
+      SegmentReader segmentReader, KnnVectorsReader vectorsReader, FieldInfo fieldInfo, CancellationToken cancellation)
+      throws IOException {
+    String field = fieldInfo.name;
+    int numVectors = numVectors(segmentReader, fieldInfo);
+
+    KnnVectorsReader fieldReader =
+        vectorsReader instanceof PerFieldKnnVectorsFormat.FieldsReader perFieldReader
+            ? perFieldReader.getFieldReader(field)
+            : vectorsReader;
+    List<VectorFieldStats.LevelStats> levels = new ArrayList<>();
+    long graphBytes = 0;
+    if (fieldReader instanceof HnswGraphProvider graphProvider) {
+      HnswGraph graph = graphProvider.getGraph(field);
+      if (graph != null && graph.size() > 0) {
+        for (int level = 0; level < graph.numLevels(); level++) {
+          LevelWalk walk = walkLevel(graph, level, cancellation);
+          levels.add(new VectorFieldStats.LevelStats(walk.numNodes, walk.degreeCounts));
+          graphBytes += walk.bytes;
+        }
+      }
+    }
+    ScalarQuantizer quantizer =
+        fieldReader instanceof QuantizedVectorsReader quantizedReader
+            ? quantizedReader.getQuantizationState(field)
+            : null;
+
+    int dimension = fieldInfo.getVectorDimension();
+    int bytesPerComponent = fieldInfo.getVectorEncoding() == VectorEncoding.BYTE ? Byte.BYTES : Float.BYTES;
+    long vectorBytes = (long) numVectors * dimension * bytesPerComponent;
+    long quantizedVectorBytes =
+        quantizer == null ? 0 : (long) numVectors * (((long) dimension * quantizer.getBits() + 7) / 8 + Float.BYTES);
+    String format = fieldInfo.getAttribute(PerFieldKnnVectorsFormat.PER_FIELD_FORMAT_KEY);
+
+    return new VectorFieldStats(
+        segmentReader.getSegmentName(),
+        field,
+        format == null ? "" : format,
+        fieldInfo.getVectorEncoding(),
+        dimension,
+        fieldInfo.getVectorSimilarityFunction(),
+        numVectors,
+        levels,
+        quantizer,
+        vectorBytes,
+        quantizedVectorBytes,
+        graphBytes);
+  }
+
+  private static int numVectors(SegmentReader segmentReader, FieldInfo fieldInfo) throws IOException {
+    if (fieldInfo.getVectorEncoding() == VectorEncoding.BYTE) {
+      ByteVectorValues values = segmentReader.getByteVectorValues(fieldInfo.name);
+      return values == null ? 0 : values.size();
+    }
+    FloatVectorValues values = segmentReader.getFloatVectorValues(fieldInfo.name);
+    return values == null ? 0 : values.size();
+  }
+
+  /** Visits the neighbors of each node on a level, counting the nodes by degree. */
+  private static LevelWalk walkLevel(HnswGraph graph, int level, CancellationToken cancellation) throws IOException {
+    HnswGraph.NodesIterator nodes = graph.getNodesOnLevel(level);
+    LevelWalk walk = new LevelWalk();
+    int previousNode = 0;
+    while (nodes.hasNext()) {
+      int node = nodes.nextInt();
+      if ((++walk.numNodes & (CANCELLATION_CHECK_INTERVAL - 1)) == 0) {
+        cancellation.throwIfCancelled("Analyzing vectors has been cancelled.");
+      }
+      if (level > 0) {
+        // the nodes of the upper levels are listed in the graph index
+        walk.bytes += vIntBytes(node - previousNode);
+        previousNode = node;
+      }
+      graph.seek(level, node);
+      int degree = 0;
+      int previousNeighbor = 0;
+      for (int neighbor = graph.nextNeighbor();
+          neighbor != DocIdSetIterator.NO_MORE_DOCS;
+          neighbor = graph.nextNeighbor()) {
+        walk.bytes += vIntBytes(neighbor - previousNeighbor);
+        previousNeighbor = neighbor;
+        degree++;
+      }
+      walk.bytes += vIntBytes(degree);
+      if (degree >= walk.degreeCounts.length) {
+        walk.degreeCounts = ArrayUtil.growExact(walk.degreeCounts, degree + 1);
+      }
+      walk.degreeCounts[degree]++;
+    }
+    return walk;
+  }
+
+  private static int vIntBytes(int value) {
+    return value < 0 ? 5 : (38 - Integer.numberOfLeadingZeros(value | 1)) / 7;
+  }
+
+  private static final class LevelWalk {
+    private int numNodes;
+    private long[] degreeCounts = new long[0];
+    private long bytes;
+  }
+}
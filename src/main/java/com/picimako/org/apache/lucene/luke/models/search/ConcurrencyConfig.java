@@ -0,0 +1,80 @@
+//Copyright 2026 Tamás Balog. Use of this source code is governed by the Apache 2.0 license that can be found in the LICENSE file.
+package com.picimako.org.apache.lucene.luke.models.search;
+
+/**
+ * Configurations for searching the segments of the index concurrently.
+ * <p>
+ * The segments are grouped into slices, the same way {@link org.apache.lucene.search.IndexSearcher} does by default,
+ * but with the given limits, and the slices are searched in parallel.
+ */
+public final class ConcurrencyConfig {
+
+  private final int numThreads;
+
+  private final int maxDocsPerSlice;
+
+  private final int maxSegmentsPerSlice;
+
+  /** Builder for {@link ConcurrencyConfig} */
+  public static class Builder {
+
+    private int numThreads = Runtime.getRuntime().availableProcessors();
+
+    private int maxDocsPerSlice = 250_000;
+
+    private int maxSegmentsPerSlice = 5;
+
+    public Builder numThreads(int val) {
+      numThreads = val;
+      return this;
+    }
+
+    public Builder maxDocsPerSlice(int val) {
+      maxDocsPerSlice = val;
+      return this;
+    }
+
+    public Builder maxSegmentsPerSlice(int val) {
+      maxSegmentsPerSlice = val;
+      return this;
+    }
+
+    /**
+     * @throws IllegalArgumentException - if any of the values is not positive
+     */
+    public ConcurrencyConfig build() {
+      if (numThreads < 1 || maxDocsPerSlice < 1 || maxSegmentsPerSlice < 1) {
+        throw new IllegalArgumentException(
+            "The number of threads and the slice limits must be positive integers.");
+      }
+      return new ConcurrencyConfig(this);
+    }
+  }
+
+  private ConcurrencyConfig(Builder builder) {
+    this.numThreads = builder.numThreads;
+    this.maxDocsPerSlice = builder.maxDocsPerSlice;
+    this.maxSegmentsPerSlice = builder.maxSegmentsPerSlice;
+  }
+
+  /** Returns the number of threads the slices are searched on. */
+  public int getNumThreads() {
+    return numThreads;
+  }
+
+  /** Returns the number of documents a slice is filled up to, unless it has a single segment. */
+  public int getMaxDocsPerSlice() {
+    return maxDocsPerSlice;
+  }
+
+  /** Returns the maximum number of segments in a slice. */
+  public int getMaxSegmentsPerSlice() {
+    return maxSegmentsPerSlice;
+  }
+
+  @Override
+  public String toString() {
+    return "ConcurrencyConfig: num threads=" + numThreads + " max docs per slice=" + maxDocsPerSlice
+        + " max segments per slice=" + maxSegmentsPerSlice;
+  }
+}
@@ -0,0 +1,391 @@
+//Copyright 2026 Tamás Balog. Use of this source code is governed by the Apache 2.0 license that can be found in the LICENSE file.
+package com.picimako.org.apache.lucene.luke.models.search;
+
+import com.picimako.org.apache.lucene.luke.models.util.CancellationToken;
+import com.picimako.org.apache.lucene.luke.models.util.ParallelTasks;
+import org.apache.lucene.index.ByteVectorValues;
+import org.apache.lucene.index.FieldInfo;
+import org.apache.lucene.index.FieldInfos;
+import org.apache.lucene.index.FloatVectorValues;
+import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.index.LeafReader;
+import org.apache.lucene.index.LeafReaderContext;
+import org.apache.lucene.index.VectorEncoding;
+import org.apache.lucene.index.VectorSimilarityFunction;
+import org.apache.lucene.luke.models.LukeException;
+import org.apache.lucene.search.DocIdSetIterator;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.util.Bits;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.Random;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutorService;
+import java.util.function.IntConsumer;
+
+/**
+ * Measures the recall and the latency of approximate kNN queries against the exact nearest neighbors.
+ * <p>
+ * The query vectors are the vectors of a random sample of the documents. The exact top k neighbors of each query vector
+ * are computed by comparing it with every vector of the live documents, then approximate kNN queries are run with each
+ * of the given numbers of candidates. The recall of a query is the fraction of the exact top k neighbors it finds.
+ * <p>
+ * The queries run concurrently on a pool of the given size, each query on a single thread, and their latencies are
+ * measured one by one. Before the measured runs, a few exact and approximate queries are run to warm up the JVM.
+ * Since the query vectors come from the index, each of them finds its own document as well.
+ */
+public final class KnnBenchmark {
+
+  /** The seed of the document sample, so that repeated runs use the same query vectors. */
+  private static final long SAMPLE_SEED = 0x5EED;
+
+  /** The maximum number of queries run before the measured runs of each kind of search, to warm up the JVM. */
+  private static final int NUM_WARMUP_QUERIES = 50;
+
+  /** The number of vectors compared between two checks for cancellation. Must be a power of 2. */
+  private static final int CANCELLATION_CHECK_INTERVAL = 1 << 14;
+
+  private final IndexReader reader;
+
+  private final FieldInfos fieldInfos;
+
+  public KnnBenchmark(IndexReader reader) {
+    this.reader = Objects.requireNonNull(reader);
+    this.fieldInfos = FieldInfos.getMergedFieldInfos(reader);
+  }
+
+  /**
+   * Runs the benchmark.
+   *
+   * @param field - the vector field
+   * @param numQueries - the number of query vectors to sample
+   * @param k - the number of nearest neighbors to find
+   * @param numCandidates - the numbers of candidates per segment to run the approximate queries with, each at least k
+   * @param numThreads - the number of queries run concurrently
+   * @param cancellation - the token to cancel the benchmark with
+   * @param progress - receives the percentage of queries run so far
+   * @throws LukeException - if the parameters are invalid, or an internal error occurs when accessing index
+   * @throws CancellationException - if the benchmark is cancelled
+   */
+  public Report run(String field, int numQueries, int k, int[] numCandidates, int numThreads,
+                    CancellationToken cancellation, IntConsumer progress) {
+    FieldInfo fieldInfo = fieldInfos.fieldInfo(field);
+    if (fieldInfo == null || !fieldInfo.hasVectorValues()) {
+      throw new LukeException(String.format(Locale.ENGLISH, "Field %s has no vectors.", field));
+    }
+    if (numQueries <= 0 || k <= 0 || numThreads <= 0 || numCandidates.length == 0) {
+      throw new LukeException("The number of queries, k, the number of threads and the candidates must be set.");
+    }
+    for (int candidates : numCandidates) {
+      if (candidates < k) {
+        throw new LukeException(
+            String.format(Locale.ENGLISH, "The number of candidates must be at least k, but got %d.", candidates));
+      }
+    }
+
+    ExecutorService executor = ParallelTasks.newExecutor(numThreads, "knn-benchmark");
+    try {
+      List<Object> targets = sampleTargets(fieldInfo, numQueries, cancellation);
+      if (targets.isEmpty()) {
+        throw new LukeException(String.format(Locale.ENGLISH, "No live document has a vector in field %s.", field));
+      }
+      int totalQueries = targets.size() * (numCandidates.length + 1);
+      int[] queriesRun = {0};
+      IntConsumer queriesDone = numDone -> progress.accept((queriesRun[0] + numDone) * 100 / totalQueries);
+
+      List<Object> warmupTargets = targets.subList(0, Math.min(targets.size(), NUM_WARMUP_QUERIES));
+      ParallelTasks.run(executor, warmupTargets, cancellation,
+          (target, token) -> exactSearch(fieldInfo, target, k, token), numDone -> {});
+      List<QueryRun> exactRuns =
+          ParallelTasks.run(executor, targets, cancellation,
+              (target, token) -> exactSearch(fieldInfo, target, k, token), queriesDone);
+      queriesRun[0] += targets.size();
+      Result exact = toResult(0, exactRuns, exactRuns);
+
+      IndexSearcher searcher = new IndexSearcher(reader);
+      ParallelTasks.run(executor, warmupTargets, cancellation,
+          (target, token) -> approximateSearch(searcher, fieldInfo, target, k, numCandidates[0], token), numDone -> {});
+      List<Result> approximate = new ArrayList<>(numCandidates.length);
+      for (int candidates : numCandidates) {
+        List<QueryRun> runs =
+            ParallelTasks.run(executor, targets, cancellation,
+                (target, token) -> approximateSearch(searcher, fieldInfo, target, k, candidates, token), queriesDone);
+        queriesRun[0] += targets.size();
+        approximate.add(toResult(candidates, runs, exactRuns));
+      }
+      return new Report(field, targets.size(), k, numThreads, exact, approximate);
+    } catch (IOException e) {
+      throw new LukeException(String.format(Locale.ENGLISH, "Vectors not available for field: %s.", field), e);
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  /** Returns the vectors of a random sample of the live documents with a vector, in document order. */
+  private List<Object> sampleTargets(FieldInfo fieldInfo, int numQueries, CancellationToken cancellation)
+      throws IOException {
+    // reservoir sampling of the global doc ids
+    Random random = new Random(SAMPLE_SEED);
+    int[] sample = new int[numQueries];
+    long seen = 0;
+    for (LeafReaderContext leaf : reader.leaves()) {
+      DocIdSetIterator docs = vectorValues(leaf.reader(), fieldInfo);
+      if (docs == null) {
+        continue;
+      }
+      Bits liveDocs = leaf.reader().getLiveDocs();
+      for (int doc = docs.nextDoc(); doc != DocIdSetIterator.NO_MORE_DOCS; doc = docs.nextDoc()) {
+        if (liveDocs != null && !liveDocs.get(doc)) {
+          continue;
+        }
+        if (seen < numQueries) {
+          sample[(int) seen] = leaf.docBase + doc;
+        } else {
+          long slot = (long) (random.nextDouble() * (seen + 1));
+          if (slot < numQueries) {
+            sample[(int) slot] = leaf.docBase + doc;
+          }
+        }
+        if ((++seen & (CANCELLATION_CHECK_INTERVAL - 1)) == 0) {
+          cancellation.throwIfCancelled("The kNN benchmark has been cancelled.");
+        }
+      }
+    }
+    int[] docIds = Arrays.copyOf(sample, (int) Math.min(seen, numQueries));
+    Arrays.sort(docIds);
+
+    List<Object> targets = new ArrayList<>(docIds.length);
+    int leafIndex = -1;
+    LeafReaderContext leaf = null;
+    DocIdSetIterator values = null;
+    for (int docId : docIds) {
+      while (leaf == null || docId >= leaf.docBase + leaf.reader().maxDoc()) {
+        leaf = reader.leaves().get(++leafIndex);
+        values = null;
+      }
+      if (values == null) {
+        values = vectorValues(leaf.reader(), fieldInfo);
+      }
+      values.advance(docId - leaf.docBase);
+      targets.add(
+          values instanceof FloatVectorValues floatValues
+              ? floatValues.vectorValue().clone()
+              : ((ByteVectorValues) values).vectorValue().clone());
+    }
+    return targets;
+  }
+
+  private static DocIdSetIterator vectorValues(LeafReader leafReader, FieldInfo fieldInfo) throws IOException {
+    return fieldInfo.getVectorEncoding() == VectorEncoding.BYTE
+        ? leafReader.getByteVectorValues(fieldInfo.name)
+        : leafReader.getFloatVectorValues(fieldInfo.name);
+  }
+
+  /** Compares the target with the vector of every live document, and keeps the k most similar ones. */
+  private QueryRun exactSearch(FieldInfo fieldInfo, Object target, int k, CancellationToken cancellation)
+      throws IOException {
+    cancellation.throwIfCancelled("The kNN benchmark has been cancelled.");
+    long start = System.nanoTime();
+    VectorSimilarityFunction similarity = fieldInfo.getVectorSimilarityFunction();
+    PriorityQueue<ScoreDoc> topK =
+        new PriorityQueue<>(k + 1, (a, b) -> a.score != b.score ? Float.compare(a.score, b.score) : b.doc - a.doc);
+    long compared = 0;
+    for (LeafReaderContext leaf : reader.leaves()) {
+      DocIdSetIterator values = vectorValues(leaf.reader(), fieldInfo);
+      if (values == null) {
+        continue;
+      }
+      Bits liveDocs = leaf.reader().getLiveDocs();
+      for (int doc = values.nextDoc(); doc != DocIdSetIterator.NO_MORE_DOCS; doc = values.nextDoc()) {
+        if (liveDocs != null && !liveDocs.get(doc)) {
+          continue;
+        }
+        float score =
+            values instanceof FloatVectorValues floatValues
+                ? similarity.compare((float[]) target, floatValues.vectorValue())
+                : similarity.compare((byte[]) target, ((ByteVectorValues) values).vectorValue());
+        topK.offer(new ScoreDoc(leaf.docBase + doc, score));
+        if (topK.size() > k) {
+          topK.poll();
+        }
+        if ((++compared & (CANCELLATION_CHECK_INTERVAL - 1)) == 0) {
+          cancellation.throwIfCancelled("The kNN benchmark has been cancelled.");
+        }
+      }
+    }
+    long latency = System.nanoTime() - start;
+    return new QueryRun(topK.stream().mapToInt(scoreDoc -> scoreDoc.doc).toArray(), latency, compared);
+  }
+
+  private static QueryRun approximateSearch(
+      IndexSearcher searcher, FieldInfo fieldInfo, Object target, int k, int numCandidates,
+      CancellationToken cancellation) throws IOException {
+    cancellation.throwIfCancelled("The kNN benchmark has been cancelled.");
+    KnnSearch.Stats stats = new KnnSearch.Stats();
+    long start = System.nanoTime();
+    TopDocs topDocs =
+        searcher.search(
+            target instanceof float[] floatTarget
+                ? KnnSearch.newFloatVectorQuery(fieldInfo.name, floatTarget, k, numCandidates, stats)
+                : KnnSearch.newByteVectorQuery(fieldInfo.name, (byte[]) target, k, numCandidates, stats),
+            k);
+    long latency = System.nanoTime() - start;
+    return new QueryRun(
+        Arrays.stream(topDocs.scoreDocs).mapToInt(scoreDoc -> scoreDoc.doc).toArray(),
+        latency,
+        stats.getVisitedNodes());
+  }
+
+  private static Result toResult(int numCandidates, List<QueryRun> runs, List<QueryRun> exactRuns) {
+    long[] latencies = new long[runs.size()];
+    double recallSum = 0;
+    long visited = 0;
+    for (int i = 0; i < runs.size(); i++) {
+      QueryRun run = runs.get(i);
+      latencies[i] = run.latencyNanos;
+      visited += run.visited;
+      int[] exactDocs = exactRuns.get(i).docs.clone();
+      Arrays.sort(exactDocs);
+      int found = 0;
+      for (int doc : run.docs) {
+        if (Arrays.binarySearch(exactDocs, doc) >= 0) {
+          found++;
+        }
+      }
+      recallSum += exactDocs.length == 0 ? 1 : (double) found / exactDocs.length;
+    }
+    Arrays.sort(latencies);
+    return new Result(
+        numCandidates,
+        recallSum / runs.size(),
+        percentile(latencies, 50),
+        percentile(latencies, 99),
+        (double) visited / runs.size());
+  }
+
+  /** Returns the nearest-rank percentile of the sorted values. */
+  private static long percentile(long[] sortedValues, int percentile) {
+    int rank = (int) Math.ceil(percentile / 100d * sortedValues.length);
+    return sortedValues[Math.max(0, rank - 1)];
+  }
+
+  /** The doc ids a query found, its latency, and the number of vectors it compared the target with. */
+  private record QueryRun(int[] docs, long latencyNanos, long visited) {
+  }
+
+  /** The results of a benchmark. */
+  public static final class Report {
+
+    private final String field;
+
+    private final int numQueries;
+
+    private final int k;
+
+    private final int numThreads;
+
+    private final Result exact;
+
+    private final List<Result> approximate;
+
+    Report(String field, int numQueries, int k, int numThreads, Result exact, List<Result> approximate) {
+      this.field = field;
+      this.numQueries = numQueries;
+      this.k = k;
+      this.numThreads = numThreads;
+      this.exact = exact;
+      this.approximate = List.copyOf(approximate);
+    }
+
+    /** Returns the vector field. */
+    public String getField() {
+      return field;
+    }
+
+    /** Returns the number of query vectors, which is less than requested if there are fewer vectors. */
+    public int getNumQueries() {
+      return numQueries;
+    }
+
+    /** Returns the number of nearest neighbors searched for. */
+    public int getK() {
+      return k;
+    }
+
+    /** Returns the number of queries run concurrently. */
+    public int getNumThreads() {
+      return numThreads;
+    }
+
+    /** Returns the result of the exact search, whose recall is 1 by definition. */
+    public Result getExact() {
+      return exact;
+    }
+
+    /** Returns the results of the approximate searches, in the order of the numbers of candidates. */
+    public List<Result> getApproximate() {
+      return approximate;
+    }
+  }
+
+  /** The recall and the latency of the queries run with a number of candidates. */
+  public static final class Result {
+
+    private final int numCandidates;
+
+    private final double recall;
+
+    private final long p50LatencyNanos;
+
+    private final long p99LatencyNanos;
+
+    private final double avgVisited;
+
+    Result(int numCandidates, double recall, long p50LatencyNanos, long p99LatencyNanos, double avgVisited) {
+      this.numCandidates = numCandidates;
+      this.recall = recall;
+      this.p50LatencyNanos = p50LatencyNanos;
+      this.p99LatencyNanos = p99LatencyNanos;
+      this.avgVisited = avgVisited;
+    }
+
+    /** Returns the number of candidates per segment, or 0 for the exact search. */
+    public int getNumCandidates() {
+      return numCandidates;
+    }
+
+    /** Returns the average recall@k of the queries. */
+    public double getRecall() {
+      return recall;
+    }
+
+    /** Returns the median latency of the queries. */
+    public long getP50LatencyNanos() {
+      return p50LatencyNanos;
+    }
+
+    /** Returns the 99th percentile latency of the queries. */
+    public long getP99LatencyNanos() {
+      return p99LatencyNanos;
+    }
+
+    /** Returns the average number of vectors a query compared the target with. */
+    public double getAvgVisited() {
+      return avgVisited;
+    }
+
+    @Override
+    public String toString() {
+      return "Result{numCandidates=" + numCandidates + ", recall=" + recall + ", p50LatencyNanos=" + p50LatencyNanos
+          + ", p99LatencyNanos=" + p99LatencyNanos + ", avgVisited=" + avgVisited + '}';
+    }
+  }
+}
@@ -0,0 +1,292 @@
+//Copyright 2026 Tamás Balog. Use of this source code is governed by the Apache 2.0 license that can be found in the LICENSE file.
+package com.picimako.org.apache.lucene.luke.models.search;
+
+import org.apache.lucene.index.ByteVectorValues;
+import org.apache.lucene.index.FieldInfo;
+import org.apache.lucene.index.FieldInfos;
+import org.apache.lucene.index.FloatVectorValues;
+import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.index.LeafReaderContext;
+import org.apache.lucene.index.ReaderUtil;
+import org.apache.lucene.index.VectorEncoding;
+import org.apache.lucene.luke.models.LukeException;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.KnnByteVectorQuery;
+import org.apache.lucene.search.KnnFloatVectorQuery;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.TopDocs;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.StringJoiner;
+
+/**
+ * Creates k-nearest-neighbor vector queries, and reads the vectors of documents.
+ * <p>
+ * The queries collect {@code numCandidates} nearest neighbors per segment, and keep the top {@code k} of them.
+ * They record the number of graph nodes visited and the time the approximate search took into a {@link Stats}
+ * object, when they are rewritten by the searcher.
+ */
+public final class KnnSearch {
+
+  private final IndexReader reader;
+
+  private final FieldInfos fieldInfos;
+
+  public KnnSearch(IndexReader reader) {
+    this.reader = Objects.requireNonNull(reader);
+    this.fieldInfos = FieldInfos.getMergedFieldInfos(reader);
+  }
+
+  /** Returns the names of the fields with vectors. */
+  public List<String> getVectorFieldNames() {
+    List<String> fields = new ArrayList<>();
+    for (FieldInfo fieldInfo : fieldInfos) {
+      if (fieldInfo.hasVectorValues()) {
+        fields.add(fieldInfo.name);
+      }
+    }
+    fields.sort(null);
+    return fields;
+  }
+
+  /**
+   * Returns the given vector field.
+   *
+   * @throws LukeException - if the field has no vectors
+   */
+  public FieldInfo getVectorField(String field) {
+    FieldInfo fieldInfo = fieldInfos.fieldInfo(field);
+    if (fieldInfo == null || !fieldInfo.hasVectorValues()) {
+      throw new LukeException(String.format(Locale.ENGLISH, "Field %s has no vectors.", field));
+    }
+    return fieldInfo;
+  }
+
+  /**
+   * Returns the vector of a document in the text form {@link #newQuery} accepts.
+   *
+   * @param field - the vector field
+   * @param docId - the document id
+   * @throws LukeException - if the document has no vector in the field, or an internal error occurs when accessing
+   *     index
+   */
+  public String getVectorText(String field, int docId) {
+    FieldInfo fieldInfo = getVectorField(field);
+    if (docId < 0 || docId >= reader.maxDoc()) {
+      throw new LukeException(String.format(Locale.ENGLISH, "Invalid doc id: %d", docId));
+    }
+    LeafReaderContext leaf = reader.leaves().get(ReaderUtil.subIndex(docId, reader.leaves()));
+    int leafDocId = docId - leaf.docBase;
+    try {
+      if (fieldInfo.getVectorEncoding() == VectorEncoding.BYTE) {
+        ByteVectorValues values = leaf.reader().getByteVectorValues(field);
+        if (values != null && values.advance(leafDocId) == leafDocId) {
+          return Arrays.toString(values.vectorValue());
+        }
+      } else {
+        FloatVectorValues values = leaf.reader().getFloatVectorValues(field);
+        if (values != null && values.advance(leafDocId) == leafDocId) {
+          return Arrays.toString(values.vectorValue());
+        }
+      }
+    } catch (IOException e) {
+      throw new LukeException(String.format(Locale.ENGLISH, "Vectors not available for field: %s.", field), e);
+    }
+    throw new LukeException(String.format(Locale.ENGLISH, "Document #%d has no vector in field %s.", docId, field));
+  }
+
+  /**
+   * Creates a kNN query.
+   *
+   * @param field - the vector field
+   * @param vectorText - the target vector, its components separated by commas or whitespace, optionally in brackets
+   * @param k - the number of nearest neighbors returned
+   * @param numCandidates - the number of nearest neighbors collected per segment, at least k
+   * @param stats - receives the statistics of the search
+   * @throws LukeException - if the field has no vectors, or the vector is invalid
+   */
+  public Query newQuery(String field, String vectorText, int k, int numCandidates, Stats stats) {
+    FieldInfo fieldInfo = getVectorField(field);
+    if (k <= 0 || numCandidates < k) {
+      throw new LukeException("k must be positive, and the number of candidates must be at least k.");
+    }
+    String[] components = parseComponents(vectorText);
+    if (components.length != fieldInfo.getVectorDimension()) {
+      throw new LukeException(
+          String.format(
+              Locale.ENGLISH,
+              "The vector has %d dimensions, but field %s has %d.",
+              components.length,
+              field,
+              fieldInfo.getVectorDimension()));
+    }
+    try {
+      if (fieldInfo.getVectorEncoding() == VectorEncoding.BYTE) {
+        byte[] target = new byte[components.length];
+        for (int i = 0; i < components.length; i++) {
+          int value = Integer.parseInt(components[i]);
+          if (value < Byte.MIN_VALUE || value > Byte.MAX_VALUE) {
+            throw new NumberFormatException("Not a byte: " + value);
+          }
+          target[i] = (byte) value;
+        }
+        return newByteVectorQuery(field, target, k, numCandidates, stats);
+      }
+      float[] target = new float[components.length];
+      for (int i = 0; i < components.length; i++) {
+        target[i] = Float.parseFloat(components[i]);
+      }
+      return newFloatVectorQuery(field, target, k, numCandidates, stats);
+    } catch (NumberFormatException e) {
+      throw new LukeException(String.format(Locale.ENGLISH, "Invalid vector: %s", e.getMessage()), e);
+    }
+  }
+
+  /** Creates a float vector query collecting numCandidates neighbors per segment, and returning the top k. */
+  static Query newFloatVectorQuery(String field, float[] target, int k, int numCandidates, Stats stats) {
+    return new StatsKnnFloatVectorQuery(field, target, k, numCandidates, stats);
+  }
+
+  /** Creates a byte vector query collecting numCandidates neighbors per segment, and returning the top k. */
+  static Query newByteVectorQuery(String field, byte[] target, int k, int numCandidates, Stats stats) {
+    return new StatsKnnByteVectorQuery(field, target, k, numCandidates, stats);
+  }
+
+  private static String[] parseComponents(String vectorText) {
+    String text = vectorText.trim();
+    if (text.startsWith("[") && text.endsWith("]")) {
+      text = text.substring(1, text.length() - 1).trim();
+    }
+    return text.isEmpty() ? new String[0] : text.split("[\\s,]+");
+  }
+
+  /** Sums the visited node counts of the segments, and keeps the top k hits. */
+  private static TopDocs recordAndTrim(TopDocs merged, TopDocs[] perLeafResults, int k, Stats stats) {
+    long visited = 0;
+    for (TopDocs leafResults : perLeafResults) {
+      // the total hits of the per-segment results are the numbers of visited nodes
+      visited += leafResults.totalHits.value;
+    }
+    stats.visitedNodes = visited;
+    if (merged.scoreDocs.length <= k) {
+      return merged;
+    }
+    return new TopDocs(merged.totalHits, Arrays.copyOf(merged.scoreDocs, k, ScoreDoc[].class));
+  }
+
+  /** A float vector query recording its statistics. */
+  private static final class StatsKnnFloatVectorQuery extends KnnFloatVectorQuery {
+
+    private final int topK;
+
+    private final Stats stats;
+
+    StatsKnnFloatVectorQuery(String field, float[] target, int k, int numCandidates, Stats stats) {
+      super(field, target, numCandidates);
+      this.topK = k;
+      this.stats = stats;
+    }
+
+    @Override
+    public Query rewrite(IndexSearcher indexSearcher) throws IOException {
+      long start = System.nanoTime();
+      Query rewritten = super.rewrite(indexSearcher);
+      stats.latencyNanos = System.nanoTime() - start;
+      return rewritten;
+    }
+
+    @Override
+    protected TopDocs mergeLeafResults(TopDocs[] perLeafResults) {
+      return recordAndTrim(super.mergeLeafResults(perLeafResults), perLeafResults, topK, stats);
+    }
+
+    @Override
+    public String toString(String field) {
+      return super.toString(field) + "[top " + topK + "]";
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      return super.equals(o) && topK == ((StatsKnnFloatVectorQuery) o).topK;
+    }
+
+    @Override
+    public int hashCode() {
+      return 31 * super.hashCode() + topK;
+    }
+  }
+
+  /** A byte vector query recording its statistics. */
+  private static final class StatsKnnByteVectorQuery extends KnnByteVectorQuery {
+
+    private final int topK;
+
+    private final Stats stats;
+
+    StatsKnnByteVectorQuery(String field, byte[] target, int k, int numCandidates, Stats stats) {
+      super(field, target, numCandidates);
+      this.topK = k;
+      this.stats = stats;
+    }
+
+    @Override
+    public Query rewrite(IndexSearcher indexSearcher) throws IOException {
+      long start = System.nanoTime();
+      Query rewritten = super.rewrite(indexSearcher);
+      stats.latencyNanos = System.nanoTime() - start;
+      return rewritten;
+    }
+
+    @Override
+    protected TopDocs mergeLeafResults(TopDocs[] perLeafResults) {
+      return recordAndTrim(super.mergeLeafResults(perLeafResults), perLeafResults, topK, stats);
+    }
+
+    @Override
+    public String toString(String field) {
+      return super.toString(field) + "[top " + topK + "]";
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      return super.equals(o) && topK == ((StatsKnnByteVectorQuery) o).topK;
+    }
+
+    @Override
+    public int hashCode() {
+      return 31 * super.hashCode() + topK;
+    }
+  }
+
+  /** The statistics of the last execution of a kNN query. */
+  public static final class Stats {
+
+    private volatile long visitedNodes = -1;
+
+    private volatile long latencyNanos = -1;
+
+    /** Returns the number of vectors compared with the target, or -1 if the query hasn't been executed. */
+    public long getVisitedNodes() {
+      return visitedNodes;
+    }
+
+    /** Returns the time the nearest neighbor search took, or -1 if the query hasn't been executed. */
+    public long getLatencyNanos() {
+      return latencyNanos;
+    }
+
+    @Override
+    public String toString() {
+      StringJoiner joiner = new StringJoiner(", ", "Stats{", "}");
+      joiner.add("visitedNodes=" + visitedNodes);
+      joiner.add("latencyNanos=" + latencyNanos);
+      return joiner.toString();
+    }
+  }
+}
@@ -0,0 +1,197 @@
+//Copyright 2026 Tamás Balog. Use of this source code is governed by the Apache 2.0 license that can be found in the LICENSE file.
+package com.picimako.org.apache.lucene.luke.models.search;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The profile of a search: how long it took to rewrite the query, and how much time was spent in, and how many times
+ * were called the different operations of each clause of the rewritten query tree, overall and per segment.
+ * <p>
+ * The times are inclusive, i.e. the time of an operation of a compound clause includes the time of the operations
+ * of its sub-clauses it called.
+ */
+public final class QueryProfile {
+
+  /** The profiled operations of a clause. */
+  public enum Operation {
+    /** Creating the weight of the clause. It is done once per search, not per segment. */
+    CREATE_WEIGHT("createWeight"),
+    /**
+     * Building the scorer or the bulk scorer of the clause for a segment. Creating the scorer supplier, and getting
+     * the scorer from it are counted as separate calls.
+     */
+    BUILD_SCORER("build scorer"),
+    /** Moving the iterator of the clause to the next matching document. */
+    NEXT_DOC("nextDoc"),
+    /** Moving the iterator of the clause to the first matching document at or after a target. */
+    ADVANCE("advance"),
+    /** Confirming a match of the approximation of a two-phase iterator. */
+    MATCH("match"),
+    /** Scoring the current document. */
+    SCORE("score"),
+    /**
+     * Scoring a range of documents in bulk. The documents the bulk scorer of the clause iterates and scores itself are
+     * not counted as nextDoc, advance or score calls of the clause, only those of its sub-clauses.
+     */
+    BULK_SCORE("bulk score");
+
+    private final String displayName;
+
+    Operation(String displayName) {
+      this.displayName = displayName;
+    }
+
+    public String getDisplayName() {
+      return displayName;
+    }
+  }
+
+  private final long rewriteNanos;
+
+  private final List<Node> roots;
+
+  QueryProfile(long rewriteNanos, List<Node> roots) {
+    this.rewriteNanos = rewriteNanos;
+    this.roots = List.copyOf(roots);
+  }
+
+  /** Returns the time it took to rewrite the query, in nanoseconds. */
+  public long getRewriteNanos() {
+    return rewriteNanos;
+  }
+
+  /**
+   * Returns the top level clauses the searcher created weights for. It is usually a single clause, the rewritten
+   * query itself.
+   */
+  public List<Node> getRoots() {
+    return roots;
+  }
+
+  @Override
+  public String toString() {
+    return "QueryProfile{rewriteNanos=" + rewriteNanos + ", roots=" + roots + '}';
+  }
+
+  /** The profile of a clause of the rewritten query tree. */
+  public static final class Node {
+
+    private final String queryType;
+
+    private final String description;
+
+    private final Timings timings;
+
+    private final List<SegmentTimings> segments;
+
+    private final List<Node> children;
+
+    Node(String queryType, String description, Timings timings, List<SegmentTimings> segments, List<Node> children) {
+      this.queryType = queryType;
+      this.description = description;
+      this.timings = timings;
+      this.segments = List.copyOf(segments);
+      this.children = List.copyOf(children);
+    }
+
+    /** Returns the simple class name of the query of the clause. */
+    public String getQueryType() {
+      return queryType;
+    }
+
+    /** Returns the string representation of the query of the clause. */
+    public String getDescription() {
+      return description;
+    }
+
+    /** Returns the timings of the clause, summed up for all segments. */
+    public Timings getTimings() {
+      return timings;
+    }
+
+    /** Returns the timings of the clause for each segment it has been searched in, in segment order. */
+    public List<SegmentTimings> getSegments() {
+      return segments;
+    }
+
+    /** Returns the sub-clauses the clause has created weights for. */
+    public List<Node> getChildren() {
+      return children;
+    }
+
+    @Override
+    public String toString() {
+      return "Node{queryType='" + queryType + "', description='" + description + "', timings=" + timings
+          + ", children=" + children + '}';
+    }
+  }
+
+  /** The timings of a clause in a segment. */
+  public static final class SegmentTimings {
+
+    private final int ord;
+
+    private final String segmentName;
+
+    private final Timings timings;
+
+    SegmentTimings(int ord, String segmentName, Timings timings) {
+      this.ord = ord;
+      this.segmentName = segmentName;
+      this.timings = timings;
+    }
+
+    /** Returns the ordinal of the segment in the index reader. */
+    public int getOrd() {
+      return ord;
+    }
+
+    /** Returns the name of the segment, or null if the segment is not read by a segment reader. */
+    public String getSegmentName() {
+      return segmentName;
+    }
+
+    public Timings getTimings() {
+      return timings;
+    }
+
+    @Override
+    public String toString() {
+      return "SegmentTimings{ord=" + ord + ", segmentName='" + segmentName + "', timings=" + timings + '}';
+    }
+  }
+
+  /** The time spent in, and the number of calls of each profiled operation. */
+  public static final class Timings {
+
+    private final long[] nanos;
+
+    private final long[] counts;
+
+    Timings(long[] nanos, long[] counts) {
+      this.nanos = nanos.clone();
+      this.counts = counts.clone();
+    }
+
+    /** Returns the time spent in the given operation, in nanoseconds. */
+    public long getNanos(Operation operation) {
+      return nanos[operation.ordinal()];
+    }
+
+    /** Returns the number of times the given operation has been called. */
+    public long getCount(Operation operation) {
+      return counts[operation.ordinal()];
+    }
+
+    /** Returns the time spent in all the operations of the clause, in nanoseconds. */
+    public long getTotalNanos() {
+      return Arrays.stream(nanos).sum();
+    }
+
+    @Override
+    public String toString() {
+      return "Timings{nanos=" + Arrays.toString(nanos) + ", counts=" + Arrays.toString(counts) + '}';
+    }
+  }
+}
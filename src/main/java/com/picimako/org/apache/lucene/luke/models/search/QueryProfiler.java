@@ -0,0 +1,416 @@
+//Copyright 2026 Tamás Balog. Use of this source code is governed by the Apache 2.0 license that can be found in the LICENSE file.
+package com.picimako.org.apache.lucene.luke.models.search;
+
+import com.picimako.org.apache.lucene.luke.models.search.QueryProfile.Operation;
+import org.apache.lucene.index.FilterLeafReader;
+import org.apache.lucene.index.LeafReaderContext;
+import org.apache.lucene.index.SegmentReader;
+import org.apache.lucene.search.BulkScorer;
+import org.apache.lucene.search.DocIdSetIterator;
+import org.apache.lucene.search.FilterWeight;
+import org.apache.lucene.search.LeafCollector;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.Scorer;
+import org.apache.lucene.search.ScorerSupplier;
+import org.apache.lucene.search.TwoPhaseIterator;
+import org.apache.lucene.search.Weight;
+import org.apache.lucene.util.Bits;
+import org.apache.lucene.util.IOSupplier;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Profiles a search by wrapping the weight of each clause of the rewritten query tree, and the scorers, bulk scorers
+ * and iterators created by them, and recording how much time is spent in their operations, per segment.
+ * <p>
+ * A clause keeps its own bulk scorer, so that the query is executed the same way as without profiling.
+ * <p>
+ * The weights are expected to be created on a single thread, the one calling the searcher, while the segments may be
+ * searched concurrently, but each segment on a single thread.
+ */
+final class QueryProfiler {
+
+  private static final int NUM_OPERATIONS = Operation.values().length;
+
+  private final List<LeafReaderContext> leaves;
+
+  private final List<Clause> roots = new ArrayList<>();
+
+  private final Deque<Clause> stack = new ArrayDeque<>();
+
+  private long rewriteNanos;
+
+  private int rewriteDepth;
+
+  QueryProfiler(List<LeafReaderContext> leaves) {
+    this.leaves = List.copyOf(leaves);
+  }
+
+  /**
+   * Rewrites a query with the given function, and records how long it takes, unless it is nested into another
+   * rewrite.
+   */
+  Query rewrite(IOSupplier<Query> rewrite) throws IOException {
+    if (rewriteDepth++ > 0) {
+      try {
+        return rewrite.get();
+      } finally {
+        rewriteDepth--;
+      }
+    }
+    long start = System.nanoTime();
+    try {
+      return rewrite.get();
+    } finally {
+      rewriteNanos += System.nanoTime() - start;
+      rewriteDepth--;
+    }
+  }
+
+  /**
+   * Creates the weight of a clause with the given function, and wraps it for profiling. The clauses whose weights are
+   * created meanwhile become the sub-clauses of this one.
+   */
+  Weight createWeight(Query query, IOSupplier<Weight> createWeight) throws IOException {
+    Clause clause = new Clause(query, leaves.size());
+    Clause parent = stack.peek();
+    if (parent == null) {
+      roots.add(clause);
+    } else {
+      parent.children.add(clause);
+    }
+
+    stack.push(clause);
+    long start = System.nanoTime();
+    Weight weight;
+    try {
+      weight = createWeight.get();
+    } finally {
+      clause.weightTimer.record(Operation.CREATE_WEIGHT, start);
+      stack.pop();
+    }
+    return new ProfileWeight(weight, clause);
+  }
+
+  /** Returns the profile recorded so far. */
+  QueryProfile toProfile() {
+    return new QueryProfile(rewriteNanos, roots.stream().map(this::toNode).toList());
+  }
+
+  private QueryProfile.Node toNode(Clause clause) {
+    Timer total = new Timer();
+    total.add(clause.weightTimer);
+    List<QueryProfile.SegmentTimings> segments = new ArrayList<>();
+    for (int ord = 0; ord < clause.segmentTimers.length; ord++) {
+      Timer timer = clause.segmentTimers[ord];
+      if (timer.isEmpty()) {
+        continue;
+      }
+      total.add(timer);
+      String segmentName =
+          FilterLeafReader.unwrap(leaves.get(ord).reader()) instanceof SegmentReader segmentReader
+              ? segmentReader.getSegmentName()
+              : null;
+      segments.add(new QueryProfile.SegmentTimings(ord, segmentName, timer.toTimings()));
+    }
+    return new QueryProfile.Node(
+        clause.queryType,
+        clause.description,
+        total.toTimings(),
+        segments,
+        clause.children.stream().map(this::toNode).toList());
+  }
+
+  /** A clause of the rewritten query tree, and its timers. */
+  private static final class Clause {
+
+    private final String queryType;
+
+    private final String description;
+
+    private final Timer weightTimer = new Timer();
+
+    private final Timer[] segmentTimers;
+
+    private final List<Clause> children = new ArrayList<>();
+
+    Clause(Query query, int numSegments) {
+      this.queryType = query.getClass().getSimpleName();
+      this.description = query.toString();
+      this.segmentTimers = new Timer[numSegments];
+      for (int i = 0; i < numSegments; i++) {
+        segmentTimers[i] = new Timer();
+      }
+    }
+
+    Timer timer(LeafReaderContext context) {
+      return segmentTimers[context.ord];
+    }
+  }
+
+  /** Sums up the time spent in, and the number of calls of each operation. Not thread-safe. */
+  private static final class Timer {
+
+    private final long[] nanos = new long[NUM_OPERATIONS];
+
+    private final long[] counts = new long[NUM_OPERATIONS];
+
+    void record(Operation operation, long startNanos) {
+      nanos[operation.ordinal()] += System.nanoTime() - startNanos;
+      counts[operation.ordinal()]++;
+    }
+
+    void add(Timer other) {
+      for (int i = 0; i < NUM_OPERATIONS; i++) {
+        nanos[i] += other.nanos[i];
+        counts[i] += other.counts[i];
+      }
+    }
+
+    boolean isEmpty() {
+      for (long count : counts) {
+        if (count > 0) {
+          return false;
+        }
+      }
+      return true;
+    }
+
+    QueryProfile.Timings toTimings() {
+      return new QueryProfile.Timings(nanos, counts);
+    }
+  }
+
+  private static final class ProfileWeight extends FilterWeight {
+
+    private final Clause clause;
+
+    ProfileWeight(Weight weight, Clause clause) {
+      super(weight);
+      this.clause = clause;
+    }
+
+    @Override
+    public Scorer scorer(LeafReaderContext context) throws IOException {
+      ScorerSupplier supplier = scorerSupplier(context);
+      return supplier == null ? null : supplier.get(Long.MAX_VALUE);
+    }
+
+    @Override
+    public ScorerSupplier scorerSupplier(LeafReaderContext context) throws IOException {
+      Timer timer = clause.timer(context);
+      long start = System.nanoTime();
+      ScorerSupplier supplier;
+      try {
+        supplier = in.scorerSupplier(context);
+      } finally {
+        timer.record(Operation.BUILD_SCORER, start);
+      }
+      if (supplier == null) {
+        return null;
+      }
+
+      return new ScorerSupplier() {
+        @Override
+        public Scorer get(long leadCost) throws IOException {
+          long start = System.nanoTime();
+          Scorer scorer;
+          try {
+            scorer = supplier.get(leadCost);
+          } finally {
+            timer.record(Operation.BUILD_SCORER, start);
+          }
+          return scorer == null ? null : new ProfileScorer(ProfileWeight.this, scorer, timer);
+        }
+
+        @Override
+        public long cost() {
+          return supplier.cost();
+        }
+
+        @Override
+        public void setTopLevelScoringClause() throws IOException {
+          supplier.setTopLevelScoringClause();
+        }
+      };
+    }
+
+    @Override
+    public BulkScorer bulkScorer(LeafReaderContext context) throws IOException {
+      Timer timer = clause.timer(context);
+      long start = System.nanoTime();
+      BulkScorer bulkScorer;
+      try {
+        bulkScorer = in.bulkScorer(context);
+      } finally {
+        timer.record(Operation.BUILD_SCORER, start);
+      }
+      return bulkScorer == null ? null : new ProfileBulkScorer(bulkScorer, timer);
+    }
+
+    @Override
+    public int count(LeafReaderContext context) throws IOException {
+      return in.count(context);
+    }
+  }
+
+  private static final class ProfileBulkScorer extends BulkScorer {
+
+    private final BulkScorer in;
+
+    private final Timer timer;
+
+    ProfileBulkScorer(BulkScorer in, Timer timer) {
+      this.in = in;
+      this.timer = timer;
+    }
+
+    @Override
+    public int score(LeafCollector collector, Bits acceptDocs, int min, int max) throws IOException {
+      long start = System.nanoTime();
+      try {
+        return in.score(collector, acceptDocs, min, max);
+      } finally {
+        timer.record(Operation.BULK_SCORE, start);
+      }
+    }
+
+    @Override
+    public long cost() {
+      return in.cost();
+    }
+  }
+
+  private static final class ProfileScorer extends Scorer {
+
+    private final Scorer in;
+
+    private final Timer timer;
+
+    ProfileScorer(Weight weight, Scorer in, Timer timer) {
+      super(weight);
+      this.in = in;
+      this.timer = timer;
+    }
+
+    @Override
+    public int docID() {
+      return in.docID();
+    }
+
+    @Override
+    public float score() throws IOException {
+      long start = System.nanoTime();
+      try {
+        return in.score();
+      } finally {
+        timer.record(Operation.SCORE, start);
+      }
+    }
+
+    @Override
+    public float smoothingScore(int docId) throws IOException {
+      return in.smoothingScore(docId);
+    }
+
+    @Override
+    public void setMinCompetitiveScore(float minScore) throws IOException {
+      in.setMinCompetitiveScore(minScore);
+    }
+
+    @Override
+    public Collection<ChildScorable> getChildren() throws IOException {
+      return in.getChildren();
+    }
+
+    @Override
+    public int advanceShallow(int target) throws IOException {
+      return in.advanceShallow(target);
+    }
+
+    @Override
+    public float getMaxScore(int upTo) throws IOException {
+      return in.getMaxScore(upTo);
+    }
+
+    @Override
+    public DocIdSetIterator iterator() {
+      TwoPhaseIterator twoPhase = twoPhaseIterator();
+      // so that the matches of the approximation are confirmed through the profiled two-phase iterator
+      return twoPhase == null
+          ? new ProfileIterator(in.iterator(), timer)
+          : TwoPhaseIterator.asDocIdSetIterator(twoPhase);
+    }
+
+    @Override
+    public TwoPhaseIterator twoPhaseIterator() {
+      TwoPhaseIterator twoPhase = in.twoPhaseIterator();
+      if (twoPhase == null) {
+        return null;
+      }
+      return new TwoPhaseIterator(new ProfileIterator(twoPhase.approximation(), timer)) {
+        @Override
+        public boolean matches() throws IOException {
+          long start = System.nanoTime();
+          try {
+            return twoPhase.matches();
+          } finally {
+            timer.record(Operation.MATCH, start);
+          }
+        }
+
+        @Override
+        public float matchCost() {
+          return twoPhase.matchCost();
+        }
+      };
+    }
+  }
+
+  private static final class ProfileIterator extends DocIdSetIterator {
+
+    private final DocIdSetIterator in;
+
+    private final Timer timer;
+
+    ProfileIterator(DocIdSetIterator in, Timer timer) {
+      this.in = in;
+      this.timer = timer;
+    }
+
+    @Override
+    public int docID() {
+      return in.docID();
+    }
+
+    @Override
+    public int nextDoc() throws IOException {
+      long start = System.nanoTime();
+      try {
+        return in.nextDoc();
+      } finally {
+        timer.record(Operation.NEXT_DOC, start);
+      }
+    }
+
+    @Override
+    public int advance(int target) throws IOException {
+      long start = System.nanoTime();
+      try {
+        return in.advance(target);
+      } finally {
+        timer.record(Operation.ADVANCE, start);
+      }
+    }
+
+    @Override
+    public long cost() {
+      return in.cost();
+    }
+  }
+}
@@ -0,0 +1,255 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.picimako.org.apache.lucene.luke.models.search;
+
+import org.apache.lucene.document.Document;
+import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.index.IndexableField;
+import org.apache.lucene.index.LeafReaderContext;
+import org.apache.lucene.index.ReaderUtil;
+import org.apache.lucene.index.StoredFields;
+import org.apache.lucene.luke.models.LukeException;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.TotalHits;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Holder for a search result page.
+ * <p>
+ * LICENSE NOTE: This is the modified version of {@link org.apache.lucene.luke.models.search.SearchResults}.
+ * The stored fields of the hits are loaded on demand, in batches, see {@link #loadFieldValues(int, int)}.
+ * It also tells the number of the page, whether there is a next page, whether the search was stopped by its timeout
+ * before all hits were collected, how long it took to search each slice of the index, and the profile of the query,
+ * if it has been profiled.
+ */
+public final class SearchResults {
+
+  /** The recommended number of hits to load the stored fields of at once. */
+  public static final int FIELD_VALUES_BATCH_SIZE = 64;
+
+  private TotalHits totalHits;
+
+  private int offset = 0;
+
+  private int page = 0;
+
+  private boolean hasNextPage;
+
+  private boolean partial;
+
+  private final List<Doc> hits = new ArrayList<>();
+
+  private IndexReader reader;
+
+  private Set<String> fieldsToLoad;
+
+  private List<SliceStats> sliceStats = List.of();
+
+  private QueryProfile profile;
+
+  /**
+   * Creates a search result page for the given raw Lucene hits.
+   *
+   * @param totalHits - total number of hits for this query
+   * @param docs - array of hits
+   * @param page - the 0-based number of the current page
+   * @param pageSize - the number of hits on a page
+   * @param hasNextPage - whether there are hits after the current page
+   * @param reader - index reader to load the stored fields of the hits from
+   * @param fieldsToLoad - fields to load, or null to load all of them
+   * @param partial - whether the search timed out before all hits were collected
+   * @param sliceStats - the statistics of the slices searched for the hits
+   * @param profile - the profile of the query, or null if it has not been profiled
+   * @return the search result page
+   */
+  static SearchResults of(
+      TotalHits totalHits,
+      ScoreDoc[] docs,
+      int page,
+      int pageSize,
+      boolean hasNextPage,
+      IndexReader reader,
+      Set<String> fieldsToLoad,
+      boolean partial,
+      List<SliceStats> sliceStats,
+      QueryProfile profile) {
+    SearchResults res = new SearchResults();
+
+    res.totalHits = Objects.requireNonNull(totalHits);
+    Objects.requireNonNull(docs);
+    res.reader = Objects.requireNonNull(reader);
+    res.fieldsToLoad = fieldsToLoad;
+
+    for (ScoreDoc sd : docs) {
+      res.hits.add(Doc.of(sd.doc, sd.score));
+    }
+    res.page = page;
+    res.offset = page * pageSize;
+    res.hasNextPage = hasNextPage;
+    res.partial = partial;
+    res.sliceStats = List.copyOf(sliceStats);
+    res.profile = profile;
+
+    return res;
+  }
+
+  /** Returns the total number of hits for this query, or a lower bound of it if the results are partial. */
+  public TotalHits getTotalHits() {
+    return totalHits;
+  }
+
+  /** Returns the offset of the current page. */
+  public int getOffset() {
+    return offset;
+  }
+
+  /** Returns the 0-based number of the current page. */
+  public int getPage() {
+    return page;
+  }
+
+  /** Returns true if there are hits after the current page. */
+  public boolean hasNextPage() {
+    return hasNextPage;
+  }
+
+  /** Returns the documents of the current page. */
+  public List<Doc> getHits() {
+    return Collections.unmodifiableList(hits);
+  }
+
+  /**
+   * Loads the stored field values of the hits in the given range of the current page.
+   * <p>
+   * The documents are read in doc id order, segment by segment, with a single stored fields reader per segment,
+   * instead of in the order of the hits.
+   *
+   * @param from - the index of the first hit, inclusive
+   * @param to - the index of the last hit, exclusive
+   * @return the field values of the hits, in the order of the hits
+   * @throws LukeException - if an internal error occurs when reading the stored fields
+   */
+  public List<Map<String, String[]>> loadFieldValues(int from, int to) {
+    Objects.checkFromToIndex(from, to, hits.size());
+    int[] byDocId =
+        IntStream.range(from, to)
+            .boxed()
+            .sorted(Comparator.comparingInt(i -> hits.get(i).getDocId()))
+            .mapToInt(Integer::intValue)
+            .toArray();
+
+    List<Map<String, String[]>> fieldValues = new ArrayList<>(Collections.nCopies(to - from, null));
+    List<LeafReaderContext> leaves = reader.leaves();
+    try {
+      LeafReaderContext leaf = null;
+      StoredFields storedFields = null;
+      for (int i : byDocId) {
+        int docId = hits.get(i).getDocId();
+        if (leaf == null || docId >= leaf.docBase + leaf.reader().maxDoc()) {
+          leaf = leaves.get(ReaderUtil.subIndex(docId, leaves));
+          storedFields = leaf.reader().storedFields();
+        }
+        Document luceneDoc =
+            fieldsToLoad == null
+                ? storedFields.document(docId - leaf.docBase)
+                : storedFields.document(docId - leaf.docBase, fieldsToLoad);
+        fieldValues.set(i - from, toFieldValues(luceneDoc));
+      }
+    } catch (IOException e) {
+      throw new LukeException("Failed to load the stored fields of the hits.", e);
+    }
+    return fieldValues;
+  }
+
+  private static Map<String, String[]> toFieldValues(Document luceneDoc) {
+    Map<String, String[]> fieldValues = new HashMap<>();
+    Set<String> fields = luceneDoc.getFields().stream().map(IndexableField::name).collect(Collectors.toSet());
+    for (String f : fields) {
+      fieldValues.put(f, luceneDoc.getValues(f));
+    }
+    return Map.copyOf(fieldValues);
+  }
+
+  /** Returns the size of the current page. */
+  public int size() {
+    return hits.size();
+  }
+
+  /** Returns true if the search timed out, and only the hits collected until then are included. */
+  public boolean isPartial() {
+    return partial;
+  }
+
+  /** Returns the statistics of the slices searched for the hits of the current page, in slice order. */
+  public List<SliceStats> getSliceStats() {
+    return sliceStats;
+  }
+
+  /** Returns the profile of the query collected for the hits of the current page, or empty if it is not profiled. */
+  public Optional<QueryProfile> getProfile() {
+    return Optional.ofNullable(profile);
+  }
+
+  private SearchResults() {
+  }
+
+  /** Holder for a hit. Its stored fields are loaded with {@link #loadFieldValues(int, int)}. */
+  public static class Doc {
+    private int docId;
+    private float score;
+
+    /**
+     * Creates a hit.
+     *
+     * @param docId - document id
+     * @param score - score of this document for the query
+     * @return the hit
+     */
+    static Doc of(int docId, float score) {
+      Doc doc = new Doc();
+      doc.docId = docId;
+      doc.score = score;
+      return doc;
+    }
+
+    /** Returns the document id. */
+    public int getDocId() {
+      return docId;
+    }
+
+    /** Returns the score of this document for the current query. */
+    public float getScore() {
+      return score;
+    }
+
+    private Doc() {
+    }
+  }
+}
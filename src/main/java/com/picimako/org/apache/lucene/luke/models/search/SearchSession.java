@@ -0,0 +1,491 @@
+//Copyright 2026 Tamás Balog. Use of this source code is governed by the Apache 2.0 license that can be found in the LICENSE file.
+package com.picimako.org.apache.lucene.luke.models.search;
+
+import com.picimako.org.apache.lucene.luke.models.util.CancellationToken;
+import com.picimako.org.apache.lucene.luke.models.util.ParallelTasks;
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.ExitableDirectoryReader;
+import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.index.LeafReaderContext;
+import org.apache.lucene.index.QueryTimeout;
+import org.apache.lucene.luke.models.LukeException;
+import org.apache.lucene.luke.models.search.SimilarityConfig;
+import org.apache.lucene.search.Collector;
+import org.apache.lucene.search.CollectorManager;
+import org.apache.lucene.search.Explanation;
+import org.apache.lucene.search.FieldDoc;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.ScoreMode;
+import org.apache.lucene.search.Sort;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.search.TopFieldCollectorManager;
+import org.apache.lucene.search.TopScoreDocCollectorManager;
+import org.apache.lucene.search.TotalHits;
+import org.apache.lucene.search.Weight;
+import org.apache.lucene.search.similarities.BM25Similarity;
+import org.apache.lucene.search.similarities.ClassicSimilarity;
+import org.apache.lucene.search.similarities.Similarity;
+import org.apache.lucene.util.ArrayUtil;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs searches and pages through their hits, like {@link org.apache.lucene.luke.models.search.Search} does,
+ * but with a time limit, and cancellable, so that it can be run in the background.
+ * <p>
+ * The pages are collected with search after: instead of the hits of the previous pages, only the last hit of each
+ * visited page is kept, as the cursor of the next page. Every page is collected with a top-N queue of the page size,
+ * no matter how deep it is, and going back to an earlier page costs the same as going forward. Jumping to a page
+ * beyond the known cursors collects the pages in between one by one from the furthest known cursor, and remembers
+ * their cursors, so the memory used is bounded by the page size, not by the number of the page.
+ * <p>
+ * The time limit and the cancellation are enforced by {@link IndexSearcher#setTimeout(QueryTimeout)} while the hits
+ * are collected, and by an {@link ExitableDirectoryReader} while the index is accessed otherwise, e.g. when the terms
+ * of a wildcard query are enumerated. When the search times out, the hits collected so far are returned,
+ * marked as partial.
+ * <p>
+ * The segments can also be searched concurrently, see {@link ConcurrencyConfig}. The time it takes to search each slice
+ * of the segments is reported with the hits.
+ * <p>
+ * A search can also be profiled, see {@link QueryProfile}. Profiling has an overhead on every operation of every
+ * clause, so the times of a profiled search are higher than those of a normal one.
+ * <p>
+ * Searches of the same session run one at a time.
+ */
+public final class SearchSession {
+
+  private static final int DEFAULT_TOTAL_HITS_THRESHOLD = 1000;
+
+  private final IndexReader reader;
+
+  private volatile Request request;
+
+  /** The cursors of the pages of the current search: the hit the page starts after, or null for the first page. */
+  private List<ScoreDoc> cursors = List.of();
+
+  private int currentPage = -1;
+
+  private boolean hasNextPage;
+
+  public SearchSession(IndexReader reader) {
+    this.reader = Objects.requireNonNull(reader);
+  }
+
+  /**
+   * Searches the given query, and returns the first page of the hits.
+   * <p>
+   * If the search fails or is cancelled, the session stays at the previous search.
+   *
+   * @param query - the query to search
+   * @param simConfig - the similarity configuration
+   * @param sort - the sort order of the hits, or null to sort them by relevance
+   * @param fieldsToLoad - the stored fields to load for the hits, or null to load all of them
+   * @param pageSize - the number of hits on a page, at least 1
+   * @param exactHitsCount - whether the total number of hits must be counted exactly
+   * @param concurrency - the configuration of searching the segments concurrently, or null to search them
+   *     sequentially
+   * @param profile - whether to profile the query
+   * @param timeoutMillis - the time limit of each search of the query in milliseconds, or 0 for no limit
+   * @param cancellation - the token to cancel the search with
+   * @throws LukeException - if an internal error occurs when searching the index
+   * @throws CancellationException - if the search is cancelled
+   */
+  public synchronized SearchResults search(
+      Query query,
+      SimilarityConfig simConfig,
+      Sort sort,
+      Set<String> fieldsToLoad,
+      int pageSize,
+      boolean exactHitsCount,
+      ConcurrencyConfig concurrency,
+      boolean profile,
+      long timeoutMillis,
+      CancellationToken cancellation) {
+    if (pageSize < 1) {
+      throw new LukeException(new IllegalArgumentException("Page size must be a positive integer."));
+    }
+    if (timeoutMillis < 0) {
+      throw new LukeException(new IllegalArgumentException("Negative integer is not acceptable for timeout."));
+    }
+
+    Request newRequest =
+        new Request(
+            Objects.requireNonNull(query),
+            createSimilarity(Objects.requireNonNull(simConfig)),
+            sort,
+            fieldsToLoad == null ? null : Set.copyOf(fieldsToLoad),
+            pageSize,
+            exactHitsCount,
+            concurrency,
+            profile,
+            timeoutMillis);
+    List<ScoreDoc> newCursors = new ArrayList<>();
+    newCursors.add(null);
+    return search(newRequest, newCursors, 0, cancellation);
+  }
+
+  /**
+   * Returns the next page of the current search.
+   *
+   * @param cancellation - the token to cancel the search with
+   * @return the next page, or empty if there are no more hits
+   * @throws LukeException - if no search has been run yet, or an internal error occurs when searching the index
+   * @throws CancellationException - if the search is cancelled
+   */
+  public synchronized Optional<SearchResults> nextPage(CancellationToken cancellation) {
+    checkStarted();
+    if (!hasNextPage) {
+      return Optional.empty();
+    }
+    return Optional.of(search(request, new ArrayList<>(cursors), currentPage + 1, cancellation));
+  }
+
+  /**
+   * Returns the previous page of the current search.
+   *
+   * @param cancellation - the token to cancel the search with
+   * @return the previous page, or empty if the current page is the first one
+   * @throws LukeException - if no search has been run yet, or an internal error occurs when searching the index
+   * @throws CancellationException - if the search is cancelled
+   */
+  public synchronized Optional<SearchResults> prevPage(CancellationToken cancellation) {
+    checkStarted();
+    if (currentPage == 0) {
+      return Optional.empty();
+    }
+    return Optional.of(search(request, new ArrayList<>(cursors), currentPage - 1, cancellation));
+  }
+
+  /**
+   * Returns the given page of the current search, or the last page, if there are fewer pages.
+   *
+   * @param page - the 0-based number of the page
+   * @param cancellation - the token to cancel the search with
+   * @throws LukeException - if no search has been run yet, or an internal error occurs when searching the index
+   * @throws CancellationException - if the search is cancelled
+   */
+  public synchronized SearchResults goToPage(int page, CancellationToken cancellation) {
+    checkStarted();
+    if (page < 0) {
+      throw new LukeException(new IllegalArgumentException("Negative integer is not acceptable for page number."));
+    }
+    return search(request, new ArrayList<>(cursors), page, cancellation);
+  }
+
+  private void checkStarted() {
+    if (currentPage < 0 || request == null) {
+      throw new LukeException(new IllegalStateException("Search session not started."));
+    }
+  }
+
+  /** Returns the query of the current search, or null if no search has been run yet. */
+  public Query getCurrentQuery() {
+    Request current = request;
+    return current == null ? null : current.query;
+  }
+
+  /**
+   * Explains how the given document is scored by the given query, with the similarity of the current search.
+   *
+   * @throws LukeException - if an internal error occurs when accessing the index
+   */
+  public Explanation explain(Query query, int docid) {
+    Request current = request;
+    try {
+      IndexSearcher searcher = new IndexSearcher(reader);
+      if (current != null) {
+        searcher.setSimilarity(current.similarity);
+      }
+      return searcher.explain(query, docid);
+    } catch (IOException e) {
+      throw new LukeException(
+          String.format(
+              Locale.ENGLISH, "Failed to create explanation for doc: %d for query: \"%s\"", docid, query.toString()),
+          e);
+    }
+  }
+
+  /**
+   * Collects the hits of the given page, or of the last page, if there are fewer pages, and makes it the current page.
+   * <p>
+   * If the cursor of the page is not known yet, the pages are collected one by one from the furthest known cursor
+   * before it, and their cursors are remembered. The time limit applies to all of them together, and if it is
+   * reached, the page reached until then becomes the current page. The slice statistics and the profile are those
+   * of collecting the returned page.
+   *
+   * @param cursors - the cursors known so far, the first one being null, for the first page. It is updated with
+   *     the cursors learnt from the hits, and becomes the cursors of the session, if the search succeeds.
+   */
+  private SearchResults search(
+      Request request, List<ScoreDoc> cursors, int page, CancellationToken cancellation) {
+    // one more than the hits of a page, to tell whether there is a next page
+    int numHits = (int) Math.min(request.pageSize + 1L, Math.max(1, reader.maxDoc()));
+
+    SearchTimeout timeout = new SearchTimeout(request.timeoutMillis, cancellation);
+    ExecutorService executor =
+        request.concurrency == null
+            ? null
+            : ParallelTasks.newExecutor(request.concurrency.getNumThreads(), "search-slice");
+    try {
+      int current = Math.min(page, cursors.size() - 1);
+      while (true) {
+        cancellation.throwIfCancelled("Search has been cancelled.");
+        InstrumentedSearcher searcher = newSearcher(request, timeout, executor);
+        Collect collect = collect(searcher, request, cursors.get(current), numHits);
+        cancellation.throwIfCancelled("Search has been cancelled.");
+
+        ScoreDoc[] hits = collect.topDocs.scoreDocs;
+        boolean newHasNextPage = hits.length > request.pageSize;
+        if (!collect.partial) {
+          if (newHasNextPage && cursors.size() == current + 1) {
+            // the cursor of a page is the last hit of the previous page. Since it is only added when that page has
+            // more hits than the page size, and the reader doesn't change, the pages after the first one are never empty.
+            cursors.add(hits[request.pageSize - 1]);
+          }
+          if (newHasNextPage && current < page) {
+            current++;
+            continue;
+          }
+        }
+
+        TotalHits totalHits = collect.topDocs.totalHits;
+        TotalHits newTotalHits =
+            collect.partial ? new TotalHits(totalHits.value, TotalHits.Relation.GREATER_THAN_OR_EQUAL_TO) : totalHits;
+        SearchResults results =
+            SearchResults.of(
+                newTotalHits,
+                ArrayUtil.copyOfSubArray(hits, 0, Math.min(hits.length, request.pageSize)),
+                current,
+                request.pageSize,
+                newHasNextPage,
+                reader,
+                request.fieldsToLoad,
+                collect.partial,
+                searcher.getSliceStats(),
+                searcher.getProfile());
+
+        this.request = request;
+        this.cursors = cursors;
+        this.currentPage = current;
+        this.hasNextPage = newHasNextPage;
+        return results;
+      }
+    } catch (IOException e) {
+      throw new LukeException("Search Failed.", e);
+    } finally {
+      if (executor != null) {
+        executor.shutdown();
+      }
+    }
+  }
+
+  /** Collects the given number of top hits of the request after the given cursor. */
+  private static Collect collect(InstrumentedSearcher searcher, Request request, ScoreDoc after, int numHits)
+      throws IOException {
+    int totalHitsThreshold = request.exactHitsCount ? Integer.MAX_VALUE : DEFAULT_TOTAL_HITS_THRESHOLD;
+    boolean supportsConcurrency = searcher.getSlices().length > 1;
+    return request.sort != null
+        ? collect(
+            searcher,
+            request.query,
+            new TopFieldCollectorManager(
+                request.sort.rewrite(searcher), numHits, (FieldDoc) after, totalHitsThreshold, supportsConcurrency))
+        : collect(
+            searcher,
+            request.query,
+            new TopScoreDocCollectorManager(numHits, after, totalHitsThreshold, supportsConcurrency));
+  }
+
+  private InstrumentedSearcher newSearcher(Request request, SearchTimeout timeout, ExecutorService executor)
+      throws IOException {
+    // the searcher is not reused, because it remembers whether any of its searches has timed out
+    InstrumentedSearcher searcher =
+        new InstrumentedSearcher(
+            reader instanceof DirectoryReader directoryReader
+                ? new ExitableDirectoryReader(directoryReader, timeout)
+                : reader,
+            executor,
+            request.concurrency,
+            request.profile);
+    searcher.setSimilarity(request.similarity);
+    searcher.setTimeout(timeout);
+    return searcher;
+  }
+
+  /**
+   * Collects the hits of the query. If the search times out, the hits collected until then are returned.
+   */
+  private static <C extends Collector> Collect collect(
+      IndexSearcher searcher, Query query, CollectorManager<C, ? extends TopDocs> collectorManager)
+      throws IOException {
+    List<C> collectors = new ArrayList<>();
+    CollectorManager<C, TopDocs> recordingManager =
+        new CollectorManager<>() {
+          @Override
+          public C newCollector() throws IOException {
+            C collector = collectorManager.newCollector();
+            synchronized (collectors) {
+              collectors.add(collector);
+            }
+            return collector;
+          }
+
+          @Override
+          public TopDocs reduce(Collection<C> collectors) throws IOException {
+            return collectorManager.reduce(collectors);
+          }
+        };
+
+    try {
+      TopDocs topDocs = searcher.search(query, recordingManager);
+      return new Collect(topDocs, searcher.timedOut());
+    } catch (ExitableDirectoryReader.ExitingReaderException e) {
+      // the reader has stopped the search, before or while the hits were collected
+      synchronized (collectors) {
+        return new Collect(collectorManager.reduce(collectors), true);
+      }
+    }
+  }
+
+  private static Similarity createSimilarity(SimilarityConfig config) {
+    if (config.isUseClassicSimilarity()) {
+      ClassicSimilarity similarity = new ClassicSimilarity();
+      similarity.setDiscountOverlaps(config.isDiscountOverlaps());
+      return similarity;
+    }
+    return new BM25Similarity(config.getK1(), config.getB(), config.isDiscountOverlaps());
+  }
+
+  private record Request(
+      Query query,
+      Similarity similarity,
+      Sort sort,
+      Set<String> fieldsToLoad,
+      int pageSize,
+      boolean exactHitsCount,
+      ConcurrencyConfig concurrency,
+      boolean profile,
+      long timeoutMillis) {
+  }
+
+  private record Collect(TopDocs topDocs, boolean partial) {
+  }
+
+  /**
+   * Slices the segments with the limits of the concurrency configuration, if there is one, and records how long
+   * it takes to search each slice. If requested, it also profiles the query.
+   */
+  private static final class InstrumentedSearcher extends IndexSearcher {
+
+    private final ConcurrencyConfig concurrency;
+
+    private final QueryProfiler profiler;
+
+    private final List<SliceStats> sliceStats = new ArrayList<>();
+
+    InstrumentedSearcher(IndexReader reader, Executor executor, ConcurrencyConfig concurrency, boolean profile) {
+      super(reader, executor);
+      this.concurrency = concurrency;
+      this.profiler = profile ? new QueryProfiler(getIndexReader().leaves()) : null;
+    }
+
+    @Override
+    public Query rewrite(Query original) throws IOException {
+      return profiler == null ? super.rewrite(original) : profiler.rewrite(() -> super.rewrite(original));
+    }
+
+    @Override
+    public Weight createWeight(Query query, ScoreMode scoreMode, float boost) throws IOException {
+      return profiler == null
+          ? super.createWeight(query, scoreMode, boost)
+          : profiler.createWeight(query, () -> super.createWeight(query, scoreMode, boost));
+    }
+
+    @Override
+    protected LeafSlice[] slices(List<LeafReaderContext> leaves) {
+      // called only if there is an executor, i.e. if there is a concurrency configuration
+      return slices(leaves, concurrency.getMaxDocsPerSlice(), concurrency.getMaxSegmentsPerSlice());
+    }
+
+    @Override
+    protected void search(List<LeafReaderContext> leaves, Weight weight, Collector collector) throws IOException {
+      long start = System.nanoTime();
+      try {
+        super.search(leaves, weight, collector);
+      } finally {
+        long elapsedNanos = System.nanoTime() - start;
+        long numDocs = 0;
+        for (LeafReaderContext leaf : leaves) {
+          numDocs += leaf.reader().maxDoc();
+        }
+        SliceStats stats =
+            new SliceStats(sliceIndex(leaves), leaves.size(), numDocs, elapsedNanos, Thread.currentThread().getName());
+        synchronized (sliceStats) {
+          sliceStats.add(stats);
+        }
+      }
+    }
+
+    private int sliceIndex(List<LeafReaderContext> leaves) {
+      LeafSlice[] slices = getSlices();
+      for (int i = 0; i < slices.length; i++) {
+        if (!leaves.isEmpty() && slices[i].leaves.length > 0 && slices[i].leaves[0] == leaves.get(0)) {
+          return i;
+        }
+      }
+      return 0;
+    }
+
+    /** Returns the profile of the query, or null if it is not profiled. */
+    QueryProfile getProfile() {
+      return profiler == null ? null : profiler.toProfile();
+    }
+
+    List<SliceStats> getSliceStats() {
+      synchronized (sliceStats) {
+        List<SliceStats> stats = new ArrayList<>(sliceStats);
+        stats.sort(Comparator.comparingInt(SliceStats::getSlice));
+        return stats;
+      }
+    }
+  }
+
+  /** Stops the search when its time limit is reached, or when it is cancelled. */
+  private static final class SearchTimeout implements QueryTimeout {
+
+    private final long startNanos = System.nanoTime();
+
+    private final long timeoutNanos;
+
+    private final CancellationToken cancellation;
+
+    SearchTimeout(long timeoutMillis, CancellationToken cancellation) {
+      this.timeoutNanos = TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+      this.cancellation = Objects.requireNonNull(cancellation);
+    }
+
+    @Override
+    public boolean shouldExit() {
+      return cancellation.isCancelled() || (timeoutNanos > 0 && System.nanoTime() - startNanos > timeoutNanos);
+    }
+
+    @Override
+    public String toString() {
+      return "SearchTimeout{timeoutNanos=" + timeoutNanos + ", cancelled=" + cancellation.isCancelled() + '}';
+    }
+  }
+}
@@ -0,0 +1,57 @@
+//Copyright 2026 Tamás Balog. Use of this source code is governed by the Apache 2.0 license that can be found in the LICENSE file.
+package com.picimako.org.apache.lucene.luke.models.search;
+
+/**
+ * The statistics of searching a slice, i.e. a group of segments that is searched on a single thread.
+ */
+public final class SliceStats {
+
+  private final int slice;
+
+  private final int numSegments;
+
+  private final long numDocs;
+
+  private final long elapsedNanos;
+
+  private final String thread;
+
+  SliceStats(int slice, int numSegments, long numDocs, long elapsedNanos, String thread) {
+    this.slice = slice;
+    this.numSegments = numSegments;
+    this.numDocs = numDocs;
+    this.elapsedNanos = elapsedNanos;
+    this.thread = thread;
+  }
+
+  /** Returns the index of the slice, in the order the searcher has sliced the segments. */
+  public int getSlice() {
+    return slice;
+  }
+
+  /** Returns the number of segments in the slice. */
+  public int getNumSegments() {
+    return numSegments;
+  }
+
+  /** Returns the number of documents in the segments of the slice, including the deleted ones. */
+  public long getNumDocs() {
+    return numDocs;
+  }
+
+  /** Returns the time it took to collect the hits of the slice, in nanoseconds. */
+  public long getElapsedNanos() {
+    return elapsedNanos;
+  }
+
+  /** Returns the name of the thread the slice has been searched on. */
+  public String getThread() {
+    return thread;
+  }
+
+  @Override
+  public String toString() {
+    return "SliceStats{slice=" + slice + ", numSegments=" + numSegments + ", numDocs=" + numDocs
+        + ", elapsedNanos=" + elapsedNanos + ", thread='" + thread + "'}";
+  }
+}
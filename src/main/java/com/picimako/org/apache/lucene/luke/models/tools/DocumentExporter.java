@@ -0,0 +1,544 @@
+//Copyright 2026 Tamás Balog. Use of this source code is governed by the Apache 2.0 license that can be found in the LICENSE file.
+package com.picimako.org.apache.lucene.luke.models.tools;
+
+import com.picimako.org.apache.lucene.luke.models.util.CancellationToken;
+import org.apache.lucene.document.DocumentStoredFieldVisitor;
+import org.apache.lucene.index.BinaryDocValues;
+import org.apache.lucene.index.DocValuesType;
+import org.apache.lucene.index.FieldInfo;
+import org.apache.lucene.index.FieldInfos;
+import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.index.IndexableField;
+import org.apache.lucene.index.LeafReader;
+import org.apache.lucene.index.LeafReaderContext;
+import org.apache.lucene.index.NumericDocValues;
+import org.apache.lucene.index.SortedDocValues;
+import org.apache.lucene.index.SortedNumericDocValues;
+import org.apache.lucene.index.SortedSetDocValues;
+import org.apache.lucene.index.StoredFields;
+import org.apache.lucene.luke.models.LukeException;
+import org.apache.lucene.luke.util.BytesRefUtils;
+import org.apache.lucene.search.DocIdSetIterator;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreMode;
+import org.apache.lucene.search.Scorer;
+import org.apache.lucene.search.Weight;
+import org.apache.lucene.util.Bits;
+import org.apache.lucene.util.BytesRef;
+import org.apache.lucene.util.NamedThreadFactory;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongConsumer;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Exports the stored fields and doc values of documents to a JSONL or CSV file, optionally gzip compressed.
+ * <p>
+ * The segments are read in parallel, on a pool bounded by the number of available processors. Each segment's
+ * documents are encoded into chunks of about {@link #CHUNK_SIZE} characters, which are handed over to the writing
+ * thread via a bounded queue per segment. The chunks are written segment by segment, so the documents are exported
+ * in the order of their ids, and a segment's reader blocks while its queue is full, so the memory used doesn't depend
+ * on the number of exported documents.
+ * <p>
+ * Each field is exported with its stored values, or with its doc values, if the document has no stored value for it.
+ * Binary values are Base64 encoded, sorted and sorted set doc values are decoded as UTF-8 strings.
+ */
+public final class DocumentExporter {
+
+  /** The column of the document ids. */
+  public static final String DOC_ID_COLUMN = "_docid";
+
+  /** The approximate number of characters handed over to the writing thread at once. */
+  private static final int CHUNK_SIZE = 1 << 16;
+
+  /** The number of chunks that may be waiting to be written per segment. */
+  private static final int QUEUE_CAPACITY = 4;
+
+  /** The number of documents exported between two checks for cancellation. Must be a power of 2. */
+  private static final int CANCELLATION_CHECK_INTERVAL = 1 << 10;
+
+  private static final long POLL_TIMEOUT_MILLIS = 100;
+
+  /** The chunk that marks the end of a segment's documents. */
+  private static final Chunk END = new Chunk(new byte[0], 0);
+
+  /** The file formats documents can be exported to. */
+  public enum Format {
+    /** One JSON object per line. Multi-valued fields are exported as arrays. */
+    JSONL("jsonl") {
+      @Override
+      void appendHeader(StringBuilder sb, List<String> fields) {
+      }
+
+      @Override
+      void appendRecord(StringBuilder sb, int docId, List<String> fields, Map<String, List<Object>> values) {
+        sb.append("{\"").append(DOC_ID_COLUMN).append("\":").append(docId);
+        for (var field : values.entrySet()) {
+          sb.append(',');
+          appendJsonString(sb, field.getKey());
+          sb.append(':');
+          List<Object> fieldValues = field.getValue();
+          if (fieldValues.size() == 1) {
+            appendJsonValue(sb, fieldValues.get(0));
+          } else {
+            sb.append('[');
+            for (int i = 0; i < fieldValues.size(); i++) {
+              if (i > 0) {
+                sb.append(',');
+              }
+              appendJsonValue(sb, fieldValues.get(i));
+            }
+            sb.append(']');
+          }
+        }
+        sb.append("}\n");
+      }
+    },
+    /** Comma-separated values with a header row, quoted as in RFC 4180. Multiple values are joined with '|'. */
+    CSV("csv") {
+      @Override
+      void appendHeader(StringBuilder sb, List<String> fields) {
+        sb.append(DOC_ID_COLUMN);
+        for (String field : fields) {
+          sb.append(',');
+          appendCsvValue(sb, field);
+        }
+        sb.append('\n');
+      }
+
+      @Override
+      void appendRecord(StringBuilder sb, int docId, List<String> fields, Map<String, List<Object>> values) {
+        sb.append(docId);
+        for (String field : fields) {
+          sb.append(',');
+          List<Object> fieldValues = values.get(field);
+          if (fieldValues != null) {
+            StringBuilder joined = new StringBuilder();
+            for (int i = 0; i < fieldValues.size(); i++) {
+              if (i > 0) {
+                joined.append('|');
+              }
+              joined.append(fieldValues.get(i));
+            }
+            appendCsvValue(sb, joined.toString());
+          }
+        }
+        sb.append('\n');
+      }
+    };
+
+    private final String extension;
+
+    Format(String extension) {
+      this.extension = extension;
+    }
+
+    /** Returns the file extension of the format, without the dot. */
+    public String getExtension() {
+      return extension;
+    }
+
+    abstract void appendHeader(StringBuilder sb, List<String> fields);
+
+    /**
+     * @param values - the values of the fields the document has, in the order of the fields
+     */
+    abstract void appendRecord(StringBuilder sb, int docId, List<String> fields, Map<String, List<Object>> values);
+  }
+
+  private final IndexReader reader;
+
+  /** The names of all fields, in alphabetical order. */
+  private final List<String> fields;
+
+  /** The fields that have doc values. */
+  private final List<FieldInfo> docValuesFields;
+
+  /**
+   * @param reader - the index reader
+   */
+  public DocumentExporter(IndexReader reader) {
+    this.reader = Objects.requireNonNull(reader);
+    List<String> fieldNames = new ArrayList<>();
+    List<FieldInfo> dvFields = new ArrayList<>();
+    for (FieldInfo fieldInfo : FieldInfos.getMergedFieldInfos(reader)) {
+      fieldNames.add(fieldInfo.name);
+      if (fieldInfo.getDocValuesType() != DocValuesType.NONE) {
+        dvFields.add(fieldInfo);
+      }
+    }
+    fieldNames.sort(null);
+    this.fields = List.copyOf(fieldNames);
+    this.docValuesFields = List.copyOf(dvFields);
+  }
+
+  /**
+   * Exports the live documents whose ids are in the given range.
+   *
+   * @param file - the file to export to, which is overwritten if it exists
+   * @param format - the format of the file
+   * @param gzip - whether the file is gzip compressed
+   * @param fromDoc - the first document id of the range, inclusive
+   * @param toDoc - the last document id of the range, exclusive
+   * @param cancellation - the token to cancel the export with
+   * @param progress - receives the number of documents exported so far, periodically during the export
+   * @return the number of exported documents
+   * @throws LukeException - if an error occurs when reading the index or writing the file
+   * @throws CancellationException - if the export is cancelled, in which case the file is deleted
+   */
+  public long exportRange(Path file, Format format, boolean gzip, int fromDoc, int toDoc,
+                          CancellationToken cancellation, LongConsumer progress) {
+    return export(
+        file,
+        format,
+        gzip,
+        leaf -> {
+          int from = Math.max(fromDoc - leaf.docBase, 0);
+          int to = Math.min(toDoc - leaf.docBase, leaf.reader().maxDoc());
+          return from < to ? DocIdSetIterator.range(from, to) : null;
+        },
+        cancellation,
+        progress);
+  }
+
+  /**
+   * Exports the live documents matching the given query.
+   *
+   * @param file - the file to export to, which is overwritten if it exists
+   * @param format - the format of the file
+   * @param gzip - whether the file is gzip compressed
+   * @param query - the query the documents must match
+   * @param cancellation - the token to cancel the export with
+   * @param progress - receives the number of documents exported so far, periodically during the export
+   * @return the number of exported documents
+   * @throws LukeException - if an error occurs when reading the index or writing the file
+   * @throws CancellationException - if the export is cancelled, in which case the file is deleted
+   */
+  public long exportHits(Path file, Format format, boolean gzip, Query query,
+                         CancellationToken cancellation, LongConsumer progress) {
+    Weight weight;
+    try {
+      IndexSearcher searcher = new IndexSearcher(reader);
+      weight = searcher.createWeight(searcher.rewrite(query), ScoreMode.COMPLETE_NO_SCORES, 1f);
+    } catch (IOException e) {
+      throw new LukeException(String.format(Locale.ENGLISH, "Failed to search query: %s", query), e);
+    }
+    return export(
+        file,
+        format,
+        gzip,
+        leaf -> {
+          Scorer scorer = weight.scorer(leaf);
+          return scorer != null ? scorer.iterator() : null;
+        },
+        cancellation,
+        progress);
+  }
+
+  private long export(Path file, Format format, boolean gzip, DocSelection selection,
+                      CancellationToken cancellation, LongConsumer progress) {
+    List<LeafReaderContext> leaves = reader.leaves();
+    // stops the segment readers when the writing fails, or when it is cancelled
+    CancellationToken stop = new CancellationToken();
+    List<BlockingQueue<Chunk>> queues = new ArrayList<>(leaves.size());
+    List<Future<?>> futures = new ArrayList<>(leaves.size());
+    ExecutorService executor =
+        Executors.newFixedThreadPool(
+            Math.max(1, Math.min(leaves.size(), Runtime.getRuntime().availableProcessors())),
+            new NamedThreadFactory("document-export"));
+    boolean exported = false;
+    try {
+      long count;
+      try (OutputStream out = open(file, gzip)) {
+        StringBuilder header = new StringBuilder();
+        format.appendHeader(header, fields);
+        out.write(header.toString().getBytes(StandardCharsets.UTF_8));
+
+        for (LeafReaderContext leaf : leaves) {
+          BlockingQueue<Chunk> queue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+          queues.add(queue);
+          futures.add(executor.submit(() -> exportLeaf(leaf, selection, format, queue, stop)));
+        }
+
+        count = 0;
+        for (int i = 0; i < leaves.size(); i++) {
+          BlockingQueue<Chunk> queue = queues.get(i);
+          for (Chunk chunk = take(queue, cancellation); chunk != END; chunk = take(queue, cancellation)) {
+            out.write(chunk.bytes());
+            count += chunk.numDocs();
+            progress.accept(count);
+          }
+          // rethrows the failure of the segment's reader
+          futures.get(i).get();
+        }
+      }
+      exported = true;
+      progress.accept(count);
+      return count;
+    } catch (IOException e) {
+      throw new LukeException(String.format(Locale.ENGLISH, "Failed to export documents to: %s", file), e);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new CancellationException("Exporting documents has been cancelled.");
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof LukeException cause) {
+        throw cause;
+      }
+      throw new LukeException(
+          String.format(Locale.ENGLISH, "Failed to export documents to: %s", file), e.getCause());
+    } finally {
+      // the readers are not interrupted, they stop when the token is cancelled
+      stop.cancel();
+      futures.forEach(future -> future.cancel(false));
+      executor.shutdown();
+      if (!exported) {
+        try {
+          Files.deleteIfExists(file);
+        } catch (IOException e) {
+          // the export has already failed
+        }
+      }
+    }
+  }
+
+  private static OutputStream open(Path file, boolean gzip) throws IOException {
+    OutputStream out =
+        Channels.newOutputStream(
+            FileChannel.open(
+                file, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE));
+    return gzip ? new GZIPOutputStream(out, CHUNK_SIZE) : out;
+  }
+
+  private static Chunk take(BlockingQueue<Chunk> queue, CancellationToken cancellation) throws InterruptedException {
+    Chunk chunk;
+    do {
+      cancellation.throwIfCancelled("Exporting documents has been cancelled.");
+      chunk = queue.poll(POLL_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+    } while (chunk == null);
+    return chunk;
+  }
+
+  private static void put(BlockingQueue<Chunk> queue, Chunk chunk, CancellationToken stop)
+      throws InterruptedException {
+    while (!queue.offer(chunk, POLL_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)) {
+      stop.throwIfCancelled("Exporting documents has been stopped.");
+    }
+  }
+
+  /** Encodes the selected live documents of the given segment, and hands them over to the writing thread. */
+  private Void exportLeaf(LeafReaderContext leaf, DocSelection selection, Format format,
+                          BlockingQueue<Chunk> queue, CancellationToken stop) throws IOException, InterruptedException {
+    try {
+      DocIdSetIterator docs = selection.docs(leaf);
+      if (docs == null) {
+        return null;
+      }
+      LeafReader leafReader = leaf.reader();
+      Bits liveDocs = leafReader.getLiveDocs();
+      StoredFields storedFields = leafReader.storedFields();
+      List<LeafDocValues> docValues = new ArrayList<>(docValuesFields.size());
+      for (FieldInfo fieldInfo : docValuesFields) {
+        docValues.add(new LeafDocValues(leafReader, fieldInfo));
+      }
+
+      StringBuilder sb = new StringBuilder(CHUNK_SIZE + CHUNK_SIZE / 4);
+      int numDocs = 0;
+      int chunkDocs = 0;
+      for (int doc = docs.nextDoc(); doc != DocIdSetIterator.NO_MORE_DOCS; doc = docs.nextDoc()) {
+        if (liveDocs != null && !liveDocs.get(doc)) {
+          continue;
+        }
+        if ((numDocs++ & (CANCELLATION_CHECK_INTERVAL - 1)) == 0) {
+          stop.throwIfCancelled("Exporting documents has been stopped.");
+        }
+        format.appendRecord(sb, leaf.docBase + doc, fields, valuesOf(doc, storedFields, docValues));
+        chunkDocs++;
+        if (sb.length() >= CHUNK_SIZE) {
+          put(queue, new Chunk(sb.toString().getBytes(StandardCharsets.UTF_8), chunkDocs), stop);
+          sb.setLength(0);
+          chunkDocs = 0;
+        }
+      }
+      if (chunkDocs > 0) {
+        put(queue, new Chunk(sb.toString().getBytes(StandardCharsets.UTF_8), chunkDocs), stop);
+      }
+      return null;
+    } finally {
+      put(queue, END, stop);
+    }
+  }
+
+  /** Returns the values of the fields the document has, in alphabetical order. */
+  private Map<String, List<Object>> valuesOf(int doc, StoredFields storedFields, List<LeafDocValues> docValues)
+      throws IOException {
+    DocumentStoredFieldVisitor visitor = new DocumentStoredFieldVisitor();
+    storedFields.document(doc, visitor);
+    Map<String, List<Object>> stored = new LinkedHashMap<>();
+    for (IndexableField field : visitor.getDocument()) {
+      stored.computeIfAbsent(field.name(), name -> new ArrayList<>()).add(storedValueOf(field));
+    }
+    for (LeafDocValues dv : docValues) {
+      if (!stored.containsKey(dv.field)) {
+        List<Object> values = dv.valuesOf(doc);
+        if (!values.isEmpty()) {
+          stored.put(dv.field, values);
+        }
+      }
+    }
+
+    Map<String, List<Object>> values = new LinkedHashMap<>();
+    for (String field : fields) {
+      List<Object> fieldValues = stored.get(field);
+      if (fieldValues != null) {
+        values.put(field, fieldValues);
+      }
+    }
+    return values;
+  }
+
+  private static Object storedValueOf(IndexableField field) {
+    if (field.numericValue() != null) {
+      return field.numericValue();
+    }
+    if (field.binaryValue() != null) {
+      return base64(field.binaryValue());
+    }
+    return field.stringValue();
+  }
+
+  private static String base64(BytesRef bytes) {
+    return Base64.getEncoder().encodeToString(BytesRef.deepCopyOf(bytes).bytes);
+  }
+
+  private static void appendJsonValue(StringBuilder sb, Object value) {
+    if (value instanceof Number number && Double.isFinite(number.doubleValue())) {
+      sb.append(number);
+    } else {
+      appendJsonString(sb, String.valueOf(value));
+    }
+  }
+
+  private static void appendJsonString(StringBuilder sb, String value) {
+    sb.append('"');
+    for (int i = 0; i < value.length(); i++) {
+      char c = value.charAt(i);
+      switch (c) {
+        case '"' -> sb.append("\\\"");
+        case '\\' -> sb.append("\\\\");
+        case '\n' -> sb.append("\\n");
+        case '\r' -> sb.append("\\r");
+        case '\t' -> sb.append("\\t");
+        default -> {
+          if (c < 0x20) {
+            sb.append(String.format(Locale.ENGLISH, "\\u%04x", (int) c));
+          } else {
+            sb.append(c);
+          }
+        }
+      }
+    }
+    sb.append('"');
+  }
+
+  private static void appendCsvValue(StringBuilder sb, String value) {
+    if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+      sb.append(value);
+    } else {
+      sb.append('"').append(value.replace("\"", "\"\"")).append('"');
+    }
+  }
+
+  /** Selects the documents to export from a segment. */
+  @FunctionalInterface
+  private interface DocSelection {
+    /** Returns the selected documents of the segment, or null if there are none. */
+    DocIdSetIterator docs(LeafReaderContext leaf) throws IOException;
+  }
+
+  /**
+   * A chunk of encoded documents.
+   *
+   * @param bytes - the UTF-8 encoded documents
+   * @param numDocs - the number of documents in the chunk
+   */
+  private record Chunk(byte[] bytes, int numDocs) {
+  }
+
+  /** The doc values of a field in a segment, read in the order of document ids. */
+  private static final class LeafDocValues {
+
+    private final String field;
+
+    private final DocValuesType type;
+
+    private final DocIdSetIterator iterator;
+
+    LeafDocValues(LeafReader leafReader, FieldInfo fieldInfo) throws IOException {
+      this.field = fieldInfo.name;
+      this.type = fieldInfo.getDocValuesType();
+      this.iterator =
+          switch (type) {
+            case NUMERIC -> leafReader.getNumericDocValues(field);
+            case BINARY -> leafReader.getBinaryDocValues(field);
+            case SORTED -> leafReader.getSortedDocValues(field);
+            case SORTED_NUMERIC -> leafReader.getSortedNumericDocValues(field);
+            case SORTED_SET -> leafReader.getSortedSetDocValues(field);
+            case NONE -> null;
+          };
+    }
+
+    /** Returns the values of the given document, which must be greater than the previously requested one. */
+    List<Object> valuesOf(int doc) throws IOException {
+      if (iterator == null || iterator.docID() > doc || (iterator.docID() < doc && iterator.advance(doc) != doc)) {
+        return List.of();
+      }
+      List<Object> values = new ArrayList<>();
+      switch (type) {
+        case NUMERIC -> values.add(((NumericDocValues) iterator).longValue());
+        case BINARY -> values.add(base64(((BinaryDocValues) iterator).binaryValue()));
+        case SORTED -> {
+          SortedDocValues dv = (SortedDocValues) iterator;
+          values.add(BytesRefUtils.decode(dv.lookupOrd(dv.ordValue())));
+        }
+        case SORTED_NUMERIC -> {
+          SortedNumericDocValues dv = (SortedNumericDocValues) iterator;
+          for (int i = 0; i < dv.docValueCount(); i++) {
+            values.add(dv.nextValue());
+          }
+        }
+        case SORTED_SET -> {
+          SortedSetDocValues dv = (SortedSetDocValues) iterator;
+          for (int i = 0; i < dv.docValueCount(); i++) {
+            values.add(BytesRefUtils.decode(dv.lookupOrd(dv.nextOrd())));
+          }
+        }
+        default -> {
+        }
+      }
+      return values;
+    }
+  }
+}
@@ -0,0 +1,58 @@
+//Copyright 2026 Tamás Balog. Use of this source code is governed by the Apache 2.0 license that can be found in the LICENSE file.
+package com.picimako.org.apache.lucene.luke.models.util;
+
+import java.util.Objects;
+import java.util.concurrent.CancellationException;
+
+/**
+ * Signals to a long-running model operation that it should stop.
+ * <p>
+ * Operations are cancelled cooperatively via this token instead of interrupting their threads, because interrupting
+ * a thread while it reads from an {@link org.apache.lucene.store.NIOFSDirectory} closes the underlying file channel,
+ * which would break the reader, and any later reader sharing its segments, e.g. after an incremental reopen.
+ */
+public final class CancellationToken {
+
+  /** A token that is never cancelled. */
+  public static final CancellationToken NONE = new CancellationToken();
+
+  private final CancellationToken parent;
+
+  private volatile boolean cancelled;
+
+  public CancellationToken() {
+    this.parent = null;
+  }
+
+  /**
+   * Creates a token that is also cancelled when the given parent token is, but can be cancelled on its own as well,
+   * without affecting the parent.
+   *
+   * @param parent - the token whose cancellation this token follows
+   */
+  public CancellationToken(CancellationToken parent) {
+    this.parent = Objects.requireNonNull(parent);
+  }
+
+  /**
+   * Requests the operation to stop. Has no effect on {@link #NONE}.
+   */
+  public void cancel() {
+    if (this != NONE) {
+      cancelled = true;
+    }
+  }
+
+  public boolean isCancelled() {
+    return cancelled || (parent != null && parent.isCancelled());
+  }
+
+  /**
+   * @throws CancellationException with the given message, if cancellation has been requested
+   */
+  public void throwIfCancelled(String message) {
+    if (isCancelled()) {
+      throw new CancellationException(message);
+    }
+  }
+}
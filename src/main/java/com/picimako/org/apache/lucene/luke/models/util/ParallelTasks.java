@@ -0,0 +1,177 @@
+//Copyright 2026 Tamás Balog. Use of this source code is governed by the Apache 2.0 license that can be found in the LICENSE file.
+package com.picimako.org.apache.lucene.luke.models.util;
+
+import org.apache.lucene.util.NamedThreadFactory;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntConsumer;
+
+/**
+ * Runs a task for each item of a list, e.g. for each segment of an index, in parallel, and waits for all of them.
+ * <p>
+ * The tasks receive a {@link CancellationToken} that is cancelled when the caller's token is, or as soon as one of the
+ * tasks fails, so that the others can stop early. The tasks are never interrupted, see {@link CancellationToken} for
+ * why, so the methods only return, or throw, once all tasks have stopped, and the caller may close the index the tasks
+ * read right after.
+ * <p>
+ * Unless an executor is given, the tasks run on a pool shared by all callers, bounded by the number of available
+ * processors, whose threads exit when idle.
+ */
+public final class ParallelTasks {
+
+  /** The number of seconds an idle thread is kept alive in the pools created by this class. */
+  private static final long KEEP_ALIVE_SECONDS = 30;
+
+  private static final ExecutorService SHARED_EXECUTOR =
+      newExecutor(Runtime.getRuntime().availableProcessors(), "luke-parallel-tasks");
+
+  /**
+   * Creates a pool with the given max number of threads, whose threads exit when idle. The caller is responsible
+   * for shutting it down.
+   *
+   * @param numThreads - the max number of threads
+   * @param threadName - the name of the threads of the pool
+   */
+  public static ExecutorService newExecutor(int numThreads, String threadName) {
+    ThreadPoolExecutor executor = new ThreadPoolExecutor(numThreads, numThreads, KEEP_ALIVE_SECONDS, TimeUnit.SECONDS,
+        new LinkedBlockingQueue<>(), new NamedThreadFactory(threadName));
+    executor.allowCoreThreadTimeOut(true);
+    return executor;
+  }
+
+  /**
+   * Runs the task for each item on the shared pool.
+   *
+   * @param items - the items to run the task for
+   * @param cancellation - the token to cancel the tasks with
+   * @param task - the task to run for each item
+   * @return the results of the task, in the order of the items
+   * @throws IOException - if a task fails with an {@link IOException}
+   * @throws CancellationException - if the tasks are cancelled, or the calling thread is interrupted
+   */
+  public static <T, R> List<R> run(List<T> items, CancellationToken cancellation, Task<T, R> task) throws IOException {
+    return run(SHARED_EXECUTOR, items, cancellation, task, numDone -> {});
+  }
+
+  /**
+   * Runs the task for each item on the shared pool.
+   *
+   * @param items - the items to run the task for
+   * @param cancellation - the token to cancel the tasks with
+   * @param task - the task to run for each item
+   * @param progress - receives the number of tasks finished so far, each time a task finishes
+   * @return the results of the task, in the order of the items
+   * @throws IOException - if a task fails with an {@link IOException}
+   * @throws CancellationException - if the tasks are cancelled, or the calling thread is interrupted
+   */
+  public static <T, R> List<R> run(List<T> items, CancellationToken cancellation, Task<T, R> task,
+                                   IntConsumer progress) throws IOException {
+    return run(SHARED_EXECUTOR, items, cancellation, task, progress);
+  }
+
+  /**
+   * Runs the task for each item on the given executor.
+   *
+   * @param executor - the executor to run the tasks on
+   * @param items - the items to run the task for
+   * @param cancellation - the token to cancel the tasks with
+   * @param task - the task to run for each item
+   * @param progress - receives the number of tasks finished so far, each time a task finishes
+   * @return the results of the task, in the order of the items
+   * @throws IOException - if a task fails with an {@link IOException}
+   * @throws CancellationException - if the tasks are cancelled, or the calling thread is interrupted
+   */
+  public static <T, R> List<R> run(ExecutorService executor, List<T> items, CancellationToken cancellation,
+                                   Task<T, R> task, IntConsumer progress) throws IOException {
+    CancellationToken taskCancellation = new CancellationToken(cancellation);
+    CompletionService<R> completionService = new ExecutorCompletionService<>(executor);
+    List<Future<R>> futures = new ArrayList<>(items.size());
+    for (T item : items) {
+      futures.add(completionService.submit(() -> {
+        // the tasks not yet started when another one fails don't start at all
+        taskCancellation.throwIfCancelled("The parallel tasks have been cancelled.");
+        return task.run(item, taskCancellation);
+      }));
+    }
+
+    Throwable failure = null;
+    boolean interrupted = false;
+    int numDone = 0;
+    while (numDone < items.size()) {
+      try {
+        completionService.take().get();
+        numDone++;
+        if (failure == null) {
+          progress.accept(numDone);
+        }
+      } catch (ExecutionException e) {
+        numDone++;
+        if (failure == null) {
+          failure = e.getCause();
+          taskCancellation.cancel();
+        }
+      } catch (InterruptedException e) {
+        // keep waiting for the running tasks to stop, so that they don't outlive the call
+        interrupted = true;
+        taskCancellation.cancel();
+      }
+    }
+    if (interrupted) {
+      Thread.currentThread().interrupt();
+      if (failure == null) {
+        failure = new CancellationException("Interrupted while waiting for the tasks.");
+      }
+    }
+
+    if (failure instanceof IOException cause) {
+      throw cause;
+    }
+    if (failure instanceof RuntimeException cause) {
+      throw cause;
+    }
+    if (failure instanceof Error cause) {
+      throw cause;
+    }
+    if (failure != null) {
+      // the tasks can only throw IOException among the checked exceptions
+      throw new IllegalStateException(failure);
+    }
+
+    List<R> results = new ArrayList<>(items.size());
+    for (Future<R> future : futures) {
+      results.add(future.resultNow());
+    }
+    return results;
+  }
+
+  /**
+   * A task run for an item.
+   *
+   * @param <T> the type of the items
+   * @param <R> the type of the results
+   */
+  @FunctionalInterface
+  public interface Task<T, R> {
+
+    /**
+     * @param item - the item to run the task for
+     * @param cancellation - the token to stop the task with, cancelled when the caller's token is, or when another
+     *                     task fails
+     */
+    R run(T item, CancellationToken cancellation) throws IOException;
+  }
+
+  private ParallelTasks() {
+  }
+}
@@ -0,0 +1,254 @@
+//Copyright 2026 Tamás Balog. Use of this source code is governed by the Apache 2.0 license that can be found in the LICENSE file.
+package com.picimako.org.apache.lucene.luke.models.util;
+
+import org.apache.lucene.index.FilterLeafReader;
+import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.index.LeafReader;
+import org.apache.lucene.index.LeafReaderContext;
+import org.apache.lucene.index.SegmentReader;
+import org.apache.lucene.luke.util.LoggerFactory;
+import org.apache.lucene.util.NamedThreadFactory;
+import org.apache.lucene.util.StringHelper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.invoke.MethodHandles;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Stream;
+
+/**
+ * On-disk cache of statistics computed from index segments.
+ * <p>
+ * Segments are immutable, and they are identified by {@link org.apache.lucene.index.SegmentInfo#getId()}, so statistics
+ * computed from a segment's postings, points, vectors, etc. never have to be recomputed once they are cached. Statistics
+ * that depend on multiple segments, e.g. the number of unique terms in a field, are cached by the set of segment ids
+ * of the reader, see {@link #readerKey(IndexReader)}.
+ * <p>
+ * Each key is stored in a separate properties file. The cache directory is only accessed when a statistic is first
+ * looked up or stored, i.e. on the threads computing the statistics, at which point files that haven't been used for
+ * {@link #MAX_AGE} are deleted. At most {@link #MAX_LOADED_KEYS} keys are kept in memory, the least recently used
+ * ones are evicted. New values are not written right away, but batched and written by a background thread, or when
+ * their key is evicted. Failing to read or write the cache is logged, and is otherwise handled as a cache miss.
+ */
+public final class StatsCache {
+
+  private static final Logger log = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+
+  private static final Duration MAX_AGE = Duration.ofDays(30);
+
+  private static final String FILE_EXTENSION = ".properties";
+
+  /** The max number of keys whose statistics are kept in memory. */
+  private static final int MAX_LOADED_KEYS = 256;
+
+  /** The number of seconds new values are batched for before they are written to disk. */
+  private static final long WRITE_DELAY_SECONDS = 5;
+
+  /** A cache that doesn't store anything. */
+  public static final StatsCache NONE = new StatsCache(null);
+
+  private final Path cacheDir;
+
+  /** The statistics of the loaded keys, in access order. */
+  private final Map<String, Properties> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+  /** The keys with values not written to disk yet. */
+  private final Set<String> dirtyKeys = new HashSet<>();
+
+  private final ScheduledThreadPoolExecutor writer;
+
+  /** Whether the cache directory has been set up, successfully or not. */
+  private boolean initialized;
+
+  /** Whether the cache directory is usable. */
+  private boolean available;
+
+  private boolean writeScheduled;
+
+  private StatsCache(Path cacheDir) {
+    this.cacheDir = cacheDir;
+    if (cacheDir != null) {
+      writer = new ScheduledThreadPoolExecutor(1, new NamedThreadFactory("stats-cache-writer"));
+      writer.setKeepAliveTime(30, TimeUnit.SECONDS);
+      writer.allowCoreThreadTimeOut(true);
+    } else {
+      writer = null;
+    }
+  }
+
+  /**
+   * Returns a cache in the given directory. The directory is created, if it doesn't exist, when the cache is first
+   * used. If it cannot be created, the cache doesn't store anything.
+   */
+  public static StatsCache open(Path cacheDir) {
+    return new StatsCache(Objects.requireNonNull(cacheDir));
+  }
+
+  /**
+   * Returns the cache key of the segment behind the given leaf reader, or empty if the leaf is not a segment reader.
+   */
+  public static Optional<String> segmentKey(LeafReader leaf) {
+    if (FilterLeafReader.unwrap(leaf) instanceof SegmentReader segmentReader) {
+      return Optional.of("segment-" + StringHelper.idToString(segmentReader.getSegmentInfo().info.getId()));
+    }
+    return Optional.empty();
+  }
+
+  /**
+   * Returns the cache key of the given reader, derived from the ids of all its segments, or empty if any of
+   * its leaves is not a segment reader.
+   */
+  public static Optional<String> readerKey(IndexReader reader) {
+    List<String> segmentKeys = new ArrayList<>();
+    for (LeafReaderContext leaf : reader.leaves()) {
+      Optional<String> segmentKey = segmentKey(leaf.reader());
+      if (segmentKey.isEmpty()) {
+        return Optional.empty();
+      }
+      segmentKeys.add(segmentKey.get());
+    }
+    segmentKeys.sort(null);
+    try {
+      MessageDigest digest = MessageDigest.getInstance("SHA-256");
+      for (String segmentKey : segmentKeys) {
+        digest.update(segmentKey.getBytes(StandardCharsets.UTF_8));
+      }
+      return Optional.of("reader-" + HexFormat.of().formatHex(digest.digest()));
+    } catch (NoSuchAlgorithmException e) {
+      return Optional.empty();
+    }
+  }
+
+  /**
+   * Returns the cached value of the given statistic, or empty if it is not cached.
+   */
+  public synchronized Optional<String> get(String key, String stat) {
+    if (!isAvailable()) {
+      return Optional.empty();
+    }
+    return Optional.ofNullable(load(key).getProperty(stat));
+  }
+
+  /**
+   * Caches the value of the given statistic. It is written to disk in the background, together with the other
+   * values stored in the meantime.
+   */
+  public synchronized void put(String key, String stat, String value) {
+    if (!isAvailable()) {
+      return;
+    }
+    load(key).setProperty(stat, value);
+    dirtyKeys.add(key);
+    if (!writeScheduled) {
+      writeScheduled = true;
+      writer.schedule(this::flush, WRITE_DELAY_SECONDS, TimeUnit.SECONDS);
+    }
+  }
+
+  /**
+   * Writes the values not written to disk yet.
+   */
+  public synchronized void flush() {
+    writeScheduled = false;
+    for (String key : dirtyKeys) {
+      write(key, entries.get(key));
+    }
+    dirtyKeys.clear();
+  }
+
+  /** Sets up the cache directory on first use, and returns whether it is usable. */
+  private boolean isAvailable() {
+    if (cacheDir != null && !initialized) {
+      initialized = true;
+      try {
+        Files.createDirectories(cacheDir);
+        deleteExpiredEntries();
+        available = true;
+      } catch (IOException e) {
+        log.log(Level.WARNING, "Cannot open statistics cache in " + cacheDir + ". Statistics won't be cached.", e);
+      }
+    }
+    return available;
+  }
+
+  private Properties load(String key) {
+    Properties loaded = entries.get(key);
+    if (loaded != null) {
+      return loaded;
+    }
+
+    Properties properties = new Properties();
+    Path file = file(key);
+    if (Files.exists(file)) {
+      try (InputStream in = Files.newInputStream(file)) {
+        properties.load(in);
+        // marks the file as recently used, so that it doesn't expire
+        Files.setLastModifiedTime(file, FileTime.from(Instant.now()));
+      } catch (IOException | IllegalArgumentException e) {
+        log.log(Level.WARNING, "Cannot read statistics cache file " + file, e);
+      }
+    }
+    entries.put(key, properties);
+    if (entries.size() > MAX_LOADED_KEYS) {
+      Iterator<Map.Entry<String, Properties>> leastRecentlyUsed = entries.entrySet().iterator();
+      Map.Entry<String, Properties> evicted = leastRecentlyUsed.next();
+      leastRecentlyUsed.remove();
+      if (dirtyKeys.remove(evicted.getKey())) {
+        write(evicted.getKey(), evicted.getValue());
+      }
+    }
+    return properties;
+  }
+
+  private void write(String key, Properties properties) {
+    Path file = file(key);
+    Path tmpFile = cacheDir.resolve(key + ".tmp");
+    try {
+      try (OutputStream out = Files.newOutputStream(tmpFile)) {
+        properties.store(out, null);
+      }
+      Files.move(tmpFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    } catch (IOException e) {
+      log.log(Level.WARNING, "Cannot write statistics cache file " + file, e);
+    }
+  }
+
+  private Path file(String key) {
+    return cacheDir.resolve(key + FILE_EXTENSION);
+  }
+
+  private void deleteExpiredEntries() throws IOException {
+    Instant expiry = Instant.now().minus(MAX_AGE);
+    try (Stream<Path> files = Files.list(cacheDir)) {
+      for (Path file : files.filter(f -> f.getFileName().toString().endsWith(FILE_EXTENSION)).toList()) {
+        if (Files.getLastModifiedTime(file).toInstant().isBefore(expiry)) {
+          Files.deleteIfExists(file);
+        }
+      }
+    }
+  }
+}